@@ -8,25 +8,54 @@ import org.smartparam.engine.core.function.Function;
 import org.smartparam.function.jdbc.core.FunctionParam;
 import org.smartparam.function.jdbc.dao.FunctionDAO;
 import org.smartparam.function.jdbc.function.EditableFunctionRepository;
+import org.smartparam.function.jdbc.function.FunctionChangeListener;
 import org.smartparam.function.jdbc.function.GroovyFunction;
+import org.smartparam.function.jdbc.function.VersionedFunctionRepository;
+import org.smartparam.repository.jdbc.FoundEntriesCache;
 import org.smartparam.repository.jdbc.JdbcParamRepository;
 import org.smartparam.repository.jdbc.batch.JdbcParameterEntryBatchLoaderFactory;
 import org.smartparam.repository.jdbc.dao.JdbcRepository;
+import org.smartparam.repository.jdbc.dao.ParameterEntryBulkWriter;
 import org.smartparam.repository.jdbc.schema.SchemaCreator;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class JdbcFunctionAndParamRepository extends JdbcParamRepository implements EditableFunctionRepository {
+public class JdbcFunctionAndParamRepository extends JdbcParamRepository implements EditableFunctionRepository, VersionedFunctionRepository {
 
     private final FunctionDAO functionDAO;
 
+    private final List<FunctionChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
     public JdbcFunctionAndParamRepository(
             TransactionRunner operationRunner,
             JdbcParameterEntryBatchLoaderFactory batchLoaderFactory,
             FunctionDAO functionDAO,
             JdbcRepository paramDao,
             SchemaCreator schemaCreator) {
-        super(operationRunner, batchLoaderFactory, paramDao, schemaCreator);
+        this(operationRunner, batchLoaderFactory, functionDAO, paramDao, schemaCreator, null);
+    }
+
+    public JdbcFunctionAndParamRepository(
+            TransactionRunner operationRunner,
+            JdbcParameterEntryBatchLoaderFactory batchLoaderFactory,
+            FunctionDAO functionDAO,
+            JdbcRepository paramDao,
+            SchemaCreator schemaCreator,
+            ParameterEntryBulkWriter bulkWriter) {
+        this(operationRunner, batchLoaderFactory, functionDAO, paramDao, schemaCreator, bulkWriter, null);
+    }
+
+    public JdbcFunctionAndParamRepository(
+            TransactionRunner operationRunner,
+            JdbcParameterEntryBatchLoaderFactory batchLoaderFactory,
+            FunctionDAO functionDAO,
+            JdbcRepository paramDao,
+            SchemaCreator schemaCreator,
+            ParameterEntryBulkWriter bulkWriter,
+            FoundEntriesCache foundEntriesCache) {
+        super(operationRunner, batchLoaderFactory, paramDao, schemaCreator, bulkWriter, foundEntriesCache);
         this.functionDAO = functionDAO;
     }
 
@@ -37,7 +66,9 @@ public class JdbcFunctionAndParamRepository extends JdbcParamRepository implemen
 
     @Override
     public Long updateFunction(String functionName, List<FunctionParam> params, String body) {
-        return transactionRunner.run(queryRunner -> functionDAO.update(queryRunner, functionName, params, body));
+        Long updated = transactionRunner.run(queryRunner -> functionDAO.update(queryRunner, functionName, params, body));
+        notifyFunctionChanged(functionName);
+        return updated;
     }
 
     @Override
@@ -58,6 +89,21 @@ public class JdbcFunctionAndParamRepository extends JdbcParamRepository implemen
                 functionDAO.delete(queryRunner, functionName);
             }
         });
+        notifyFunctionChanged(functionName);
+    }
+
+    @Override
+    public Map<String, Long> getFunctionVersions() {
+        return transactionRunner.run(functionDAO::getFunctionVersions);
+    }
+
+    @Override
+    public void addFunctionChangeListener(FunctionChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    private void notifyFunctionChanged(String functionName) {
+        changeListeners.forEach(listener -> listener.functionChanged(functionName));
     }
 
     @Override
@@ -10,11 +10,13 @@ import org.smartparam.engine.config.pico.ComponentDefinition;
 import org.smartparam.function.jdbc.dao.FunctionDAO;
 import org.smartparam.function.jdbc.config.JdbcFunctionConfig;
 import org.smartparam.function.jdbc.schema.DefaultFunctionAndParamSchemaCreator;
+import org.smartparam.repository.jdbc.FoundEntriesCache;
 import org.smartparam.repository.jdbc.JdbcParamRepositoryConfig;
 import org.smartparam.repository.jdbc.batch.JdbcParameterEntryBatchLoaderFactory;
 import org.smartparam.repository.jdbc.dao.JdbcRepository;
 import org.smartparam.repository.jdbc.dao.LevelDAO;
 import org.smartparam.repository.jdbc.dao.ParameterDAO;
+import org.smartparam.repository.jdbc.dao.ParameterEntryBulkWriter;
 import org.smartparam.repository.jdbc.dao.ParameterEntryDAO;
 import org.smartparam.repository.jdbc.dao.SimpleJdbcRepository;
 import org.smartparam.repository.jdbc.schema.DefaultSchemaCreator;
@@ -40,6 +42,8 @@ public class JdbcFunctionAndParamRepositoryConfig extends JdbcParamRepositoryCon
         components.add(component(ParameterDAO.class, ParameterDAO.class));
         components.add(component(LevelDAO.class, LevelDAO.class));
         components.add(component(ParameterEntryDAO.class, ParameterEntryDAO.class));
+        components.add(component(ParameterEntryBulkWriter.class, ParameterEntryBulkWriter.class));
+        components.add(component(FoundEntriesCache.class, FoundEntriesCache.class));
         components.add(component(SimpleQueryRunner.class, SimpleQueryRunner.class));
         components.add(component(DefaultSchemaCreator.class, DefaultFunctionAndParamSchemaCreator.class));
         components.add(component(TransactionRunner.class, TransactionRunner.class));
@@ -0,0 +1,122 @@
+package org.smartparam.function.jdbc.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smartparam.engine.core.ParamEngine;
+import org.smartparam.engine.core.ParamEngineRuntimeConfig;
+import org.smartparam.engine.core.function.Function;
+import org.smartparam.engine.core.function.FunctionCache;
+import org.smartparam.engine.core.prepared.PreparedLevel;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.smartparam.function.jdbc.function.FunctionChangeListener;
+import org.smartparam.function.jdbc.function.GroovyFunction;
+import org.smartparam.function.jdbc.function.VersionedFunctionRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps cached functions in line with versions stored in repository, so updated
+ * functions are picked up by all nodes without restart. Each call to
+ * {@link #invalidateStaleFunctions()} reads versions of all functions in single
+ * query and evicts functions which version changed (or which were deleted) from
+ * function cache, together with prepared parameters that use them as level
+ * creators. Only those functions are loaded and compiled again, on next use.
+ * Use {@link StaleFunctionsPoller} to call it periodically.
+ *
+ * Changes made using repository on this node are applied right away.
+ */
+public class StaleFunctionsInvalidator implements FunctionChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleFunctionsInvalidator.class);
+
+    private final VersionedFunctionRepository repository;
+
+    private final FunctionCache functionCache;
+
+    private final PreparedParamCache paramCache;
+
+    private Map<String, Long> knownVersions = new HashMap<>();
+
+    public StaleFunctionsInvalidator(VersionedFunctionRepository repository, ParamEngine paramEngine) {
+        this(repository, paramEngine.runtimeConfiguration());
+    }
+
+    private StaleFunctionsInvalidator(VersionedFunctionRepository repository, ParamEngineRuntimeConfig runtimeConfig) {
+        this(repository, runtimeConfig.getFunctionCache(), runtimeConfig.getParamCache());
+    }
+
+    public StaleFunctionsInvalidator(VersionedFunctionRepository repository, FunctionCache functionCache, PreparedParamCache paramCache) {
+        this.repository = repository;
+        this.functionCache = functionCache;
+        this.paramCache = paramCache;
+        repository.addFunctionChangeListener(this);
+    }
+
+    public synchronized void invalidateStaleFunctions() {
+        Map<String, Long> currentVersions = repository.getFunctionVersions();
+
+        Set<String> staleFunctions = new HashSet<>();
+        for (Map.Entry<String, Long> version : currentVersions.entrySet()) {
+            if (isStale(version.getKey(), version.getValue())) {
+                staleFunctions.add(version.getKey());
+            }
+        }
+        for (String knownFunction : knownVersions.keySet()) {
+            if (!currentVersions.containsKey(knownFunction)) {
+                staleFunctions.add(knownFunction);
+            }
+        }
+
+        knownVersions = new HashMap<>(currentVersions);
+        invalidate(staleFunctions);
+    }
+
+    private boolean isStale(String functionName, Long version) {
+        Long knownVersion = knownVersions.get(functionName);
+        if (knownVersion != null) {
+            return !knownVersion.equals(version);
+        }
+        // first poll or function not seen before, compare with what is cached
+        Function cachedFunction = functionCache.get(functionName);
+        return cachedFunction instanceof GroovyFunction && ((GroovyFunction) cachedFunction).getVersion() != version;
+    }
+
+    @Override
+    public synchronized void functionChanged(String functionName) {
+        // next poll compares with reloaded function instead of reporting this change again
+        knownVersions.remove(functionName);
+        invalidate(Collections.singleton(functionName));
+    }
+
+    private void invalidate(Set<String> staleFunctions) {
+        if (staleFunctions.isEmpty()) {
+            return;
+        }
+        for (String functionName : staleFunctions) {
+            functionCache.invalidate(functionName);
+        }
+        for (String paramName : paramCache.cachedParameterNames()) {
+            PreparedParameter parameter = paramCache.peek(paramName);
+            if (parameter != null && usesAnyOf(parameter, staleFunctions)) {
+                paramCache.invalidate(paramName);
+                logger.debug("Invalidated {}, it uses stale level creator.", paramName);
+            }
+        }
+        logger.info("Invalidated stale functions: {}.", staleFunctions);
+    }
+
+    private boolean usesAnyOf(PreparedParameter parameter, Set<String> functionNames) {
+        for (PreparedLevel level : parameter.getLevels()) {
+            Function levelCreator = level.getLevelCreator();
+            if (levelCreator != null && functionNames.contains(levelCreator.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
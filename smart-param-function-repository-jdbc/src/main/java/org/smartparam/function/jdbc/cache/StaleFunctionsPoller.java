@@ -0,0 +1,59 @@
+package org.smartparam.function.jdbc.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically calls {@link StaleFunctionsInvalidator#invalidateStaleFunctions()}
+ * on single daemon thread.
+ */
+public class StaleFunctionsPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleFunctionsPoller.class);
+
+    private final StaleFunctionsInvalidator invalidator;
+
+    private final long interval;
+
+    private final TimeUnit intervalUnit;
+
+    private ScheduledExecutorService scheduler;
+
+    public StaleFunctionsPoller(StaleFunctionsInvalidator invalidator, long interval, TimeUnit intervalUnit) {
+        this.invalidator = invalidator;
+        this.interval = interval;
+        this.intervalUnit = intervalUnit;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smartparam-stale-functions-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, interval, interval, intervalUnit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void poll() {
+        try {
+            invalidator.invalidateStaleFunctions();
+        } catch (RuntimeException exception) {
+            // keep polling, next run might succeed
+            logger.warn("failed to invalidate stale functions", exception);
+        }
+    }
+}
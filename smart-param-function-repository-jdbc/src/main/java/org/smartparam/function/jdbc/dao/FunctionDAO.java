@@ -11,10 +11,16 @@ import org.smartparam.function.jdbc.core.FunctionParam;
 import org.smartparam.function.jdbc.config.JdbcFunctionConfig;
 import org.smartparam.function.jdbc.function.GroovyFunction;
 
+import java.util.AbstractMap;
 import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toMap;
 
 public class FunctionDAO {
 
+    private static final long FIRST_VERSION = 1;
+
     private final JdbcFunctionConfig configuration;
 
     public FunctionDAO(JdbcFunctionConfig configuration) {
@@ -32,6 +38,16 @@ public class FunctionDAO {
         return queryRunner.queryList(query, new FunctionMapper());
     }
 
+    /**
+     * @return name to version mapping of all functions, read in single query without function definitions
+     */
+    public Map<String, Long> getFunctionVersions(QueryRunner queryRunner) {
+        SelectQuery query = QueryFactory.select("name, version").from(configuration.functionEntityName());
+        List<Map.Entry<String, Long>> versions = queryRunner.queryList(query,
+                resultSet -> new AbstractMap.SimpleEntry<>(resultSet.getString("name"), FunctionMapper.version(resultSet)));
+        return versions.stream().collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
     public long insert(QueryRunner queryRunner, String function, List<FunctionParam> signature, String body) {
         FunctionMapper.SignatureMapper mapper = new FunctionMapper.SignatureMapper();
         InsertQuery query = QueryFactory.insert().into(configuration.functionEntityName())
@@ -39,7 +55,8 @@ public class FunctionDAO {
             .value("name", function)
             .value("signature", mapper.serialize(signature))
             .value("body", body)
-            .value("updated_timestamp", Timestamp.from(System.currentTimeMillis()));
+            .value("updated_timestamp", Timestamp.from(System.currentTimeMillis()))
+            .value("version", FIRST_VERSION);
         return queryRunner.insert(query);
     }
 
@@ -49,14 +66,36 @@ public class FunctionDAO {
         queryRunner.delete(query);
     }
 
+    /**
+     * Updates function definition and bumps its version. Version is compared
+     * and set in single statement, so concurrent updates (i.e. from other nodes)
+     * never end up with the same version.
+     */
     public long update(QueryRunner queryRunner, String functionName, List<FunctionParam> signature, String body) {
         FunctionMapper.SignatureMapper mapper = new FunctionMapper.SignatureMapper();
-        UpdateQuery query = QueryFactory.update(configuration.functionEntityName()).where("name = :name")
-            .withArgument("name", functionName)
-            .set("signature", mapper.serialize(signature))
-            .set("body", body)
-            .set("updated_timestamp", Timestamp.from(System.currentTimeMillis()));
+        while (true) {
+            Long version = getVersion(queryRunner, functionName);
+            if (version == null) {
+                return 0;
+            }
+            UpdateQuery query = QueryFactory.update(configuration.functionEntityName()).where("name = :name and version = :version")
+                .withArgument("name", functionName)
+                .withArgument("version", version)
+                .set("signature", mapper.serialize(signature))
+                .set("body", body)
+                .set("updated_timestamp", Timestamp.from(System.currentTimeMillis()))
+                .set("version", version + 1);
 
-        return queryRunner.update(query);
+            int updated = queryRunner.update(query);
+            if (updated > 0) {
+                return updated;
+            }
+        }
+    }
+
+    private Long getVersion(QueryRunner queryRunner, String functionName) {
+        SelectQuery query = QueryFactory.select("version").from(configuration.functionEntityName()).where("name = :name")
+            .withArgument("name", functionName);
+        return queryRunner.queryUnique(query, FunctionMapper::version, false);
     }
 }
@@ -38,7 +38,17 @@ public class FunctionMapper implements ObjectMapper<GroovyFunction> {
         SignatureMapper signatureMapper = new SignatureMapper();
         return new GroovyFunction(
                 resultSet.getString("name"),
-                signatureMapper.deserialize(resultSet.getString("signature")), resultSet.getString("body")
+                signatureMapper.deserialize(resultSet.getString("signature")), resultSet.getString("body"),
+                version(resultSet)
         );
     }
+
+    /**
+     * Version is a counter bumped on each update of function, update time alone
+     * would miss two updates that got the same timestamp (columns with second
+     * precision).
+     */
+    static long version(ResultSet resultSet) throws SQLException {
+        return resultSet.getLong("version");
+    }
 }
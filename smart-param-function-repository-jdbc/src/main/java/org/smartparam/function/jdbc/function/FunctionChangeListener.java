@@ -0,0 +1,10 @@
+package org.smartparam.function.jdbc.function;
+
+/**
+ * Notified right after function definition was changed or deleted using this
+ * node's repository.
+ */
+public interface FunctionChangeListener {
+
+    void functionChanged(String functionName);
+}
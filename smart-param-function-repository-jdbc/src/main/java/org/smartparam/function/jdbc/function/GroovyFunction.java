@@ -1,7 +1,8 @@
 package org.smartparam.function.jdbc.function;
 
-import groovy.lang.GroovyShell;
+import groovy.lang.Binding;
 import groovy.lang.Script;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.smartparam.engine.core.function.Function;
 import org.smartparam.function.jdbc.core.FunctionParam;
 
@@ -10,26 +11,52 @@ import java.util.List;
 public class GroovyFunction extends Function {
 
     public final static String FUNCTION_TYPE = "groovy";
+    public final static long NO_VERSION = 0;
     private final List<FunctionParam> signature;
     private final String body;
-    private Script script = null;
+    private final long version;
+    private volatile Class<? extends Script> scriptClass = null;
 
     public GroovyFunction(String name, List<FunctionParam> signature, String body) {
+        this(name, signature, body, NO_VERSION);
+    }
+
+    /**
+     * @param version version of function definition (bumped on each update),
+     * used to tell if cached function is stale
+     */
+    public GroovyFunction(String name, List<FunctionParam> signature, String body, long version) {
         super(name, FUNCTION_TYPE);
         this.signature = signature;
         this.body = body;
+        this.version = version;
     }
 
     public void initialize() {
-        script = new GroovyShell().parse(body);
+        initialize(new GroovyScriptCompiler());
+    }
+
+    /**
+     * Compile body to script class, compiled class is shared by all invocations.
+     */
+    public void initialize(GroovyScriptCompiler compiler) {
+        scriptClass = compiler.compile(body);
     }
 
     public boolean isInitialized() {
-        return script != null;
+        return scriptClass != null;
     }
 
-    public Script getScript() {
-        return script;
+    public Class<? extends Script> getScriptClass() {
+        return scriptClass;
+    }
+
+    /**
+     * Create new script instance with its own binding, so concurrent invocations
+     * do not share arguments.
+     */
+    public Script newScript(Binding binding) {
+        return InvokerHelper.createScript(scriptClass, binding);
     }
 
     public List<FunctionParam> getSignature() {
@@ -39,4 +66,8 @@ public class GroovyFunction extends Function {
     public String getBody() {
         return body;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -3,39 +3,82 @@ package org.smartparam.function.jdbc.function;
 import groovy.lang.Binding;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.smartparam.engine.core.function.CompilableFunctionInvoker;
+import org.smartparam.engine.core.function.CompiledFunction;
 import org.smartparam.engine.core.function.Function;
-import org.smartparam.engine.core.function.FunctionInvoker;
 import org.smartparam.function.jdbc.core.FunctionParam;
 
 import java.util.List;
 
 import static java.lang.Math.min;
 import static java.util.Arrays.asList;
-import static java.util.stream.IntStream.range;
 
-public class GroovyFunctionInvoker implements FunctionInvoker {
+/**
+ * Invokes Groovy functions. Function body is compiled once (see {@link GroovyScriptCompiler}),
+ * each invocation runs on its own script instance and binding, so the same
+ * function can be safely invoked concurrently. Each invoker owns its compiler,
+ * unless one is passed in.
+ */
+public class GroovyFunctionInvoker implements CompilableFunctionInvoker {
 
     private final Logger logger = LoggerFactory.getLogger(GroovyFunctionInvoker.class);
 
+    private final GroovyScriptCompiler compiler;
+
+    public GroovyFunctionInvoker() {
+        this(new GroovyScriptCompiler());
+    }
+
+    public GroovyFunctionInvoker(GroovyScriptCompiler compiler) {
+        this.compiler = compiler;
+    }
+
     @Override
     public Object invoke(Function function, Object... args) {
-        GroovyFunction groovyFunction = (GroovyFunction) function;
-        if (!groovyFunction.isInitialized())
-            groovyFunction.initialize();
-        Binding binding = groovyFunction.getScript().getBinding();
+        GroovyFunction groovyFunction = initialized((GroovyFunction) function);
         List<FunctionParam> signature = groovyFunction.getSignature();
         int suppliedArguments = min(args.length, signature.size());
-        if (args.length > groovyFunction.getSignature().size())
+        if (args.length > signature.size())
             logger.warn("Function: {} has been defined with {} arguments, while function invocation " +
                             "supplied {} actual arguments ({}). Following arguments will be ignored: {}",
                     function.getName(),
-                    groovyFunction.getSignature().size(),
+                    signature.size(),
                     args.length,
                     args,
-                    asList(args).subList(groovyFunction.getSignature().size(), args.length));
+                    asList(args).subList(signature.size(), args.length));
+
+        Binding binding = new Binding();
+        for (int i = 0; i < suppliedArguments; i++) {
+            binding.setVariable(signature.get(i).getName(), args[i]);
+        }
+        return groovyFunction.newScript(binding).run();
+    }
+
+    @Override
+    public CompiledFunction compile(Function function) {
+        GroovyFunction groovyFunction = initialized((GroovyFunction) function);
+        if (groovyFunction.getSignature().isEmpty()) {
+            return null;
+        }
+        String argumentName = groovyFunction.getSignature().get(0).getName();
+        return new CompiledFunction() {
+            @Override
+            public Function function() {
+                return groovyFunction;
+            }
+
+            @Override
+            public Object invoke(Object argument) {
+                Binding binding = new Binding();
+                binding.setVariable(argumentName, argument);
+                return groovyFunction.newScript(binding).run();
+            }
+        };
+    }
 
-        range(0, suppliedArguments)
-                .forEach(i -> binding.setProperty(signature.get(i).getName(), args[i]));
-        return groovyFunction.getScript().run();
+    private GroovyFunction initialized(GroovyFunction function) {
+        if (!function.isInitialized())
+            function.initialize(compiler);
+        return function;
     }
 }
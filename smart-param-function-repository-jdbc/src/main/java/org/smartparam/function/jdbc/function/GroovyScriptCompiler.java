@@ -0,0 +1,165 @@
+package org.smartparam.function.jdbc.function;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.Script;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiles function bodies into script classes. Compiled classes are cached by
+ * hash of body, so functions with the same body (or the same function loaded
+ * again from repository) are compiled only once.
+ *
+ * Cache holds compiled classes weakly and each class is defined by its own class
+ * loader, so once function is invalidated and no longer used its class can be
+ * garbage collected and cache entry is dropped.
+ *
+ * Compilation runs outside of the cache map: first thread registers pending
+ * script and compiles it, other threads asking for the same body wait for the
+ * result instead of compiling it again.
+ */
+public class GroovyScriptCompiler {
+
+    private static final String SCRIPT_CLASS_PREFIX = "GroovyFunction_";
+
+    // same code base GroovyShell uses for parsed scripts
+    private static final String CODE_BASE = "/groovy/shell";
+
+    private final ClassLoader parentClassLoader;
+
+    private final ConcurrentMap<String, CompiledScript> compiledScripts = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<Class<? extends Script>> collectedScripts = new ReferenceQueue<>();
+
+    public GroovyScriptCompiler() {
+        this(GroovyScriptCompiler.class.getClassLoader());
+    }
+
+    public GroovyScriptCompiler(ClassLoader parentClassLoader) {
+        this.parentClassLoader = parentClassLoader;
+    }
+
+    public Class<? extends Script> compile(String body) {
+        dropCollectedScripts();
+        String bodyHash = hash(body);
+        while (true) {
+            CompiledScript compiledScript = compiledScripts.get(bodyHash);
+            if (compiledScript == null) {
+                CompiledScript candidate = new CompiledScript(bodyHash);
+                compiledScript = compiledScripts.putIfAbsent(bodyHash, candidate);
+                if (compiledScript == null) {
+                    compiledScript = candidate;
+                    compileInto(candidate, body);
+                }
+            }
+            Class<? extends Script> scriptClass = compiledScript.await();
+            if (scriptClass != null) {
+                return scriptClass;
+            }
+            // class was collected, compile it again
+            compiledScripts.remove(bodyHash, compiledScript);
+        }
+    }
+
+    private void compileInto(CompiledScript compiledScript, String body) {
+        try {
+            Class<? extends Script> scriptClass = parse(compiledScript.bodyHash, body);
+            compiledScript.result.complete(new ScriptReference(compiledScript, scriptClass, collectedScripts));
+        } catch (RuntimeException | Error exception) {
+            // do not keep failure, next call will try again
+            compiledScripts.remove(compiledScript.bodyHash, compiledScript);
+            compiledScript.result.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<? extends Script> parse(String bodyHash, String body) {
+        GroovyCodeSource codeSource = new GroovyCodeSource(body, SCRIPT_CLASS_PREFIX + bodyHash + ".groovy", CODE_BASE);
+        // class loader per script, otherwise it would keep every class ever compiled
+        GroovyClassLoader classLoader = new GroovyClassLoader(parentClassLoader);
+        return (Class<? extends Script>) classLoader.parseClass(codeSource, false);
+    }
+
+    public int compiledScriptCount() {
+        dropCollectedScripts();
+        return compiledScripts.size();
+    }
+
+    /**
+     * Drop compiled classes, they will be garbage collected once no function
+     * refers to them.
+     */
+    public void clear() {
+        compiledScripts.clear();
+    }
+
+    private void dropCollectedScripts() {
+        ScriptReference reference;
+        while ((reference = (ScriptReference) collectedScripts.poll()) != null) {
+            compiledScripts.remove(reference.compiledScript.bodyHash, reference.compiledScript);
+        }
+    }
+
+    private static String hash(String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 not available", exception);
+        }
+    }
+
+    private static final class CompiledScript {
+
+        private final String bodyHash;
+
+        private final CompletableFuture<ScriptReference> result = new CompletableFuture<>();
+
+        CompiledScript(String bodyHash) {
+            this.bodyHash = bodyHash;
+        }
+
+        /**
+         * Waits for compilation and returns compiled class or null, if it was
+         * already garbage collected.
+         */
+        Class<? extends Script> await() {
+            try {
+                return result.join().get();
+            } catch (CompletionException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw exception;
+            }
+        }
+    }
+
+    private static final class ScriptReference extends WeakReference<Class<? extends Script>> {
+
+        private final CompiledScript compiledScript;
+
+        ScriptReference(CompiledScript compiledScript, Class<? extends Script> scriptClass, ReferenceQueue<Class<? extends Script>> queue) {
+            super(scriptClass, queue);
+            this.compiledScript = compiledScript;
+        }
+    }
+}
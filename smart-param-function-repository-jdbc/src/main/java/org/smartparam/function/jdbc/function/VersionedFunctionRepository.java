@@ -0,0 +1,19 @@
+package org.smartparam.function.jdbc.function;
+
+import org.smartparam.engine.core.function.FunctionRepository;
+
+import java.util.Map;
+
+/**
+ * Function repository that tracks version of each function definition, so
+ * nodes can find out which of cached functions are stale.
+ */
+public interface VersionedFunctionRepository extends FunctionRepository {
+
+    /**
+     * @return current versions of all functions, keyed by function name
+     */
+    Map<String, Long> getFunctionVersions();
+
+    void addFunctionChangeListener(FunctionChangeListener listener);
+}
@@ -49,6 +49,7 @@ public class DefaultFunctionAndParamSchemaCreator extends DefaultSchemaCreator {
                 .withAttribute().text("signature").notNull().and()
                 .withAttribute().text("body").notNull().and()
                 .withAttribute().timestamp("updated_timestamp").and()
+                .withAttribute().longAttr("version").notNull().withDefaultValue(1).and()
                 .primaryKey(primaryKey(relationName)).using("id").and()
                 .build();
             schema.addIndex(index(relationName) + "_id").indexing("id").on(relationName).build();
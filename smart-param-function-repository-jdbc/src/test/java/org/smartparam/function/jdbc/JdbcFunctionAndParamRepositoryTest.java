@@ -3,11 +3,14 @@ package org.smartparam.function.jdbc;
 import org.smartparam.engine.core.function.Function;
 import org.smartparam.engine.core.function.FunctionInvoker;
 import org.smartparam.function.jdbc.core.FunctionParam;
+import org.smartparam.function.jdbc.function.GroovyFunction;
 import org.smartparam.function.jdbc.function.GroovyFunctionInvoker;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.testng.AssertJUnit.assertEquals;
@@ -42,4 +45,42 @@ class JdbcFunctionAndParamRepositoryTest extends DatabaseTest {
         assertEquals("testFunction1", functions.get(0).getName());
         assertEquals("testFunction2", functions.get(1).getName());
     }
+
+    @Test
+    void shouldReturnVersionsOfAllFunctions() {
+        JdbcFunctionAndParamRepository repository = get(JdbcFunctionAndParamRepository.class);
+
+        repository.createFunction("testFunction", Collections.emptyList(), "1");
+        GroovyFunction function = repository.getFunction("testFunction");
+
+        Map<String, Long> versions = repository.getFunctionVersions();
+
+        assertEquals(1, versions.size());
+        assertEquals(Long.valueOf(function.getVersion()), versions.get("testFunction"));
+    }
+
+    @Test
+    void shouldBumpVersionOnEachUpdate() {
+        JdbcFunctionAndParamRepository repository = get(JdbcFunctionAndParamRepository.class);
+
+        repository.createFunction("testFunction", Collections.emptyList(), "1");
+        long createdVersion = repository.getFunctionVersions().get("testFunction");
+        repository.updateFunction("testFunction", Collections.emptyList(), "2");
+        repository.updateFunction("testFunction", Collections.emptyList(), "1");
+
+        assertEquals(createdVersion + 2, repository.getFunctionVersions().get("testFunction").longValue());
+        assertEquals(createdVersion + 2, repository.getFunction("testFunction").getVersion());
+    }
+
+    @Test
+    void shouldNotifyListenersAboutUpdatedFunction() {
+        JdbcFunctionAndParamRepository repository = get(JdbcFunctionAndParamRepository.class);
+        List<String> changedFunctions = new ArrayList<>();
+        repository.addFunctionChangeListener(changedFunctions::add);
+
+        repository.createFunction("testFunction", Collections.emptyList(), "1");
+        repository.updateFunction("testFunction", Collections.emptyList(), "2");
+
+        assertEquals(asList("testFunction"), changedFunctions);
+    }
 }
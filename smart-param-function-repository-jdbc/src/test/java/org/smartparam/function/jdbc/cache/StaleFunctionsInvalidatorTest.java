@@ -0,0 +1,121 @@
+package org.smartparam.function.jdbc.cache;
+
+import org.smartparam.engine.cache.MapFunctionCache;
+import org.smartparam.engine.cache.MapPreparedParamCache;
+import org.smartparam.engine.core.function.FunctionCache;
+import org.smartparam.engine.core.prepared.PreparedLevel;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.smartparam.function.jdbc.function.GroovyFunction;
+import org.smartparam.function.jdbc.function.VersionedFunctionRepository;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StaleFunctionsInvalidatorTest {
+
+    private VersionedFunctionRepository repository;
+
+    private FunctionCache functionCache;
+
+    private PreparedParamCache paramCache;
+
+    private StaleFunctionsInvalidator invalidator;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = mock(VersionedFunctionRepository.class);
+        functionCache = new MapFunctionCache();
+        paramCache = new MapPreparedParamCache();
+        invalidator = new StaleFunctionsInvalidator(repository, functionCache, paramCache);
+    }
+
+    @Test
+    public void shouldInvalidateCachedFunctionWithOutdatedVersion() {
+        // given
+        functionCache.put("stale", function("stale", 1));
+        functionCache.put("current", function("current", 2));
+        when(repository.getFunctionVersions()).thenReturn(versions("stale", 5L, "current", 2L));
+
+        // when
+        invalidator.invalidateStaleFunctions();
+
+        // then
+        assertThat(functionCache.get("stale")).isNull();
+        assertThat(functionCache.get("current")).isNotNull();
+    }
+
+    @Test
+    public void shouldInvalidateFunctionWhichVersionChangedSincePreviousPoll() {
+        // given
+        when(repository.getFunctionVersions()).thenReturn(versions("function", 1L));
+        invalidator.invalidateStaleFunctions();
+        functionCache.put("function", function("function", 1));
+        when(repository.getFunctionVersions()).thenReturn(versions("function", 2L));
+
+        // when
+        invalidator.invalidateStaleFunctions();
+
+        // then
+        assertThat(functionCache.get("function")).isNull();
+    }
+
+    @Test
+    public void shouldInvalidateDeletedFunction() {
+        // given
+        when(repository.getFunctionVersions()).thenReturn(versions("function", 1L));
+        invalidator.invalidateStaleFunctions();
+        functionCache.put("function", function("function", 1));
+        when(repository.getFunctionVersions()).thenReturn(Collections.<String, Long>emptyMap());
+
+        // when
+        invalidator.invalidateStaleFunctions();
+
+        // then
+        assertThat(functionCache.get("function")).isNull();
+    }
+
+    @Test
+    public void shouldEvictPreparedParametersThatUseChangedFunctionAsLevelCreator() {
+        // given
+        GroovyFunction function = function("function", 1);
+        functionCache.put("function", function);
+        paramCache.put("using", parameter(function));
+        paramCache.put("notUsing", parameter(null));
+
+        // when
+        invalidator.functionChanged("function");
+
+        // then
+        assertThat(functionCache.get("function")).isNull();
+        assertThat(paramCache.get("using")).isNull();
+        assertThat(paramCache.get("notUsing")).isNotNull();
+    }
+
+    private GroovyFunction function(String name, long version) {
+        return new GroovyFunction(name, Collections.emptyList(), "1", version);
+    }
+
+    private PreparedParameter parameter(GroovyFunction levelCreator) {
+        PreparedParameter parameter = mock(PreparedParameter.class);
+        when(parameter.getLevels()).thenReturn(new PreparedLevel[]{
+                new PreparedLevel("level", false, null, null, null, levelCreator)
+        });
+        return parameter;
+    }
+
+    private Map<String, Long> versions(Object... nameVersionPairs) {
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < nameVersionPairs.length; i += 2) {
+            versions.put((String) nameVersionPairs[i], (Long) nameVersionPairs[i + 1]);
+        }
+        return versions;
+    }
+}
@@ -27,10 +27,23 @@ class FunctionMapperTest {
         function.initialize();
 
         assertEquals("testFunction", function.getName());
-        assertNotNull(function.getScript());
+        assertNotNull(function.getScriptClass());
         assertEquals("a", function.getSignature().get(0).getName());
         assertEquals("String", function.getSignature().get(0).getType());
         assertEquals("b", function.getSignature().get(1).getName());
         assertEquals("String", function.getSignature().get(1).getType());
     }
+
+    @Test
+    public void shouldReadVersionFromVersionColumn() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("name")).thenReturn("testFunction");
+        when(resultSet.getString("signature")).thenReturn("a:String");
+        when(resultSet.getString("body")).thenReturn("return a");
+        when(resultSet.getLong("version")).thenReturn(3L);
+
+        GroovyFunction function = new FunctionMapper().createObject(resultSet);
+
+        assertEquals(3L, function.getVersion());
+    }
 }
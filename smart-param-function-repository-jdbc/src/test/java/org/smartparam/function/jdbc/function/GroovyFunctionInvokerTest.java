@@ -1,12 +1,19 @@
 package org.smartparam.function.jdbc.function;
 
 import groovy.lang.MissingPropertyException;
+import org.smartparam.function.jdbc.core.FunctionParam;
 import org.smartparam.function.jdbc.dao.FunctionMapper;
 import org.testng.annotations.Test;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -47,4 +54,50 @@ class GroovyFunctionInvokerTest {
 
         assertThrows(MissingPropertyException.class, () -> invoker.invoke(function));
     }
+
+    @Test
+    void shouldNotMixArgumentsOfConcurrentInvocations() throws Exception {
+        GroovyFunction function = new GroovyFunction("testFunction",
+                asList(new FunctionParam("a", "Integer"), new FunctionParam("b", "Integer")),
+                "Thread.yield(); return a * 1000 + b");
+        GroovyFunctionInvoker invoker = new GroovyFunctionInvoker();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            int a = thread;
+            results.add(executor.submit(() -> {
+                for (int b = 0; b < 1000; b++) {
+                    if (((Number) invoker.invoke(function, a, b)).intValue() != a * 1000 + b)
+                        return false;
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldCompileSameBodyOnlyOnce() {
+        GroovyScriptCompiler compiler = new GroovyScriptCompiler();
+        GroovyFunction first = new GroovyFunction("first", asList(new FunctionParam("a", "String")), "return a");
+        GroovyFunction second = new GroovyFunction("second", asList(new FunctionParam("a", "String")), "return a");
+
+        first.initialize(compiler);
+        second.initialize(compiler);
+
+        assertSame(first.getScriptClass(), second.getScriptClass());
+        assertEquals(1, compiler.compiledScriptCount());
+    }
+
+    @Test
+    void shouldCompileFunctionWithSingleArgument() {
+        GroovyFunction function = new GroovyFunction("testFunction", asList(new FunctionParam("ctx", "String")), "return ctx + '!'");
+        GroovyFunctionInvoker invoker = new GroovyFunctionInvoker();
+
+        assertEquals("Hello!", invoker.compile(function).invoke("Hello"));
+    }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import org.smartparam.engine.annotated.annotations.JavaPlugin;
+
+/**
+ * Functions registered via annotation scanning, called from
+ * {@link EvaluatedFunctionBenchmark}.
+ *
+ * @author Adam Dubiel
+ */
+public final class BenchmarkFunctions {
+
+    public static final String IDENTITY = "benchmark.identity";
+
+    private BenchmarkFunctions() {
+    }
+
+    @JavaPlugin(IDENTITY)
+    public static Object identity(Object value) {
+        return value;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.smartparam.engine.core.parameter.ParamRepository;
+import org.smartparam.engine.core.parameter.Parameter;
+import org.smartparam.engine.core.parameter.ParameterBatchLoader;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+
+/**
+ * Map backed repository holding generated parameters, so that benchmarks
+ * measure engine and not the storage.
+ *
+ * @author Adam Dubiel
+ */
+public class BenchmarkParamRepository implements ParamRepository {
+
+    private final Map<String, Parameter> parameters = new ConcurrentHashMap<String, Parameter>();
+
+    public BenchmarkParamRepository add(Parameter parameter) {
+        parameters.put(parameter.getName(), parameter);
+        return this;
+    }
+
+    @Override
+    public Parameter load(String parameterName) {
+        return parameters.get(parameterName);
+    }
+
+    @Override
+    public ParameterBatchLoader batchLoad(String parameterName) {
+        Parameter parameter = load(parameterName);
+        if (parameter == null) {
+            return null;
+        }
+        return new ParameterBatchLoader(parameter, new BenchmarkParameterEntryBatchLoader(parameter));
+    }
+
+    @Override
+    public Set<ParameterEntry> findEntries(String parameterName, String[] levelValues) {
+        return null;
+    }
+
+    @Override
+    public Set<String> listParameters() {
+        return parameters.keySet();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+/**
+ * Shape of input levels in generated parameter, each shape exercises different
+ * path of index walker.
+ *
+ * @author Adam Dubiel
+ */
+public enum LevelMatching {
+
+    /**
+     * String levels matched by exact lookup in level node children map.
+     */
+    EXACT,
+    /**
+     * Same as {@link #EXACT}, but some of entries use default (*) value on last
+     * level, so part of queries have to backtrack to default node.
+     */
+    DEFAULT,
+    /**
+     * Integer ranges matched using between/ie matcher, which means linear scan
+     * over node children.
+     */
+    BETWEEN,
+    /**
+     * Integer levels matched using equals/type matcher.
+     */
+    TYPE
+}
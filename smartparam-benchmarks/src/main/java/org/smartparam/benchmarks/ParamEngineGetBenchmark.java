@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartparam.engine.core.output.DetailedParamValue;
+import org.smartparam.engine.core.output.ParamValue;
+
+/**
+ * Basic parameter lookups: {@link org.smartparam.engine.core.ParamEngine#get(String, org.smartparam.engine.core.context.ParamContext)}
+ * with level values known upfront, lookup with level values passed as varargs
+ * and detailed lookup.
+ *
+ * @author Adam Dubiel
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParamEngineGetBenchmark {
+
+    @Benchmark
+    public ParamValue get(ParamEngineState state, QueryCursor cursor) {
+        return state.engine.get(ParamEngineState.VALUE_PARAMETER, state.contexts[cursor.next(state.queryCount())]);
+    }
+
+    @Benchmark
+    public ParamValue getWithInputLevels(ParamEngineState state, QueryCursor cursor) {
+        return state.engine.get(ParamEngineState.VALUE_PARAMETER, state.queries[cursor.next(state.queryCount())]);
+    }
+
+    @Benchmark
+    public DetailedParamValue getDetailed(ParamEngineState state, QueryCursor cursor) {
+        return state.engine.getDetailed(ParamEngineState.VALUE_PARAMETER, state.contexts[cursor.next(state.queryCount())]);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.smartparam.engine.config.ParamEngineConfig;
+import org.smartparam.engine.config.ParamEngineConfigBuilder;
+import org.smartparam.engine.config.ParamEngineFactory;
+import org.smartparam.engine.core.ParamEngine;
+import org.smartparam.engine.core.context.LevelValues;
+import org.smartparam.engine.core.context.ParamContext;
+import org.smartparam.engine.core.prepared.PreparationConfig;
+
+/**
+ * Engine shared by all benchmark threads, with parameters generated according
+ * to benchmark params. Parameters are loaded and prepared during setup, so
+ * measurements cover only lookup.
+ *
+ * @author Adam Dubiel
+ */
+@State(Scope.Benchmark)
+public class ParamEngineState {
+
+    public static final String VALUE_PARAMETER = "benchmark.value";
+
+    public static final String FUNCTION_PARAMETER = "benchmark.function";
+
+    private static final int QUERY_COUNT = 1024;
+
+    private static final long QUERY_SEED = 42;
+
+    @Param({"1", "2", "4", "8"})
+    public int levels;
+
+    @Param({"100", "10000", "1000000"})
+    public int entries;
+
+    @Param({"EXACT", "DEFAULT", "BETWEEN", "TYPE"})
+    public LevelMatching matching;
+
+    @Param({"false", "true"})
+    public boolean compiledIndex;
+
+    @Param({"false", "true"})
+    public boolean preDecodedOutputValues;
+
+    ParamEngine engine;
+
+    Object[][] queries;
+
+    ParamContext[] contexts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticParameters generator = new SyntheticParameters(levels, entries, matching);
+
+        BenchmarkParamRepository repository = new BenchmarkParamRepository()
+                .add(generator.valueParameter(VALUE_PARAMETER))
+                .add(generator.functionParameter(FUNCTION_PARAMETER, BenchmarkFunctions.IDENTITY));
+
+        ParamEngineConfig config = ParamEngineConfigBuilder.paramEngineConfig()
+                .withPackagesToScan(BenchmarkFunctions.class.getPackage().getName())
+                .withParameterRepository(repository)
+                .withPreparationConfig(preparationConfig())
+                .build();
+        engine = ParamEngineFactory.paramEngine(config);
+
+        queries = generator.queries(QUERY_COUNT, QUERY_SEED);
+        contexts = new ParamContext[queries.length];
+        for (int queryIndex = 0; queryIndex < queries.length; ++queryIndex) {
+            contexts[queryIndex] = new LevelValues(queries[queryIndex]);
+        }
+
+        // load and prepare parameters before measurement starts
+        engine.get(VALUE_PARAMETER, contexts[0]);
+        engine.get(FUNCTION_PARAMETER, contexts[0]);
+    }
+
+    private PreparationConfig preparationConfig() {
+        PreparationConfig config = PreparationConfig.preparationConfig();
+        if (compiledIndex) {
+            config.withCompiledIndex();
+        }
+        if (preDecodedOutputValues) {
+            config.withPreDecodedOutputValues();
+        }
+        return config;
+    }
+
+    int queryCount() {
+        return queries.length;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartparam.engine.core.output.DetailedParamValue;
+import org.smartparam.engine.report.query.ParamQuery;
+
+/**
+ * Query using customizable index walker, which is built anew for each query
+ * and uses slower, configurable path through index.
+ *
+ * @author Adam Dubiel
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParamQueryBenchmark {
+
+    @Benchmark
+    public DetailedParamValue execute(ParamEngineState state, QueryCursor cursor) {
+        return ParamQuery.select(state.engine)
+                .fromParameter(ParamEngineState.VALUE_PARAMETER)
+                .askingFor(state.contexts[cursor.next(state.queryCount())])
+                .execute();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in query table, so that consecutive invocations ask
+ * for different entries instead of hitting the same path over and over.
+ *
+ * @author Adam Dubiel
+ */
+@State(Scope.Thread)
+public class QueryCursor {
+
+    private int position;
+
+    /**
+     * Returns index of next query, query count has to be a power of two.
+     */
+    int next(int queryCount) {
+        position = (position + 1) & (queryCount - 1);
+        return position;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.benchmarks;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.smartparam.editor.model.simple.SimpleLevel;
+import org.smartparam.editor.model.simple.SimpleParameter;
+import org.smartparam.editor.model.simple.SimpleParameterEntry;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.matchers.BetweenMatcher;
+import org.smartparam.engine.matchers.TypeMatcher;
+import org.smartparam.engine.types.integer.IntegerType;
+import org.smartparam.engine.types.number.NumberType;
+import org.smartparam.engine.types.string.StringType;
+
+/**
+ * Generator of synthetic parameters of given shape. Entry keys are created by
+ * writing entry number in positional system with base chosen so that all
+ * entries are unique, which gives evenly populated index tree. Query values
+ * are always computed from existing entries, so every query hits.
+ *
+ * @author Adam Dubiel
+ */
+public class SyntheticParameters {
+
+    public static final String OUTPUT_LEVEL = "value";
+
+    private static final int RANGE_WIDTH = 10;
+
+    private final int levelCount;
+
+    private final int entryCount;
+
+    private final LevelMatching matching;
+
+    private final int base;
+
+    public SyntheticParameters(int levelCount, int entryCount, LevelMatching matching) {
+        this.levelCount = levelCount;
+        this.entryCount = entryCount;
+        this.matching = matching;
+        this.base = base(levelCount, entryCount);
+    }
+
+    private static int base(int levelCount, int entryCount) {
+        int base = 2;
+        while (Math.pow(base, levelCount) < entryCount) {
+            base++;
+        }
+        return base;
+    }
+
+    public static String levelName(int levelIndex) {
+        return "level" + levelIndex;
+    }
+
+    /**
+     * Parameter returning entry number as output value (number).
+     */
+    public SimpleParameter valueParameter(String name) {
+        SimpleParameter parameter = parameter(name, NumberType.TYPE_NAME);
+        parameter.setEntries(entries(null));
+        return parameter;
+    }
+
+    /**
+     * Parameter returning name of function as output value (string), for
+     * {@link org.smartparam.engine.core.ParamEngine#callEvaluatedFunction(String, org.smartparam.engine.core.context.ParamContext, Object...)}.
+     */
+    public SimpleParameter functionParameter(String name, String functionName) {
+        SimpleParameter parameter = parameter(name, StringType.TYPE_NAME);
+        parameter.setEntries(entries(functionName));
+        return parameter;
+    }
+
+    private SimpleParameter parameter(String name, String outputType) {
+        SimpleParameter parameter = new SimpleParameter().withName(name).withInputLevels(levelCount);
+        for (int levelIndex = 0; levelIndex < levelCount; ++levelIndex) {
+            parameter.withLevel(inputLevel(levelIndex));
+        }
+        parameter.withLevel(new SimpleLevel().withName(OUTPUT_LEVEL).withType(outputType));
+        return parameter;
+    }
+
+    private SimpleLevel inputLevel(int levelIndex) {
+        SimpleLevel level = new SimpleLevel().withName(levelName(levelIndex));
+        switch (matching) {
+            case BETWEEN:
+                return level.withType(IntegerType.TYPE_NAME).withMatcher(BetweenMatcher.BETWEEN_IE);
+            case TYPE:
+                return level.withType(IntegerType.TYPE_NAME).withMatcher(TypeMatcher.TYPE);
+            default:
+                return level.withType(StringType.TYPE_NAME);
+        }
+    }
+
+    private Set<ParameterEntry> entries(String fixedOutput) {
+        Set<ParameterEntry> entries = new HashSet<ParameterEntry>(entryCount * 2);
+        for (int entryNumber = 0; entryNumber < entryCount; ++entryNumber) {
+            String[] levels = new String[levelCount + 1];
+            for (int levelIndex = 0; levelIndex < levelCount; ++levelIndex) {
+                levels[levelIndex] = cellValue(levelIndex, digit(entryNumber, levelIndex));
+            }
+            levels[levelCount] = fixedOutput != null ? fixedOutput : Integer.toString(entryNumber);
+            entries.add(new SimpleParameterEntry(levels));
+        }
+        return entries;
+    }
+
+    private int digit(int entryNumber, int levelIndex) {
+        int value = entryNumber;
+        for (int i = 0; i < levelIndex; ++i) {
+            value /= base;
+        }
+        return value % base;
+    }
+
+    private String cellValue(int levelIndex, int digit) {
+        switch (matching) {
+            case DEFAULT:
+                return levelIndex == levelCount - 1 && digit == 0 ? "*" : "v" + digit;
+            case BETWEEN:
+                return (digit * RANGE_WIDTH) + "~" + ((digit + 1) * RANGE_WIDTH);
+            case TYPE:
+                return Integer.toString(digit);
+            default:
+                return "v" + digit;
+        }
+    }
+
+    private Object queryValue(int digit) {
+        switch (matching) {
+            case BETWEEN:
+                return (long) (digit * RANGE_WIDTH + RANGE_WIDTH / 2);
+            case TYPE:
+                return (long) digit;
+            default:
+                return "v" + digit;
+        }
+    }
+
+    /**
+     * Create level values of randomly chosen existing entries. Using fixed seed
+     * makes consecutive runs comparable.
+     */
+    public Object[][] queries(int count, long seed) {
+        Random random = new Random(seed);
+        Object[][] queries = new Object[count][];
+        for (int queryIndex = 0; queryIndex < count; ++queryIndex) {
+            int entryNumber = random.nextInt(entryCount);
+            Object[] values = new Object[levelCount];
+            for (int levelIndex = 0; levelIndex < levelCount; ++levelIndex) {
+                values[levelIndex] = queryValue(digit(entryNumber, levelIndex));
+            }
+            queries[queryIndex] = values;
+        }
+        return queries;
+    }
+}
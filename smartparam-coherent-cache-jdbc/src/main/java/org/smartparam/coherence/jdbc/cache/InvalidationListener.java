@@ -0,0 +1,11 @@
+package org.smartparam.coherence.jdbc.cache;
+
+public interface InvalidationListener {
+
+    /**
+     * Called when parameter was invalidated (possibly by other node) and its
+     * version was incremented to given value.
+     */
+    void parameterInvalidated(String paramName, Long version);
+
+}
@@ -0,0 +1,16 @@
+package org.smartparam.coherence.jdbc.cache;
+
+/**
+ * Message bus used to tell related caches about invalidated parameters right
+ * away, instead of waiting for next poll of version table. Polling should still
+ * be kept running as fallback for lost messages. Implementations may use any
+ * transport (in-process, sockets, JMS...) as long as listeners registered on
+ * all nodes receive published notifications.
+ */
+public interface InvalidationNotifier {
+
+    void publish(String paramName, Long version);
+
+    void register(InvalidationListener listener);
+
+}
@@ -3,15 +3,30 @@ package org.smartparam.coherence.jdbc.cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smartparam.coherence.jdbc.repository.JdbcParamVersionRepository;
+import org.smartparam.coherence.jdbc.repository.ParamWithVersion;
 import org.smartparam.engine.config.initialization.InitializableComponent;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.smartparam.engine.core.prepared.RefreshableParamCache;
+import org.smartparam.engine.core.parameter.request.ParameterRequest;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
-public class JdbcCoherentParamCache implements CoherentParamCache, InitializableComponent {
+/**
+ * Cache that keeps track of parameter versions stored in database table, shared
+ * by all nodes. First call to {@link #invalidateStaleParams()} reads all versions,
+ * each consecutive call asks only for versions updated since previous call (minus
+ * poll overlap, which covers clock skew between nodes and transaction commit delay).
+ * Use {@link StaleParamsPoller} to call it periodically. If {@link InvalidationNotifier}
+ * is given, invalidations are published right away, so related caches do not
+ * need to wait for next poll.
+ */
+public class JdbcCoherentParamCache implements CoherentParamCache, RefreshableParamCache, InvalidationListener, InitializableComponent {
+
+    public static final long DEFAULT_POLL_OVERLAP_MILLIS = 60000;
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcCoherentParamCache.class);
 
@@ -19,11 +34,44 @@ public class JdbcCoherentParamCache implements CoherentParamCache, Initializable
 
     private final JdbcParamVersionRepository versionRepository;
 
+    private final InvalidationNotifier notifier;
+
+    private final long pollOverlapMillis;
+
     private final Map<String, Long> localVersions = new HashMap<String, Long>();
 
+    private Long lastPollTime;
+
     public JdbcCoherentParamCache(PreparedParamCache decoratedCache, JdbcParamVersionRepository versionRepository) {
+        this(decoratedCache, versionRepository, null, DEFAULT_POLL_OVERLAP_MILLIS);
+    }
+
+    public JdbcCoherentParamCache(PreparedParamCache decoratedCache, JdbcParamVersionRepository versionRepository,
+                                  InvalidationNotifier notifier) {
+        this(decoratedCache, versionRepository, notifier, DEFAULT_POLL_OVERLAP_MILLIS);
+    }
+
+    public JdbcCoherentParamCache(PreparedParamCache decoratedCache, JdbcParamVersionRepository versionRepository,
+                                  InvalidationNotifier notifier, long pollOverlapMillis) {
         this.decoratedCache = decoratedCache;
         this.versionRepository = versionRepository;
+        this.notifier = notifier;
+        this.pollOverlapMillis = pollOverlapMillis;
+
+        if (notifier != null) {
+            notifier.register(this);
+        }
+    }
+
+    /**
+     * Passes refresh request to decorated cache, if it is able to refresh
+     * invalidated parameters on its own.
+     */
+    @Override
+    public void registerRefreshRequest(ParameterRequest refreshRequest) {
+        if (decoratedCache instanceof RefreshableParamCache) {
+            ((RefreshableParamCache) decoratedCache).registerRefreshRequest(refreshRequest);
+        }
     }
 
     @Override
@@ -36,6 +84,11 @@ public class JdbcCoherentParamCache implements CoherentParamCache, Initializable
         return decoratedCache.get(paramName);
     }
 
+    @Override
+    public PreparedParameter peek(String paramName) {
+        return decoratedCache.peek(paramName);
+    }
+
     @Override
     public void invalidate() {
         for (String cachedParamName : cachedParameterNames()) {
@@ -47,22 +100,53 @@ public class JdbcCoherentParamCache implements CoherentParamCache, Initializable
     public void invalidate(String paramName) {
         decoratedCache.invalidate(paramName);
         Long newVersion = versionRepository.incrementVersion(paramName);
-        logger.debug("Invalidated {}. Local version was {}, new version is {}.",
-                     paramName, localVersions.get(paramName), newVersion);
-        localVersions.put(paramName, newVersion);
+        Long localVersion = updateLocalVersion(paramName, newVersion);
+        logger.debug("Invalidated {}. Local version was {}, new version is {}.", paramName, localVersion, newVersion);
+
+        if (notifier != null) {
+            notifier.publish(paramName, newVersion);
+        }
     }
 
     @Override
-    public void invalidateStaleParams() {
-        Map<String, Long> versions = versionRepository.versionOfAllParams();
-        for (String param : versions.keySet()) {
-            if (!localVersions.containsKey(param) || localVersions.get(param) < versions.get(param)) {
-                invalidateWithoutNotifying(param);
-                logger.debug("Invalidated stale {}. Local version was {}, new version is {}.",
-                             param, localVersions.get(param), versions.get(param));
-                localVersions.put(param, versions.get(param));
+    public synchronized void invalidateStaleParams() {
+        long pollTime = System.currentTimeMillis();
+
+        if (lastPollTime == null) {
+            Map<String, Long> versions = versionRepository.versionOfAllParams();
+            for (Map.Entry<String, Long> version : versions.entrySet()) {
+                invalidateIfStale(version.getKey(), version.getValue());
             }
+        } else {
+            Date since = new Date(lastPollTime - pollOverlapMillis);
+            for (ParamWithVersion version : versionRepository.versionsUpdatedSince(since)) {
+                invalidateIfStale(version.getName(), version.getVersion());
+            }
+        }
+
+        lastPollTime = pollTime;
+    }
+
+    @Override
+    public void parameterInvalidated(String paramName, Long version) {
+        invalidateIfStale(paramName, version);
+    }
+
+    private synchronized void invalidateIfStale(String paramName, Long version) {
+        Long localVersion = localVersions.get(paramName);
+        if (localVersion == null || localVersion < version) {
+            invalidateWithoutNotifying(paramName);
+            logger.debug("Invalidated stale {}. Local version was {}, new version is {}.", paramName, localVersion, version);
+            localVersions.put(paramName, version);
+        }
+    }
+
+    private synchronized Long updateLocalVersion(String paramName, Long version) {
+        Long localVersion = localVersions.get(paramName);
+        if (localVersion == null || localVersion < version) {
+            localVersions.put(paramName, version);
         }
+        return localVersion;
     }
 
     private void invalidateWithoutNotifying(String paramName) {
@@ -0,0 +1,25 @@
+package org.smartparam.coherence.jdbc.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process notifier, delivers notifications synchronously to all caches
+ * registered in the same JVM.
+ */
+public class LocalInvalidationNotifier implements InvalidationNotifier {
+
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<InvalidationListener>();
+
+    @Override
+    public void publish(String paramName, Long version) {
+        for (InvalidationListener listener : listeners) {
+            listener.parameterInvalidated(paramName, version);
+        }
+    }
+
+    @Override
+    public void register(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,68 @@
+package org.smartparam.coherence.jdbc.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically calls {@link CoherentParamCache#invalidateStaleParams()} on
+ * single daemon thread.
+ */
+public class StaleParamsPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleParamsPoller.class);
+
+    private final CoherentParamCache cache;
+
+    private final long interval;
+
+    private final TimeUnit intervalUnit;
+
+    private ScheduledExecutorService scheduler;
+
+    public StaleParamsPoller(CoherentParamCache cache, long interval, TimeUnit intervalUnit) {
+        this.cache = cache;
+        this.interval = interval;
+        this.intervalUnit = intervalUnit;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "smartparam-stale-params-poller");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        }, interval, interval, intervalUnit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void poll() {
+        try {
+            cache.invalidateStaleParams();
+        } catch (RuntimeException exception) {
+            // keep polling, next run might succeed
+            logger.warn("failed to invalidate stale parameters", exception);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.smartparam.engine.config.pico.PicoContainerUtil;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 
 import javax.sql.DataSource;
+import org.smartparam.coherence.jdbc.cache.InvalidationNotifier;
 import org.smartparam.coherence.jdbc.cache.JdbcCoherentParamCache;
 
 public class JdbcCoherentParamCacheFactory {
@@ -25,6 +26,12 @@ public class JdbcCoherentParamCacheFactory {
         return new JdbcCoherentParamCache(decoratedCache, container.getComponent(JdbcParamVersionRepository.class));
     }
 
+    public JdbcCoherentParamCache createCache(JdbcCoherentParamCacheConfig config, PreparedParamCache decoratedCache,
+                                              InvalidationNotifier notifier) {
+        PicoContainer container = createContainer(config);
+        return new JdbcCoherentParamCache(decoratedCache, container.getComponent(JdbcParamVersionRepository.class), notifier);
+    }
+
     public PicoContainer createContainer(JdbcCoherentParamCacheConfig config) {
         MutablePicoContainer container = PicoContainerUtil.createContainer();
         PicoContainerUtil.injectImplementations(container, JdbcParamVersionRepository.class,
@@ -6,6 +6,9 @@ import org.polyjdbc.core.type.Timestamp;
 import org.smartparam.coherence.jdbc.config.JdbcConfig;
 import org.smartparam.engine.config.initialization.InitializableComponent;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
@@ -23,14 +26,18 @@ public class JdbcParamVersionRepository implements ParamVersionRepository, Initi
 
     private final TransactionRunner transactionRunner;
 
+    private final DataSource dataSource;
+
     public JdbcParamVersionRepository(ParamVersionSchemaCreator schemaCreator,
                                       JdbcConfig configuration,
                                       SimpleQueryRunner queryRunner,
-                                      TransactionRunner transactionRunner) {
+                                      TransactionRunner transactionRunner,
+                                      DataSource dataSource) {
         this.schemaCreator = schemaCreator;
         this.configuration = configuration;
         this.queryRunner = queryRunner;
         this.transactionRunner = transactionRunner;
+        this.dataSource = dataSource;
     }
 
     @Override
@@ -38,29 +45,70 @@ public class JdbcParamVersionRepository implements ParamVersionRepository, Initi
         schemaCreator.createSchema();
     }
 
+    /**
+     * Version is bumped in place by single update statement, so concurrent increments
+     * never get lost and there is only one round trip (plus reading new version in the
+     * same transaction) for parameters that already have a version. First version
+     * is inserted, if some other node inserted it in the meantime, falls back to update.
+     */
     @Override
     public Long incrementVersion(final String paramName) {
-        return transactionRunner.run(new TransactionWrapper<Long>() {
-            @Override
-            public Long perform(QueryRunner queryRunner) {
-                if (!hasVersionOfParam(paramName)) {
-                    return insertNewParamVersion(queryRunner);
-                }
+        Long newVersion = incrementExistingVersion(paramName);
+        if (newVersion != null) {
+            return newVersion;
+        }
+
+        try {
+            return insertNewParamVersion(paramName);
+        } catch (RuntimeException insertException) {
+            newVersion = incrementExistingVersion(paramName);
+            if (newVersion == null) {
+                throw insertException;
+            }
+            return newVersion;
+        }
+    }
 
-                long newParamVersion = versionOfParam(paramName).longValue() + 1;
-                updateParamVersion(queryRunner, newParamVersion);
-                return newParamVersion;
+    private Long incrementExistingVersion(String paramName) {
+        String table = configuration.entityName();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Long newVersion = incrementExistingVersion(connection, table, paramName);
+                connection.commit();
+                return newVersion;
+            } catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
             }
+        } catch (SQLException exception) {
+            throw new ParamVersionRepositoryException(paramName, exception);
+        }
+    }
+
+    private Long incrementExistingVersion(Connection connection, String table, String paramName) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE " + table + " SET version = version + 1, last_update = ? WHERE name = ?")) {
+            update.setTimestamp(1, new java.sql.Timestamp(System.currentTimeMillis()));
+            update.setString(2, paramName);
+            if (update.executeUpdate() == 0) {
+                return null;
+            }
+        }
 
-            private void updateParamVersion(QueryRunner queryRunner, long newParamVersion) {
-                UpdateQuery query = QueryFactory.update(configuration.entityName()).where("name = :name")
-                        .withArgument("name", paramName)
-                        .set("version", newParamVersion)
-                        .set("last_update", Timestamp.from(new Date()));
-                queryRunner.update(query);
+        try (PreparedStatement select = connection.prepareStatement("SELECT version FROM " + table + " WHERE name = ?")) {
+            select.setString(1, paramName);
+            try (ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong("version");
             }
+        }
+    }
 
-            private Long insertNewParamVersion(QueryRunner queryRunner) {
+    private Long insertNewParamVersion(final String paramName) {
+        return transactionRunner.run(new TransactionWrapper<Long>() {
+            @Override
+            public Long perform(QueryRunner queryRunner) {
                 InsertQuery query = QueryFactory.insert().into(configuration.entityName())
                         .sequence("id", configuration.sequenceName())
                         .value("name", paramName)
@@ -72,21 +120,12 @@ public class JdbcParamVersionRepository implements ParamVersionRepository, Initi
         });
     }
 
-    private boolean hasVersionOfParam(String paramName) {
-        SelectQuery query = QueryFactory.select("version").from(configuration.entityName()).where("name = :name")
-                .withArgument("name", paramName);
-        return queryRunner.queryExistence(query);
-    }
-
     @Override
     public Long versionOfParam(String paramName) {
-        if (!hasVersionOfParam(paramName)) {
-            return null;
-        }
-
         SelectQuery query = QueryFactory.select("version").from(configuration.entityName()).where("name = :name")
                 .withArgument("name", paramName);
-        return queryRunner.queryUnique(query, new LongMapper());
+        List<Long> versions = queryRunner.queryList(query, new LongMapper());
+        return versions.isEmpty() ? null : versions.get(0);
     }
 
     @Override
@@ -101,6 +140,13 @@ public class JdbcParamVersionRepository implements ParamVersionRepository, Initi
         return versionMapping;
     }
 
+    @Override
+    public List<ParamWithVersion> versionsUpdatedSince(Date since) {
+        SelectQuery query = QueryFactory.selectAll().from(configuration.entityName()).where("last_update >= :since")
+                .withArgument("since", Timestamp.from(since));
+        return queryRunner.queryList(query, new ParamWithVersionMapper());
+    }
+
     private static class LongMapper implements ObjectMapper<Long> {
 
         @Override
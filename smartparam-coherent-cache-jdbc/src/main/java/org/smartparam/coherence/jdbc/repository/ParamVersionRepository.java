@@ -1,5 +1,7 @@
 package org.smartparam.coherence.jdbc.repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 public interface ParamVersionRepository {
@@ -22,4 +24,10 @@ public interface ParamVersionRepository {
      */
     Map<String, Long> versionOfAllParams();
 
+    /**
+     * @param since point in time (inclusive)
+     * @return versions of parameters updated since given time.
+     */
+    List<ParamWithVersion> versionsUpdatedSince(Date since);
+
 }
@@ -0,0 +1,12 @@
+package org.smartparam.coherence.jdbc.repository;
+
+import org.smartparam.engine.core.exception.SmartParamException;
+
+@SuppressWarnings("serial")
+public class ParamVersionRepositoryException extends SmartParamException {
+
+    ParamVersionRepositoryException(String paramName, Throwable cause) {
+        super("PARAM_VERSION_UPDATE_FAILED", cause, "Failed to increment version of parameter " + paramName);
+    }
+
+}
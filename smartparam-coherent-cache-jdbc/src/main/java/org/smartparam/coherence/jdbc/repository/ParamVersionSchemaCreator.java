@@ -44,6 +44,7 @@ public class ParamVersionSchemaCreator {
                     .withAttribute().timestamp("last_update").notNull().and()
                     .primaryKey(configuration.primaryKeyPrefix() + configuration.entityName()).using("id").and()
                     .build();
+            schema.addIndex(configuration.indexPrefix() + relationName + "_last_update").indexing("last_update").on(relationName).build();
             schema.addSequence(configuration.sequenceName()).build();
         }
     }
@@ -2,11 +2,15 @@ package org.smartparam.coherence.jdbc.cache;
 
 import org.smartparam.coherence.jdbc.repository.JdbcParamVersionRepository;
 import org.smartparam.coherence.jdbc.repository.ParamVersionRepository;
+import org.smartparam.coherence.jdbc.repository.ParamWithVersion;
 import org.smartparam.engine.cache.MapPreparedParamCache;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Date;
+
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -136,5 +140,44 @@ public class JdbcCoherentParamCacheTest {
         verify(versionRepository, times(1)).incrementVersion(anyString()); // only for the invalidation in "given" clause
     }
 
+    @Test
+    public void shouldAskOnlyForRecentlyUpdatedVersionsAfterFirstPoll() {
+        // given
+        PreparedParameter staleParam = preparedParameter().forParameter(parameter().build()).build();
+        when(versionRepository.versionOfAllParams()).thenReturn(singletonMap("staleParam", 1L));
+        coherentCache.invalidateStaleParams();
+
+        coherentCache.put("staleParam", staleParam);
+        when(versionRepository.versionsUpdatedSince(any(Date.class)))
+                .thenReturn(singletonList(new ParamWithVersion("staleParam", 2L)));
+
+        // when
+        coherentCache.invalidateStaleParams();
+
+        // then
+        assertThat(coherentCache.get("staleParam")).isNull();
+        verify(versionRepository, times(1)).versionOfAllParams();
+        verify(versionRepository, times(1)).versionsUpdatedSince(any(Date.class));
+    }
+
+    @Test
+    public void shouldInvalidateParametersInvalidatedInRelatedCacheWhenNotified() {
+        // given
+        InvalidationNotifier notifier = new LocalInvalidationNotifier();
+        CoherentParamCache originallyInvalidatedCache = new JdbcCoherentParamCache(new MapPreparedParamCache(), versionRepository, notifier);
+        CoherentParamCache relatedCache = new JdbcCoherentParamCache(new MapPreparedParamCache(), versionRepository, notifier);
+
+        PreparedParameter someParam = preparedParameter().forParameter(parameter().build()).build();
+        originallyInvalidatedCache.put("someParam", someParam);
+        relatedCache.put("someParam", someParam);
+        when(versionRepository.incrementVersion("someParam")).thenReturn(2L);
+
+        // when
+        originallyInvalidatedCache.invalidate("someParam");
+
+        // then
+        assertThat(relatedCache.get("someParam")).isNull();
+        verify(versionRepository, times(1)).incrementVersion("someParam");
+    }
 
 }
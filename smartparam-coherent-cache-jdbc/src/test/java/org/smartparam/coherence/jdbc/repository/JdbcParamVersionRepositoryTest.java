@@ -3,6 +3,8 @@ package org.smartparam.coherence.jdbc.repository;
 import org.smartparam.coherence.jdbc.DatabaseTest;
 import org.testng.annotations.Test;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -64,4 +66,21 @@ public class JdbcParamVersionRepositoryTest extends DatabaseTest {
         assertThat(allVersions).containsOnly(entry("first", 1L), entry("second", 2L));
     }
 
+    @Test
+    public void shouldReturnOnlyVersionsUpdatedSinceGivenTime() {
+        // given
+        JdbcParamVersionRepository versionRepository = get(JdbcParamVersionRepository.class);
+        versionRepository.incrementVersion("first");
+        Date since = new Date(System.currentTimeMillis() + 60000);
+
+        // when
+        List<ParamWithVersion> updatedVersions = versionRepository.versionsUpdatedSince(since);
+        List<ParamWithVersion> allVersions = versionRepository.versionsUpdatedSince(new Date(0));
+
+        // then
+        assertThat(updatedVersions).isEmpty();
+        assertThat(allVersions).hasSize(1);
+        assertThat(allVersions.get(0).getVersion()).isEqualTo(1L);
+    }
+
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+
+/**
+ * {@link PreparedParamCache} with bounded size. Cache can be limited by number
+ * of parameters, by their total weight (see {@link PreparedParameterWeigher})
+ * and can expire parameters not accessed for given time. When limits are
+ * exceeded, least recently used parameters are evicted.
+ *
+ * Reads are lock free, they only record access time in accessed entry (there is
+ * no shared access counter to contend on). Eviction happens on put and scans
+ * all cached parameters, deriving least recently used order from access times,
+ * which is fine as puts happen only when parameter is loaded from repository. Use {@link BoundedPreparedParamCacheBuilder}
+ * to create instance.
+ *
+ * @author Adam Dubiel
+ */
+public class BoundedPreparedParamCache implements PreparedParamCache {
+
+    static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final Map<String, CachedParameter> cache = new ConcurrentHashMap<String, CachedParameter>();
+
+    private final AtomicLong totalWeight = new AtomicLong();
+
+    private final Object evictionLock = new Object();
+
+    private final long maxEntries;
+
+    private final long maxWeight;
+
+    private final long expireAfterAccessNanos;
+
+    private final PreparedParameterWeigher weigher;
+
+    BoundedPreparedParamCache(long maxEntries, long maxWeight, long expireAfterAccessNanos, PreparedParameterWeigher weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.weigher = weigher;
+    }
+
+    @Override
+    public void put(String paramName, PreparedParameter pp) {
+        CachedParameter cachedParameter = new CachedParameter(pp, weigher.weigh(pp));
+        cachedParameter.recordAccess(System.nanoTime());
+
+        synchronized (evictionLock) {
+            CachedParameter previous = cache.put(paramName, cachedParameter);
+            totalWeight.addAndGet(cachedParameter.weight);
+            if (previous != null) {
+                totalWeight.addAndGet(-previous.weight);
+            }
+            evictExpired(System.nanoTime());
+            evictLeastRecentlyUsed(paramName);
+        }
+    }
+
+    @Override
+    public PreparedParameter get(String paramName) {
+        CachedParameter cachedParameter = cache.get(paramName);
+        if (cachedParameter == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        if (expired(cachedParameter, now)) {
+            remove(paramName, cachedParameter);
+            return null;
+        }
+
+        cachedParameter.recordAccess(now);
+        return cachedParameter.parameter;
+    }
+
+    @Override
+    public PreparedParameter peek(String paramName) {
+        CachedParameter cachedParameter = cache.get(paramName);
+        if (cachedParameter == null || expired(cachedParameter, System.nanoTime())) {
+            return null;
+        }
+        return cachedParameter.parameter;
+    }
+
+    @Override
+    public void invalidate(String paramName) {
+        synchronized (evictionLock) {
+            CachedParameter removed = cache.remove(paramName);
+            if (removed != null) {
+                totalWeight.addAndGet(-removed.weight);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        synchronized (evictionLock) {
+            cache.clear();
+            totalWeight.set(0);
+        }
+    }
+
+    @Override
+    public Collection<String> cachedParameterNames() {
+        return Collections.unmodifiableCollection(cache.keySet());
+    }
+
+    /**
+     * Estimated weight of all cached parameters.
+     */
+    public long weight() {
+        return totalWeight.get();
+    }
+
+    private boolean expired(CachedParameter cachedParameter, long now) {
+        return expireAfterAccessNanos != UNLIMITED && now - cachedParameter.lastAccessNanos > expireAfterAccessNanos;
+    }
+
+    private void remove(String paramName, CachedParameter cachedParameter) {
+        if (cache.remove(paramName, cachedParameter)) {
+            totalWeight.addAndGet(-cachedParameter.weight);
+        }
+    }
+
+    private void evictExpired(long now) {
+        if (expireAfterAccessNanos == UNLIMITED) {
+            return;
+        }
+        for (Map.Entry<String, CachedParameter> entry : cache.entrySet()) {
+            if (expired(entry.getValue(), now)) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Evict parameters until cache fits in limits, never evicting just inserted
+     * parameter (it would be loaded again right away).
+     */
+    private void evictLeastRecentlyUsed(String insertedParamName) {
+        while (cache.size() > maxEntries || (totalWeight.get() > maxWeight && cache.size() > 1)) {
+            String victimName = null;
+            CachedParameter victim = null;
+            for (Map.Entry<String, CachedParameter> entry : cache.entrySet()) {
+                if (entry.getKey().equals(insertedParamName)) {
+                    continue;
+                }
+                if (victim == null || entry.getValue().lastAccessNanos - victim.lastAccessNanos < 0) {
+                    victimName = entry.getKey();
+                    victim = entry.getValue();
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            remove(victimName, victim);
+        }
+    }
+
+    private static final class CachedParameter {
+
+        private final PreparedParameter parameter;
+
+        private final long weight;
+
+        private volatile long lastAccessNanos;
+
+        private CachedParameter(PreparedParameter parameter, long weight) {
+            this.parameter = parameter;
+            this.weight = weight;
+        }
+
+        private void recordAccess(long nanos) {
+            this.lastAccessNanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builder for {@link BoundedPreparedParamCache}. By default cache has no
+ * limits and uses {@link LevelIndexWeigher}. Register built cache using
+ * {@link org.smartparam.engine.config.ParamEngineConfigBuilder#withParameterCache(org.smartparam.engine.core.prepared.PreparedParamCache)}.
+ *
+ * @author Adam Dubiel
+ */
+public final class BoundedPreparedParamCacheBuilder {
+
+    private long maxEntries = BoundedPreparedParamCache.UNLIMITED;
+
+    private long maxWeight = BoundedPreparedParamCache.UNLIMITED;
+
+    private long expireAfterAccessNanos = BoundedPreparedParamCache.UNLIMITED;
+
+    private PreparedParameterWeigher weigher = new LevelIndexWeigher();
+
+    private BoundedPreparedParamCacheBuilder() {
+    }
+
+    public static BoundedPreparedParamCacheBuilder boundedParamCache() {
+        return new BoundedPreparedParamCacheBuilder();
+    }
+
+    public BoundedPreparedParamCache build() {
+        return new BoundedPreparedParamCache(maxEntries, maxWeight, expireAfterAccessNanos, weigher);
+    }
+
+    /**
+     * Maximum number of parameters held in cache.
+     */
+    public BoundedPreparedParamCacheBuilder withMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    /**
+     * Maximum total weight of parameters held in cache, as estimated by
+     * weigher. Single parameter heavier than this limit is still cached.
+     */
+    public BoundedPreparedParamCacheBuilder withMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        return this;
+    }
+
+    /**
+     * Custom weigher, default is {@link LevelIndexWeigher} which returns
+     * estimated size in bytes.
+     */
+    public BoundedPreparedParamCacheBuilder withWeigher(PreparedParameterWeigher weigher) {
+        this.weigher = weigher;
+        return this;
+    }
+
+    /**
+     * Evict parameters that were not read for given time.
+     */
+    public BoundedPreparedParamCacheBuilder withExpireAfterAccess(long duration, TimeUnit unit) {
+        this.expireAfterAccessNanos = unit.toNanos(duration);
+        return this;
+    }
+}
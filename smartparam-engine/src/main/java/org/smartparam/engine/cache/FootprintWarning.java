@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+/**
+ * Anti-pattern found in parameter index.
+ *
+ * @author Adam Dubiel
+ */
+public final class FootprintWarning {
+
+    /**
+     * Depth reported for warnings that concern whole index, not single level.
+     */
+    public static final int WHOLE_INDEX = -1;
+
+    private final IndexAntiPattern antiPattern;
+
+    private final int depth;
+
+    private final String description;
+
+    FootprintWarning(IndexAntiPattern antiPattern, int depth, String description) {
+        this.antiPattern = antiPattern;
+        this.depth = depth;
+        this.description = description;
+    }
+
+    public IndexAntiPattern getAntiPattern() {
+        return antiPattern;
+    }
+
+    /**
+     * Level at which anti-pattern was found or {@link #WHOLE_INDEX}.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return antiPattern + (depth != WHOLE_INDEX ? " at L" + (depth + 1) : "") + ": " + description;
+    }
+}
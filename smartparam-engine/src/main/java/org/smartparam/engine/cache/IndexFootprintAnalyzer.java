@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.smartparam.engine.core.index.IndexStatistics;
+import org.smartparam.engine.core.index.LevelStatistics;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+
+/**
+ * Analyzes memory footprint and structure of indexes of prepared parameters,
+ * meant as a tool for sizing caches and choosing index strategy (i.e. which
+ * parameters to compile or which levels to reorder). Analysis walks whole
+ * index, so it should not be run on hot path.
+ *
+ * Besides statistics, analyzer flags known index anti-patterns:
+ * <ul>
+ * <li>{@link IndexAntiPattern#SINGLE_CHILD_CHAINS} - most of inner nodes have
+ * single child, so index spends memory on nodes that do not branch,</li>
+ * <li>{@link IndexAntiPattern#LINEAR_SCAN} - level matcher forces checking
+ * many children one by one,</li>
+ * <li>{@link IndexAntiPattern#DEFAULT_ONLY_LEVEL} - level holds only default
+ * (star) values and does not narrow down search.</li>
+ * </ul>
+ *
+ * @author Adam Dubiel
+ */
+public class IndexFootprintAnalyzer {
+
+    /**
+     * Default minimal share of single child nodes among inner nodes to report chains.
+     */
+    public static final double DEFAULT_SINGLE_CHILD_RATIO = 0.5;
+
+    /**
+     * Default minimal number of children scanned one by one to report linear scan.
+     */
+    public static final int DEFAULT_LINEAR_SCAN_FAN_OUT = 16;
+
+    private static final int MIN_CHAIN_LENGTH = 2;
+
+    private final PreparedParameterWeigher weigher;
+
+    private final double singleChildRatio;
+
+    private final int linearScanFanOut;
+
+    public IndexFootprintAnalyzer() {
+        this(new LevelIndexWeigher(), DEFAULT_SINGLE_CHILD_RATIO, DEFAULT_LINEAR_SCAN_FAN_OUT);
+    }
+
+    public IndexFootprintAnalyzer(PreparedParameterWeigher weigher, double singleChildRatio, int linearScanFanOut) {
+        this.weigher = weigher;
+        this.singleChildRatio = singleChildRatio;
+        this.linearScanFanOut = linearScanFanOut;
+    }
+
+    /**
+     * Analyze all parameters currently held in cache, without affecting
+     * eviction order.
+     */
+    public IndexFootprintReport analyze(PreparedParamCache cache) {
+        List<ParameterFootprint> footprints = new ArrayList<ParameterFootprint>();
+        for (String parameterName : cache.cachedParameterNames()) {
+            PreparedParameter parameter = cache.peek(parameterName);
+            // could have been evicted in the meantime
+            if (parameter != null) {
+                footprints.add(analyze(parameter));
+            }
+        }
+        return new IndexFootprintReport(footprints);
+    }
+
+    public ParameterFootprint analyze(PreparedParameter parameter) {
+        IndexStatistics statistics = statistics(parameter);
+        List<FootprintWarning> warnings = statistics != null ? findAntiPatterns(statistics) : new ArrayList<FootprintWarning>();
+        return new ParameterFootprint(parameter.getName(), weigher.weigh(parameter),
+                parameter.getCompiledIndex() != null, statistics, warnings);
+    }
+
+    private IndexStatistics statistics(PreparedParameter parameter) {
+        if (parameter.getCompiledIndex() != null) {
+            return IndexStatistics.of(parameter.getCompiledIndex());
+        }
+        if (parameter.getIndex() != null) {
+            return IndexStatistics.of(parameter.getIndex());
+        }
+        return null;
+    }
+
+    private List<FootprintWarning> findAntiPatterns(IndexStatistics statistics) {
+        List<FootprintWarning> warnings = new ArrayList<FootprintWarning>();
+
+        long innerNodes = statistics.getInnerNodeCount();
+        long singleChildNodes = statistics.getSingleChildNodeCount();
+        if (innerNodes > 0 && statistics.getLongestSingleChildChain() >= MIN_CHAIN_LENGTH
+                && singleChildNodes >= singleChildRatio * innerNodes) {
+            warnings.add(new FootprintWarning(IndexAntiPattern.SINGLE_CHILD_CHAINS, FootprintWarning.WHOLE_INDEX,
+                    String.format("%d of %d inner nodes have single child, longest chain: %d",
+                            singleChildNodes, innerNodes, statistics.getLongestSingleChildChain())));
+        }
+
+        for (int depth = 0; depth < statistics.getLevelCount(); ++depth) {
+            LevelStatistics level = statistics.level(depth);
+            if (level.getMaxLinearScanFanOut() >= linearScanFanOut) {
+                warnings.add(new FootprintWarning(IndexAntiPattern.LINEAR_SCAN, depth,
+                        String.format("matcher %s scans up to %d values one by one in %d nodes",
+                                level.getMatcher().getClass().getSimpleName(), level.getMaxLinearScanFanOut(), level.getLinearScanNodes())));
+            }
+            if (level.isDefaultOnly()) {
+                warnings.add(new FootprintWarning(IndexAntiPattern.DEFAULT_ONLY_LEVEL, depth,
+                        "level holds only default values"));
+            }
+        }
+        return warnings;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.smartparam.engine.core.index.IndexStatistics;
+import org.smartparam.engine.core.index.LevelStatistics;
+import org.smartparam.engine.util.Formatter;
+
+/**
+ * Result of {@link IndexFootprintAnalyzer}, parameters are sorted from the
+ * heaviest one.
+ *
+ * @author Adam Dubiel
+ */
+public final class IndexFootprintReport {
+
+    private final List<ParameterFootprint> parameters;
+
+    private final long totalEstimatedBytes;
+
+    IndexFootprintReport(List<ParameterFootprint> parameters) {
+        List<ParameterFootprint> sorted = new ArrayList<ParameterFootprint>(parameters);
+        Collections.sort(sorted, new Comparator<ParameterFootprint>() {
+            @Override
+            public int compare(ParameterFootprint left, ParameterFootprint right) {
+                return Long.compare(right.getEstimatedBytes(), left.getEstimatedBytes());
+            }
+        });
+        this.parameters = Collections.unmodifiableList(sorted);
+
+        long total = 0;
+        for (ParameterFootprint footprint : sorted) {
+            total += footprint.getEstimatedBytes();
+        }
+        this.totalEstimatedBytes = total;
+    }
+
+    public List<ParameterFootprint> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Footprint of given parameter or null if it was not analyzed.
+     */
+    public ParameterFootprint parameter(String parameterName) {
+        for (ParameterFootprint footprint : parameters) {
+            if (footprint.getParameterName().equals(parameterName)) {
+                return footprint;
+            }
+        }
+        return null;
+    }
+
+    public long getTotalEstimatedBytes() {
+        return totalEstimatedBytes;
+    }
+
+    /**
+     * Pretty printing whole report.
+     */
+    public String print() {
+        StringBuilder builder = new StringBuilder(Formatter.INITIAL_STR_LEN_256);
+        builder.append("total estimated bytes: ").append(totalEstimatedBytes).append(Formatter.NL);
+        for (ParameterFootprint footprint : parameters) {
+            builder.append(footprint.getParameterName())
+                    .append(" bytes=").append(footprint.getEstimatedBytes())
+                    .append(footprint.isCompiled() ? " compiled" : "");
+            IndexStatistics statistics = footprint.getStatistics();
+            if (statistics != null) {
+                builder.append(" nodes=").append(statistics.getNodeCount())
+                        .append(" leaves=").append(statistics.getLeafCount());
+            }
+            builder.append(Formatter.NL);
+            if (statistics != null) {
+                for (int depth = 0; depth < statistics.getLevelCount(); ++depth) {
+                    LevelStatistics level = statistics.level(depth);
+                    builder.append(String.format("    L%d: nodes=%d values=%d distinctKeys=%d fanOut(mean=%.1f max=%d) defaults=%d%n",
+                            depth + 1, level.getNodes(), level.getEdges(), level.getDistinctKeys(),
+                            level.getMeanFanOut(), level.getMaxFanOut(), level.getDefaultNodes()));
+                }
+            }
+            for (FootprintWarning warning : footprint.getWarnings()) {
+                builder.append("    ! ").append(warning).append(Formatter.NL);
+            }
+        }
+        return builder.toString();
+    }
+}
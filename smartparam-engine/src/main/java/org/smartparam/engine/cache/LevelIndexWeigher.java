@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import org.smartparam.engine.core.index.CompiledLevelIndex;
+import org.smartparam.engine.core.index.LevelIndex;
+import org.smartparam.engine.core.index.LevelNode;
+import org.smartparam.engine.core.prepared.PreparedEntry;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+
+/**
+ * Estimates parameter size in bytes based on number of nodes and leaves in
+ * its index (tree or compiled). Estimate assumes 64-bit JVM with compressed oops, it is meant to
+ * compare parameters against each other, not to be exact.
+ *
+ * @author Adam Dubiel
+ */
+public class LevelIndexWeigher implements PreparedParameterWeigher {
+
+    /**
+     * Fixed cost of prepared parameter and its levels metadata.
+     */
+    static final long PARAMETER_BYTES = 512;
+
+    /**
+     * LevelNode object with its fields plus children map entry pointing at it.
+     */
+    static final long NODE_BYTES = 88;
+
+    /**
+     * Children HashMap with its initial table, allocated for every inner node.
+     */
+    static final long CHILDREN_MAP_BYTES = 80;
+
+    /**
+     * PreparedEntry with levels array and leaf list slot, level strings are
+     * interned so they are not counted.
+     */
+    static final long LEAF_BYTES = 64;
+
+    /**
+     * Compiled index node: five int slots.
+     */
+    static final long COMPILED_NODE_BYTES = 20;
+
+    /**
+     * Compiled index edge: value id and target node id.
+     */
+    static final long COMPILED_EDGE_BYTES = 8;
+
+    /**
+     * Compiled index dictionary entry (map entry with boxed id).
+     */
+    static final long COMPILED_DICTIONARY_ENTRY_BYTES = 56;
+
+    @Override
+    public long weigh(PreparedParameter parameter) {
+        if (parameter.getCompiledIndex() != null) {
+            return PARAMETER_BYTES + weigh(parameter.getCompiledIndex());
+        }
+
+        LevelIndex<PreparedEntry> index = parameter.getIndex();
+        if (index == null) {
+            return PARAMETER_BYTES;
+        }
+        return PARAMETER_BYTES + weigh(index.getRoot());
+    }
+
+    private long weigh(CompiledLevelIndex<PreparedEntry> index) {
+        long dictionaryEntries = 0;
+        for (int depth = 0; depth < index.getLevelCount(); ++depth) {
+            dictionaryEntries += index.dictionarySize(depth);
+        }
+        return COMPILED_NODE_BYTES * index.nodeCount()
+                + COMPILED_EDGE_BYTES * index.edgeCount()
+                + LEAF_BYTES * index.leafCount()
+                + COMPILED_DICTIONARY_ENTRY_BYTES * dictionaryEntries;
+    }
+
+    private long weigh(LevelNode<PreparedEntry> node) {
+        long weight = NODE_BYTES;
+        if (node.getLeafList() != null) {
+            weight += LEAF_BYTES * node.getLeafList().size();
+        }
+        if (node.getChildren() != null) {
+            weight += CHILDREN_MAP_BYTES;
+            for (LevelNode<PreparedEntry> child : node.getChildren().values()) {
+                weight += weigh(child);
+            }
+        }
+        if (node.getDefaultNode() != null) {
+            weight += weigh(node.getDefaultNode());
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.Collections;
+import java.util.List;
+import org.smartparam.engine.core.index.IndexStatistics;
+
+/**
+ * Footprint of single prepared parameter.
+ *
+ * @author Adam Dubiel
+ */
+public final class ParameterFootprint {
+
+    private final String parameterName;
+
+    private final long estimatedBytes;
+
+    private final boolean compiled;
+
+    private final IndexStatistics statistics;
+
+    private final List<FootprintWarning> warnings;
+
+    ParameterFootprint(String parameterName, long estimatedBytes, boolean compiled, IndexStatistics statistics, List<FootprintWarning> warnings) {
+        this.parameterName = parameterName;
+        this.estimatedBytes = estimatedBytes;
+        this.compiled = compiled;
+        this.statistics = statistics;
+        this.warnings = Collections.unmodifiableList(warnings);
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    /**
+     * Retained size estimated by weigher used by analyzer.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Index statistics, null if parameter has no index (is not cacheable).
+     */
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    public List<FootprintWarning> getWarnings() {
+        return warnings;
+    }
+
+    public boolean hasWarnings() {
+        return !warnings.isEmpty();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import org.smartparam.engine.core.prepared.PreparedParameter;
+
+/**
+ * Estimates how much memory prepared parameter occupies, used by
+ * {@link BoundedPreparedParamCache} to enforce maximum cache weight.
+ *
+ * @author Adam Dubiel
+ */
+public interface PreparedParameterWeigher {
+
+    /**
+     * Return estimated weight (i.e. in bytes) of parameter, has to be non-negative.
+     */
+    long weigh(PreparedParameter parameter);
+}
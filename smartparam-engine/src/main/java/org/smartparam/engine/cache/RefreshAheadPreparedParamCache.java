@@ -0,0 +1,232 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smartparam.engine.core.parameter.request.ParameterRequest;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.smartparam.engine.core.prepared.RefreshableParamCache;
+
+/**
+ * Refresh-ahead decorator of {@link PreparedParamCache}. Invalidated parameter
+ * is not dropped right away - it is still served while background task loads
+ * and prepares new version, which replaces the old one as soon as it is ready.
+ * Stale parameter can be served for at most max staleness time, after that
+ * callers block on loading just like with plain cache. If refresh fails, stale
+ * parameter is either kept (up to max staleness, so that next caller after
+ * that retries loading) or evicted, depending on configuration.
+ *
+ * Until engine registers refresh request, invalidation simply evicts parameter.
+ * Use {@link RefreshAheadPreparedParamCacheBuilder} to create instance.
+ *
+ * @author Adam Dubiel
+ */
+public class RefreshAheadPreparedParamCache implements RefreshableParamCache {
+
+    static final long UNLIMITED = Long.MAX_VALUE;
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadPreparedParamCache.class);
+
+    private final PreparedParamCache delegate;
+
+    private final ExecutorService refreshExecutor;
+
+    private final long maxStalenessNanos;
+
+    private final boolean evictOnRefreshFailure;
+
+    private final Map<String, StaleParameter> staleParameters = new ConcurrentHashMap<String, StaleParameter>();
+
+    /**
+     * Parameters being refreshed, value tells if parameter was invalidated
+     * again during refresh (and needs another one).
+     */
+    private final Map<String, Boolean> refreshes = new HashMap<String, Boolean>();
+
+    private volatile ParameterRequest refreshRequest;
+
+    RefreshAheadPreparedParamCache(PreparedParamCache delegate, ExecutorService refreshExecutor,
+            long maxStalenessNanos, boolean evictOnRefreshFailure) {
+        this.delegate = delegate;
+        this.refreshExecutor = refreshExecutor;
+        this.maxStalenessNanos = maxStalenessNanos;
+        this.evictOnRefreshFailure = evictOnRefreshFailure;
+    }
+
+    @Override
+    public void registerRefreshRequest(ParameterRequest refreshRequest) {
+        this.refreshRequest = refreshRequest;
+    }
+
+    @Override
+    public void put(String paramName, PreparedParameter pp) {
+        // fresh version visible before stale one disappears, so readers never see a gap
+        delegate.put(paramName, pp);
+        staleParameters.remove(paramName);
+    }
+
+    @Override
+    public PreparedParameter get(String paramName) {
+        PreparedParameter parameter = delegate.get(paramName);
+        return parameter != null ? parameter : staleParameter(paramName);
+    }
+
+    @Override
+    public PreparedParameter peek(String paramName) {
+        PreparedParameter parameter = delegate.peek(paramName);
+        return parameter != null ? parameter : staleParameter(paramName);
+    }
+
+    private PreparedParameter staleParameter(String paramName) {
+        StaleParameter staleParameter = staleParameters.get(paramName);
+        if (staleParameter == null) {
+            return null;
+        }
+        if (maxStalenessNanos != UNLIMITED && System.nanoTime() - staleParameter.invalidatedNanos > maxStalenessNanos) {
+            staleParameters.remove(paramName);
+            return null;
+        }
+        return staleParameter.parameter;
+    }
+
+    @Override
+    public void invalidate(String paramName) {
+        ParameterRequest request = refreshRequest;
+        PreparedParameter current = delegate.peek(paramName);
+        StaleParameter previouslyStale = staleParameters.get(paramName);
+
+        if (request != null && (current != null || previouslyStale != null)) {
+            if (current != null) {
+                // keep staleness measured from first invalidation, if parameter was already stale
+                long invalidatedNanos = previouslyStale != null ? previouslyStale.invalidatedNanos : System.nanoTime();
+                staleParameters.put(paramName, new StaleParameter(current, invalidatedNanos));
+            }
+            delegate.invalidate(paramName);
+            scheduleRefresh(paramName, request);
+        } else {
+            delegate.invalidate(paramName);
+            staleParameters.remove(paramName);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        for (String paramName : cachedParameterNames()) {
+            invalidate(paramName);
+        }
+    }
+
+    @Override
+    public Collection<String> cachedParameterNames() {
+        Set<String> names = new LinkedHashSet<String>(delegate.cachedParameterNames());
+        names.addAll(staleParameters.keySet());
+        return Collections.unmodifiableCollection(names);
+    }
+
+    /**
+     * Names of parameters currently served as stale.
+     */
+    public Collection<String> staleParameterNames() {
+        return Collections.unmodifiableCollection(staleParameters.keySet());
+    }
+
+    private void scheduleRefresh(String paramName, ParameterRequest request) {
+        synchronized (refreshes) {
+            if (refreshes.containsKey(paramName)) {
+                refreshes.put(paramName, Boolean.TRUE);
+                return;
+            }
+            refreshes.put(paramName, Boolean.FALSE);
+        }
+        try {
+            refreshExecutor.execute(new RefreshTask(paramName, request));
+        } catch (RejectedExecutionException exception) {
+            // without refresh there is nothing to wait for, next caller loads parameter on its own
+            synchronized (refreshes) {
+                refreshes.remove(paramName);
+            }
+            staleParameters.remove(paramName);
+            logger.warn("refresh of parameter {} rejected by executor, evicting stale version", paramName, exception);
+        }
+    }
+
+    private boolean refreshAgain(String paramName) {
+        synchronized (refreshes) {
+            if (Boolean.TRUE.equals(refreshes.get(paramName))) {
+                refreshes.put(paramName, Boolean.FALSE);
+                return true;
+            }
+            refreshes.remove(paramName);
+            return false;
+        }
+    }
+
+    private void refresh(String paramName, ParameterRequest request) {
+        try {
+            // request puts refreshed parameter into cache on its own
+            if (request.loadAndPrepare(paramName) == null) {
+                staleParameters.remove(paramName);
+            }
+        } catch (RuntimeException exception) {
+            logger.warn("failed to refresh parameter {}, evicting stale version: {}", paramName, evictOnRefreshFailure, exception);
+            if (evictOnRefreshFailure) {
+                staleParameters.remove(paramName);
+            }
+        }
+    }
+
+    private class RefreshTask implements Runnable {
+
+        private final String paramName;
+
+        private final ParameterRequest request;
+
+        RefreshTask(String paramName, ParameterRequest request) {
+            this.paramName = paramName;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            do {
+                refresh(paramName, request);
+            } while (refreshAgain(paramName));
+        }
+    }
+
+    private static final class StaleParameter {
+
+        final PreparedParameter parameter;
+
+        final long invalidatedNanos;
+
+        StaleParameter(PreparedParameter parameter, long invalidatedNanos) {
+            this.parameter = parameter;
+            this.invalidatedNanos = invalidatedNanos;
+        }
+    }
+}
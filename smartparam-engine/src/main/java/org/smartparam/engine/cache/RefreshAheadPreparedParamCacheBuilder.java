@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+
+/**
+ * Builder for {@link RefreshAheadPreparedParamCache}. By default it decorates
+ * {@link MapPreparedParamCache}, serves stale parameters until they are
+ * refreshed but for no longer than 5 minutes, keeps them when refresh fails
+ * and refreshes on single daemon thread. Register built cache using
+ * {@link org.smartparam.engine.config.ParamEngineConfigBuilder#withParameterCache(org.smartparam.engine.core.prepared.PreparedParamCache)}.
+ *
+ * @author Adam Dubiel
+ */
+public final class RefreshAheadPreparedParamCacheBuilder {
+
+    private static final long DEFAULT_MAX_STALENESS_MINUTES = 5;
+
+    private PreparedParamCache delegate;
+
+    private ExecutorService refreshExecutor;
+
+    private long maxStalenessNanos = TimeUnit.MINUTES.toNanos(DEFAULT_MAX_STALENESS_MINUTES);
+
+    private boolean evictOnRefreshFailure;
+
+    private RefreshAheadPreparedParamCacheBuilder() {
+    }
+
+    public static RefreshAheadPreparedParamCacheBuilder refreshAheadParamCache() {
+        return new RefreshAheadPreparedParamCacheBuilder();
+    }
+
+    public RefreshAheadPreparedParamCache build() {
+        return new RefreshAheadPreparedParamCache(
+                delegate != null ? delegate : new MapPreparedParamCache(),
+                refreshExecutor != null ? refreshExecutor : defaultRefreshExecutor(),
+                maxStalenessNanos, evictOnRefreshFailure);
+    }
+
+    private ExecutorService defaultRefreshExecutor() {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "smartparam-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Cache that actually holds fresh parameters, for example {@link BoundedPreparedParamCache}.
+     */
+    public RefreshAheadPreparedParamCacheBuilder withDelegate(PreparedParamCache delegate) {
+        this.delegate = delegate;
+        return this;
+    }
+
+    /**
+     * Executor that runs refresh tasks.
+     */
+    public RefreshAheadPreparedParamCacheBuilder withRefreshExecutor(ExecutorService refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        return this;
+    }
+
+    /**
+     * Do not serve invalidated parameter for longer than given time, callers
+     * will wait for fresh version after that.
+     */
+    public RefreshAheadPreparedParamCacheBuilder withMaxStaleness(long duration, TimeUnit unit) {
+        this.maxStalenessNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Serve invalidated parameter until refresh succeeds, no matter how long
+     * it takes. Parameter that keeps failing to refresh is served stale forever.
+     */
+    public RefreshAheadPreparedParamCacheBuilder withUnlimitedStaleness() {
+        this.maxStalenessNanos = RefreshAheadPreparedParamCache.UNLIMITED;
+        return this;
+    }
+
+    /**
+     * Drop stale parameter when refresh fails, so next caller loads it on its
+     * own (and sees the error if it persists).
+     */
+    public RefreshAheadPreparedParamCacheBuilder withEvictOnRefreshFailure() {
+        this.evictOnRefreshFailure = true;
+        return this;
+    }
+}
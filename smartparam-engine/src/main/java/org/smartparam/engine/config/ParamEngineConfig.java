@@ -39,6 +39,8 @@ import org.smartparam.engine.core.function.FunctionCache;
 import org.smartparam.engine.core.function.FunctionManager;
 import org.smartparam.engine.core.function.FunctionProvider;
 import org.smartparam.engine.core.function.InvokerRepository;
+import org.smartparam.engine.core.instrumentation.NoOpInstrumentation;
+import org.smartparam.engine.core.instrumentation.ParamEngineInstrumentation;
 import org.smartparam.engine.core.matcher.MatcherType;
 import org.smartparam.engine.core.matcher.MatcherTypeRepository;
 import org.smartparam.engine.core.matcher.MatcherRepository;
@@ -50,10 +52,13 @@ import org.smartparam.engine.core.parameter.BasicParameterProvider;
 import org.smartparam.engine.core.parameter.NamedParamRepository;
 import org.smartparam.engine.core.parameter.ParameterManager;
 import org.smartparam.engine.core.parameter.ParameterProvider;
+import org.smartparam.engine.core.parameter.ParameterResolutionConfig;
 import org.smartparam.engine.core.parameter.request.ParameterRequestQueue;
 import org.smartparam.engine.core.parameter.request.SimpleParameterRequestQueue;
+import org.smartparam.engine.core.parameter.warmup.WarmUpConfig;
 import org.smartparam.engine.core.prepared.LevelPreparer;
 import org.smartparam.engine.core.prepared.ParamPreparer;
+import org.smartparam.engine.core.prepared.PreparationConfig;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.core.type.TypeRepository;
@@ -86,6 +91,8 @@ public class ParamEngineConfig extends ComponentConfig {
 
     private ComponentInitializerRunner initializationRunner;
 
+    private WarmUpConfig warmUpConfig;
+
     private final List<ComponentInitializer> componentInitializers = new ArrayList<ComponentInitializer>();
 
     @Override
@@ -94,18 +101,21 @@ public class ParamEngineConfig extends ComponentConfig {
         components.add(component(ParameterRequestQueue.class, SimpleParameterRequestQueue.class));
         components.add(component(ParamPreparer.class, BasicParamPreparer.class));
         components.add(component(LevelPreparer.class, BasicLevelPreparer.class));
+        components.add(component(PreparationConfig.class, PreparationConfig.class));
         components.add(component(PreparedParamCache.class, MapPreparedParamCache.class));
         components.add(component(FunctionManager.class, BasicFunctionManager.class));
         components.add(component(FunctionProvider.class, ScanningFunctionProvider.class));
         components.add(component(FunctionCache.class, MapFunctionCache.class));
         components.add(component(InvokerRepository.class, ScanningInvokerRepository.class));
         components.add(component(ParameterProvider.class, BasicParameterProvider.class));
+        components.add(component(ParameterResolutionConfig.class, ParameterResolutionConfig.class));
         components.add(component(TypeRepository.class, ScanningTypeRepository.class));
         components.add(component(MatcherRepository.class, ScanningMatcherRepository.class));
         components.add(component(MatcherTypeRepository.class, ScanningMatcherTypeRepository.class));
         components.add(component(MapEntryFactory.class, MapEntryFactory.class));
         components.add(component(DefaultParamValueFactory.class, DefaultParamValueFactory.class));
         components.add(component(DetailedParamValueFactory.class, DetailedParamValueFactory.class));
+        components.add(component(ParamEngineInstrumentation.class, NoOpInstrumentation.class));
         components.add(component(ReportLevelValuesSpaceRepository.class, ScanningReportLevelValuesSpaceRepository.class));
     }
 
@@ -187,6 +197,14 @@ public class ParamEngineConfig extends ComponentConfig {
         this.componentInitializers.addAll(componentInitializers);
     }
 
+    public WarmUpConfig getWarmUpConfig() {
+        return warmUpConfig;
+    }
+
+    protected void setWarmUpConfig(WarmUpConfig warmUpConfig) {
+        this.warmUpConfig = warmUpConfig;
+    }
+
     public ComponentInitializerRunner getInitializationRunner() {
         return initializationRunner;
     }
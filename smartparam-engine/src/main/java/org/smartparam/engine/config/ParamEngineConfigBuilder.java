@@ -20,6 +20,7 @@ import org.smartparam.engine.config.initialization.ComponentInitializerRunner;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.smartparam.engine.annotated.PackageList;
 import org.smartparam.engine.annotated.RepositoryObjectKey;
 import org.smartparam.engine.annotated.initialization.MethodScannerInitializer;
@@ -30,11 +31,15 @@ import org.smartparam.engine.core.function.FunctionCache;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.function.FunctionInvoker;
 import org.smartparam.engine.core.function.FunctionRepository;
+import org.smartparam.engine.core.instrumentation.ParamEngineInstrumentation;
 import org.smartparam.engine.core.matcher.MatcherType;
 import org.smartparam.engine.core.parameter.NamedParamRepository;
 import org.smartparam.engine.core.parameter.ParamRepository;
 import org.smartparam.engine.core.parameter.request.QueuingParameterRequestResolver;
 import org.smartparam.engine.core.parameter.request.ParameterRequestQueue;
+import org.smartparam.engine.core.parameter.warmup.WarmUpConfig;
+import org.smartparam.engine.core.parameter.ParameterResolutionConfig;
+import org.smartparam.engine.core.prepared.PreparationConfig;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.repository.RepositoryName;
 import org.smartparam.engine.core.type.Type;
@@ -238,6 +243,34 @@ public final class ParamEngineConfigBuilder {
         return this;
     }
 
+    /**
+     * Register {@link PreparationConfig}, which controls how parameters are
+     * compiled before landing in cache.
+     */
+    public ParamEngineConfigBuilder withPreparationConfig(PreparationConfig preparationConfig) {
+        withComponent(PreparationConfig.class, preparationConfig);
+        return this;
+    }
+
+    /**
+     * Register {@link ParamEngineInstrumentation}, which is notified about each
+     * stage of parameter lookup. Collected metrics are available via
+     * {@link org.smartparam.engine.core.ParamEngineRuntimeConfig#getInstrumentationSnapshot() }.
+     */
+    public ParamEngineConfigBuilder withInstrumentation(ParamEngineInstrumentation instrumentation) {
+        withComponent(ParamEngineInstrumentation.class, instrumentation);
+        return this;
+    }
+
+    /**
+     * Register {@link ParameterResolutionConfig}, which controls how parameter
+     * repositories are searched.
+     */
+    public ParamEngineConfigBuilder withParameterResolution(ParameterResolutionConfig resolutionConfig) {
+        withComponent(ParameterResolutionConfig.class, resolutionConfig);
+        return this;
+    }
+
     /**
      * Use {@link QueuingParameterRequestResolver} to queue concurrent requests for the same parameter
      * before it is cached. Useful for systems that serve under heavy traffic and allow on parameter editing.
@@ -247,6 +280,25 @@ public final class ParamEngineConfigBuilder {
         return this;
     }
 
+    /**
+     * Same as {@link #withParameterRequestsQueue(java.util.concurrent.ExecutorService) }, but synchronous
+     * callers give up waiting for parameter after given timeout.
+     */
+    public ParamEngineConfigBuilder withParameterRequestsQueue(ExecutorService service, long timeout, TimeUnit timeoutUnit) {
+        withComponent(ParameterRequestQueue.class, new QueuingParameterRequestResolver(service, timeout, timeoutUnit));
+        return this;
+    }
+
+    /**
+     * Load and prepare parameters when creating ParamEngine, so it is ready to
+     * serve requests without cold cache penalty. Outcome is available in
+     * {@link org.smartparam.engine.core.ParamEngineRuntimeConfig#getWarmUpReport() }.
+     */
+    public ParamEngineConfigBuilder withWarmUp(WarmUpConfig warmUpConfig) {
+        paramEngineConfig.setWarmUpConfig(warmUpConfig);
+        return this;
+    }
+
     /**
      * Register custom implementation of initialization runner. This goes deep
      * into ParamEngine construction process, so watch out.
@@ -29,7 +29,10 @@ import org.smartparam.engine.core.type.TypeRepository;
 import org.smartparam.engine.core.function.FunctionProvider;
 import org.smartparam.engine.core.matcher.MatcherTypeRepository;
 import org.smartparam.engine.core.parameter.NamedParamRepository;
+import org.smartparam.engine.core.parameter.ParameterManager;
 import org.smartparam.engine.core.parameter.ParameterProvider;
+import org.smartparam.engine.core.parameter.warmup.ParameterWarmUp;
+import org.smartparam.engine.core.parameter.warmup.WarmUpReport;
 import static org.smartparam.engine.config.pico.ComponentDefinition.component;
 
 /**
@@ -68,9 +71,20 @@ public class ParamEngineFactory {
         initializeRepositories(picoContainer, config, initializerRunner);
         initializerRunner.runInitializersOnList(picoContainer.getComponents());
 
+        if (config.getWarmUpConfig() != null) {
+            warmUp(picoContainer, config);
+        }
+
         return engine;
     }
 
+    private void warmUp(MutablePicoContainer container, ParamEngineConfig config) {
+        ParameterWarmUp warmUp = new ParameterWarmUp(container.getComponent(ParameterProvider.class),
+                container.getComponent(ParameterManager.class));
+        WarmUpReport report = warmUp.warmUp(config.getWarmUpConfig());
+        container.addComponent(WarmUpReport.class, report);
+    }
+
     private ComponentInitializerRunner prepareInitializerRunner(ParamEngineConfig config) {
         if (config.getInitializationRunner() == null) {
             ComponentInitializerRunner initializerRunner = new BasicComponentInitializerRunner();
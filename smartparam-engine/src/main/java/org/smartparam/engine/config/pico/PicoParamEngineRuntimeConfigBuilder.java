@@ -21,11 +21,14 @@ import org.smartparam.engine.core.ParamEngineRuntimeConfigBuilder;
 import org.smartparam.engine.core.function.FunctionCache;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.function.InvokerRepository;
+import org.smartparam.engine.core.instrumentation.InstrumentationSnapshot;
+import org.smartparam.engine.core.instrumentation.ParamEngineInstrumentation;
 import org.smartparam.engine.core.matcher.MatcherRepository;
 import org.smartparam.engine.core.type.TypeRepository;
 import org.smartparam.engine.core.function.FunctionProvider;
 import org.smartparam.engine.core.matcher.MatcherTypeRepository;
 import org.smartparam.engine.core.parameter.ParameterProvider;
+import org.smartparam.engine.core.parameter.warmup.WarmUpReport;
 import org.smartparam.engine.report.tree.ReportLevelValuesSpaceRepository;
 
 /**
@@ -53,10 +56,17 @@ public class PicoParamEngineRuntimeConfigBuilder implements ParamEngineRuntimeCo
                 engineContainer.getComponent(TypeRepository.class).registeredItems(),
                 engineContainer.getComponent(MatcherRepository.class),
                 engineContainer.getComponent(MatcherTypeRepository.class),
-                engineContainer.getComponent(ReportLevelValuesSpaceRepository.class));
+                engineContainer.getComponent(ReportLevelValuesSpaceRepository.class),
+                engineContainer.getComponent(WarmUpReport.class),
+                instrumentationSnapshot());
 
     }
 
+    private InstrumentationSnapshot instrumentationSnapshot() {
+        ParamEngineInstrumentation instrumentation = engineContainer.getComponent(ParamEngineInstrumentation.class);
+        return instrumentation != null ? instrumentation.snapshot() : null;
+    }
+
     public PicoContainer getContainer() {
         return engineContainer;
     }
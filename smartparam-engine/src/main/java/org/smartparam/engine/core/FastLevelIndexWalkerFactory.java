@@ -15,12 +15,14 @@
  */
 package org.smartparam.engine.core;
 
+import org.smartparam.engine.core.index.CompiledLevelIndexWalker;
 import org.smartparam.engine.core.index.FastLevelIndexWalker;
 import org.smartparam.engine.core.index.LevelIndexWalker;
 import org.smartparam.engine.core.prepared.PreparedEntry;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 
 /**
+ * Default walker factory, uses compiled index if parameter has one.
  *
  * @author Adam Dubiel
  */
@@ -28,6 +30,9 @@ class FastLevelIndexWalkerFactory implements LevelIndexWalkerFactory {
 
     @Override
     public LevelIndexWalker<PreparedEntry> create(PreparedParameter preparedParameter, String... values) {
+        if (preparedParameter.getCompiledIndex() != null) {
+            return new CompiledLevelIndexWalker<PreparedEntry>(preparedParameter.getCompiledIndex(), values);
+        }
         return new FastLevelIndexWalker<PreparedEntry>(preparedParameter.getIndex(), values);
     }
 
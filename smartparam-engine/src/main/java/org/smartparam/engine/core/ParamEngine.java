@@ -15,6 +15,9 @@
  */
 package org.smartparam.engine.core;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import org.smartparam.engine.core.output.ParamValue;
 
 import org.smartparam.engine.core.context.ParamContext;
@@ -39,6 +42,28 @@ public interface ParamEngine {
      */
     ParamValue get(String parameterName, ParamContext context);
 
+    /**
+     * Non-blocking variant of {@link #get(java.lang.String, org.smartparam.engine.core.context.ParamContext) }.
+     * If parameter is not cached yet, evaluation is done in thread that completes
+     * parameter loading (see {@link org.smartparam.engine.core.parameter.request.ParameterRequestQueue}),
+     * otherwise in calling thread. Errors are reported by exceptionally completed future.
+     * Default implementation evaluates parameter in calling thread using
+     * {@link #get(java.lang.String, org.smartparam.engine.core.context.ParamContext) }.
+     *
+     * @param parameterName name of parameter to search
+     * @param context       evaluation context
+     * @return future resulting submatrix
+     */
+    default CompletableFuture<ParamValue> getAsync(String parameterName, ParamContext context) {
+        CompletableFuture<ParamValue> result = new CompletableFuture<ParamValue>();
+        try {
+            result.complete(get(parameterName, context));
+        } catch (RuntimeException exception) {
+            result.completeExceptionally(exception);
+        }
+        return result;
+    }
+
     /**
      * Returns submatrix of parameter rows just like {@link #get(java.lang.String, org.smartparam.engine.core.context.ParamContext) },
      * but result also includes collection of all {@link org.smartparam.engine.core.output.entry.MapEntry} that
@@ -50,6 +75,35 @@ public interface ParamEngine {
 
     DetailedParamValue getDetailed(String parameterName, LevelIndexWalkerFactory customWalkerFactory, ParamContext context);
 
+    /**
+     * Evaluate parameter for each of provided contexts, parameter is resolved
+     * only once for whole batch. Result at given index is the same as result of
+     * {@link #get(java.lang.String, org.smartparam.engine.core.context.ParamContext) }
+     * called with context at the same index.
+     *
+     * Default implementation calls get for each context.
+     *
+     * @param parameterName name of parameter to search
+     * @param contexts      evaluation contexts
+     * @return resulting submatrices, in order of contexts
+     */
+    default ParamValue[] getAll(String parameterName, List<? extends ParamContext> contexts) {
+        ParamValue[] results = new ParamValue[contexts.size()];
+        for (int index = 0; index < results.length; ++index) {
+            results[index] = get(parameterName, contexts.get(index));
+        }
+        return results;
+    }
+
+    /**
+     * Same as {@link #getAll(java.lang.String, java.util.List) }, but large
+     * batches are split and evaluated in parallel using provided pool. Default
+     * implementation ignores the pool and evaluates batch in calling thread.
+     */
+    default ParamValue[] getAll(String parameterName, List<? extends ParamContext> contexts, ForkJoinPool pool) {
+        return getAll(parameterName, contexts);
+    }
+
     /**
      * Return submatrix of parameter rows that match provided query values.
      * Input levels array should have length equal to parameters input levels count.
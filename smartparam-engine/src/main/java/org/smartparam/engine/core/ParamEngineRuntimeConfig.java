@@ -23,9 +23,11 @@ import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.function.FunctionInvoker;
 import org.smartparam.engine.core.function.FunctionRepository;
+import org.smartparam.engine.core.instrumentation.InstrumentationSnapshot;
 import org.smartparam.engine.core.matcher.MatcherTypeRepository;
 import org.smartparam.engine.core.matcher.MatcherRepository;
 import org.smartparam.engine.core.parameter.NamedParamRepository;
+import org.smartparam.engine.core.parameter.warmup.WarmUpReport;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.report.tree.ReportLevelValuesSpaceRepository;
 
@@ -60,6 +62,10 @@ public final class ParamEngineRuntimeConfig {
 
     private final ParamRepositoriesNaming paramRepositoriesNaming;
 
+    private final WarmUpReport warmUpReport;
+
+    private final InstrumentationSnapshot instrumentationSnapshot;
+
     /**
      * Constructor for configuration object - all objects are read only and
      * collections are immutable.
@@ -73,6 +79,44 @@ public final class ParamEngineRuntimeConfig {
             MatcherRepository matcherRepository,
             MatcherTypeRepository matcherTypeRepository,
             ReportLevelValuesSpaceRepository reportLevelValuesSpaceRepository) {
+        this(functionCache, paramCache, functionRepositories, paramRepositories, invokers, types,
+                matcherRepository, matcherTypeRepository, reportLevelValuesSpaceRepository, null);
+    }
+
+    /**
+     * Constructor for configuration object - all objects are read only and
+     * collections are immutable. Warm up report can be null if there was no warm up.
+     */
+    public ParamEngineRuntimeConfig(FunctionCache functionCache,
+            PreparedParamCache paramCache,
+            Map<String, FunctionRepository> functionRepositories,
+            List<NamedParamRepository> paramRepositories,
+            Map<String, FunctionInvoker> invokers,
+            Map<String, Type<?>> types,
+            MatcherRepository matcherRepository,
+            MatcherTypeRepository matcherTypeRepository,
+            ReportLevelValuesSpaceRepository reportLevelValuesSpaceRepository,
+            WarmUpReport warmUpReport) {
+        this(functionCache, paramCache, functionRepositories, paramRepositories, invokers, types,
+                matcherRepository, matcherTypeRepository, reportLevelValuesSpaceRepository, warmUpReport, null);
+    }
+
+    /**
+     * Constructor for configuration object - all objects are read only and
+     * collections are immutable. Warm up report can be null if there was no
+     * warm up, instrumentation snapshot can be null if there is no instrumentation.
+     */
+    public ParamEngineRuntimeConfig(FunctionCache functionCache,
+            PreparedParamCache paramCache,
+            Map<String, FunctionRepository> functionRepositories,
+            List<NamedParamRepository> paramRepositories,
+            Map<String, FunctionInvoker> invokers,
+            Map<String, Type<?>> types,
+            MatcherRepository matcherRepository,
+            MatcherTypeRepository matcherTypeRepository,
+            ReportLevelValuesSpaceRepository reportLevelValuesSpaceRepository,
+            WarmUpReport warmUpReport,
+            InstrumentationSnapshot instrumentationSnapshot) {
         this.functionCache = functionCache;
         this.paramCache = paramCache;
         this.functionRepositories = Collections.unmodifiableMap(functionRepositories);
@@ -86,6 +130,8 @@ public final class ParamEngineRuntimeConfig {
         this.reportLevelValuesSpaceRepository = reportLevelValuesSpaceRepository;
 
         this.paramRepositoriesNaming = new ParamRepositoriesNaming(paramRepositories);
+        this.warmUpReport = warmUpReport;
+        this.instrumentationSnapshot = instrumentationSnapshot;
     }
 
     public FunctionCache getFunctionCache() {
@@ -131,4 +177,19 @@ public final class ParamEngineRuntimeConfig {
     public ParamRepositoriesNaming getParamRepositoriesNaming() {
         return paramRepositoriesNaming;
     }
+
+    /**
+     * Outcome of parameter warm up done when creating engine, null if warm up was not configured.
+     */
+    public WarmUpReport getWarmUpReport() {
+        return warmUpReport;
+    }
+
+    /**
+     * Lookup metrics collected by registered instrumentation at the moment of
+     * creating this config, empty if no instrumentation was registered.
+     */
+    public InstrumentationSnapshot getInstrumentationSnapshot() {
+        return instrumentationSnapshot;
+    }
 }
@@ -23,17 +23,28 @@ import org.smartparam.engine.core.context.LevelValues;
 import org.smartparam.engine.core.function.FunctionManager;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smartparam.engine.core.context.ParamContext;
+import org.smartparam.engine.core.context.TypedLevelValues;
 import org.smartparam.engine.core.type.ValueHolder;
+import org.smartparam.engine.core.function.CompiledFunction;
 import org.smartparam.engine.core.function.Function;
+import org.smartparam.engine.core.instrumentation.LookupOutcome;
+import org.smartparam.engine.core.instrumentation.LookupStage;
+import org.smartparam.engine.core.instrumentation.NoOpInstrumentation;
+import org.smartparam.engine.core.instrumentation.ParamEngineInstrumentation;
+import org.smartparam.engine.core.output.DefaultParamValue;
 import org.smartparam.engine.core.output.DetailedParamValue;
 import org.smartparam.engine.core.output.factory.DefaultParamValueFactory;
 import org.smartparam.engine.core.output.factory.DetailedParamValueFactory;
 import org.smartparam.engine.core.output.factory.ParamValueFactory;
 import org.smartparam.engine.core.parameter.ParameterManager;
 import org.smartparam.engine.core.prepared.InputValueNormalizer;
+import org.smartparam.engine.core.prepared.ResultCache;
 import org.smartparam.engine.types.string.StringHolder;
 
 /**
@@ -57,16 +68,32 @@ public class SmartParamEngine implements ParamEngine {
 
     private final LevelIndexWalkerFactory fastIndexWalkerFactory = new FastLevelIndexWalkerFactory();
 
+    private final ParamEngineInstrumentation instrumentation;
+
+    private final boolean instrumented;
+
     public SmartParamEngine(ParamEngineRuntimeConfigBuilder configBuilder,
             ParameterManager parameterManager,
             FunctionManager functionManager,
             DefaultParamValueFactory defaultParamValueFactory,
             DetailedParamValueFactory detailedParamValueFactory) {
+        this(configBuilder, parameterManager, functionManager, defaultParamValueFactory, detailedParamValueFactory,
+                new NoOpInstrumentation());
+    }
+
+    public SmartParamEngine(ParamEngineRuntimeConfigBuilder configBuilder,
+            ParameterManager parameterManager,
+            FunctionManager functionManager,
+            DefaultParamValueFactory defaultParamValueFactory,
+            DetailedParamValueFactory detailedParamValueFactory,
+            ParamEngineInstrumentation instrumentation) {
         this.configBuilder = configBuilder;
         this.parameterManager = parameterManager;
         this.functionManager = functionManager;
         this.defaultParamValueFactory = defaultParamValueFactory;
         this.detailedParamValueFactory = detailedParamValueFactory;
+        this.instrumentation = instrumentation;
+        this.instrumented = instrumentation.isEnabled();
     }
 
     @Override
@@ -84,6 +111,16 @@ public class SmartParamEngine implements ParamEngine {
         return get(parameterName, customWalkerFactory, defaultParamValueFactory, context);
     }
 
+    @Override
+    public CompletableFuture<ParamValue> getAsync(final String parameterName, final ParamContext context) {
+        return parameterManager.getPreparedParameterAsync(parameterName).thenApply(new java.util.function.Function<PreparedParameter, ParamValue>() {
+            @Override
+            public ParamValue apply(PreparedParameter param) {
+                return get(verifyPresent(parameterName, param), fastIndexWalkerFactory, defaultParamValueFactory, context);
+            }
+        });
+    }
+
     @Override
     public DetailedParamValue getDetailed(String parameterName, ParamContext context) {
         return getDetailed(parameterName, fastIndexWalkerFactory, context);
@@ -99,25 +136,113 @@ public class SmartParamEngine implements ParamEngine {
 
         // obtain prepared parameter
         PreparedParameter param = getPreparedParameter(parameterName);
+        return get(param, customWalkerFactory, paramValueFactory, context);
+    }
+
+    private ParamValue get(PreparedParameter param, LevelIndexWalkerFactory customWalkerFactory, ParamValueFactory paramValueFactory, ParamContext context) {
+        return get(param, customWalkerFactory, paramValueFactory, context, null);
+    }
+
+    private ParamValue get(PreparedParameter param, LevelIndexWalkerFactory customWalkerFactory, ParamValueFactory paramValueFactory,
+            ParamContext context, String[] normalizationBuffer) {
+        String parameterName = param.getName();
+
+        String[] levelValues = normalizeLevelValues(param, context, normalizationBuffer);
+
+        // results are memoized only if they would be the same for all walkers and value factories
+        ResultCache resultCache = param.getResultCache();
+        boolean memoize = resultCache != null
+                && customWalkerFactory == fastIndexWalkerFactory && paramValueFactory == defaultParamValueFactory;
+        if (memoize) {
+            ParamValue cachedResult = resultCache.get(levelValues);
+            if (cachedResult != null) {
+                if (instrumented) {
+                    instrumentation.resultCacheHit(parameterName);
+                    instrumentation.lookupCompleted(parameterName, cachedResult.isEmpty() ? LookupOutcome.NULLABLE_EMPTY : LookupOutcome.FOUND);
+                }
+                logger.debug("leave get[{}], memoized result={}", parameterName, cachedResult);
+                return cachedResult;
+            }
+            if (instrumented) {
+                instrumentation.resultCacheMiss(parameterName);
+            }
+        }
 
         // find entries matching given context
-        PreparedEntry[] rows = findParameterEntries(customWalkerFactory, param, context);
+        PreparedEntry[] rows = findParameterEntries(customWalkerFactory, param, levelValues);
 
         if (rows.length == 0) {
             if (param.isNullable()) {
+                if (instrumented) {
+                    instrumentation.lookupCompleted(parameterName, LookupOutcome.NULLABLE_EMPTY);
+                }
                 logger.debug("leave get[{}], result=null", parameterName);
-                return paramValueFactory.empty();
+                return memoize ? memoize(resultCache, levelValues, paramValueFactory.empty()) : paramValueFactory.empty();
             }
 
+            if (instrumented) {
+                instrumentation.lookupCompleted(parameterName, LookupOutcome.NOT_FOUND);
+            }
             throw new ParameterValueNotFoundException(parameterName, context);
         }
 
-        ParamValue result = paramValueFactory.create(param, rows);
+        ParamValue result = createValue(paramValueFactory, param, rows);
+        if (instrumented) {
+            instrumentation.lookupCompleted(parameterName, LookupOutcome.FOUND);
+        }
+        if (memoize) {
+            memoize(resultCache, levelValues, result);
+        }
 
         logger.debug("leave get[{}], result={}", parameterName, result);
         return result;
     }
 
+    private ParamValue createValue(ParamValueFactory paramValueFactory, PreparedParameter param, PreparedEntry[] rows) {
+        if (!instrumented) {
+            return paramValueFactory.create(param, rows);
+        }
+        long start = System.nanoTime();
+        ParamValue result = paramValueFactory.create(param, rows);
+        instrumentation.stageCompleted(param.getName(), LookupStage.VALUE_CREATION, System.nanoTime() - start);
+        return result;
+    }
+
+    private ParamValue memoize(ResultCache resultCache, String[] levelValues, ParamValue result) {
+        if (result instanceof DefaultParamValue) {
+            resultCache.put(levelValues, (DefaultParamValue) result);
+        }
+        return result;
+    }
+
+    @Override
+    public ParamValue[] getAll(String parameterName, List<? extends ParamContext> contexts) {
+        logger.debug("enter getAll[{}], contexts={}", parameterName, contexts.size());
+
+        PreparedParameter param = getPreparedParameter(parameterName);
+        ParamValue[] results = new ParamValue[contexts.size()];
+        getAll(param, contexts, results, 0, results.length);
+        return results;
+    }
+
+    @Override
+    public ParamValue[] getAll(String parameterName, List<? extends ParamContext> contexts, ForkJoinPool pool) {
+        logger.debug("enter getAll[{}], contexts={}, parallelism={}", parameterName, contexts.size(), pool.getParallelism());
+
+        PreparedParameter param = getPreparedParameter(parameterName);
+        ParamValue[] results = new ParamValue[contexts.size()];
+        pool.invoke(new BulkEvaluationTask(param, contexts, results, 0, results.length));
+        return results;
+    }
+
+    private void getAll(PreparedParameter param, List<? extends ParamContext> contexts, ParamValue[] results, int from, int to) {
+        // walkers do not keep level values after search, so one buffer serves whole range
+        String[] normalizationBuffer = new String[param.getInputLevelsCount()];
+        for (int index = from; index < to; ++index) {
+            results[index] = get(param, fastIndexWalkerFactory, defaultParamValueFactory, contexts.get(index), normalizationBuffer);
+        }
+    }
+
     @Override
     public ParamValue get(String paramName, Object... inputLevels) {
         ParamContext ctx = new LevelValues(inputLevels);
@@ -163,19 +288,24 @@ public class SmartParamEngine implements ParamEngine {
 
     private void evaluateLevelValues(PreparedParameter param, ParamContext ctx) {
         logger.trace("evaluating level values");
+        long start = instrumented ? System.nanoTime() : 0;
 
         PreparedLevel[] levels = param.getLevels();
-        Object[] values = new Object[param.getInputLevelsCount()];
+        Object[] values = ctx.levelValuesBuffer(param.getInputLevelsCount());
 
         for (int levelIndex = 0; levelIndex < values.length; ++levelIndex) {
             PreparedLevel level = levels[levelIndex];
+            CompiledFunction compiledLevelCreator = level.getCompiledLevelCreator();
             Function levelCreator = level.getLevelCreator();
 
-            if (levelCreator == null) {
+            Object result;
+            if (compiledLevelCreator != null) {
+                result = compiledLevelCreator.invoke(ctx);
+            } else if (levelCreator != null) {
+                result = functionManager.invokeFunction(levelCreator, ctx);
+            } else {
                 throw new UndefinedLevelCreatorException(levelIndex);
             }
-
-            Object result = functionManager.invokeFunction(levelCreator, ctx);
             logger.trace("L{}: evaluated: {}", levelIndex, result);
 
             values[levelIndex] = result;
@@ -186,20 +316,36 @@ public class SmartParamEngine implements ParamEngine {
         }
 
         ctx.setLevelValues(values);
+
+        if (instrumented) {
+            instrumentation.stageCompleted(param.getName(), LookupStage.LEVEL_EVALUATION, System.nanoTime() - start);
+        }
     }
 
-    private PreparedEntry[] findParameterEntries(LevelIndexWalkerFactory indexWalkerFactory, PreparedParameter param, ParamContext ctx) {
+    private String[] normalizeLevelValues(PreparedParameter param, ParamContext ctx, String[] normalizationBuffer) {
+        if (ctx instanceof TypedLevelValues) {
+            return normalizeLevelValues(param, (TypedLevelValues) ctx, normalizationBuffer);
+        }
+
         if (ctx.getLevelValues() == null) {
             evaluateLevelValues(param, ctx);
         }
 
         validateLevelValues(ctx.getLevelValues(), param.getInputLevelsCount());
 
-        String[] normalizedInputValues = InputValueNormalizer.normalize(param, ctx.getLevelValues());
-        return findParameterEntries(indexWalkerFactory, param, normalizedInputValues);
+        return InputValueNormalizer.normalize(param, ctx.getLevelValues(), normalizationBuffer);
+    }
+
+    private String[] normalizeLevelValues(PreparedParameter param, TypedLevelValues levelValues, String[] normalizationBuffer) {
+        if (levelValues.size() != param.getInputLevelsCount()) {
+            throw new InvalidLevelValuesQuery(levelValues.getLevelValues(), param.getInputLevelsCount());
+        }
+
+        return InputValueNormalizer.normalize(param, levelValues, normalizationBuffer);
     }
 
     private PreparedEntry[] findParameterEntries(LevelIndexWalkerFactory indexWalkerFactory, PreparedParameter param, String[] levelValues) {
+        long start = instrumented ? System.nanoTime() : 0;
 
         List<PreparedEntry> entries;
 
@@ -209,7 +355,13 @@ public class SmartParamEngine implements ParamEngine {
             entries = parameterManager.findEntries(param.getName(), levelValues);
         }
 
-        return entries != null ? entries.toArray(new PreparedEntry[entries.size()]) : new PreparedEntry[0];
+        PreparedEntry[] rows = entries != null ? entries.toArray(new PreparedEntry[entries.size()]) : new PreparedEntry[0];
+
+        if (instrumented) {
+            instrumentation.stageCompleted(param.getName(), LookupStage.INDEX_SEARCH, System.nanoTime() - start);
+            instrumentation.entriesMatched(param.getName(), rows.length);
+        }
+        return rows;
     }
 
     private void validateLevelValues(Object[] levelValues, int parameterLevelCount) {
@@ -219,7 +371,17 @@ public class SmartParamEngine implements ParamEngine {
     }
 
     private PreparedParameter getPreparedParameter(String paramName) {
-        PreparedParameter param = parameterManager.getPreparedParameter(paramName);
+        if (!instrumented) {
+            return verifyPresent(paramName, parameterManager.getPreparedParameter(paramName));
+        }
+        long start = System.nanoTime();
+        PreparedParameter param = verifyPresent(paramName, parameterManager.getPreparedParameter(paramName));
+        // unknown parameters are not recorded, so random names can not grow metrics
+        instrumentation.stageCompleted(paramName, LookupStage.PARAMETER_RESOLUTION, System.nanoTime() - start);
+        return param;
+    }
+
+    private PreparedParameter verifyPresent(String paramName, PreparedParameter param) {
         logger.trace("prepared parameter: {}", param);
 
         if (param == null) {
@@ -227,4 +389,39 @@ public class SmartParamEngine implements ParamEngine {
         }
         return param;
     }
+
+    @SuppressWarnings("serial")
+    private final class BulkEvaluationTask extends RecursiveAction {
+
+        private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+        private final PreparedParameter param;
+
+        private final List<? extends ParamContext> contexts;
+
+        private final ParamValue[] results;
+
+        private final int from;
+
+        private final int to;
+
+        BulkEvaluationTask(PreparedParameter param, List<? extends ParamContext> contexts, ParamValue[] results, int from, int to) {
+            this.param = param;
+            this.contexts = contexts;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                getAll(param, contexts, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BulkEvaluationTask(param, contexts, results, from, middle),
+                    new BulkEvaluationTask(param, contexts, results, middle, to));
+        }
+    }
 }
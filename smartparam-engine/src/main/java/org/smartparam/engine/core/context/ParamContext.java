@@ -40,4 +40,16 @@ public interface ParamContext {
      *                    length equal to queried parameter input level count
      */
     void setLevelValues(Object... levelValues);
+
+    /**
+     * Returns array that engine fills with values evaluated by level creators,
+     * before setting it as level values of this context. Implementation may
+     * return same array on each call to avoid allocation, default
+     * implementation returns new array.
+     *
+     * @param levelCount queried parameter input level count, length of returned array
+     */
+    default Object[] levelValuesBuffer(int levelCount) {
+        return new Object[levelCount];
+    }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.context;
+
+import java.util.Arrays;
+
+/**
+ * Evaluation context meant to be reused by single thread across many
+ * parameter evaluations, without allocating new objects for each call.
+ * Call {@link #reset() } before filling context for next evaluation - it
+ * clears user values and level values (including level values evaluated by
+ * level creators in previous call).
+ *
+ * User values are kept in small open addressing array map. Keys are case
+ * insensitive (same as {@link String#equalsIgnoreCase(java.lang.String) }),
+ * they are never lowercased. Engine does not keep any reference to context
+ * after evaluation. Context is not thread safe, use {@link #current() } to
+ * get instance confined to current thread.
+ *
+ * @author Adam Dubiel
+ */
+public class ReusableContext implements ParamContext {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final ThreadLocal<ReusableContext> THREAD_CONTEXT = new ThreadLocal<ReusableContext>() {
+        @Override
+        protected ReusableContext initialValue() {
+            return new ReusableContext();
+        }
+    };
+
+    private String[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    private Object[] levelValuesBuffer = new Object[0];
+
+    private Object[] levelValues;
+
+    public ReusableContext() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize expected number of user values
+     */
+    public ReusableContext(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Returns context confined to current thread, already reset.
+     */
+    public static ReusableContext current() {
+        return THREAD_CONTEXT.get().reset();
+    }
+
+    /**
+     * Clear all user values and level values, keeps allocated memory.
+     */
+    public ReusableContext reset() {
+        if (size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+        if (levelValues != null) {
+            Arrays.fill(levelValuesBuffer, null);
+            levelValues = null;
+        }
+        return this;
+    }
+
+    /**
+     * Put value under key, replacing any previous value stored under key
+     * that equals ignoring case.
+     */
+    public ReusableContext with(String key, Object value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        int slot = slot(keys, key);
+        if (keys[slot] == null) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        return this;
+    }
+
+    /**
+     * Put value under its class simple name.
+     */
+    public ReusableContext set(Object value) {
+        return with(value.getClass().getSimpleName(), value);
+    }
+
+    public Object get(String key) {
+        int slot = slot(keys, key);
+        return keys[slot] != null ? values[slot] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Class<T> targetClass) {
+        return (T) get(key);
+    }
+
+    public String getString(String key) {
+        return get(key, String.class);
+    }
+
+    /**
+     * Returns value stored under class simple name or first value assignable
+     * to given class.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<T> clazz) {
+        Object value = get(clazz.getSimpleName());
+        if (value != null && value.getClass() == clazz) {
+            return (T) value;
+        }
+        for (Object contextValue : values) {
+            if (contextValue != null && clazz.isAssignableFrom(contextValue.getClass())) {
+                return (T) contextValue;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Set level value at given position, level values array is reused between
+     * evaluations.
+     */
+    public ReusableContext withLevelValue(int levelCount, int level, Object value) {
+        levelValuesBuffer(levelCount)[level] = value;
+        return this;
+    }
+
+    @Override
+    public Object[] getLevelValues() {
+        return levelValues;
+    }
+
+    @Override
+    public void setLevelValues(Object... levelValues) {
+        this.levelValues = levelValues;
+    }
+
+    /**
+     * Returns reused array of given length, which becomes level values of this
+     * context.
+     */
+    @Override
+    public Object[] levelValuesBuffer(int levelCount) {
+        if (levelValuesBuffer.length != levelCount) {
+            levelValuesBuffer = new Object[levelCount];
+        }
+        levelValues = levelValuesBuffer;
+        return levelValues;
+    }
+
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        for (int index = 0; index < oldKeys.length; ++index) {
+            if (oldKeys[index] != null) {
+                int slot = slot(keys, oldKeys[index]);
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    /**
+     * Linear probing, returns slot holding key or first empty slot.
+     */
+    private static int slot(String[] keys, String key) {
+        int mask = keys.length - 1;
+        int slot = hashIgnoringCase(key) & mask;
+        while (keys[slot] != null && !keys[slot].equalsIgnoreCase(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hashIgnoringCase(String key) {
+        int hash = 0;
+        for (int index = 0; index < key.length(); ++index) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(key.charAt(index)));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ReusableContext[levelValues=").append(Arrays.toString(levelValues)).append(", userContext={");
+        boolean first = true;
+        for (int index = 0; index < keys.length; ++index) {
+            if (keys[index] != null) {
+                builder.append(first ? "" : ", ").append(keys[index]).append('=').append(values[index]);
+                first = false;
+            }
+        }
+        return builder.append("}]").toString();
+    }
+}
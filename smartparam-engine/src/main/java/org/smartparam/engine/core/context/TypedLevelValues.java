@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.context;
+
+import java.util.Arrays;
+
+/**
+ * Parameter evaluation context that carries typed level values, including
+ * primitive longs, which are turned into index keys without boxing or
+ * intermediate {@link org.smartparam.engine.core.type.ValueHolder} when
+ * level type supports it (see {@link org.smartparam.engine.core.type.LevelKeyEncoder}).
+ * Best suited for integer, number and date keyed parameters:
+ * <pre>
+ * engine.get("tariff", typedLevelValues(2).set(0, 42L).set(1, LocalDate.now()));
+ * </pre>
+ *
+ * @author Adam Dubiel
+ */
+public class TypedLevelValues implements ParamContext {
+
+    private Object[] values;
+
+    private long[] longValues;
+
+    private boolean[] primitive;
+
+    public TypedLevelValues(int levelCount) {
+        initialize(levelCount);
+    }
+
+    public static TypedLevelValues typedLevelValues(int levelCount) {
+        return new TypedLevelValues(levelCount);
+    }
+
+    private void initialize(int levelCount) {
+        values = new Object[levelCount];
+        longValues = new long[levelCount];
+        primitive = new boolean[levelCount];
+    }
+
+    public TypedLevelValues set(int level, long value) {
+        longValues[level] = value;
+        primitive[level] = true;
+        values[level] = null;
+        return this;
+    }
+
+    public TypedLevelValues set(int level, Object value) {
+        values[level] = value;
+        primitive[level] = false;
+        return this;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isPrimitive(int level) {
+        return primitive[level];
+    }
+
+    public long longValue(int level) {
+        return longValues[level];
+    }
+
+    public Object value(int level) {
+        return primitive[level] ? Long.valueOf(longValues[level]) : values[level];
+    }
+
+    /**
+     * @return new array with level values, primitives are boxed
+     */
+    @Override
+    public Object[] getLevelValues() {
+        Object[] levelValues = new Object[values.length];
+        for (int level = 0; level < levelValues.length; ++level) {
+            levelValues[level] = value(level);
+        }
+        return levelValues;
+    }
+
+    @Override
+    public void setLevelValues(Object... levelValues) {
+        initialize(levelValues.length);
+        System.arraycopy(levelValues, 0, values, 0, levelValues.length);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(getLevelValues());
+    }
+}
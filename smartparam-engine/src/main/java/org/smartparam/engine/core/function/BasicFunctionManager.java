@@ -51,4 +51,39 @@ public class BasicFunctionManager implements FunctionManager {
             throw new FunctionInvocationException(e, function);
         }
     }
+
+    @Override
+    public CompiledFunction compileFunction(Function function) {
+        FunctionInvoker invoker = invokerRepository.getInvoker(function);
+
+        if (!(invoker instanceof CompilableFunctionInvoker)) {
+            return null;
+        }
+
+        CompiledFunction compiledFunction = ((CompilableFunctionInvoker) invoker).compile(function);
+        return compiledFunction != null ? new ErrorTranslatingCompiledFunction(compiledFunction) : null;
+    }
+
+    private static final class ErrorTranslatingCompiledFunction implements CompiledFunction {
+
+        private final CompiledFunction compiledFunction;
+
+        private ErrorTranslatingCompiledFunction(CompiledFunction compiledFunction) {
+            this.compiledFunction = compiledFunction;
+        }
+
+        @Override
+        public Function function() {
+            return compiledFunction.function();
+        }
+
+        @Override
+        public Object invoke(Object argument) {
+            try {
+                return compiledFunction.invoke(argument);
+            } catch (RuntimeException e) {
+                throw new FunctionInvocationException(e, compiledFunction.function());
+            }
+        }
+    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.function;
+
+/**
+ * {@link FunctionInvoker} that is able to bind function to its implementation
+ * ahead of time, see {@link CompiledFunction}.
+ *
+ * @author Adam Dubiel
+ */
+public interface CompilableFunctionInvoker extends FunctionInvoker {
+
+    /**
+     * @return compiled function accepting single argument or null if function
+     * can not be compiled, in which case it is invoked using
+     * {@link #invoke(org.smartparam.engine.core.function.Function, java.lang.Object[]) }
+     */
+    CompiledFunction compile(Function function);
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.function;
+
+/**
+ * Function bound to its implementation ahead of time (for example when
+ * parameter level is prepared), so that invocation does not need to resolve
+ * invoker or function implementation. Used to evaluate level creators.
+ *
+ * @author Adam Dubiel
+ */
+public interface CompiledFunction {
+
+    Function function();
+
+    /**
+     * Invoke function with single argument (evaluation context in case of
+     * level creators).
+     */
+    Object invoke(Object argument);
+}
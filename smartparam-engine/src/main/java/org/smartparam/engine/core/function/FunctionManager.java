@@ -25,4 +25,12 @@ public interface FunctionManager {
     Object invokeFunction(String name, Object... args);
 
     Object invokeFunction(Function function, Object... args);
+
+    /**
+     * Compile function if its invoker supports it (see {@link CompilableFunctionInvoker}).
+     * Compiled function reports errors the same way as {@link #invokeFunction(org.smartparam.engine.core.function.Function, java.lang.Object[]) }.
+     *
+     * @return compiled function or null if function can not be compiled
+     */
+    CompiledFunction compileFunction(Function function);
 }
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import org.smartparam.engine.core.matcher.IntervalMatcher;
+import org.smartparam.engine.core.matcher.Matcher;
+import org.smartparam.engine.core.type.Type;
+
+/**
+ * Immutable, compact form of {@link LevelIndex}. Instead of node objects with
+ * HashMap of children, tree is kept in flat arrays indexed by node id:
+ * <ul>
+ * <li>level values are kept in per-level dictionaries and referenced by int id,</li>
+ * <li>children of each node form a contiguous range in edge arrays (sorted by
+ * value id for levels without matcher, so they can be binary searched, and in
+ * original order for levels with matcher, so the results are the same as
+ * with {@link FastLevelIndexWalker}),</li>
+ * <li>leaves of each node form a contiguous range in single leaf array.</li>
+ * </ul>
+ * Use {@link CompiledLevelIndexWalker} to search.
+ *
+ * @param <T> leaf type
+ *
+ * @author Adam Dubiel
+ */
+public final class CompiledLevelIndex<T> {
+
+    static final int NONE = -1;
+
+    private static final int ROOT = 0;
+
+    private final int levelCount;
+
+    private final Matcher[] matchers;
+
+    private final Type<?>[] types;
+
+    /**
+     * Per level: value to id mapping.
+     */
+    private final List<Map<String, Integer>> valueIds;
+
+    /**
+     * Per level: id to value mapping.
+     */
+    private final String[][] values;
+
+    private final int[] firstEdge;
+
+    private final int[] edgeCount;
+
+    private final int[] defaultChild;
+
+    private final int[] firstLeaf;
+
+    private final int[] leafCount;
+
+    private final int[] edgeValues;
+
+    private final int[] edgeTargets;
+
+    private final Object[] leaves;
+
+    /**
+     * Per node: interval index of edges, null if node (or whole index) has none.
+     */
+    private final IntervalIndex[] intervalIndexes;
+
+    private CompiledLevelIndex(Compiler<T> compiler) {
+        this.levelCount = compiler.levelCount;
+        this.matchers = compiler.matchers;
+        this.types = compiler.types;
+        this.valueIds = compiler.valueIds;
+        this.values = new String[levelCount][];
+        for (int level = 0; level < levelCount; ++level) {
+            values[level] = compiler.values.get(level).toArray(new String[compiler.values.get(level).size()]);
+        }
+        this.firstEdge = compiler.firstEdge.toArray();
+        this.edgeCount = compiler.edgeCount.toArray();
+        this.defaultChild = compiler.defaultChild.toArray();
+        this.firstLeaf = compiler.firstLeaf.toArray();
+        this.leafCount = compiler.leafCount.toArray();
+        this.edgeValues = compiler.edgeValues.toArray();
+        this.edgeTargets = compiler.edgeTargets.toArray();
+        this.leaves = compiler.leaves.toArray();
+        this.intervalIndexes = compiler.intervalIndexes();
+    }
+
+    /**
+     * Create compiled copy of given index, source index is not modified.
+     */
+    public static <T> CompiledLevelIndex<T> compile(LevelIndex<T> index) {
+        Compiler<T> compiler = new Compiler<T>(index, false);
+        compiler.compile(index.getRoot(), 0);
+        return new CompiledLevelIndex<T>(compiler);
+    }
+
+    /**
+     * Create compiled copy of given index, releasing each node of source index
+     * as soon as it is copied, so that both forms are never held in full at
+     * the same time. Source index is left empty and should be discarded.
+     */
+    public static <T> CompiledLevelIndex<T> compileReleasing(LevelIndex<T> index) {
+        Compiler<T> compiler = new Compiler<T>(index, true);
+        compiler.compile(index.getRoot(), 0);
+        return new CompiledLevelIndex<T>(compiler);
+    }
+
+    /**
+     * Recreate tree form of this index, for walkers that operate on {@link LevelNode}.
+     */
+    public LevelIndex<T> toLevelIndex() {
+        LevelIndex<T> index = new LevelIndex<T>(levelCount, types, matchers);
+        addToIndex(index, ROOT, 0, new String[levelCount]);
+        index.buildIntervalIndexes();
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addToIndex(LevelIndex<T> index, int node, int depth, String[] path) {
+        for (int leaf = firstLeaf[node]; leaf < firstLeaf[node] + leafCount[node]; ++leaf) {
+            index.add(Arrays.copyOf(path, depth), (T) leaves[leaf]);
+        }
+        for (int edge = firstEdge[node]; edge < firstEdge[node] + edgeCount[node]; ++edge) {
+            path[depth] = values[depth][edgeValues[edge]];
+            addToIndex(index, edgeTargets[edge], depth + 1, path);
+        }
+        if (defaultChild[node] != NONE) {
+            path[depth] = Star.SYMBOL;
+            addToIndex(index, defaultChild[node], depth + 1, path);
+        }
+    }
+
+    int root() {
+        return ROOT;
+    }
+
+    /**
+     * Find child of node reachable by exact value, NONE if there is none.
+     */
+    int exactChild(int node, int depth, String value) {
+        Integer valueId = valueIds.get(depth).get(value);
+        if (valueId == null) {
+            return NONE;
+        }
+        int edge = Arrays.binarySearch(edgeValues, firstEdge[node], firstEdge[node] + edgeCount[node], valueId);
+        return edge >= 0 ? edgeTargets[edge] : NONE;
+    }
+
+    int firstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    int edgeCount(int node) {
+        return edgeCount[node];
+    }
+
+    String edgeValue(int depth, int edge) {
+        return values[depth][edgeValues[edge]];
+    }
+
+    int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * Interval index of node edges (positions relative to first edge), null if none.
+     */
+    IntervalIndex intervalIndex(int node) {
+        return intervalIndexes != null ? intervalIndexes[node] : null;
+    }
+
+    int defaultChild(int node) {
+        return defaultChild[node];
+    }
+
+    /**
+     * Leaves of node as list view or null if node has no leaves (same as
+     * {@link LevelNode#getLeafList()}).
+     */
+    List<T> leaves(int node) {
+        if (leafCount[node] == 0) {
+            return null;
+        }
+        return new LeafRange<T>(leaves, firstLeaf[node], leafCount[node]);
+    }
+
+    public Matcher getMatcher(int depth) {
+        return matchers[depth];
+    }
+
+    public Type<?> getType(int depth) {
+        return types[depth];
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int nodeCount() {
+        return firstEdge.length;
+    }
+
+    public int edgeCount() {
+        return edgeValues.length;
+    }
+
+    public int leafCount() {
+        return leaves.length;
+    }
+
+    /**
+     * Number of distinct values kept in dictionary of given level.
+     */
+    public int dictionarySize(int depth) {
+        return values[depth].length;
+    }
+
+    private static final class Compiler<T> {
+
+        private final int levelCount;
+
+        private final Matcher[] matchers;
+
+        private final Type<?>[] types;
+
+        private final List<Map<String, Integer>> valueIds;
+
+        private final boolean releaseSource;
+
+        private final List<List<String>> values = new ArrayList<List<String>>();
+
+        private final IntArray firstEdge = new IntArray();
+
+        private final IntArray edgeCount = new IntArray();
+
+        private final IntArray defaultChild = new IntArray();
+
+        private final IntArray firstLeaf = new IntArray();
+
+        private final IntArray leafCount = new IntArray();
+
+        private final IntArray edgeValues = new IntArray();
+
+        private final IntArray edgeTargets = new IntArray();
+
+        private final List<Object> leaves = new ArrayList<Object>();
+
+        private final Map<Integer, IntervalIndex> intervalIndexes = new HashMap<Integer, IntervalIndex>();
+
+        private Compiler(LevelIndex<T> index, boolean releaseSource) {
+            this.levelCount = index.getLevelCount();
+            this.matchers = Arrays.copyOf(index.getMatchers(), levelCount);
+            this.types = Arrays.copyOf(index.getTypes(), levelCount);
+            this.releaseSource = releaseSource;
+            this.valueIds = new ArrayList<Map<String, Integer>>(levelCount);
+            for (int level = 0; level < levelCount; ++level) {
+                valueIds.add(new HashMap<String, Integer>());
+                values.add(new ArrayList<String>());
+            }
+        }
+
+        private int compile(LevelNode<T> node, int depth) {
+            int nodeId = firstEdge.add(0);
+            edgeCount.add(0);
+            defaultChild.add(NONE);
+
+            List<T> leafList = node.getLeafList();
+            firstLeaf.add(leaves.size());
+            leafCount.add(leafList != null ? leafList.size() : 0);
+            if (leafList != null) {
+                leaves.addAll(leafList);
+            }
+
+            if (node.getChildren() != null && !node.getChildren().isEmpty()) {
+                compileChildren(nodeId, node.getChildren(), depth);
+            }
+
+            if (node.getDefaultNode() != null) {
+                defaultChild.set(nodeId, compile(node.getDefaultNode(), depth + 1));
+            }
+
+            if (releaseSource) {
+                node.release();
+            }
+            return nodeId;
+        }
+
+        private void compileChildren(int nodeId, Map<String, LevelNode<T>> children, int depth) {
+            List<Map.Entry<String, LevelNode<T>>> edges = new ArrayList<Map.Entry<String, LevelNode<T>>>(children.entrySet());
+            final int[] ids = new int[edges.size()];
+            for (int i = 0; i < ids.length; ++i) {
+                ids[i] = valueId(depth, edges.get(i).getKey());
+            }
+
+            // levels without matcher are searched by binary search on value id
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < order.length; ++i) {
+                order[i] = i;
+            }
+            if (matchers[depth] == null) {
+                Arrays.sort(order, new Comparator<Integer>() {
+                    @Override
+                    public int compare(Integer left, Integer right) {
+                        return ids[left] < ids[right] ? -1 : (ids[left] == ids[right] ? 0 : 1);
+                    }
+                });
+            }
+
+            // reserve contiguous range for edges before descending
+            int start = edgeValues.reserve(ids.length);
+            edgeTargets.reserve(ids.length);
+            firstEdge.set(nodeId, start);
+            edgeCount.set(nodeId, ids.length);
+
+            if (matchers[depth] instanceof IntervalMatcher) {
+                List<String> patterns = new ArrayList<String>(edges.size());
+                for (Map.Entry<String, LevelNode<T>> edge : edges) {
+                    patterns.add(edge.getKey());
+                }
+                IntervalIndex intervalIndex = IntervalIndex.build((IntervalMatcher) matchers[depth], types[depth], patterns);
+                if (intervalIndex != null) {
+                    intervalIndexes.put(nodeId, intervalIndex);
+                }
+            }
+
+            for (int i = 0; i < order.length; ++i) {
+                edgeValues.set(start + i, ids[order[i]]);
+                edgeTargets.set(start + i, compile(edges.get(order[i]).getValue(), depth + 1));
+            }
+        }
+
+        private IntervalIndex[] intervalIndexes() {
+            if (intervalIndexes.isEmpty()) {
+                return null;
+            }
+            IntervalIndex[] array = new IntervalIndex[firstEdge.size];
+            for (Map.Entry<Integer, IntervalIndex> entry : intervalIndexes.entrySet()) {
+                array[entry.getKey()] = entry.getValue();
+            }
+            return array;
+        }
+
+        private int valueId(int depth, String value) {
+            Integer id = valueIds.get(depth).get(value);
+            if (id == null) {
+                id = values.get(depth).size();
+                values.get(depth).add(value);
+                valueIds.get(depth).put(value, id);
+            }
+            return id;
+        }
+    }
+
+    private static final class IntArray {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] array = new int[INITIAL_CAPACITY];
+
+        private int size;
+
+        private int add(int value) {
+            ensureCapacity(size + 1);
+            array[size] = value;
+            return size++;
+        }
+
+        private int reserve(int count) {
+            ensureCapacity(size + count);
+            int start = size;
+            size += count;
+            return start;
+        }
+
+        private void set(int position, int value) {
+            array[position] = value;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > array.length) {
+                array = Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+            }
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(array, size);
+        }
+    }
+
+    private static final class LeafRange<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] leaves;
+
+        private final int offset;
+
+        private final int size;
+
+        private LeafRange(Object[] leaves, int offset, int size) {
+            this.leaves = leaves;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return (T) leaves[offset + index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <E> E[] toArray(E[] array) {
+            E[] target = array.length >= size ? array : (E[]) Array.newInstance(array.getClass().getComponentType(), size);
+            System.arraycopy(leaves, offset, target, 0, size);
+            if (target.length > size) {
+                target[size] = null;
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.util.List;
+import org.smartparam.engine.core.matcher.Matcher;
+import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.core.type.ValueHolder;
+
+/**
+ * Walker over {@link CompiledLevelIndex}, returns same results as
+ * {@link FastLevelIndexWalker} run on source index.
+ *
+ * @author Adam Dubiel
+ */
+public class CompiledLevelIndexWalker<T> implements LevelIndexWalker<T> {
+
+    private final CompiledLevelIndex<T> index;
+
+    private final String[] levelValues;
+
+    public CompiledLevelIndexWalker(CompiledLevelIndex<T> index, String... levelValues) {
+        this.index = index;
+        this.levelValues = levelValues;
+    }
+
+    @Override
+    public List<T> find() {
+        int node = find(index.root(), 0);
+        return node != CompiledLevelIndex.NONE ? index.leaves(node) : null;
+    }
+
+    private int find(int currentNode, int currentDepth) {
+        if (currentDepth >= levelValues.length) {
+            return currentNode;
+        }
+
+        String levelValue = levelValues[currentDepth];
+        Matcher matcher = index.getMatcher(currentDepth);
+
+        int matchedNode = CompiledLevelIndex.NONE;
+
+        if (matcher == null) {
+            int child = index.exactChild(currentNode, currentDepth, levelValue);
+            if (child != CompiledLevelIndex.NONE) {
+                matchedNode = find(child, currentDepth + 1);
+            }
+        } else {
+            matchedNode = match(currentNode, levelValue, matcher, index.getType(currentDepth), currentDepth);
+        }
+
+        int defaultChild = index.defaultChild(currentNode);
+        if (matchedNode == CompiledLevelIndex.NONE && defaultChild != CompiledLevelIndex.NONE) {
+            matchedNode = find(defaultChild, currentDepth + 1);
+        }
+
+        return matchedNode;
+    }
+
+    private int match(int currentNode, String levelValue, Matcher matcher, Type<?> type, int currentDepth) {
+        int matchedNode = CompiledLevelIndex.NONE;
+
+        IntervalIndex intervalIndex = index.intervalIndex(currentNode);
+        if (intervalIndex != null) {
+            ValueHolder value = type.decode(levelValue);
+            if (value.isComparable()) {
+                int[] positions = intervalIndex.find(value);
+                for (int i = 0; matchedNode == CompiledLevelIndex.NONE && i < positions.length; ++i) {
+                    matchedNode = find(index.edgeTarget(index.firstEdge(currentNode) + positions[i]), currentDepth + 1);
+                }
+                return matchedNode;
+            }
+        }
+
+        int lastEdge = index.firstEdge(currentNode) + index.edgeCount(currentNode);
+        for (int edge = index.firstEdge(currentNode); matchedNode == CompiledLevelIndex.NONE && edge < lastEdge; ++edge) {
+            if (matcher.matches(levelValue, index.edgeValue(currentDepth, edge), type)) {
+                matchedNode = find(index.edgeTarget(edge), currentDepth + 1);
+            }
+        }
+
+        return matchedNode;
+    }
+}
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.core.type.ValueHolder;
 
 /**
  * Fastest way to get value from index - default ParamEngine mode optimized for speed.
@@ -78,6 +79,14 @@ public class FastLevelIndexWalker<T> implements LevelIndexWalker<T> {
     }
 
     private LevelNode<T> match(LevelNode<T> currentNode, String val, Matcher matcher, Type<?> type, int currentDepth) {
+        IntervalIndex intervalIndex = currentNode.getIntervalIndex();
+        if (intervalIndex != null) {
+            ValueHolder value = type.decode(val);
+            if (value.isComparable()) {
+                return matchIntervals(currentNode, intervalIndex.find(value), currentDepth);
+            }
+        }
+
         LevelNode<T> leaf = null;
         Iterator<Map.Entry<String, LevelNode<T>>> childrenIterator = currentNode.getChildren().entrySet().iterator();
 
@@ -92,6 +101,14 @@ public class FastLevelIndexWalker<T> implements LevelIndexWalker<T> {
         return leaf;
     }
 
+    private LevelNode<T> matchIntervals(LevelNode<T> currentNode, int[] matchingPositions, int currentDepth) {
+        LevelNode<T> leaf = null;
+        for (int i = 0; leaf == null && i < matchingPositions.length; ++i) {
+            leaf = traverseChildNode(currentNode.getIntervalChild(matchingPositions[i]), currentDepth);
+        }
+        return leaf;
+    }
+
     private boolean patternMatches(String value, Matcher matcher, Type<?> type, String pattern) {
         if (matcher == null) {
             if (pattern == null) {
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.smartparam.engine.core.matcher.Matcher;
+
+/**
+ * Structure statistics of parameter index, gathered by walking whole tree of
+ * {@link LevelIndex} or all nodes of {@link CompiledLevelIndex}. Both forms
+ * of the same index produce the same statistics.
+ *
+ * @author Adam Dubiel
+ */
+public final class IndexStatistics {
+
+    private final int levelCount;
+
+    private final LevelStatistics[] levels;
+
+    private final Set<String>[] distinctKeys;
+
+    private long nodeCount;
+
+    private long leafCount;
+
+    private int longestSingleChildChain;
+
+    @SuppressWarnings("unchecked")
+    private IndexStatistics(int levelCount, Matcher[] matchers) {
+        this.levelCount = levelCount;
+        this.levels = new LevelStatistics[levelCount];
+        this.distinctKeys = new Set[levelCount];
+        for (int depth = 0; depth < levelCount; ++depth) {
+            levels[depth] = new LevelStatistics(depth, matchers[depth]);
+            distinctKeys[depth] = new HashSet<String>();
+        }
+    }
+
+    public static <T> IndexStatistics of(LevelIndex<T> index) {
+        Matcher[] matchers = new Matcher[index.getLevelCount()];
+        for (int depth = 0; depth < matchers.length; ++depth) {
+            matchers[depth] = index.getMatcher(depth);
+        }
+        IndexStatistics statistics = new IndexStatistics(index.getLevelCount(), matchers);
+        statistics.visit(index.getRoot(), 0, 0);
+        return statistics.finish();
+    }
+
+    public static <T> IndexStatistics of(CompiledLevelIndex<T> index) {
+        Matcher[] matchers = new Matcher[index.getLevelCount()];
+        for (int depth = 0; depth < matchers.length; ++depth) {
+            matchers[depth] = index.getMatcher(depth);
+        }
+        IndexStatistics statistics = new IndexStatistics(index.getLevelCount(), matchers);
+        statistics.visit(index, index.root(), 0, 0);
+        return statistics.finish();
+    }
+
+    private <T> void visit(LevelNode<T> node, int depth, int chainLength) {
+        nodeCount++;
+        if (node.getLeafList() != null) {
+            leafCount += node.getLeafList().size();
+        }
+        if (depth >= levelCount) {
+            return;
+        }
+
+        Map<String, LevelNode<T>> children = node.getChildren();
+        int fanOut = children != null ? children.size() : 0;
+        boolean hasDefault = node.getDefaultNode() != null;
+        levels[depth].addNode(fanOut, hasDefault, node.getIntervalIndex() != null);
+
+        int childChainLength = nextChainLength(fanOut, hasDefault, chainLength);
+        if (children != null) {
+            for (Map.Entry<String, LevelNode<T>> child : children.entrySet()) {
+                distinctKeys[depth].add(child.getKey());
+                visit(child.getValue(), depth + 1, childChainLength);
+            }
+        }
+        if (hasDefault) {
+            visit(node.getDefaultNode(), depth + 1, childChainLength);
+        }
+    }
+
+    private <T> void visit(CompiledLevelIndex<T> index, int node, int depth, int chainLength) {
+        nodeCount++;
+        leafCount += index.leaves(node) != null ? index.leaves(node).size() : 0;
+        if (depth >= levelCount) {
+            return;
+        }
+
+        int fanOut = index.edgeCount(node);
+        int defaultChild = index.defaultChild(node);
+        boolean hasDefault = defaultChild != CompiledLevelIndex.NONE;
+        levels[depth].addNode(fanOut, hasDefault, index.intervalIndex(node) != null);
+
+        int childChainLength = nextChainLength(fanOut, hasDefault, chainLength);
+        for (int edge = index.firstEdge(node); edge < index.firstEdge(node) + fanOut; ++edge) {
+            distinctKeys[depth].add(index.edgeValue(depth, edge));
+            visit(index, index.edgeTarget(edge), depth + 1, childChainLength);
+        }
+        if (hasDefault) {
+            visit(index, defaultChild, depth + 1, childChainLength);
+        }
+    }
+
+    private int nextChainLength(int fanOut, boolean hasDefault, int chainLength) {
+        if (fanOut + (hasDefault ? 1 : 0) == 1) {
+            int length = chainLength + 1;
+            longestSingleChildChain = Math.max(longestSingleChildChain, length);
+            return length;
+        }
+        return 0;
+    }
+
+    private IndexStatistics finish() {
+        for (int depth = 0; depth < levelCount; ++depth) {
+            levels[depth].setDistinctKeys(distinctKeys[depth].size());
+            distinctKeys[depth] = null;
+        }
+        return this;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public LevelStatistics level(int depth) {
+        return levels[depth];
+    }
+
+    /**
+     * Number of all nodes, including root and leaf nodes.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Number of leaf values (prepared entries) held in index.
+     */
+    public long getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Number of nodes with exactly one child (or only default child).
+     */
+    public long getSingleChildNodeCount() {
+        long count = 0;
+        for (LevelStatistics level : levels) {
+            count += level.getSingleChildNodes();
+        }
+        return count;
+    }
+
+    /**
+     * Number of inner nodes (nodes which have children at some level).
+     */
+    public long getInnerNodeCount() {
+        long count = 0;
+        for (LevelStatistics level : levels) {
+            count += level.getNodes();
+        }
+        return count;
+    }
+
+    /**
+     * Longest path of consecutive single child nodes.
+     */
+    public int getLongestSingleChildChain() {
+        return longestSingleChildChain;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.smartparam.engine.core.matcher.Interval;
+import org.smartparam.engine.core.matcher.IntervalMatcher;
+import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.core.type.ValueHolder;
+
+/**
+ * Stabbing query structure over set of intervals: returns all intervals that
+ * contain given value. Intervals are sorted by lower bound and each position
+ * remembers the greatest upper bound seen so far, so search is a binary search
+ * followed by backward scan that stops as soon as no preceding interval can
+ * reach the value. For disjoint ranges (typical for banded parameters) it is
+ * O(log n).
+ *
+ * Positions returned are positions of intervals on list passed when building,
+ * in ascending order, so callers can try them in the same order they would
+ * try patterns one by one.
+ *
+ * @author Adam Dubiel
+ */
+public final class IntervalIndex {
+
+    private static final int[] NO_POSITIONS = {};
+
+    private final Interval[] intervals;
+
+    private final int[] positions;
+
+    private final Interval[] maxUpper;
+
+    private IntervalIndex(final Interval[] unsortedIntervals) {
+        Integer[] order = new Integer[unsortedIntervals.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer left, Integer right) {
+                int comparison = unsortedIntervals[left].compareLower(unsortedIntervals[right]);
+                return comparison != 0 ? comparison : left.compareTo(right);
+            }
+        });
+
+        intervals = new Interval[order.length];
+        positions = new int[order.length];
+        maxUpper = new Interval[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            intervals[i] = unsortedIntervals[order[i]];
+            positions[i] = order[i];
+            maxUpper[i] = i == 0 || intervals[i].compareUpper(maxUpper[i - 1]) > 0 ? intervals[i] : maxUpper[i - 1];
+        }
+    }
+
+    /**
+     * Parse patterns using matcher and build index. Returns null if any of
+     * patterns can not be represented as interval.
+     */
+    public static IntervalIndex build(IntervalMatcher matcher, Type<?> type, List<String> patterns) {
+        if (type == null) {
+            return null;
+        }
+        Interval[] intervals = new Interval[patterns.size()];
+        for (int i = 0; i < intervals.length; ++i) {
+            String pattern = patterns.get(i);
+            intervals[i] = pattern != null ? matcher.interval(pattern, type) : null;
+            if (intervals[i] == null) {
+                return null;
+            }
+        }
+        return new IntervalIndex(intervals);
+    }
+
+    /**
+     * Return positions of all intervals containing value, in ascending order.
+     */
+    public int[] find(ValueHolder value) {
+        int last = lastAdmittedByLowerBound(value);
+        if (last < 0) {
+            return NO_POSITIONS;
+        }
+
+        int[] found = NO_POSITIONS;
+        int foundCount = 0;
+        for (int i = last; i >= 0 && maxUpper[i].upperAdmits(value); --i) {
+            if (intervals[i].upperAdmits(value)) {
+                if (foundCount == found.length) {
+                    found = Arrays.copyOf(found, Math.max(2, foundCount * 2));
+                }
+                found[foundCount++] = positions[i];
+            }
+        }
+
+        if (foundCount != found.length) {
+            found = Arrays.copyOf(found, foundCount);
+        }
+        Arrays.sort(found);
+        return found;
+    }
+
+    private int lastAdmittedByLowerBound(ValueHolder value) {
+        int result = -1;
+        int low = 0;
+        int high = intervals.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (intervals[middle].lowerAdmits(value)) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return intervals.length;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.smartparam.engine.core.index;
 
+import org.smartparam.engine.core.matcher.IntervalMatcher;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.util.Formatter;
@@ -92,6 +93,33 @@ public class LevelIndex<T> {
         root.add(levelValues, leaf, 0);
     }
 
+    /**
+     * Pre-parse patterns of levels that use {@link IntervalMatcher}, so that
+     * they can be searched without checking patterns one by one. Should be
+     * called after all values were added, adding values to node drops its
+     * interval index.
+     */
+    public void buildIntervalIndexes() {
+        buildIntervalIndexes(root, 0);
+    }
+
+    private void buildIntervalIndexes(LevelNode<T> node, int depth) {
+        if (depth >= levelCount) {
+            return;
+        }
+        if (node.getChildren() != null) {
+            if (matchers[depth] instanceof IntervalMatcher && !node.getChildren().isEmpty()) {
+                node.buildIntervalIndex((IntervalMatcher) matchers[depth], types[depth]);
+            }
+            for (LevelNode<T> child : node.getChildren().values()) {
+                buildIntervalIndexes(child, depth + 1);
+            }
+        }
+        if (node.getDefaultNode() != null) {
+            buildIntervalIndexes(node.getDefaultNode(), depth + 1);
+        }
+    }
+
     /**
      * Pretty printing whole index tree.
      */
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.smartparam.engine.core.matcher.IntervalMatcher;
+import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.util.Formatter;
 import org.smartparam.engine.util.Printer;
 
@@ -44,6 +46,13 @@ public class LevelNode<T> {
 
     private LevelNode<T> parent;
 
+    /**
+     * Children in the same order as patterns in interval index, if there is one.
+     */
+    private List<LevelNode<T>> intervalChildren;
+
+    private IntervalIndex intervalIndex;
+
     private final LevelIndex<T> index;
 
     public LevelNode(LevelIndex<T> index) {
@@ -78,6 +87,7 @@ public class LevelNode<T> {
                 if (child == null) {
                     child = new LevelNode<T>(levelVal, this, index);
                     children.put(levelVal, child);
+                    clearIntervalIndex();
                 }
                 child.add(levels, leafValue, depth + 1);
             }
@@ -95,6 +105,34 @@ public class LevelNode<T> {
         }
     }
 
+    void buildIntervalIndex(IntervalMatcher matcher, Type<?> type) {
+        List<String> patterns = new ArrayList<String>(children.size());
+        List<LevelNode<T>> orderedChildren = new ArrayList<LevelNode<T>>(children.size());
+        for (Map.Entry<String, LevelNode<T>> child : children.entrySet()) {
+            patterns.add(child.getKey());
+            orderedChildren.add(child.getValue());
+        }
+
+        intervalIndex = IntervalIndex.build(matcher, type, patterns);
+        intervalChildren = intervalIndex != null ? orderedChildren : null;
+    }
+
+    /**
+     * Drop references to children and leaves, used when node has been copied
+     * elsewhere and is no longer needed.
+     */
+    void release() {
+        children = null;
+        defaultNode = null;
+        leafList = null;
+        clearIntervalIndex();
+    }
+
+    private void clearIntervalIndex() {
+        intervalIndex = null;
+        intervalChildren = null;
+    }
+
     private boolean reachedLeafDepth(int depth) {
         return depth >= index.getLevelCount();
     }
@@ -117,6 +155,18 @@ public class LevelNode<T> {
         return children;
     }
 
+    /**
+     * Index of children patterns, if level matcher is {@link IntervalMatcher}
+     * and all patterns could be parsed.
+     */
+    public IntervalIndex getIntervalIndex() {
+        return intervalIndex;
+    }
+
+    public LevelNode<T> getIntervalChild(int position) {
+        return intervalChildren.get(position);
+    }
+
     public LevelNode<T> getDefaultNode() {
         return defaultNode;
     }
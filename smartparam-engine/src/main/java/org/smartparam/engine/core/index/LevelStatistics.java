@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.util.Arrays;
+import org.smartparam.engine.core.matcher.Matcher;
+
+/**
+ * Statistics of nodes that branch on values of single level, part of
+ * {@link IndexStatistics}.
+ *
+ * Fan-out is number of children reachable by level value (default child not
+ * counted), fan-out histogram counts nodes with fan-out up to (inclusive) each
+ * of {@link #getFanOutBucketBounds() }.
+ *
+ * @author Adam Dubiel
+ */
+public final class LevelStatistics {
+
+    private static final int[] FAN_OUT_BUCKET_BOUNDS = {0, 1, 4, 16, 64, 256, 1024, Integer.MAX_VALUE};
+
+    private final int depth;
+
+    private final Matcher matcher;
+
+    private final long[] fanOutHistogram = new long[FAN_OUT_BUCKET_BOUNDS.length];
+
+    private long nodes;
+
+    private long edges;
+
+    private int maxFanOut;
+
+    private long defaultNodes;
+
+    private long singleChildNodes;
+
+    private long linearScanNodes;
+
+    private int maxLinearScanFanOut;
+
+    private int distinctKeys;
+
+    LevelStatistics(int depth, Matcher matcher) {
+        this.depth = depth;
+        this.matcher = matcher;
+    }
+
+    void addNode(int fanOut, boolean hasDefault, boolean intervalIndexed) {
+        nodes++;
+        edges += fanOut;
+        maxFanOut = Math.max(maxFanOut, fanOut);
+        fanOutHistogram[fanOutBucket(fanOut)]++;
+        if (hasDefault) {
+            defaultNodes++;
+        }
+        if (fanOut + (hasDefault ? 1 : 0) == 1) {
+            singleChildNodes++;
+        }
+        if (matcher != null && !intervalIndexed && fanOut > 1) {
+            linearScanNodes++;
+            maxLinearScanFanOut = Math.max(maxLinearScanFanOut, fanOut);
+        }
+    }
+
+    private static int fanOutBucket(int fanOut) {
+        int bucket = 0;
+        while (fanOut > FAN_OUT_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    void setDistinctKeys(int distinctKeys) {
+        this.distinctKeys = distinctKeys;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Matcher of level, null if values are matched exactly.
+     */
+    public Matcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Number of nodes branching on this level.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Number of level values kept in nodes (references to value strings).
+     */
+    public long getEdges() {
+        return edges;
+    }
+
+    public int getMaxFanOut() {
+        return maxFanOut;
+    }
+
+    public double getMeanFanOut() {
+        return nodes == 0 ? 0 : (double) edges / nodes;
+    }
+
+    public static int[] getFanOutBucketBounds() {
+        return Arrays.copyOf(FAN_OUT_BUCKET_BOUNDS, FAN_OUT_BUCKET_BOUNDS.length);
+    }
+
+    public long[] getFanOutHistogram() {
+        return Arrays.copyOf(fanOutHistogram, fanOutHistogram.length);
+    }
+
+    /**
+     * Number of nodes that have default (star) child.
+     */
+    public long getDefaultNodes() {
+        return defaultNodes;
+    }
+
+    /**
+     * True if every node on this level has only default child, so level does
+     * not narrow down search at all.
+     */
+    public boolean isDefaultOnly() {
+        return nodes > 0 && edges == 0 && defaultNodes == nodes;
+    }
+
+    public long getSingleChildNodes() {
+        return singleChildNodes;
+    }
+
+    /**
+     * Number of nodes which children have to be checked one by one using
+     * level matcher, because they could not be indexed.
+     */
+    public long getLinearScanNodes() {
+        return linearScanNodes;
+    }
+
+    public int getMaxLinearScanFanOut() {
+        return maxLinearScanFanOut;
+    }
+
+    /**
+     * Number of distinct (not equal) keys on this level. Same key can be held
+     * by many nodes, this does not tell how many String instances are retained.
+     */
+    public int getDistinctKeys() {
+        return distinctKeys;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable copy of metrics collected by {@link ParamEngineInstrumentation},
+ * keyed by parameter name.
+ *
+ * @author Adam Dubiel
+ */
+public final class InstrumentationSnapshot {
+
+    static final InstrumentationSnapshot EMPTY = new InstrumentationSnapshot(Collections.<String, ParameterMetricsSnapshot>emptyMap());
+
+    private final Map<String, ParameterMetricsSnapshot> parameters;
+
+    public InstrumentationSnapshot(Map<String, ParameterMetricsSnapshot> parameters) {
+        this.parameters = Collections.unmodifiableMap(parameters);
+    }
+
+    public Set<String> parameterNames() {
+        return parameters.keySet();
+    }
+
+    /**
+     * Metrics of given parameter, null if nothing was recorded for it.
+     */
+    public ParameterMetricsSnapshot parameter(String parameterName) {
+        return parameters.get(parameterName);
+    }
+
+    public Map<String, ParameterMetricsSnapshot> parameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentationSnapshot" + parameters;
+    }
+}
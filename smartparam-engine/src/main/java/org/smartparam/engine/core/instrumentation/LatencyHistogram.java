@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free log-linear histogram of latencies in nanoseconds, in the spirit of
+ * HdrHistogram. Each power of two range is split into {@link #SUB_BUCKETS}
+ * linear buckets, so recorded values are kept with relative error below 12.5%
+ * using fixed, small amount of memory. Values above {@link #MAX_TRACKABLE_VALUE}
+ * (around 18 minutes) are recorded as {@link #MAX_TRACKABLE_VALUE}.
+ *
+ * @author Adam Dubiel
+ */
+class LatencyHistogram {
+
+    static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder total = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+        long trackedValue = value < 0 ? 0 : Math.min(value, MAX_TRACKABLE_VALUE);
+        counts.incrementAndGet(bucketIndex(trackedValue));
+        total.add(trackedValue);
+
+        long currentMax = max.get();
+        while (trackedValue > currentMax && !max.compareAndSet(currentMax, trackedValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    LatencySnapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int index = 0; index < BUCKET_COUNT; ++index) {
+            bucketCounts[index] = counts.get(index);
+        }
+        return new LatencySnapshot(bucketCounts, total.sum(), max.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value that lands in bucket with given index.
+     */
+    static long highestEquivalentValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKETS) {
+            return bucketIndex;
+        }
+        int exponent = bucketIndex / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = SUB_BUCKETS + (bucketIndex & SUB_BUCKET_MASK);
+        return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
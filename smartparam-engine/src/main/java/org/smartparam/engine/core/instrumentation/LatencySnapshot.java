@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+/**
+ * Immutable copy of latency histogram, all values are in nanoseconds.
+ * Percentiles are approximate, reported value is the highest value that falls
+ * into the same histogram bucket as the exact one.
+ *
+ * @author Adam Dubiel
+ */
+public final class LatencySnapshot {
+
+    private final long[] bucketCounts;
+
+    private final long count;
+
+    private final long total;
+
+    private final long max;
+
+    LatencySnapshot(long[] bucketCounts, long total, long max) {
+        this.bucketCounts = bucketCounts;
+        this.total = total;
+        this.max = max;
+
+        long bucketTotal = 0;
+        for (long bucketCount : bucketCounts) {
+            bucketTotal += bucketCount;
+        }
+        this.count = bucketTotal;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Value below (or at) which given percent of recorded values fall.
+     *
+     * @param percentile percentile in range 0 - 100
+     */
+    public long valueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < bucketCounts.length; ++index) {
+            seen += bucketCounts[index];
+            if (seen >= threshold) {
+                return Math.min(LatencyHistogram.highestEquivalentValue(index), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[count=%d mean=%.0f p50=%d p99=%d max=%d]",
+                count, getMean(), valueAtPercentile(50), valueAtPercentile(99), max);
+    }
+}
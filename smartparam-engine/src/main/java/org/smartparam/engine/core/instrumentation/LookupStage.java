@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+/**
+ * Measured stages of parameter lookup.
+ *
+ * @author Adam Dubiel
+ */
+public enum LookupStage {
+
+    /**
+     * Getting prepared parameter from cache (or loading it on cache miss).
+     */
+    PARAMETER_RESOLUTION,
+    /**
+     * Evaluating level creators to get level values from context.
+     */
+    LEVEL_EVALUATION,
+    /**
+     * Searching for matching entries, either walking the index or asking
+     * repository in case of non-cacheable parameter.
+     */
+    INDEX_SEARCH,
+    /**
+     * Creating {@link org.smartparam.engine.core.output.ParamValue} from matched entries.
+     */
+    VALUE_CREATION,
+    /**
+     * Loading parameter from repository and preparing it, done on cache miss.
+     */
+    LOAD_AND_PREPARE
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects per parameter lookup counts, outcomes, result cache hits/misses,
+ * number of matched entries and latency histogram of each {@link LookupStage}.
+ * Recording is lock free.
+ *
+ * Metrics are kept only for parameters that exist, so lookups of unknown names
+ * do not make this collector grow.
+ *
+ * @author Adam Dubiel
+ */
+public class MetricsInstrumentation implements ParamEngineInstrumentation {
+
+    private final ConcurrentMap<String, ParameterMetrics> metrics = new ConcurrentHashMap<String, ParameterMetrics>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void stageCompleted(String parameterName, LookupStage stage, long durationNanos) {
+        metricsFor(parameterName).recordStage(stage, durationNanos);
+    }
+
+    @Override
+    public void entriesMatched(String parameterName, int entryCount) {
+        metricsFor(parameterName).recordEntriesMatched(entryCount);
+    }
+
+    @Override
+    public void resultCacheHit(String parameterName) {
+        metricsFor(parameterName).recordCacheHit();
+    }
+
+    @Override
+    public void resultCacheMiss(String parameterName) {
+        metricsFor(parameterName).recordCacheMiss();
+    }
+
+    @Override
+    public void lookupCompleted(String parameterName, LookupOutcome outcome) {
+        metricsFor(parameterName).recordOutcome(outcome);
+    }
+
+    @Override
+    public InstrumentationSnapshot snapshot() {
+        Map<String, ParameterMetricsSnapshot> snapshots = new HashMap<String, ParameterMetricsSnapshot>();
+        for (Map.Entry<String, ParameterMetrics> entry : metrics.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new InstrumentationSnapshot(snapshots);
+    }
+
+    /**
+     * Forget all collected metrics.
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private ParameterMetrics metricsFor(String parameterName) {
+        ParameterMetrics parameterMetrics = metrics.get(parameterName);
+        if (parameterMetrics == null) {
+            parameterMetrics = new ParameterMetrics();
+            ParameterMetrics existing = metrics.putIfAbsent(parameterName, parameterMetrics);
+            if (existing != null) {
+                parameterMetrics = existing;
+            }
+        }
+        return parameterMetrics;
+    }
+}
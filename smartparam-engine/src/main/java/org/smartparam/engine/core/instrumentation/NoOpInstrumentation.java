@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+/**
+ * Default instrumentation, which collects nothing.
+ *
+ * @author Adam Dubiel
+ */
+public class NoOpInstrumentation implements ParamEngineInstrumentation {
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void stageCompleted(String parameterName, LookupStage stage, long durationNanos) {
+    }
+
+    @Override
+    public void entriesMatched(String parameterName, int entryCount) {
+    }
+
+    @Override
+    public void resultCacheHit(String parameterName) {
+    }
+
+    @Override
+    public void resultCacheMiss(String parameterName) {
+    }
+
+    @Override
+    public void lookupCompleted(String parameterName, LookupOutcome outcome) {
+    }
+
+    @Override
+    public InstrumentationSnapshot snapshot() {
+        return InstrumentationSnapshot.EMPTY;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+/**
+ * Instrumentation SPI, notified by engine about each stage of parameter lookup.
+ * Default implementation ({@link NoOpInstrumentation}) does nothing, use
+ * {@link MetricsInstrumentation} to collect per parameter counters and latency
+ * histograms. Register using
+ * {@link org.smartparam.engine.config.ParamEngineConfigBuilder#withInstrumentation(ParamEngineInstrumentation)}.
+ *
+ * Methods are called on hot path from many threads, implementations have to
+ * be thread safe and should not block.
+ *
+ * @author Adam Dubiel
+ */
+public interface ParamEngineInstrumentation {
+
+    /**
+     * If false, engine does not measure time and does not call any other method.
+     */
+    boolean isEnabled();
+
+    void stageCompleted(String parameterName, LookupStage stage, long durationNanos);
+
+    void entriesMatched(String parameterName, int entryCount);
+
+    void resultCacheHit(String parameterName);
+
+    void resultCacheMiss(String parameterName);
+
+    void lookupCompleted(String parameterName, LookupOutcome outcome);
+
+    /**
+     * Current state of collected metrics.
+     */
+    InstrumentationSnapshot snapshot();
+}
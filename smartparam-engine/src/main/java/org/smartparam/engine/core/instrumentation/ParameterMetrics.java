@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mutable, lock free metrics of single parameter.
+ *
+ * @author Adam Dubiel
+ */
+class ParameterMetrics {
+
+    private static final LookupStage[] STAGES = LookupStage.values();
+
+    private static final LookupOutcome[] OUTCOMES = LookupOutcome.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[STAGES.length];
+
+    private final LongAdder[] outcomes = new LongAdder[OUTCOMES.length];
+
+    private final LongAdder entriesMatched = new LongAdder();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
+    ParameterMetrics() {
+        for (int index = 0; index < latencies.length; ++index) {
+            latencies[index] = new LatencyHistogram();
+        }
+        for (int index = 0; index < outcomes.length; ++index) {
+            outcomes[index] = new LongAdder();
+        }
+    }
+
+    void recordStage(LookupStage stage, long durationNanos) {
+        latencies[stage.ordinal()].record(durationNanos);
+    }
+
+    void recordOutcome(LookupOutcome outcome) {
+        outcomes[outcome.ordinal()].increment();
+    }
+
+    void recordEntriesMatched(int entryCount) {
+        entriesMatched.add(entryCount);
+    }
+
+    void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    ParameterMetricsSnapshot snapshot() {
+        LatencySnapshot[] latencySnapshots = new LatencySnapshot[latencies.length];
+        for (int index = 0; index < latencies.length; ++index) {
+            latencySnapshots[index] = latencies[index].snapshot();
+        }
+        long[] outcomeCounts = new long[outcomes.length];
+        for (int index = 0; index < outcomes.length; ++index) {
+            outcomeCounts[index] = outcomes[index].sum();
+        }
+        return new ParameterMetricsSnapshot(outcomeCounts, entriesMatched.sum(), cacheHits.sum(), cacheMisses.sum(), latencySnapshots);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+/**
+ * Immutable copy of metrics collected for single parameter.
+ *
+ * @author Adam Dubiel
+ */
+public final class ParameterMetricsSnapshot {
+
+    private final long[] outcomeCounts;
+
+    private final long entriesMatched;
+
+    private final long cacheHits;
+
+    private final long cacheMisses;
+
+    private final LatencySnapshot[] latencies;
+
+    ParameterMetricsSnapshot(long[] outcomeCounts, long entriesMatched, long cacheHits, long cacheMisses, LatencySnapshot[] latencies) {
+        this.outcomeCounts = outcomeCounts;
+        this.entriesMatched = entriesMatched;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Number of completed lookups, regardless of outcome.
+     */
+    public long getLookups() {
+        long lookups = 0;
+        for (long outcomeCount : outcomeCounts) {
+            lookups += outcomeCount;
+        }
+        return lookups;
+    }
+
+    public long getOutcomeCount(LookupOutcome outcome) {
+        return outcomeCounts[outcome.ordinal()];
+    }
+
+    /**
+     * Total number of entries matched by all lookups (result cache hits excluded).
+     */
+    public long getEntriesMatched() {
+        return entriesMatched;
+    }
+
+    public long getResultCacheHits() {
+        return cacheHits;
+    }
+
+    public long getResultCacheMisses() {
+        return cacheMisses;
+    }
+
+    public LatencySnapshot getLatency(LookupStage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(256);
+        builder.append("[lookups=").append(getLookups());
+        for (LookupOutcome outcome : LookupOutcome.values()) {
+            builder.append(' ').append(outcome).append('=').append(getOutcomeCount(outcome));
+        }
+        builder.append(" entriesMatched=").append(entriesMatched)
+                .append(" cacheHits=").append(cacheHits)
+                .append(" cacheMisses=").append(cacheMisses);
+        for (LookupStage stage : LookupStage.values()) {
+            builder.append(' ').append(stage).append('=').append(getLatency(stage));
+        }
+        return builder.append(']').toString();
+    }
+}
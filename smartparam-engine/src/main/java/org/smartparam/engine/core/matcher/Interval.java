@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.matcher;
+
+import org.smartparam.engine.core.type.ValueHolder;
+
+/**
+ * Pre-parsed range pattern, lower and upper bound are typed values or null
+ * when range is unbounded on given side.
+ *
+ * @author Adam Dubiel
+ */
+public final class Interval {
+
+    private final ValueHolder lower;
+
+    private final boolean lowerInclusive;
+
+    private final ValueHolder upper;
+
+    private final boolean upperInclusive;
+
+    public Interval(ValueHolder lower, boolean lowerInclusive, ValueHolder upper, boolean upperInclusive) {
+        this.lower = lower;
+        this.lowerInclusive = lowerInclusive;
+        this.upper = upper;
+        this.upperInclusive = upperInclusive;
+    }
+
+    public boolean contains(ValueHolder value) {
+        return lowerAdmits(value) && upperAdmits(value);
+    }
+
+    /**
+     * Is value above lower bound.
+     */
+    public boolean lowerAdmits(ValueHolder value) {
+        if (lower == null) {
+            return true;
+        }
+        return lowerInclusive ? lower.compareTo(value) <= 0 : lower.compareTo(value) < 0;
+    }
+
+    /**
+     * Is value below upper bound.
+     */
+    public boolean upperAdmits(ValueHolder value) {
+        if (upper == null) {
+            return true;
+        }
+        return upperInclusive ? value.compareTo(upper) <= 0 : value.compareTo(upper) < 0;
+    }
+
+    /**
+     * Compare lower bounds, interval that admits more values goes first.
+     */
+    public int compareLower(Interval other) {
+        if (lower == null || other.lower == null) {
+            return lower == null ? (other.lower == null ? 0 : -1) : 1;
+        }
+        int comparison = lower.compareTo(other.lower);
+        if (comparison == 0 && lowerInclusive != other.lowerInclusive) {
+            return lowerInclusive ? -1 : 1;
+        }
+        return comparison;
+    }
+
+    /**
+     * Compare upper bounds, interval that admits more values goes last.
+     */
+    public int compareUpper(Interval other) {
+        if (upper == null || other.upper == null) {
+            return upper == null ? (other.upper == null ? 0 : 1) : -1;
+        }
+        int comparison = upper.compareTo(other.upper);
+        if (comparison == 0 && upperInclusive != other.upperInclusive) {
+            return upperInclusive ? 1 : -1;
+        }
+        return comparison;
+    }
+
+    public ValueHolder lower() {
+        return lower;
+    }
+
+    public boolean isLowerInclusive() {
+        return lowerInclusive;
+    }
+
+    public ValueHolder upper() {
+        return upper;
+    }
+
+    public boolean isUpperInclusive() {
+        return upperInclusive;
+    }
+
+    @Override
+    public String toString() {
+        return (lowerInclusive ? "[" : "(") + (lower != null ? lower.getValue() : "*") + ", "
+                + (upper != null ? upper.getValue() : "*") + (upperInclusive ? "]" : ")");
+    }
+}
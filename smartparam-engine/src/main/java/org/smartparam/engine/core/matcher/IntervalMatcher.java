@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.matcher;
+
+import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.core.type.ValueHolder;
+
+/**
+ * Matcher which patterns describe ranges of values. Patterns of such matcher
+ * are parsed once when building index and kept in
+ * {@link org.smartparam.engine.core.index.IntervalIndex}, so that lookup does
+ * not have to check every pattern.
+ *
+ * @author Adam Dubiel
+ */
+public interface IntervalMatcher extends Matcher {
+
+    /**
+     * Parse pattern into interval. For any value, {@link #matches(String, String, Type)}
+     * has to return the same as {@link Interval#contains(ValueHolder)} called
+     * with decoded value. Return null if pattern can not be represented as interval,
+     * matcher will be used as usual.
+     */
+    <T extends ValueHolder> Interval interval(String pattern, Type<T> type);
+}
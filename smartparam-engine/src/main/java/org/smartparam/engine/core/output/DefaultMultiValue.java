@@ -59,6 +59,25 @@ public class DefaultMultiValue implements MultiValue {
         this.key = key;
     }
 
+    /**
+     * Creates multi value that, if copyValues is false, is backed directly by
+     * given values array. Use only with arrays that are not modified afterwards,
+     * like output values pre-decoded in {@link org.smartparam.engine.core.prepared.PreparedEntry}.
+     */
+    public DefaultMultiValue(ParameterEntryKey key, Object[] values, Map<String, Integer> indexMap, boolean copyValues) {
+        this.values = copyValues ? Arrays.copyOf(values, values.length) : values;
+        this.indexMap = indexMap;
+        this.key = key;
+    }
+
+    /**
+     * Returns new multi value backed by the same values, but with its own
+     * iteration state.
+     */
+    public DefaultMultiValue copy() {
+        return new DefaultMultiValue(key, values, indexMap, false);
+    }
+
     @Override
     public ParameterEntryKey getKey() {
         if (key == null) {
@@ -196,8 +215,16 @@ public class DefaultMultiValue implements MultiValue {
         }
     }
 
+    /**
+     * Returns copy of stored array, as values might be shared with other
+     * multi values created from the same prepared entry.
+     */
     @Override
     public ValueHolder[] getArray(int position) {
+        return holderArray(position).clone();
+    }
+
+    private ValueHolder[] holderArray(int position) {
         Object obj = getAbstractHolder(position);
 
         if (obj instanceof ValueHolder[]) {
@@ -236,7 +263,7 @@ public class DefaultMultiValue implements MultiValue {
 
     @Override
     public String[] getStringArray(int position) {
-        ValueHolder[] array = getArray(position);
+        ValueHolder[] array = holderArray(position);
         String[] result = new String[array.length];
         for (int i = 0; i < result.length; i++) {
             result[i] = array[i].getString();
@@ -246,7 +273,7 @@ public class DefaultMultiValue implements MultiValue {
 
     @Override
     public Date[] getDateArray(int position) {
-        ValueHolder[] array = getArray(position);
+        ValueHolder[] array = holderArray(position);
         Date[] result = new Date[array.length];
         for (int i = 0; i < result.length; i++) {
             result[i] = array[i].getDate();
@@ -256,7 +283,7 @@ public class DefaultMultiValue implements MultiValue {
 
     @Override
     public Integer[] getIntegerArray(int position) {
-        ValueHolder[] array = getArray(position);
+        ValueHolder[] array = holderArray(position);
         Integer[] result = new Integer[array.length];
         for (int i = 0; i < result.length; i++) {
             result[i] = array[i].getInteger();
@@ -266,7 +293,7 @@ public class DefaultMultiValue implements MultiValue {
 
     @Override
     public Long[] getLongArray(int position) {
-        ValueHolder[] array = getArray(position);
+        ValueHolder[] array = holderArray(position);
         Long[] result = new Long[array.length];
         for (int i = 0; i < result.length; i++) {
             result[i] = array[i].getLong();
@@ -276,7 +303,7 @@ public class DefaultMultiValue implements MultiValue {
 
     @Override
     public Boolean[] getBooleanArray(int position) {
-        ValueHolder[] array = getArray(position);
+        ValueHolder[] array = holderArray(position);
         Boolean[] result = new Boolean[array.length];
         for (int i = 0; i < result.length; i++) {
             result[i] = array[i].getBoolean();
@@ -286,7 +313,7 @@ public class DefaultMultiValue implements MultiValue {
 
     @Override
     public BigDecimal[] getBigDecimalArray(int position) {
-        ValueHolder[] array = getArray(position);
+        ValueHolder[] array = holderArray(position);
         BigDecimal[] result = new BigDecimal[array.length];
         for (int i = 0; i < result.length; i++) {
             result[i] = array[i].getBigDecimal();
@@ -37,6 +37,18 @@ public class DefaultParamValue extends AbstractParamValue {
         return new DefaultParamValue(new ArrayList<MultiValue>(), null);
     }
 
+    /**
+     * Returns value with copies of rows, so that iteration state of rows
+     * (see {@link MultiValue#next() }) is not shared.
+     */
+    public DefaultParamValue copy() {
+        List<MultiValue> rowsCopy = new ArrayList<MultiValue>(rows.size());
+        for (MultiValue row : rows) {
+            rowsCopy.add(row instanceof DefaultMultiValue ? ((DefaultMultiValue) row).copy() : row);
+        }
+        return new DefaultParamValue(rowsCopy, sourceRepository());
+    }
+
     @Override
     protected MultiValue rawRowAt(int rowNo) {
         return rows.get(rowNo);
@@ -37,6 +37,11 @@ public class DetailedMultiValue extends DefaultMultiValue implements MultiValue
         this.entry = entry;
     }
 
+    public DetailedMultiValue(MapEntry entry, ParameterEntryKey key, Object[] values, Map<String, Integer> indexMap, boolean copyValues) {
+        super(key, values, indexMap, copyValues);
+        this.entry = entry;
+    }
+
     public MapEntry entry() {
         return entry;
     }
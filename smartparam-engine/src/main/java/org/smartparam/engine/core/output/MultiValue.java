@@ -75,6 +75,7 @@ public interface MultiValue {
      * This string list is split into array of values using separator defined at
      * parameter level ({@link Parameter#getArraySeparator()}).
      * Type of each value holder in array is the same, defined by level type.
+     * Returned array is a copy, modifying it does not change this multi value.
      */
     ValueHolder[] getArray(int position);
 
@@ -18,13 +18,9 @@ package org.smartparam.engine.core.output.factory;
 import java.util.ArrayList;
 import java.util.List;
 import org.smartparam.engine.core.output.MultiValue;
+import org.smartparam.engine.core.prepared.OutputValuesDecoder;
 import org.smartparam.engine.core.prepared.PreparedEntry;
-import org.smartparam.engine.core.prepared.PreparedLevel;
 import org.smartparam.engine.core.prepared.PreparedParameter;
-import org.smartparam.engine.core.type.Type;
-import org.smartparam.engine.core.type.ValueHolder;
-import org.smartparam.engine.core.type.decode.TypeDecoder;
-import org.smartparam.engine.util.EngineUtil;
 
 /**
  *
@@ -32,50 +28,22 @@ import org.smartparam.engine.util.EngineUtil;
  */
 abstract class AbstractParamValueFactory<M extends MultiValue> {
 
+    /**
+     * Values vector is either freshly decoded or pre-decoded and shared
+     * between reads, in both cases it does not need to be copied.
+     */
     protected abstract M createMultiValue(PreparedParameter parameter, PreparedEntry preparedEntry, Object[] values);
 
     protected List<M> createRows(PreparedParameter parameter, PreparedEntry[] preparedEntries) {
-        int inputLevelCount = parameter.getInputLevelsCount();
-        int oputputLevelCount = parameter.getLevelCount() - inputLevelCount;
-
         List<M> multiValueRows = new ArrayList<M>(preparedEntries.length);
         for (PreparedEntry preparedEntry : preparedEntries) {
-            PreparedLevel[] levels = parameter.getLevels();
-            Object[] vector = new Object[oputputLevelCount];
-
-            for (int columnIndex = 0; columnIndex < oputputLevelCount; ++columnIndex) {
-                String cellText = preparedEntry.getLevel(inputLevelCount + columnIndex);
-                PreparedLevel level = levels[inputLevelCount + columnIndex];
-
-                Type<?> cellType = level.getType();
-                Object cellValue;
-
-                if (level.isArray()) {
-                    cellValue = evaluateStringAsArray(cellText, cellType, ',');
-                } else {
-                    cellValue = TypeDecoder.decode(cellType, cellText);
-                }
-
-                vector[columnIndex] = cellValue;
+            Object[] vector = preparedEntry.getDecodedOutputValues();
+            if (vector == null) {
+                vector = OutputValuesDecoder.decode(parameter.getLevels(), parameter.getInputLevelsCount(), preparedEntry);
             }
-
             multiValueRows.add(createMultiValue(parameter, preparedEntry, vector));
         }
 
         return multiValueRows;
     }
-
-    private ValueHolder[] evaluateStringAsArray(String value, Type<?> type, char separator) {
-        if (EngineUtil.hasText(value)) {
-            String[] tokens = EngineUtil.split(value, separator);
-            ValueHolder[] array = type.newArray(tokens.length);
-            for (int i = 0; i < tokens.length; i++) {
-                array[i] = TypeDecoder.decode(type, tokens[i]);
-            }
-            return array;
-
-        } else {
-            return type.newArray(0);
-        }
-    }
 }
@@ -41,7 +41,7 @@ public class DefaultParamValueFactory extends AbstractParamValueFactory<MultiVal
 
     @Override
     protected MultiValue createMultiValue(PreparedParameter parameter, PreparedEntry preparedEntry, Object[] values) {
-        return new DefaultMultiValue(extractEntryKey(preparedEntry), values, parameter.getLevelNameMap());
+        return new DefaultMultiValue(extractEntryKey(preparedEntry), values, parameter.getLevelNameMap(), false);
     }
 
 }
@@ -53,7 +53,7 @@ public class DetailedParamValueFactory extends AbstractParamValueFactory<Detaile
     @Override
     protected DetailedMultiValue createMultiValue(PreparedParameter parameter, PreparedEntry preparedEntry, Object[] values) {
         MapEntry entry = entryMapFactory.asMap(parameter, preparedEntry);
-        return new DetailedMultiValue(entry, extractEntryKey(preparedEntry), values, parameter.getLevelNameMap());
+        return new DetailedMultiValue(entry, extractEntryKey(preparedEntry), values, parameter.getLevelNameMap(), false);
     }
 
 }
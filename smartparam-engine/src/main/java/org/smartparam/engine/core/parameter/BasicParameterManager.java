@@ -18,13 +18,19 @@ package org.smartparam.engine.core.parameter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.smartparam.engine.core.instrumentation.LookupStage;
+import org.smartparam.engine.core.instrumentation.NoOpInstrumentation;
+import org.smartparam.engine.core.instrumentation.ParamEngineInstrumentation;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
 import org.smartparam.engine.core.parameter.request.ParameterRequest;
 import org.smartparam.engine.core.parameter.request.ParameterRequestQueue;
 import org.smartparam.engine.core.prepared.ParamPreparer;
+import org.smartparam.engine.core.prepared.PreparationConfig;
 import org.smartparam.engine.core.prepared.PreparedEntry;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.smartparam.engine.core.prepared.RefreshableParamCache;
 
 /**
  *
@@ -42,34 +48,77 @@ public class BasicParameterManager implements ParameterManager {
 
     private final ParameterRequest request;
 
+    private final PreparationConfig preparationConfig;
+
+    private final ParamEngineInstrumentation instrumentation;
+
     public BasicParameterManager(ParamPreparer preparer,
             ParameterProvider parameterProvider,
             PreparedParamCache cache,
             ParameterRequestQueue requestQueue) {
+        this(preparer, parameterProvider, cache, requestQueue, new PreparationConfig());
+    }
+
+    public BasicParameterManager(ParamPreparer preparer,
+            ParameterProvider parameterProvider,
+            PreparedParamCache cache,
+            ParameterRequestQueue requestQueue,
+            PreparationConfig preparationConfig) {
+        this(preparer, parameterProvider, cache, requestQueue, preparationConfig, new NoOpInstrumentation());
+    }
+
+    public BasicParameterManager(ParamPreparer preparer,
+            ParameterProvider parameterProvider,
+            PreparedParamCache cache,
+            ParameterRequestQueue requestQueue,
+            PreparationConfig preparationConfig,
+            ParamEngineInstrumentation instrumentation) {
+        this.preparationConfig = preparationConfig;
+        this.instrumentation = instrumentation;
         this.preparer = preparer;
         this.parameterProvider = parameterProvider;
         this.cache = cache;
         this.requestQueue = requestQueue;
 
         request = createRequest();
+        if (cache instanceof RefreshableParamCache) {
+            ((RefreshableParamCache) cache).registerRefreshRequest(createRefreshRequest());
+        }
     }
 
     private ParameterRequest createRequest() {
         return new ParameterRequest() {
             @Override
             public PreparedParameter loadAndPrepare(String parameterName) {
-                ParameterFromRepository parameter = parameterProvider.load(parameterName);
+                long start = instrumentation.isEnabled() ? System.nanoTime() : 0;
+                ParameterFromRepository parameter = preparationConfig.batchLoad(parameterName)
+                        ? parameterProvider.batchLoad(parameterName)
+                        : parameterProvider.load(parameterName);
                 if (parameter == null) {
                     return null;
                 }
 
                 PreparedParameter preparedParameter = preparer.prepare(parameter);
                 cache.put(parameterName, preparedParameter);
+
+                if (instrumentation.isEnabled()) {
+                    instrumentation.stageCompleted(parameterName, LookupStage.LOAD_AND_PREPARE, System.nanoTime() - start);
+                }
                 return preparedParameter;
             }
         };
     }
 
+    private ParameterRequest createRefreshRequest() {
+        // refresh goes through queue, so it is merged with concurrent requests for same parameter
+        return new ParameterRequest() {
+            @Override
+            public PreparedParameter loadAndPrepare(String parameterName) {
+                return requestQueue.resolve(parameterName, request);
+            }
+        };
+    }
+
     @Override
     public PreparedParameter getPreparedParameter(final String parameterName) {
         PreparedParameter preparedParameter = cache.get(parameterName);
@@ -81,9 +130,23 @@ public class BasicParameterManager implements ParameterManager {
         return preparedParameter;
     }
 
+    @Override
+    public CompletableFuture<PreparedParameter> getPreparedParameterAsync(String parameterName) {
+        PreparedParameter preparedParameter = cache.get(parameterName);
+
+        if (preparedParameter != null) {
+            return CompletableFuture.completedFuture(preparedParameter);
+        }
+        return requestQueue.resolveAsync(parameterName, request);
+    }
+
     @Override
     public List<PreparedEntry> findEntries(String paramName, String[] levelValues) {
         Set<ParameterEntry> entries = parameterProvider.findEntries(paramName, levelValues);
+        if (entries == null) {
+            // parameter was removed in the meantime or repository does not support searching
+            return null;
+        }
 
         List<PreparedEntry> result = new ArrayList<PreparedEntry>(entries.size());
         for (ParameterEntry pe : entries) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 Adam Dubiel, Przemek Hertel.
+ * Copyright 2014 Adam Dubiel.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,22 +15,68 @@
  */
 package org.smartparam.engine.core.parameter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
 import org.smartparam.engine.core.repository.ListRepository;
 import org.smartparam.engine.core.repository.RepositoryName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
+ * Searches registered repositories in order of registration, first repository
+ * that returns parameter wins. How repositories are searched can be tuned
+ * using {@link ParameterResolutionConfig}.
  *
  * @author Adam Dubiel
  */
 public class BasicParameterProvider implements ParameterProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(BasicParameterProvider.class);
+
     private final ListRepository<NamedParamRepository> innerRepository = new ListRepository<NamedParamRepository>(NamedParamRepository.class);
 
+    private final ParameterResolutionConfig resolutionConfig;
+
+    private final Object routingTableLock = new Object();
+
+    private volatile Map<String, NamedParamRepository> routingTable;
+
+    public BasicParameterProvider() {
+        this(ParameterResolutionConfig.parameterResolutionConfig());
+    }
+
+    public BasicParameterProvider(ParameterResolutionConfig resolutionConfig) {
+        this.resolutionConfig = resolutionConfig;
+    }
+
     @Override
     public ParameterFromRepository load(String parameterName) {
+        NamedParamRepository route = route(parameterName);
+        if (route != null) {
+            Parameter parameter = route.repository().load(parameterName);
+            if (parameter != null) {
+                return new ParameterFromRepository(parameter, route.name());
+            }
+            invalidateRoute(parameterName);
+        }
+
+        ParameterFromRepository found = resolutionConfig.isConcurrentProbing()
+                ? probeConcurrently(parameterName) : probe(parameterName);
+        if (found != null) {
+            updateRoute(parameterName, found.repositoryName());
+        }
+        return found;
+    }
+
+    private ParameterFromRepository probe(String parameterName) {
         Parameter parameter;
         RepositoryName name;
         for (NamedParamRepository repository : innerRepository.getItems()) {
@@ -43,8 +89,93 @@ public class BasicParameterProvider implements ParameterProvider {
         return null;
     }
 
+    private ParameterFromRepository probeConcurrently(final String parameterName) {
+        List<NamedParamRepository> repositories = innerRepository.getItems();
+        if (repositories.size() < 2) {
+            return probe(parameterName);
+        }
+
+        ExecutorService executor = resolutionConfig.getProbingExecutor();
+        List<Future<Parameter>> results = new ArrayList<Future<Parameter>>(repositories.size());
+        for (final NamedParamRepository repository : repositories) {
+            results.add(executor.submit(new Callable<Parameter>() {
+                @Override
+                public Parameter call() {
+                    return repository.repository().load(parameterName);
+                }
+            }));
+        }
+
+        int index = 0;
+        try {
+            for (; index < results.size(); ++index) {
+                Parameter parameter = results.get(index).get();
+                if (parameter != null) {
+                    return new ParameterFromRepository(parameter, repositories.get(index).name());
+                }
+            }
+            return null;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ParameterResolutionException(parameterName, exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ParameterResolutionException(parameterName, cause);
+        } finally {
+            for (int lowerPriority = index + 1; lowerPriority < results.size(); ++lowerPriority) {
+                results.get(lowerPriority).cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public ParameterFromRepository batchLoad(String parameterName) {
+        NamedParamRepository route = route(parameterName);
+        if (route != null) {
+            ParameterFromRepository found = batchLoad(route, parameterName);
+            if (found != null) {
+                return found;
+            }
+            invalidateRoute(parameterName);
+        }
+
+        for (NamedParamRepository repository : innerRepository.getItems()) {
+            ParameterFromRepository found = batchLoad(repository, parameterName);
+            if (found != null) {
+                updateRoute(parameterName, found.repositoryName());
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private ParameterFromRepository batchLoad(NamedParamRepository repository, String parameterName) {
+        ParameterBatchLoader batchLoader = repository.repository().batchLoad(parameterName);
+        if (batchLoader == null) {
+            return null;
+        }
+        if (batchLoader.getMetadata() != null) {
+            return new ParameterFromRepository(batchLoader, repository.name());
+        }
+        if (batchLoader.getEntryLoader() != null) {
+            batchLoader.getEntryLoader().close();
+        }
+        return null;
+    }
+
     @Override
     public Set<ParameterEntry> findEntries(String parameterName, String[] levelValues) {
+        NamedParamRepository route = route(parameterName);
+        if (route != null) {
+            Set<ParameterEntry> entries = route.repository().findEntries(parameterName, levelValues);
+            if (entries != null) {
+                return entries;
+            }
+        }
+
         Set<ParameterEntry> entries = null;
         for (NamedParamRepository repository : innerRepository.getItems()) {
             entries = repository.repository().findEntries(parameterName, levelValues);
@@ -55,9 +186,101 @@ public class BasicParameterProvider implements ParameterProvider {
         return entries;
     }
 
+    private NamedParamRepository route(String parameterName) {
+        if (!resolutionConfig.isRoutingTable()) {
+            return null;
+        }
+        Map<String, NamedParamRepository> table = routingTable;
+        if (table == null) {
+            synchronized (routingTableLock) {
+                table = routingTable;
+                if (table == null) {
+                    table = buildRoutingTable();
+                    routingTable = table;
+                }
+            }
+        }
+        return table.get(parameterName);
+    }
+
+    private Map<String, NamedParamRepository> buildRoutingTable() {
+        Map<String, NamedParamRepository> table = new HashMap<String, NamedParamRepository>();
+        for (NamedParamRepository repository : innerRepository.getItems()) {
+            Set<String> names;
+            try {
+                names = repository.repository().listParameters();
+            } catch (RuntimeException exception) {
+                // routes from lower priority repositories could shadow parameters
+                // held by this one, so stop here and probe for the rest
+                logger.warn("failed to list parameters of repository {}, routing table will be incomplete", repository.name().value(), exception);
+                break;
+            }
+            if (names == null) {
+                // same as above, repository might hold parameters it did not list
+                logger.warn("repository {} did not list its parameters, routing table will be incomplete", repository.name().value());
+                break;
+            }
+            for (String name : names) {
+                if (!table.containsKey(name)) {
+                    table.put(name, repository);
+                }
+            }
+        }
+        return table;
+    }
+
+    private void updateRoute(String parameterName, RepositoryName repositoryName) {
+        if (!resolutionConfig.isRoutingTable()) {
+            return;
+        }
+        synchronized (routingTableLock) {
+            Map<String, NamedParamRepository> table = routingTable;
+            if (table == null) {
+                return;
+            }
+            for (NamedParamRepository repository : innerRepository.getItems()) {
+                if (repository.name().equals(repositoryName)) {
+                    Map<String, NamedParamRepository> updated = new HashMap<String, NamedParamRepository>(table);
+                    updated.put(parameterName, repository);
+                    routingTable = updated;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop routing table, it will be rebuilt on next request. Routes are not
+     * refreshed on their own, so this has to be called when parameters are
+     * added to or removed from repositories - otherwise parameter added to
+     * higher priority repository is still loaded from the one in routing table.
+     */
+    public void invalidateRoutingTable() {
+        synchronized (routingTableLock) {
+            routingTable = null;
+        }
+    }
+
+    /**
+     * Drop route of single parameter, it will be looked up in all repositories
+     * on next request. Use instead of {@link #invalidateRoutingTable()} when
+     * only this parameter was added to or removed from repository.
+     */
+    public void invalidateRoute(String parameterName) {
+        synchronized (routingTableLock) {
+            Map<String, NamedParamRepository> table = routingTable;
+            if (table != null && table.containsKey(parameterName)) {
+                Map<String, NamedParamRepository> updated = new HashMap<String, NamedParamRepository>(table);
+                updated.remove(parameterName);
+                routingTable = updated;
+            }
+        }
+    }
+
     @Override
     public void register(NamedParamRepository repository) {
         innerRepository.register(repository);
+        invalidateRoutingTable();
     }
 
     @Override
@@ -68,6 +291,7 @@ public class BasicParameterProvider implements ParameterProvider {
     @Override
     public void registerAll(List<NamedParamRepository> repositories) {
         innerRepository.registerAll(repositories);
+        invalidateRoutingTable();
     }
 
 }
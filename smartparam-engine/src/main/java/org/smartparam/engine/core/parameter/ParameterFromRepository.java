@@ -15,9 +15,12 @@
  */
 package org.smartparam.engine.core.parameter;
 
+import org.smartparam.engine.core.parameter.entry.ParameterEntryBatchLoader;
 import org.smartparam.engine.core.repository.RepositoryName;
 
 /**
+ * Parameter read from repository, either as whole (with all entries) or as
+ * metadata plus batch loader of entries.
  *
  * @author Adam Dubiel
  */
@@ -27,9 +30,18 @@ public class ParameterFromRepository {
 
     private final RepositoryName repositoryName;
 
+    private final ParameterEntryBatchLoader entryBatchLoader;
+
     public ParameterFromRepository(Parameter parameter, RepositoryName repositoryName) {
         this.parameter = parameter;
         this.repositoryName = repositoryName;
+        this.entryBatchLoader = null;
+    }
+
+    public ParameterFromRepository(ParameterBatchLoader batchLoader, RepositoryName repositoryName) {
+        this.parameter = batchLoader.getMetadata();
+        this.repositoryName = repositoryName;
+        this.entryBatchLoader = batchLoader.getEntryLoader();
     }
 
     public Parameter parameter() {
@@ -39,4 +51,16 @@ public class ParameterFromRepository {
     public RepositoryName repositoryName() {
         return repositoryName;
     }
+
+    /**
+     * If true, {@link #parameter() } holds only metadata and entries should
+     * be read using {@link #entryBatchLoader() }.
+     */
+    public boolean isBatched() {
+        return entryBatchLoader != null;
+    }
+
+    public ParameterEntryBatchLoader entryBatchLoader() {
+        return entryBatchLoader;
+    }
 }
@@ -16,6 +16,7 @@
 package org.smartparam.engine.core.parameter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.smartparam.engine.core.prepared.PreparedEntry;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 
@@ -34,6 +35,12 @@ public interface ParameterManager {
      */
     PreparedParameter getPreparedParameter(String parameterName);
 
+    /**
+     * Non-blocking variant of {@link #getPreparedParameter(java.lang.String) },
+     * future completes with null if there is no such parameter.
+     */
+    CompletableFuture<PreparedParameter> getPreparedParameterAsync(String parameterName);
+
     /**
      * Returns list of parameter rows that match given level values.
      *
@@ -27,6 +27,13 @@ public interface ParameterProvider {
 
     ParameterFromRepository load(String parameterName);
 
+    /**
+     * Returns parameter metadata with batch loader of entries, so parameter
+     * can be prepared without holding all raw entries in memory at once.
+     * Caller is responsible for closing entry loader.
+     */
+    ParameterFromRepository batchLoad(String parameterName);
+
     Set<ParameterEntry> findEntries(String parameterName, String[] levelValues);
 
     void register(NamedParamRepository repository);
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.parameter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Controls how {@link BasicParameterProvider} finds repository that holds
+ * parameter. By default repositories are asked one by one, in order of
+ * registration, until one of them returns parameter.
+ *
+ * With concurrent probing, all repositories are asked at once using given
+ * executor, but priority is kept: result from repository registered first
+ * wins and work of lower priority repositories is cancelled. Concurrent
+ * probing applies to loading whole parameters only - batch loading would open
+ * entry loaders (and their resources) in every repository and looking up
+ * entries of noncacheable parameters is done one repository at a time.
+ *
+ * With routing table, names listed by repositories ({@link ParamRepository#listParameters() })
+ * are mapped to owning repository, so later loads go straight to it. Names
+ * missing from table are looked up in all repositories. Table is not refreshed
+ * on its own: when parameters are added to or removed from repositories call
+ * {@link BasicParameterProvider#invalidateRoutingTable()} (or
+ * {@link BasicParameterProvider#invalidateRoute(String)}), otherwise
+ * parameter added to higher priority repository stays shadowed by route to
+ * lower priority one.
+ *
+ * @author Adam Dubiel
+ */
+public class ParameterResolutionConfig {
+
+    private ExecutorService probingExecutor;
+
+    private boolean routingTable;
+
+    public static ParameterResolutionConfig parameterResolutionConfig() {
+        return new ParameterResolutionConfig();
+    }
+
+    /**
+     * Ask all repositories concurrently, using given executor.
+     */
+    public ParameterResolutionConfig withConcurrentProbing(ExecutorService probingExecutor) {
+        this.probingExecutor = probingExecutor;
+        return this;
+    }
+
+    /**
+     * Keep table of parameter name to owning repository.
+     */
+    public ParameterResolutionConfig withRoutingTable() {
+        this.routingTable = true;
+        return this;
+    }
+
+    public ExecutorService getProbingExecutor() {
+        return probingExecutor;
+    }
+
+    public boolean isConcurrentProbing() {
+        return probingExecutor != null;
+    }
+
+    public boolean isRoutingTable() {
+        return routingTable;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.smartparam.engine.core.parameter.request;
 
+import java.util.concurrent.TimeUnit;
 import org.smartparam.engine.core.exception.SmartParamException;
 
 /**
@@ -29,4 +30,9 @@ public class ParameterRequestException extends SmartParamException {
                 "Failed to fetch and prepare parameter " + parameterName);
     }
 
+    ParameterRequestException(String parameterName, long timeout, TimeUnit timeoutUnit) {
+        super("PARAMETER_REQUEST_TIMEOUT",
+                "Parameter " + parameterName + " was not fetched and prepared within " + timeout + " " + timeoutUnit);
+    }
+
 }
@@ -16,6 +16,7 @@
 
 package org.smartparam.engine.core.parameter.request;
 
+import java.util.concurrent.CompletableFuture;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 
 /**
@@ -26,4 +27,10 @@ public interface ParameterRequestQueue {
 
     PreparedParameter resolve(String parameterName, ParameterRequest request);
 
+    /**
+     * Non-blocking variant of {@link #resolve(java.lang.String, org.smartparam.engine.core.parameter.request.ParameterRequest) },
+     * returned future completes with prepared parameter (or null if there is none).
+     */
+    CompletableFuture<PreparedParameter> resolveAsync(String parameterName, ParameterRequest request);
+
 }
@@ -15,62 +15,167 @@
  */
 package org.smartparam.engine.core.parameter.request;
 
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 
 /**
+ * Single-flight parameter loader. Only first request for given parameter
+ * triggers loading (on provided executor), all concurrent requests for the same
+ * parameter join in-flight load and share its result. Request is forgotten as
+ * soon as load completes, so next one (if cache did not catch it) will
+ * trigger new load.
+ *
+ * Synchronous callers wait at most for configured timeout (if any); timing out
+ * does not cancel the load, it might still complete and populate cache.
+ * Number of callers coalesced into each load is logged at debug level and
+ * summed up in {@link #coalescedRequestCount() }.
  *
  * @author Adam Dubiel
  */
 public class QueuingParameterRequestResolver implements ParameterRequestQueue {
 
+    public static final long NO_TIMEOUT = 0;
+
+    private static final Logger logger = LoggerFactory.getLogger(QueuingParameterRequestResolver.class);
+
     private final ExecutorService executorService;
 
-    private final ConcurrentHashMap<String, Future<PreparedParameter>> currentRequests = new ConcurrentHashMap<String, Future<PreparedParameter>>();
+    private final long timeout;
+
+    private final TimeUnit timeoutUnit;
+
+    private final ConcurrentMap<String, InFlightRequest> currentRequests = new ConcurrentHashMap<String, InFlightRequest>();
+
+    private final AtomicLong loadCount = new AtomicLong();
+
+    private final AtomicLong coalescedRequestCount = new AtomicLong();
 
     public QueuingParameterRequestResolver(ExecutorService executorService) {
+        this(executorService, NO_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    public QueuingParameterRequestResolver(ExecutorService executorService, long timeout, TimeUnit timeoutUnit) {
         this.executorService = executorService;
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
     }
 
     @Override
     public PreparedParameter resolve(String parameterName, ParameterRequest request) {
-        Future<PreparedParameter> waitingRequest = currentRequests.get(parameterName);
-        if (waitingRequest == null) {
-            waitingRequest = executorService.submit(new ParameterResolvingCallable(parameterName, request));
-            currentRequests.put(parameterName, waitingRequest);
+        return resolvePromise(parameterName, resolveAsync(parameterName, request));
+    }
+
+    @Override
+    public CompletableFuture<PreparedParameter> resolveAsync(String parameterName, ParameterRequest request) {
+        InFlightRequest candidate = new InFlightRequest();
+        InFlightRequest inFlight = currentRequests.putIfAbsent(parameterName, candidate);
+
+        if (inFlight != null) {
+            inFlight.coalescedRequests.incrementAndGet();
+            coalescedRequestCount.incrementAndGet();
+            return inFlight.result;
+        }
+
+        start(parameterName, request, candidate);
+        return candidate.result;
+    }
+
+    private void start(String parameterName, ParameterRequest request, InFlightRequest inFlight) {
+        loadCount.incrementAndGet();
+        try {
+            executorService.execute(new ParameterResolvingTask(parameterName, request, inFlight));
+        } catch (RejectedExecutionException rejectedException) {
+            complete(parameterName, inFlight, null, rejectedException);
+        }
+    }
+
+    private void complete(String parameterName, InFlightRequest inFlight, PreparedParameter parameter, Throwable failure) {
+        // complete before removing, so late joiners get ready result instead of triggering another load
+        if (failure == null) {
+            inFlight.result.complete(parameter);
+        } else {
+            inFlight.result.completeExceptionally(failure);
         }
-        return resolvePromise(parameterName, waitingRequest);
+        currentRequests.remove(parameterName, inFlight);
+
+        logger.debug("loaded parameter {} (failed: {}), coalesced requests: {}",
+                parameterName, failure != null, inFlight.coalescedRequests.get());
     }
 
-    private PreparedParameter resolvePromise(String parameterName, Future<PreparedParameter> promise) {
+    private PreparedParameter resolvePromise(String parameterName, CompletableFuture<PreparedParameter> promise) {
         try {
-            currentRequests.remove(parameterName);
+            if (timeout > NO_TIMEOUT) {
+                return promise.get(timeout, timeoutUnit);
+            }
             return promise.get();
         } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
             throw new ParameterRequestException(parameterName, interruptedException);
         } catch (ExecutionException executionException) {
-            throw new ParameterRequestException(parameterName, executionException);
+            throw new ParameterRequestException(parameterName, executionException.getCause());
+        } catch (TimeoutException timeoutException) {
+            throw new ParameterRequestException(parameterName, timeout, timeoutUnit);
         }
     }
 
-    private static class ParameterResolvingCallable implements Callable<PreparedParameter> {
+    /**
+     * Number of loads triggered so far.
+     */
+    public long loadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * Number of requests that did not trigger load but joined one that was
+     * already in flight.
+     */
+    public long coalescedRequestCount() {
+        return coalescedRequestCount.get();
+    }
+
+    private static class InFlightRequest {
+
+        final CompletableFuture<PreparedParameter> result = new CompletableFuture<PreparedParameter>();
+
+        final AtomicInteger coalescedRequests = new AtomicInteger();
+
+    }
+
+    private class ParameterResolvingTask implements Runnable {
 
         private final String parameterName;
 
         private final ParameterRequest request;
 
-        ParameterResolvingCallable(String parameterName, ParameterRequest request) {
+        private final InFlightRequest inFlight;
+
+        ParameterResolvingTask(String parameterName, ParameterRequest request, InFlightRequest inFlight) {
             this.parameterName = parameterName;
             this.request = request;
+            this.inFlight = inFlight;
         }
 
         @Override
-        public PreparedParameter call() throws Exception {
-            return request.loadAndPrepare(parameterName);
+        public void run() {
+            try {
+                complete(parameterName, inFlight, request.loadAndPrepare(parameterName), null);
+            } catch (RuntimeException exception) {
+                complete(parameterName, inFlight, null, exception);
+            } catch (Error error) {
+                complete(parameterName, inFlight, null, error);
+                throw error;
+            }
         }
 
     }
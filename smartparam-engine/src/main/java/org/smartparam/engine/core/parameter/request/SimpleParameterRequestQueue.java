@@ -15,6 +15,7 @@
  */
 package org.smartparam.engine.core.parameter.request;
 
+import java.util.concurrent.CompletableFuture;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 
 /**
@@ -28,4 +29,18 @@ public class SimpleParameterRequestQueue implements ParameterRequestQueue {
         return request.loadAndPrepare(parameterName);
     }
 
+    /**
+     * Loads parameter in calling thread, returned future is already completed.
+     */
+    @Override
+    public CompletableFuture<PreparedParameter> resolveAsync(String parameterName, ParameterRequest request) {
+        CompletableFuture<PreparedParameter> result = new CompletableFuture<PreparedParameter>();
+        try {
+            result.complete(request.loadAndPrepare(parameterName));
+        } catch (RuntimeException exception) {
+            result.completeExceptionally(exception);
+        }
+        return result;
+    }
+
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.parameter.warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smartparam.engine.core.parameter.NamedParamRepository;
+import org.smartparam.engine.core.parameter.ParameterManager;
+import org.smartparam.engine.core.parameter.ParameterProvider;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+
+/**
+ * Loads and prepares parameters from all registered repositories in parallel,
+ * so they land in prepared parameter cache before first request. Blocks until
+ * all chosen parameters are processed or configured timeout passes. Failures
+ * and parameters that disappeared before being loaded are logged and reported,
+ * they do not stop warm up. Repository that fails to list its parameters is
+ * skipped.
+ *
+ * @author Adam Dubiel
+ */
+public class ParameterWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParameterWarmUp.class);
+
+    private final ParameterProvider parameterProvider;
+
+    private final ParameterManager parameterManager;
+
+    public ParameterWarmUp(ParameterProvider parameterProvider, ParameterManager parameterManager) {
+        this.parameterProvider = parameterProvider;
+        this.parameterManager = parameterManager;
+    }
+
+    public WarmUpReport warmUp(WarmUpConfig config) {
+        WarmUpReport report = new WarmUpReport(chooseParameters(config));
+        logger.info("warming up {} parameters using {} threads", report.totalCount(), config.getThreads());
+
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        try {
+            // fixed pool queue is FIFO, so priority parameters are taken first
+            for (String parameterName : report.parameters()) {
+                executor.execute(new WarmUpTask(parameterName, report, config.getListener()));
+            }
+            executor.shutdown();
+            boolean timedOut = !awaitTermination(executor, config);
+            report.finish(System.nanoTime() - startTime, timedOut);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("warm up finished: {}", report);
+        return report;
+    }
+
+    private boolean awaitTermination(ExecutorService executor, WarmUpConfig config) {
+        try {
+            if (config.getTimeout() > WarmUpConfig.NO_TIMEOUT) {
+                return executor.awaitTermination(config.getTimeout(), config.getTimeoutUnit());
+            }
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting
+            }
+            return true;
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private List<String> chooseParameters(WarmUpConfig config) {
+        Set<String> available = new LinkedHashSet<String>();
+        for (NamedParamRepository repository : parameterProvider.registeredItems()) {
+            Set<String> names;
+            try {
+                names = repository.repository().listParameters();
+            } catch (RuntimeException exception) {
+                logger.warn("failed to list parameters of repository {}, skipping it in warm up", repository.name().value(), exception);
+                continue;
+            }
+            if (names == null) {
+                logger.warn("repository {} did not list its parameters, skipping it in warm up", repository.name().value());
+                continue;
+            }
+            available.addAll(names);
+        }
+
+        Set<String> chosen = new LinkedHashSet<String>();
+        for (String parameterName : config.getPriorityParameters()) {
+            if (available.contains(parameterName)) {
+                chosen.add(parameterName);
+            }
+        }
+        for (String parameterName : available) {
+            if (config.shouldWarmUp(parameterName)) {
+                chosen.add(parameterName);
+            }
+        }
+        return new ArrayList<String>(chosen);
+    }
+
+    private class WarmUpTask implements Runnable {
+
+        private final String parameterName;
+
+        private final WarmUpReport report;
+
+        private final WarmUpListener listener;
+
+        WarmUpTask(String parameterName, WarmUpReport report, WarmUpListener listener) {
+            this.parameterName = parameterName;
+            this.report = report;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            long startTime = System.nanoTime();
+            PreparedParameter parameter;
+            try {
+                parameter = parameterManager.getPreparedParameter(parameterName);
+            } catch (RuntimeException exception) {
+                logger.warn("failed to warm up parameter " + parameterName, exception);
+                report.failed(parameterName, exception);
+                if (listener != null) {
+                    listener.parameterFailed(parameterName, exception, report);
+                }
+                return;
+            }
+
+            if (parameter == null) {
+                // listed, but gone by the time it was loaded
+                logger.warn("parameter {} was not found while warming up", parameterName);
+                report.missing(parameterName);
+                if (listener != null) {
+                    listener.parameterMissing(parameterName, report);
+                }
+                return;
+            }
+
+            long loadTime = System.nanoTime() - startTime;
+            logger.debug("warmed up parameter {} in {}ms", parameterName, TimeUnit.NANOSECONDS.toMillis(loadTime));
+            report.warmedUp(parameterName, loadTime);
+            if (listener != null) {
+                listener.parameterWarmedUp(parameterName, loadTime, report);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.parameter.warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Controls which parameters are loaded and prepared up front, when ParamEngine
+ * is created, so that first requests do not pay the price of loading. Register
+ * using {@link org.smartparam.engine.config.ParamEngineConfigBuilder#withWarmUp(WarmUpConfig)}.
+ *
+ * By default all parameters listed by all registered repositories are warmed
+ * up. If name patterns are given, only parameters matching at least one of them
+ * are warmed up. Priority parameters are always warmed up first (in given order),
+ * regardless of patterns.
+ *
+ * @author Adam Dubiel
+ */
+public class WarmUpConfig {
+
+    public static final int DEFAULT_THREADS = 4;
+
+    public static final long NO_TIMEOUT = 0;
+
+    private final List<Pattern> namePatterns = new ArrayList<Pattern>();
+
+    private final List<String> priorityParameters = new ArrayList<String>();
+
+    private int threads = DEFAULT_THREADS;
+
+    private long timeout = NO_TIMEOUT;
+
+    private TimeUnit timeoutUnit = TimeUnit.MILLISECONDS;
+
+    private WarmUpListener listener;
+
+    public static WarmUpConfig warmUpConfig() {
+        return new WarmUpConfig();
+    }
+
+    /**
+     * Warm up only parameters which names match at least one of given regular expressions.
+     */
+    public WarmUpConfig withParameterNamePatterns(String... regexps) {
+        for (String regexp : regexps) {
+            namePatterns.add(Pattern.compile(regexp));
+        }
+        return this;
+    }
+
+    /**
+     * Warm up given parameters before any other, in given order.
+     */
+    public WarmUpConfig withPriorityParameters(String... parameterNames) {
+        priorityParameters.addAll(Arrays.asList(parameterNames));
+        return this;
+    }
+
+    /**
+     * Number of threads that load and prepare parameters, defaults to {@link #DEFAULT_THREADS}.
+     */
+    public WarmUpConfig withThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Stop waiting for warm up after given time, parameters that were not
+     * warmed up by then will be loaded on first request.
+     */
+    public WarmUpConfig withTimeout(long timeout, TimeUnit timeoutUnit) {
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
+        return this;
+    }
+
+    /**
+     * Listener notified about each warmed up (or failed) parameter.
+     */
+    public WarmUpConfig withListener(WarmUpListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public boolean shouldWarmUp(String parameterName) {
+        if (namePatterns.isEmpty() || priorityParameters.contains(parameterName)) {
+            return true;
+        }
+        for (Pattern pattern : namePatterns) {
+            if (pattern.matcher(parameterName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getPriorityParameters() {
+        return Collections.unmodifiableList(priorityParameters);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeoutUnit() {
+        return timeoutUnit;
+    }
+
+    public WarmUpListener getListener() {
+        return listener;
+    }
+}
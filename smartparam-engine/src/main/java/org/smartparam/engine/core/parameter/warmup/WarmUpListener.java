@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.parameter.warmup;
+
+/**
+ * Receives warm up progress notifications. Methods are called from warm up
+ * threads, so implementation has to be thread safe.
+ *
+ * @author Adam Dubiel
+ */
+public interface WarmUpListener {
+
+    void parameterWarmedUp(String parameterName, long loadTimeNanos, WarmUpReport progress);
+
+    void parameterFailed(String parameterName, Throwable failure, WarmUpReport progress);
+
+    /**
+     * Parameter was listed by repository, but was not found when loading.
+     */
+    default void parameterMissing(String parameterName, WarmUpReport progress) {
+    }
+
+}
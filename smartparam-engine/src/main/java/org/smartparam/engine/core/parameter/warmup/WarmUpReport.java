@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.parameter.warmup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and outcome of parameter warm up. Report is updated live while
+ * warm up is in progress, so it can be polled from other threads.
+ *
+ * @author Adam Dubiel
+ */
+public class WarmUpReport {
+
+    private final List<String> parameters;
+
+    private final Map<String, Long> loadTimes = new ConcurrentHashMap<String, Long>();
+
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<String, Throwable>();
+
+    private final Set<String> missing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final AtomicInteger completedCount = new AtomicInteger();
+
+    private volatile boolean finished;
+
+    private volatile boolean timedOut;
+
+    private volatile long totalTimeNanos;
+
+    WarmUpReport(List<String> parameters) {
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    void warmedUp(String parameterName, long loadTimeNanos) {
+        loadTimes.put(parameterName, loadTimeNanos);
+        completedCount.incrementAndGet();
+    }
+
+    void failed(String parameterName, Throwable failure) {
+        failures.put(parameterName, failure);
+        completedCount.incrementAndGet();
+    }
+
+    void missing(String parameterName) {
+        missing.add(parameterName);
+        completedCount.incrementAndGet();
+    }
+
+    void finish(long totalTimeNanos, boolean timedOut) {
+        this.totalTimeNanos = totalTimeNanos;
+        this.timedOut = timedOut;
+        this.finished = true;
+    }
+
+    /**
+     * Names of parameters chosen for warm up, in order of warming up.
+     */
+    public List<String> parameters() {
+        return parameters;
+    }
+
+    public int totalCount() {
+        return parameters.size();
+    }
+
+    /**
+     * Number of parameters already processed: warmed up, failed and missing.
+     */
+    public int completedCount() {
+        return completedCount.get();
+    }
+
+    public int failedCount() {
+        return failures.size();
+    }
+
+    /**
+     * Number of parameters listed by repository, but not found when loading.
+     */
+    public int missingCount() {
+        return missing.size();
+    }
+
+    /**
+     * Fraction of processed parameters, between 0 and 1.
+     */
+    public double progress() {
+        return parameters.isEmpty() ? 1 : (double) completedCount() / parameters.size();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * True if warm up did not finish in configured time.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public long totalTimeNanos() {
+        return totalTimeNanos;
+    }
+
+    /**
+     * Load and prepare time of each warmed up parameter (in nanoseconds), in order of warming up.
+     */
+    public Map<String, Long> loadTimesNanos() {
+        Map<String, Long> ordered = new LinkedHashMap<String, Long>();
+        for (String parameter : parameters) {
+            Long loadTime = loadTimes.get(parameter);
+            if (loadTime != null) {
+                ordered.put(parameter, loadTime);
+            }
+        }
+        return ordered;
+    }
+
+    public Map<String, Throwable> failures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public Set<String> missingParameters() {
+        return Collections.unmodifiableSet(missing);
+    }
+
+    @Override
+    public String toString() {
+        return "[WarmUpReport completed: " + completedCount() + "/" + totalCount()
+                + " failed: " + failedCount() + " missing: " + missingCount() + " finished: " + finished + " timedOut: " + timedOut + "]";
+    }
+}
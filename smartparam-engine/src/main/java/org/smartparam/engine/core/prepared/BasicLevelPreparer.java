@@ -18,6 +18,8 @@ package org.smartparam.engine.core.prepared;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.matcher.MatcherRepository;
 import org.smartparam.engine.core.type.TypeRepository;
+import org.smartparam.engine.core.function.CompiledFunction;
+import org.smartparam.engine.core.function.FunctionManager;
 import org.smartparam.engine.core.function.FunctionProvider;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.core.parameter.level.Level;
@@ -35,10 +37,22 @@ public class BasicLevelPreparer implements LevelPreparer {
 
     private final FunctionProvider functionProvider;
 
+    private final FunctionManager functionManager;
+
     public BasicLevelPreparer(MatcherRepository matcherRepository, TypeRepository typeRepository, FunctionProvider functionProvider) {
+        this(matcherRepository, typeRepository, functionProvider, null);
+    }
+
+    /**
+     * Level creators are compiled ahead of time using function manager, if
+     * it is provided and invoker of function supports it.
+     */
+    public BasicLevelPreparer(MatcherRepository matcherRepository, TypeRepository typeRepository,
+            FunctionProvider functionProvider, FunctionManager functionManager) {
         this.matcherRepository = matcherRepository;
         this.typeRepository = typeRepository;
         this.functionProvider = functionProvider;
+        this.functionManager = functionManager;
     }
 
     @Override
@@ -46,8 +60,9 @@ public class BasicLevelPreparer implements LevelPreparer {
         Type<?> type = resolveType(level.getType(), level.getName());
         Matcher matcher = resolveMatcher(level.getMatcher(), level.getName());
         Function levelCreator = resolveLevelCreator(level.getLevelCreator());
+        CompiledFunction compiledLevelCreator = compileLevelCreator(levelCreator);
 
-        return new PreparedLevel(level.getName(), level.isArray(), type, level.getMatcher(), matcher, levelCreator);
+        return new PreparedLevel(level.getName(), level.isArray(), type, level.getMatcher(), matcher, levelCreator, compiledLevelCreator);
     }
 
     private Type<?> resolveType(String typeCode, String levelName) {
@@ -74,6 +89,13 @@ public class BasicLevelPreparer implements LevelPreparer {
         return matcher;
     }
 
+    private CompiledFunction compileLevelCreator(Function levelCreator) {
+        if (levelCreator == null || functionManager == null) {
+            return null;
+        }
+        return functionManager.compileFunction(levelCreator);
+    }
+
     private Function resolveLevelCreator(String levelCreatorCode) {
         Function levelCreator = null;
         if (levelCreatorCode != null) {
@@ -20,6 +20,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.smartparam.engine.core.index.CompiledLevelIndex;
 import org.smartparam.engine.core.index.LevelIndex;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.type.Type;
@@ -27,6 +28,7 @@ import org.smartparam.engine.core.parameter.level.Level;
 import org.smartparam.engine.core.parameter.Parameter;
 import org.smartparam.engine.core.parameter.ParameterFromRepository;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.core.parameter.entry.ParameterEntryBatchLoader;
 
 /**
  *
@@ -37,12 +39,30 @@ public class BasicParamPreparer implements ParamPreparer {
 
     private final LevelPreparer levelPreparer;
 
+    private final PreparationConfig preparationConfig;
+
     public BasicParamPreparer(LevelPreparer levelPreparer) {
+        this(levelPreparer, new PreparationConfig());
+    }
+
+    public BasicParamPreparer(LevelPreparer levelPreparer, PreparationConfig preparationConfig) {
         this.levelPreparer = levelPreparer;
+        this.preparationConfig = preparationConfig;
     }
 
     @Override
     public PreparedParameter prepare(ParameterFromRepository parameterFromRepository) {
+        try {
+            return prepareLoaded(parameterFromRepository);
+        } finally {
+            // batch loader might hold connection and prefetch thread, release it however preparation ended
+            if (parameterFromRepository.isBatched()) {
+                parameterFromRepository.entryBatchLoader().close();
+            }
+        }
+    }
+
+    private PreparedParameter prepareLoaded(ParameterFromRepository parameterFromRepository) {
         Parameter parameter = parameterFromRepository.parameter();
 
         int levelCount = getLevelCount(parameter);
@@ -63,36 +83,73 @@ public class BasicParamPreparer implements ParamPreparer {
         preparedParameter.setLevelNameMap(buildLevelNameToIndexMap(preparedParameter));
 
         if (parameter.isCacheable()) {
-            preparedParameter.setIndex(buildIndex(parameter, types, matchers));
+            boolean compileIndex = preparationConfig.compileIndex(parameter.getName());
+            LevelIndex<PreparedEntry> index = buildIndex(parameterFromRepository, levels, types, matchers, compileIndex);
+            if (compileIndex) {
+                preparedParameter.setCompiledIndex(CompiledLevelIndex.compileReleasing(index));
+            } else {
+                preparedParameter.setIndex(index);
+            }
+            if (preparationConfig.cacheResults(parameter.getName())) {
+                preparedParameter.setResultCache(new ResultCache(preparationConfig.getResultCacheSize(parameter.getName())));
+            }
         }
 
         return preparedParameter;
     }
 
-    private LevelIndex<PreparedEntry> buildIndex(Parameter parameter, Type<?>[] types, Matcher[] matchers) {
+    private LevelIndex<PreparedEntry> buildIndex(ParameterFromRepository parameterFromRepository,
+            PreparedLevel[] levels, Type<?>[] types, Matcher[] matchers, boolean compileIndex) {
+        Parameter parameter = parameterFromRepository.parameter();
         int inputLevelCount = parameter.getInputLevels();
+        boolean preDecodeOutputValues = preparationConfig.preDecodeOutputValues(parameter.getName());
         Type<?>[] inputLevelTypes = Arrays.copyOf(types, inputLevelCount);
         Matcher[] inputLevelMatchers = Arrays.copyOf(matchers, inputLevelCount);
 
         LevelIndex<PreparedEntry> index = new LevelIndex<PreparedEntry>(inputLevelCount, inputLevelTypes, inputLevelMatchers);
 
-        String[] keys;
-        for (ParameterEntry parameterEntry : parameter.getEntries()) {
+        if (parameterFromRepository.isBatched()) {
+            // entries are added batch by batch, raw entries of previous batches can be collected
+            ParameterEntryBatchLoader entryLoader = parameterFromRepository.entryBatchLoader();
+            int batchSize = preparationConfig.getBatchSize();
+            while (entryLoader.hasMore()) {
+                for (ParameterEntry parameterEntry : entryLoader.nextBatch(batchSize)) {
+                    addToIndex(index, parameterEntry, parameter, levels, types, matchers, preDecodeOutputValues);
+                }
+            }
+        } else {
+            for (ParameterEntry parameterEntry : parameter.getEntries()) {
+                addToIndex(index, parameterEntry, parameter, levels, types, matchers, preDecodeOutputValues);
+            }
+        }
 
-            // raw level patterns (read from repository)
-            keys = getFirstNLevels(parameterEntry, inputLevelCount);
+        if (!compileIndex) {
+            // compiled index builds its own interval indexes
+            index.buildIntervalIndexes();
+        }
+        return index;
+    }
 
-            // normalize level patters
-            for (int i = 0; i < inputLevelCount; i++) {
-                if (matchers[i] == null) {
-                    keys[i] = InputValueNormalizer.normalize(types[i], keys[i]);
-                }
+    private void addToIndex(LevelIndex<PreparedEntry> index, ParameterEntry parameterEntry, Parameter parameter,
+            PreparedLevel[] levels, Type<?>[] types, Matcher[] matchers, boolean preDecodeOutputValues) {
+        int inputLevelCount = parameter.getInputLevels();
+
+        // raw level patterns (read from repository)
+        String[] keys = getFirstNLevels(parameterEntry, inputLevelCount);
+
+        // normalize level patters
+        for (int i = 0; i < inputLevelCount; i++) {
+            if (matchers[i] == null) {
+                keys[i] = InputValueNormalizer.normalize(types[i], keys[i]);
             }
+        }
 
-            index.add(keys, prepareEntry(parameterEntry, parameter.isIdentifyEntries()));
+        PreparedEntry preparedEntry = prepareEntry(parameterEntry, parameter.isIdentifyEntries());
+        if (preDecodeOutputValues) {
+            preparedEntry.setDecodedOutputValues(OutputValuesDecoder.decode(levels, inputLevelCount, preparedEntry));
         }
 
-        return index;
+        index.add(keys, preparedEntry);
     }
 
     private Map<String, Integer> buildLevelNameToIndexMap(PreparedParameter preparedParameter) {
@@ -15,11 +15,21 @@
  */
 package org.smartparam.engine.core.prepared;
 
+import org.smartparam.engine.core.context.TypedLevelValues;
+import org.smartparam.engine.core.type.LevelKeyEncoder;
+import org.smartparam.engine.core.type.LevelKeyMemo;
+import org.smartparam.engine.core.type.LevelKeyMemoizer;
+import org.smartparam.engine.core.type.LevelKeyNormalizer;
 import org.smartparam.engine.core.type.ValueHolder;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.types.string.StringType;
 
 /**
+ * Turns level values into normalized form used as index keys. Types can
+ * provide fast paths: {@link LevelKeyNormalizer} for String values and
+ * {@link LevelKeyEncoder} for typed values. String values which need full
+ * decode and encode on lookup are memoized by types implementing
+ * {@link LevelKeyMemoizer}.
  *
  * @author Adam Dubiel
  */
@@ -29,16 +39,52 @@ public final class InputValueNormalizer {
     }
 
     public static <T extends ValueHolder> String normalize(Type<T> type, String levelValue) {
-        if ("*".equals(levelValue)) {
+        if (isAlwaysNormalized(type, levelValue)) {
             return levelValue;
-
         }
 
-        if (type.getClass() == StringType.class) {
+        String key = normalizeKey(type, levelValue);
+        return key != null ? key : decodeAndEncode(type, levelValue);
+    }
+
+    /**
+     * Same as {@link #normalize(org.smartparam.engine.core.type.Type, java.lang.String) },
+     * but remembers results of full decode and encode in memo of type, use for
+     * query values.
+     */
+    public static <T extends ValueHolder> String normalizeQueryValue(Type<T> type, String levelValue) {
+        if (isAlwaysNormalized(type, levelValue)) {
             return levelValue;
+        }
+
+        String key = normalizeKey(type, levelValue);
+        if (key != null || levelValue == null || !(type instanceof LevelKeyMemoizer)) {
+            return key != null ? key : decodeAndEncode(type, levelValue);
+        }
+
+        LevelKeyMemo memo = ((LevelKeyMemoizer) type).levelKeyMemo();
+        String normalized = memo.get(levelValue);
+        if (normalized == null) {
+            normalized = decodeAndEncode(type, levelValue);
+            if (normalized != null) {
+                memo.put(levelValue, normalized);
+            }
+        }
+        return normalized;
+    }
+
+    private static boolean isAlwaysNormalized(Type<?> type, String levelValue) {
+        return "*".equals(levelValue) || type.getClass() == StringType.class;
+    }
 
+    private static String normalizeKey(Type<?> type, String levelValue) {
+        if (levelValue != null && type instanceof LevelKeyNormalizer) {
+            return ((LevelKeyNormalizer) type).normalizeKey(levelValue);
         }
+        return null;
+    }
 
+    private static <T extends ValueHolder> String decodeAndEncode(Type<T> type, String levelValue) {
         try {
             // if level value can be properly decoded - return normalized value
             T decoded = type.decode(levelValue);
@@ -53,7 +99,14 @@ public final class InputValueNormalizer {
 
     public static <T extends ValueHolder> String normalize(Type<T> type, Object levelObject) {
         if (levelObject instanceof String) {
-            return normalize(type, (String) levelObject);
+            return normalizeQueryValue(type, (String) levelObject);
+        }
+
+        if (type instanceof LevelKeyEncoder) {
+            String key = ((LevelKeyEncoder) type).encodeKey(levelObject);
+            if (key != null) {
+                return key;
+            }
         }
 
         T decoded = type.convert(levelObject);
@@ -61,9 +114,17 @@ public final class InputValueNormalizer {
     }
 
     public static String[] normalize(PreparedParameter param, Object[] levelValues) {
+        return normalize(param, levelValues, null);
+    }
+
+    /**
+     * Normalize level values into provided buffer, if it has matching length,
+     * new array is created otherwise.
+     */
+    public static String[] normalize(PreparedParameter param, Object[] levelValues, String[] buffer) {
 
         int size = Math.min(levelValues.length, param.getInputLevelsCount());
-        String[] normalized = new String[size];
+        String[] normalized = target(buffer, size);
 
         for (int i = 0; i < size; i++) {
             PreparedLevel level = param.getLevels()[i];
@@ -73,4 +134,37 @@ public final class InputValueNormalizer {
 
         return normalized;
     }
+
+    public static String normalize(Type<?> type, long levelValue) {
+        if (type instanceof LevelKeyEncoder) {
+            String key = ((LevelKeyEncoder) type).encodeKey(levelValue);
+            if (key != null) {
+                return key;
+            }
+        }
+        return normalize(type, (Object) levelValue);
+    }
+
+    public static String[] normalize(PreparedParameter param, TypedLevelValues levelValues) {
+        return normalize(param, levelValues, null);
+    }
+
+    public static String[] normalize(PreparedParameter param, TypedLevelValues levelValues, String[] buffer) {
+
+        int size = Math.min(levelValues.size(), param.getInputLevelsCount());
+        String[] normalized = target(buffer, size);
+
+        for (int i = 0; i < size; i++) {
+            Type<?> type = param.getLevels()[i].getType();
+            normalized[i] = levelValues.isPrimitive(i)
+                    ? normalize(type, levelValues.longValue(i))
+                    : normalize(type, levelValues.value(i));
+        }
+
+        return normalized;
+    }
+
+    private static String[] target(String[] buffer, int size) {
+        return buffer != null && buffer.length == size ? buffer : new String[size];
+    }
 }
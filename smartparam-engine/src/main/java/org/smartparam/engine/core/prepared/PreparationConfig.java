@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.prepared;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options that control how parameters are compiled into {@link PreparedParameter}
+ * form. Each option can be turned on either engine-wide or only for selected
+ * parameters (by name). Register using
+ * {@link org.smartparam.engine.config.ParamEngineConfigBuilder#withPreparationConfig(PreparationConfig)}.
+ *
+ * @author Adam Dubiel
+ */
+public class PreparationConfig {
+
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+
+    private final ParameterOption preDecodedOutputValues = new ParameterOption();
+
+    private final ParameterOption compiledIndex = new ParameterOption();
+
+    private final ParameterOption batchLoading = new ParameterOption();
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private int defaultResultCacheSize;
+
+    private final Map<String, Integer> resultCacheSizes = new HashMap<String, Integer>();
+
+    public static PreparationConfig preparationConfig() {
+        return new PreparationConfig();
+    }
+
+    /**
+     * Decode output levels of all cacheable parameters once, when building
+     * index, instead of decoding them on each read. Decoded values are shared
+     * between all reads, so holders of output types must not expose mutable
+     * state (built-in holders are immutable, date holder returns copies of
+     * its date). Malformed output values are reported when
+     * parameter is loaded, not when entry is hit.
+     */
+    public PreparationConfig withPreDecodedOutputValues() {
+        preDecodedOutputValues.enableForAll();
+        return this;
+    }
+
+    /**
+     * Same as {@link #withPreDecodedOutputValues()}, but only for given parameters.
+     */
+    public PreparationConfig withPreDecodedOutputValues(String... parameterNames) {
+        preDecodedOutputValues.enableFor(parameterNames);
+        return this;
+    }
+
+    /**
+     * Keep index of all cacheable parameters in compact, flat form
+     * ({@link org.smartparam.engine.core.index.CompiledLevelIndex}), which
+     * takes a fraction of memory of tree index and is faster to search.
+     * Walkers that need tree nodes (like customizable walker) recreate tree
+     * once and keep it next to compiled index, so compiling parameters searched
+     * by them saves no memory.
+     */
+    public PreparationConfig withCompiledIndex() {
+        compiledIndex.enableForAll();
+        return this;
+    }
+
+    /**
+     * Same as {@link #withCompiledIndex()}, but only for given parameters.
+     */
+    public PreparationConfig withCompiledIndex(String... parameterNames) {
+        compiledIndex.enableFor(parameterNames);
+        return this;
+    }
+
+    /**
+     * Read entries of all cacheable parameters from repository in batches
+     * (see {@link org.smartparam.engine.core.parameter.ParamRepository#batchLoad(java.lang.String)})
+     * and add them to index batch by batch, so that raw entries of whole
+     * parameter never have to be held in memory together with the index.
+     * Lowers peak memory usage when preparing huge parameters.
+     */
+    public PreparationConfig withBatchLoading() {
+        batchLoading.enableForAll();
+        return this;
+    }
+
+    /**
+     * Same as {@link #withBatchLoading()}, but only for given parameters.
+     */
+    public PreparationConfig withBatchLoading(String... parameterNames) {
+        batchLoading.enableFor(parameterNames);
+        return this;
+    }
+
+    /**
+     * Number of entries read in single batch, defaults to {@link #DEFAULT_BATCH_SIZE}.
+     */
+    public PreparationConfig withBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Memoize evaluation results of all cacheable parameters, keeping up to
+     * maxSize results per parameter (see {@link ResultCache}). Pays off for
+     * parameters queried over and over with small set of level values.
+     */
+    public PreparationConfig withResultCache(int maxSize) {
+        this.defaultResultCacheSize = positiveResultCacheSize(maxSize);
+        return this;
+    }
+
+    /**
+     * Same as {@link #withResultCache(int)}, but only for given parameters,
+     * overrides engine-wide size for them.
+     */
+    public PreparationConfig withResultCache(int maxSize, String... parameterNames) {
+        positiveResultCacheSize(maxSize);
+        for (String parameterName : parameterNames) {
+            resultCacheSizes.put(parameterName, maxSize);
+        }
+        return this;
+    }
+
+    private int positiveResultCacheSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Result cache size has to be positive, got: " + maxSize);
+        }
+        return maxSize;
+    }
+
+    public boolean preDecodeOutputValues(String parameterName) {
+        return preDecodedOutputValues.enabledFor(parameterName);
+    }
+
+    public boolean compileIndex(String parameterName) {
+        return compiledIndex.enabledFor(parameterName);
+    }
+
+    public boolean batchLoad(String parameterName) {
+        return batchLoading.enabledFor(parameterName);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean cacheResults(String parameterName) {
+        return getResultCacheSize(parameterName) > 0;
+    }
+
+    /**
+     * Size of result cache for given parameter, 0 if results are not cached.
+     */
+    public int getResultCacheSize(String parameterName) {
+        Integer size = resultCacheSizes.get(parameterName);
+        return size != null ? size : defaultResultCacheSize;
+    }
+
+    private static final class ParameterOption {
+
+        private boolean enabledForAll;
+
+        private final Set<String> parameters = new HashSet<String>();
+
+        private void enableForAll() {
+            enabledForAll = true;
+        }
+
+        private void enableFor(String... parameterNames) {
+            parameters.addAll(Arrays.asList(parameterNames));
+        }
+
+        private boolean enabledFor(String parameterName) {
+            return enabledForAll || parameters.contains(parameterName);
+        }
+    }
+}
@@ -31,6 +31,8 @@ public class PreparedEntry {
 
     private final String[] levels;
 
+    private Object[] decodedOutputValues;
+
     public PreparedEntry(ParameterEntry parameterEntry) {
         this.levels = normalizeLevels(parameterEntry.getLevels());
     }
@@ -74,6 +76,18 @@ public class PreparedEntry {
         return (k >= 0 && k < levels.length) ? levels[k] : null;
     }
 
+    /**
+     * Output values decoded at preparation time, shared between all reads of
+     * this entry. Null if output values were not pre-decoded.
+     */
+    public Object[] getDecodedOutputValues() {
+        return decodedOutputValues;
+    }
+
+    void setDecodedOutputValues(Object[] decodedOutputValues) {
+        this.decodedOutputValues = decodedOutputValues;
+    }
+
     @Override
     public String toString() {
         return "[PreparedEntry " + Arrays.toString(levels) + "]";
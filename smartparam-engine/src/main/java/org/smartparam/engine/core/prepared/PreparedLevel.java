@@ -17,6 +17,7 @@ package org.smartparam.engine.core.prepared;
 
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.core.function.CompiledFunction;
 import org.smartparam.engine.core.function.Function;
 
 /**
@@ -44,6 +45,8 @@ public class PreparedLevel {
 
     private final Function levelCreator;
 
+    private final CompiledFunction compiledLevelCreator;
+
     /**
      * Creates immutable instance.
      *
@@ -54,12 +57,21 @@ public class PreparedLevel {
      * @param levelCreator function resolving actual level value
      */
     public PreparedLevel(String name, boolean array, Type<?> type, String matcherName, Matcher matcher, Function levelCreator) {
+        this(name, array, type, matcherName, matcher, levelCreator, null);
+    }
+
+    /**
+     * Creates immutable instance with level creator compiled ahead of time.
+     */
+    public PreparedLevel(String name, boolean array, Type<?> type, String matcherName, Matcher matcher,
+            Function levelCreator, CompiledFunction compiledLevelCreator) {
         this.name = name;
         this.type = type;
         this.array = array;
         this.matcherName = matcherName;
         this.matcher = matcher;
         this.levelCreator = levelCreator;
+        this.compiledLevelCreator = compiledLevelCreator;
     }
 
     public String getName() {
@@ -85,4 +97,12 @@ public class PreparedLevel {
     public Function getLevelCreator() {
         return levelCreator;
     }
+
+    /**
+     * Returns compiled level creator or null if level creator could not be
+     * compiled (or there is none).
+     */
+    public CompiledFunction getCompiledLevelCreator() {
+        return compiledLevelCreator;
+    }
 }
@@ -36,6 +36,15 @@ public interface PreparedParamCache {
      */
     PreparedParameter get(String paramName);
 
+    /**
+     * Returns parameter from cache or null if none found, without counting it
+     * as parameter usage (does not affect eviction order). Meant for tools that
+     * inspect cache contents.
+     */
+    default PreparedParameter peek(String paramName) {
+        return get(paramName);
+    }
+
     /**
      * Evicts parameter from cache.
      */
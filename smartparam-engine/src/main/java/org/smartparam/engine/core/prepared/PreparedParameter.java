@@ -17,6 +17,7 @@ package org.smartparam.engine.core.prepared;
 
 import java.util.Collections;
 import java.util.HashMap;
+import org.smartparam.engine.core.index.CompiledLevelIndex;
 import org.smartparam.engine.core.index.LevelIndex;
 
 import java.util.Map;
@@ -54,6 +55,21 @@ public class PreparedParameter {
      */
     private LevelIndex<PreparedEntry> index;
 
+    /**
+     * Compact search index, if parameter was prepared with compiled index.
+     */
+    private CompiledLevelIndex<PreparedEntry> compiledIndex;
+
+    /**
+     * Tree recreated from compiled index for walkers that need one.
+     */
+    private volatile LevelIndex<PreparedEntry> treeIndexOfCompiled;
+
+    /**
+     * Memo of evaluation results, null if disabled.
+     */
+    private ResultCache resultCache;
+
     /**
      * Number of input (criteria) levels.
      * Zero means this is no-criteria parameter.
@@ -82,7 +98,8 @@ public class PreparedParameter {
     }
 
     /**
-     * Returns prepared search index.
+     * Returns prepared search index, null if parameter holds only compiled
+     * index (see {@link #getCompiledIndex()}).
      *
      * @return search index
      */
@@ -94,6 +111,44 @@ public class PreparedParameter {
         this.index = index;
     }
 
+    /**
+     * Returns search index in tree form. If parameter holds only compiled index,
+     * tree is recreated from it on first call and kept for following calls.
+     */
+    public LevelIndex<PreparedEntry> getTreeIndex() {
+        if (index != null || compiledIndex == null) {
+            return index;
+        }
+        LevelIndex<PreparedEntry> treeIndex = treeIndexOfCompiled;
+        if (treeIndex == null) {
+            treeIndex = compiledIndex.toLevelIndex();
+            treeIndexOfCompiled = treeIndex;
+        }
+        return treeIndex;
+    }
+
+    /**
+     * Returns compiled search index or null if parameter was prepared without one.
+     */
+    public CompiledLevelIndex<PreparedEntry> getCompiledIndex() {
+        return compiledIndex;
+    }
+
+    public void setCompiledIndex(CompiledLevelIndex<PreparedEntry> compiledIndex) {
+        this.compiledIndex = compiledIndex;
+    }
+
+    /**
+     * Returns memo of evaluation results or null if parameter was prepared without one.
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     public PreparedLevel[] getLevels() {
         return levels;
     }
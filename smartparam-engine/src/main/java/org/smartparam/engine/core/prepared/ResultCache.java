@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.prepared;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.smartparam.engine.core.output.DefaultParamValue;
+
+/**
+ * Bounded, concurrent memo of parameter evaluation results keyed by normalized
+ * level values. Cache is held by {@link PreparedParameter}, so it is dropped
+ * together with prepared parameter whenever parameter is invalidated or
+ * reloaded.
+ *
+ * Eviction uses clock (second chance) algorithm: each cached result has
+ * reference bit set on every hit and eviction removes first result which has
+ * not been referenced since last sweep. Reads are lock free.
+ *
+ * @author Adam Dubiel
+ */
+public class ResultCache {
+
+    private final Map<LevelValuesKey, CachedResult> cache = new ConcurrentHashMap<LevelValuesKey, CachedResult>();
+
+    private final int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Object evictionLock = new Object();
+
+    public ResultCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Result cache size has to be positive, got: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns copy of cached result (sharing decoded values), or null if there
+     * is no result for given level values.
+     */
+    public DefaultParamValue get(String[] levelValues) {
+        CachedResult cachedResult = cache.get(new LevelValuesKey(levelValues));
+        if (cachedResult == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        cachedResult.referenced = true;
+        return cachedResult.value.copy();
+    }
+
+    /**
+     * Stores copy of result, so given value can be returned to caller. Level
+     * values array is copied as well.
+     */
+    public void put(String[] levelValues, DefaultParamValue value) {
+        LevelValuesKey key = new LevelValuesKey(Arrays.copyOf(levelValues, levelValues.length));
+        if (cache.size() >= maxSize) {
+            evict();
+        }
+        cache.put(key, new CachedResult(value.copy()));
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            while (cache.size() >= maxSize) {
+                Iterator<CachedResult> iterator = cache.values().iterator();
+                boolean evicted = false;
+                while (iterator.hasNext() && !evicted) {
+                    CachedResult cachedResult = iterator.next();
+                    if (cachedResult.referenced) {
+                        cachedResult.referenced = false;
+                    } else {
+                        iterator.remove();
+                        evicted = true;
+                    }
+                }
+            }
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    private static final class CachedResult {
+
+        private final DefaultParamValue value;
+
+        private volatile boolean referenced;
+
+        private CachedResult(DefaultParamValue value) {
+            this.value = value;
+        }
+    }
+
+    private static final class LevelValuesKey {
+
+        private final String[] levelValues;
+
+        private final int hashCode;
+
+        private LevelValuesKey(String[] levelValues) {
+            this.levelValues = levelValues;
+            this.hashCode = Arrays.hashCode(levelValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LevelValuesKey)) {
+                return false;
+            }
+            LevelValuesKey other = (LevelValuesKey) obj;
+            return hashCode == other.hashCode && Arrays.equals(levelValues, other.levelValues);
+        }
+    }
+}
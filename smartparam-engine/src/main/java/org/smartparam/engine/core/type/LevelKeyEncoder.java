@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.type;
+
+/**
+ * Optional contract for {@link Type} implementations, which are able to
+ * produce normalized index key directly from typed value. Lookups with typed
+ * level values (see {@link org.smartparam.engine.core.context.TypedLevelValues})
+ * skip creating intermediate {@link ValueHolder} when type implements it.
+ *
+ * Key has to be equal to result of <code>type.encode(type.convert(value))</code>.
+ *
+ * @author Adam Dubiel
+ */
+public interface LevelKeyEncoder {
+
+    /**
+     * @return normalized key or null if value has no direct key representation,
+     * in which case engine falls back to convert and encode
+     */
+    String encodeKey(Object value);
+
+    /**
+     * @return normalized key or null if primitive value has no direct key
+     * representation, in which case engine falls back to boxed value
+     */
+    String encodeKey(long value);
+}
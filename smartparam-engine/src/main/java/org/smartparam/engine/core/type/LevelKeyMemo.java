@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.type;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded memo of raw to normalized level values of single type. When
+ * memo is full, new values are no longer remembered - values seen early are
+ * usually the ones that repeat most. Reads are lock free.
+ *
+ * @see LevelKeyMemoizer
+ *
+ * @author Adam Dubiel
+ */
+public class LevelKeyMemo {
+
+    /**
+     * Default maximum number of memoized raw values.
+     */
+    public static final int DEFAULT_SIZE = 4096;
+
+
+    private final Map<String, String> normalizedValues = new ConcurrentHashMap<String, String>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final int maxSize;
+
+    public LevelKeyMemo() {
+        this(DEFAULT_SIZE);
+    }
+
+    public LevelKeyMemo(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public String get(String rawValue) {
+        return normalizedValues.get(rawValue);
+    }
+
+    public void put(String rawValue, String normalizedValue) {
+        if (size.get() < maxSize && normalizedValues.putIfAbsent(rawValue, normalizedValue) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.type;
+
+/**
+ * Optional contract for {@link Type} implementations, which want results of
+ * full decode and encode of String level values to be remembered. Engine
+ * consults returned memo when normalizing query values, that could not be
+ * normalized by {@link LevelKeyNormalizer}.
+ *
+ * Memo is owned by type: if normalized form of values changes (i.e. output
+ * pattern of type is changed), type has to return new memo.
+ *
+ * @author Adam Dubiel
+ */
+public interface LevelKeyMemoizer {
+
+    LevelKeyMemo levelKeyMemo();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.type;
+
+/**
+ * Optional contract for {@link Type} implementations, which can normalize
+ * String level value without decoding it to {@link ValueHolder} and encoding
+ * back. Meant as allocation free fast path for common inputs, like values
+ * which are already in normalized form.
+ *
+ * Result has to be equal to <code>type.encode(type.decode(levelValue))</code>.
+ *
+ * @author Adam Dubiel
+ */
+public interface LevelKeyNormalizer {
+
+    /**
+     * @return normalized level value or null if value can not be normalized
+     * on fast path, in which case engine falls back to decode and encode
+     */
+    String normalizeKey(String levelValue);
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.type;
+
+/**
+ * Shared level keys of small integer values, so that hot lookups by common
+ * integer values reuse the same String instances (with their hash already
+ * computed) instead of creating new ones.
+ *
+ * @author Adam Dubiel
+ */
+public final class LevelKeys {
+
+    private static final int CACHE_LOW = -128;
+
+    private static final int CACHE_HIGH = 1024;
+
+    private static final String[] CACHE = new String[CACHE_HIGH - CACHE_LOW];
+
+    static {
+        for (int i = 0; i < CACHE.length; ++i) {
+            CACHE[i] = Integer.toString(i + CACHE_LOW);
+        }
+    }
+
+    private LevelKeys() {
+    }
+
+    public static String of(long value) {
+        if (value >= CACHE_LOW && value < CACHE_HIGH) {
+            return CACHE[(int) value - CACHE_LOW];
+        }
+        return Long.toString(value);
+    }
+}
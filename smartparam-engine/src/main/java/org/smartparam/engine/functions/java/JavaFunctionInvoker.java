@@ -15,21 +15,32 @@
  */
 package org.smartparam.engine.functions.java;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.lang.reflect.Modifier;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.kielo.annotationscanner.ReflectionsConstructorUtil;
 import org.smartparam.engine.annotated.annotations.ParamFunctionInvoker;
+import org.smartparam.engine.core.function.CompilableFunctionInvoker;
+import org.smartparam.engine.core.function.CompiledFunction;
 import org.smartparam.engine.core.function.Function;
-import org.smartparam.engine.core.function.FunctionInvoker;
 
 /**
+ * Invokes {@link JavaFunction} using reflection. Single argument functions
+ * (like level creators) can be compiled to {@link MethodHandle} bound to
+ * function instance, which skips access checks and argument array creation.
  *
  * @author Adam Dubiel
  */
 @ParamFunctionInvoker("java")
-public class JavaFunctionInvoker implements FunctionInvoker {
+public class JavaFunctionInvoker implements CompilableFunctionInvoker {
+
+    private static final MethodType SINGLE_ARGUMENT = MethodType.methodType(Object.class, Object.class);
+
 
     private final Map<Class<?>, Object> instanceMap = new ConcurrentHashMap<Class<?>, Object>();
 
@@ -51,6 +62,35 @@ public class JavaFunctionInvoker implements FunctionInvoker {
         return methodInvoker.invokeMethod(instance, method, true, args);
     }
 
+    @Override
+    public CompiledFunction compile(Function function) {
+        JavaFunction javaFunction = (JavaFunction) function;
+        Method method = javaFunction.getMethod();
+
+        if (method.getParameterTypes().length != 1) {
+            return null;
+        }
+
+        Object instance = null;
+        if (!Modifier.isStatic(method.getModifiers())) {
+            instance = findInstance(method.getDeclaringClass());
+            if (instance instanceof Proxy) {
+                return null;
+            }
+        }
+
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (instance != null) {
+                handle = handle.bindTo(instance);
+            }
+            return new JavaCompiledFunction(javaFunction, instance, handle.asType(SINGLE_ARGUMENT));
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+    }
+
     private Object findInstance(Class<?> objectClass) {
         Object obj = instanceMap.get(objectClass);
         if (obj == null) {
@@ -59,4 +99,35 @@ public class JavaFunctionInvoker implements FunctionInvoker {
         }
         return obj;
     }
+
+    private static final class JavaCompiledFunction implements CompiledFunction {
+
+        private final JavaFunction function;
+
+        private final Object instance;
+
+        private final MethodHandle handle;
+
+        private JavaCompiledFunction(JavaFunction function, Object instance, MethodHandle handle) {
+            this.function = function;
+            this.instance = instance;
+            this.handle = handle;
+        }
+
+        @Override
+        public Function function() {
+            return function;
+        }
+
+        @Override
+        public Object invoke(Object argument) {
+            try {
+                return (Object) handle.invokeExact(argument);
+            } catch (Error error) {
+                throw error;
+            } catch (Throwable exception) {
+                throw new JavaFunctionInvocationException(exception, instance, function.getMethod());
+            }
+        }
+    }
 }
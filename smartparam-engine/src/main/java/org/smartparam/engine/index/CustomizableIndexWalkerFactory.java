@@ -42,7 +42,7 @@ public class CustomizableIndexWalkerFactory implements LevelIndexWalkerFactory {
         return new CustomizableLevelIndexWalker<PreparedEntry>(
                 convert(preparedParameter),
                 config.valuesExtractor(),
-                preparedParameter.getIndex(), levelValues);
+                preparedParameter.getTreeIndex(), levelValues);
     }
 
     private IndexTraversalConfig convert(PreparedParameter parameter) {
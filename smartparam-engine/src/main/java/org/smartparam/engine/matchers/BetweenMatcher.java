@@ -18,7 +18,8 @@ package org.smartparam.engine.matchers;
 import org.smartparam.engine.annotated.annotations.ParamMatcher;
 import org.smartparam.engine.annotated.annotations.ObjectInstance;
 import org.smartparam.engine.core.index.Star;
-import org.smartparam.engine.core.matcher.Matcher;
+import org.smartparam.engine.core.matcher.Interval;
+import org.smartparam.engine.core.matcher.IntervalMatcher;
 import org.smartparam.engine.core.type.ValueHolder;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.util.EngineUtil;
@@ -43,7 +44,7 @@ import org.smartparam.engine.util.EngineUtil;
     @ObjectInstance(value = BetweenMatcher.BETWEEN_II, constructorArgs = {"true", "true"}),
     @ObjectInstance(value = BetweenMatcher.BETWEEN_EE, constructorArgs = {"false", "false"})
 })
-public class BetweenMatcher implements Matcher {
+public class BetweenMatcher implements IntervalMatcher {
 
     private static final char[] DEFAULT_SEPARATORS = {'~', ':', '-', ','};
 
@@ -99,6 +100,31 @@ public class BetweenMatcher implements Matcher {
         return lowerCondition(v, lower, type) && upperCondition(v, upper, type);
     }
 
+    @Override
+    public <T extends ValueHolder> Interval interval(String pattern, Type<T> type) {
+        char separator = findSeparator(pattern);
+
+        String[] tokens = EngineUtil.split2(pattern, separator);
+        try {
+            ValueHolder lower = decodeBound(tokens[0].trim(), type);
+            ValueHolder upper = decodeBound(tokens[1].trim(), type);
+            if ((lower != null && !lower.isComparable()) || (upper != null && !upper.isComparable())) {
+                return null;
+            }
+            return new Interval(lower, lowerInclusive, upper, upperInclusive);
+        } catch (RuntimeException exception) {
+            // malformed pattern, leave it to be reported when matching
+            return null;
+        }
+    }
+
+    private <T extends ValueHolder> ValueHolder decodeBound(String bound, Type<T> type) {
+        if (Star.SYMBOL.equals(bound) || "".equals(bound)) {
+            return null;
+        }
+        return type.decode(bound);
+    }
+
     private char findSeparator(String pattern) {
         for (char ch : separators) {
             if (pattern.indexOf(ch) >= 0) {
@@ -131,4 +157,12 @@ public class BetweenMatcher implements Matcher {
     public char[] separators() {
         return separators;
     }
+
+    public boolean isLowerInclusive() {
+        return lowerInclusive;
+    }
+
+    public boolean isUpperInclusive() {
+        return upperInclusive;
+    }
 }
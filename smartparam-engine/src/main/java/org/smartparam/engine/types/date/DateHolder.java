@@ -19,7 +19,8 @@ import java.util.Date;
 import org.smartparam.engine.core.type.AbstractValueHolder;
 
 /**
- * in progress..
+ * Holds copy of given date and returns copies of it, so holder can be shared
+ * (i.e. as pre-decoded output value) without callers changing its value.
  *
  * @author Przemek Hertel
  */
@@ -28,17 +29,17 @@ public class DateHolder extends AbstractValueHolder {
     private final Date date;
 
     public DateHolder(Date date) {
-        this.date = date;
+        this.date = copy(date);
     }
 
     @Override
     public Date getValue() {
-        return date;
+        return copy(date);
     }
 
     @Override
     public Date getDate() {
-        return date;
+        return copy(date);
     }
 
     @Override
@@ -49,4 +50,8 @@ public class DateHolder extends AbstractValueHolder {
     public String getString(String pattern) {
         return date != null ? SimpleDateFormatPool.get(pattern).format(date) : null;
     }
+
+    private static Date copy(Date date) {
+        return date != null ? new Date(date.getTime()) : null;
+    }
 }
@@ -16,22 +16,55 @@
 package org.smartparam.engine.types.date;
 
 import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.util.Calendar;
 import java.util.Date;
 import org.smartparam.engine.annotated.annotations.ParamType;
+import org.smartparam.engine.core.type.LevelKeyEncoder;
+import org.smartparam.engine.core.type.LevelKeyMemo;
+import org.smartparam.engine.core.type.LevelKeyMemoizer;
+import org.smartparam.engine.core.type.LevelKeyNormalizer;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.util.EngineUtil;
 
 /**
+ * Date type, recognizes dates in formats: yyyy-MM-dd, yyyy.MM.dd, yyyy/MM/dd,
+ * dd-MM-yyyy, dd.MM.yyyy and dd/MM/yyyy. Parsing uses immutable java.time
+ * formatters.
+ *
  * @author Przemek Hertel
  * @since 1.0.0
  */
 @ParamType(DateType.TYPE_NAME)
-public class DateType implements Type<DateHolder> {
+public class DateType implements Type<DateHolder>, LevelKeyEncoder, LevelKeyNormalizer, LevelKeyMemoizer {
 
     public static final String TYPE_NAME = "date";
 
-    private static String defaultOutputPattern = "yyyy-MM-dd";
+    private static final String ISO_PATTERN = "yyyy-MM-dd";
+
+    private static String defaultOutputPattern = ISO_PATTERN;
+
+    private static DateTimeFormatter defaultOutputFormatter = DateTimeFormatter.ofPattern(ISO_PATTERN);
+
+    private static final DateTimeFormatter DAY_FIRST_DASHED = strictFormatter("dd-MM-uuuu");
+
+    private static final DateTimeFormatter DAY_FIRST_DOTTED = strictFormatter("dd.MM.uuuu");
+
+    private static final DateTimeFormatter DAY_FIRST_SLASHED = strictFormatter("dd/MM/uuuu");
+
+    private static final DateTimeFormatter YEAR_FIRST_DASHED = strictFormatter("uuuu-MM-dd");
+
+    private static final DateTimeFormatter YEAR_FIRST_DOTTED = strictFormatter("uuuu.MM.dd");
+
+    private static final DateTimeFormatter YEAR_FIRST_SLASHED = strictFormatter("uuuu/MM/dd");
+
+    private volatile PatternMemo levelKeyMemo = new PatternMemo(defaultOutputPattern);
 
     @Override
     public String encode(DateHolder holder) {
@@ -55,6 +88,11 @@ public class DateType implements Type<DateHolder> {
             return new DateHolder(cal.getTime());
         }
 
+        if (obj instanceof LocalDate) {
+            LocalDate localDate = (LocalDate) obj;
+            return new DateHolder(Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        }
+
         if (obj == null) {
             return new DateHolder(null);
         }
@@ -71,6 +109,102 @@ public class DateType implements Type<DateHolder> {
         return new DateHolder[size];
     }
 
+    @Override
+    public String encodeKey(Object value) {
+        if (value instanceof LocalDate && ((LocalDate) value).getYear() >= GREGORIAN_YEARS_START) {
+            String pattern = defaultOutputPattern;
+            return ISO_PATTERN.equals(pattern) ? value.toString() : defaultOutputFormatter.format((LocalDate) value);
+        }
+        if (value instanceof Date) {
+            return SimpleDateFormatPool.get(defaultOutputPattern).format((Date) value);
+        }
+        return null;
+    }
+
+    /**
+     * Memoized values are valid only for output pattern they were encoded with,
+     * memo is replaced when pattern changes.
+     */
+    @Override
+    public LevelKeyMemo levelKeyMemo() {
+        PatternMemo memo = levelKeyMemo;
+        String pattern = defaultOutputPattern;
+        if (!memo.pattern.equals(pattern)) {
+            memo = new PatternMemo(pattern);
+            levelKeyMemo = memo;
+        }
+        return memo.memo;
+    }
+
+    @Override
+    public String encodeKey(long value) {
+        return null;
+    }
+
+    /**
+     * If output pattern is default (yyyy-MM-dd), any valid date in one of
+     * recognized formats is normalized without parsing it to {@link Date}.
+     */
+    @Override
+    public String normalizeKey(String levelValue) {
+        if (!ISO_PATTERN.equals(defaultOutputPattern) || levelValue.length() != DATESTR_LENGTH) {
+            return null;
+        }
+
+        if (isSeparator(levelValue.charAt(IX4)) && levelValue.charAt(IX4) == levelValue.charAt(IX7)) {
+            int year = digits(levelValue, 0, IX4);
+            int month = digits(levelValue, IX5, IX7);
+            int day = digits(levelValue, IX7 + 1, DATESTR_LENGTH);
+            if (!isValidDate(year, month, day)) {
+                return null;
+            }
+            return levelValue.charAt(IX4) == '-' ? levelValue : isoDate(levelValue, 0, IX5, IX7 + 1);
+        }
+
+        if (isSeparator(levelValue.charAt(IX2)) && levelValue.charAt(IX2) == levelValue.charAt(IX5)) {
+            int day = digits(levelValue, 0, IX2);
+            int month = digits(levelValue, IX2 + 1, IX5);
+            int year = digits(levelValue, IX5 + 1, DATESTR_LENGTH);
+            if (!isValidDate(year, month, day)) {
+                return null;
+            }
+            return isoDate(levelValue, IX5 + 1, IX2 + 1, 0);
+        }
+
+        return null;
+    }
+
+    private static boolean isSeparator(char character) {
+        return character == '-' || character == '.' || character == '/';
+    }
+
+    /**
+     * @return value of digits in given range or -1 if there is any non-digit
+     */
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int index = from; index < to; ++index) {
+            char character = value.charAt(index);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            result = result * 10 + (character - '0');
+        }
+        return result;
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        return year >= GREGORIAN_YEARS_START && month >= 1 && month <= 12
+                && day >= 1 && day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    private static String isoDate(String value, int yearStart, int monthStart, int dayStart) {
+        return new StringBuilder(DATESTR_LENGTH)
+                .append(value, yearStart, yearStart + 4).append('-')
+                .append(value, monthStart, monthStart + 2).append('-')
+                .append(value, dayStart, dayStart + 2).toString();
+    }
+
     private Date guess(String text) {
 
         String dateStr = text.trim();
@@ -80,26 +214,26 @@ public class DateType implements Type<DateHolder> {
             char c2 = dateStr.charAt(IX5);
 
             if (bothEqualTo(c1, c2, '-')) {
-                return parse(dateStr, "dd-MM-yyyy");
+                return parse(dateStr, DAY_FIRST_DASHED, "dd-MM-yyyy");
             }
             if (bothEqualTo(c1, c2, '.')) {
-                return parse(dateStr, "dd.MM.yyyy");
+                return parse(dateStr, DAY_FIRST_DOTTED, "dd.MM.yyyy");
             }
             if (bothEqualTo(c1, c2, '/')) {
-                return parse(dateStr, "dd/MM/yyyy");
+                return parse(dateStr, DAY_FIRST_SLASHED, "dd/MM/yyyy");
             }
 
             c1 = dateStr.charAt(IX4);
             c2 = dateStr.charAt(IX7);
 
             if (bothEqualTo(c1, c2, '-')) {
-                return parse(dateStr, "yyyy-MM-dd");
+                return parse(dateStr, YEAR_FIRST_DASHED, "yyyy-MM-dd");
             }
             if (bothEqualTo(c1, c2, '.')) {
-                return parse(dateStr, "yyyy.MM.dd");
+                return parse(dateStr, YEAR_FIRST_DOTTED, "yyyy.MM.dd");
             }
             if (bothEqualTo(c1, c2, '/')) {
-                return parse(dateStr, "yyyy/MM/dd");
+                return parse(dateStr, YEAR_FIRST_SLASHED, "yyyy/MM/dd");
             }
         }
 
@@ -115,7 +249,26 @@ public class DateType implements Type<DateHolder> {
 
     private static final int DATESTR_LENGTH = 10;
 
-    private Date parse(String dateStr, String pattern) {
+    /**
+     * First full year of gregorian calendar, earlier dates are handled by legacy parser.
+     */
+    private static final int GREGORIAN_YEARS_START = 1583;
+
+    private Date parse(String dateStr, DateTimeFormatter formatter, String legacyPattern) {
+        LocalDate date;
+        try {
+            date = LocalDate.parse(dateStr, formatter);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cannot parse date string [" + dateStr + "]", e);
+        }
+        if (date.getYear() < GREGORIAN_YEARS_START) {
+            // java.util.Date uses julian calendar before gregorian cutover, java.time does not
+            return parseLegacy(dateStr, legacyPattern);
+        }
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private Date parseLegacy(String dateStr, String pattern) {
         try {
             return SimpleDateFormatPool.get(pattern).parse(dateStr);
         } catch (ParseException e) {
@@ -123,15 +276,31 @@ public class DateType implements Type<DateHolder> {
         }
     }
 
+    private static DateTimeFormatter strictFormatter(String pattern) {
+        return DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.STRICT);
+    }
+
     private boolean bothEqualTo(char c1, char c2, char expected) {
         return c1 == expected && c2 == expected;
     }
 
     public static void setDefaultOutputPattern(String pattern) {
+        defaultOutputFormatter = DateTimeFormatter.ofPattern(pattern);
         defaultOutputPattern = pattern;
     }
 
     public static String getDefaultOutputPattern() {
         return defaultOutputPattern;
     }
+
+    private static final class PatternMemo {
+
+        private final String pattern;
+
+        private final LevelKeyMemo memo = new LevelKeyMemo();
+
+        private PatternMemo(String pattern) {
+            this.pattern = pattern;
+        }
+    }
 }
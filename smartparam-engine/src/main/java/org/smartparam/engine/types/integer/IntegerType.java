@@ -16,6 +16,9 @@
 package org.smartparam.engine.types.integer;
 
 import org.smartparam.engine.annotated.annotations.ParamType;
+import org.smartparam.engine.core.type.LevelKeyEncoder;
+import org.smartparam.engine.core.type.LevelKeyNormalizer;
+import org.smartparam.engine.core.type.LevelKeys;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.util.EngineUtil;
 
@@ -34,7 +37,12 @@ import org.smartparam.engine.util.EngineUtil;
  * @since 1.0.0
  */
 @ParamType(IntegerType.TYPE_NAME)
-public class IntegerType implements Type<IntegerHolder> {
+public class IntegerType implements Type<IntegerHolder>, LevelKeyEncoder, LevelKeyNormalizer {
+
+    /**
+     * Longest number of digits that always fits in long.
+     */
+    private static final int SAFE_DIGITS = 18;
 
     public static final String TYPE_NAME = "integer";
 
@@ -124,4 +132,41 @@ public class IntegerType implements Type<IntegerHolder> {
     public IntegerHolder[] newArray(int size) {
         return new IntegerHolder[size];
     }
+
+    @Override
+    public String encodeKey(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return LevelKeys.of(((Number) value).longValue());
+        }
+        return null;
+    }
+
+    @Override
+    public String encodeKey(long value) {
+        return LevelKeys.of(value);
+    }
+
+    /**
+     * Integer in canonical form (optional minus, no leading zeros, no
+     * whitespace) is already normalized and returned as is.
+     */
+    @Override
+    public String normalizeKey(String levelValue) {
+        int length = levelValue.length();
+        int start = length > 0 && levelValue.charAt(0) == '-' ? 1 : 0;
+        int digits = length - start;
+        if (digits == 0 || digits > SAFE_DIGITS) {
+            return null;
+        }
+        if (levelValue.charAt(start) == '0' && (digits > 1 || start == 1)) {
+            return null;
+        }
+        for (int index = start; index < length; ++index) {
+            char character = levelValue.charAt(index);
+            if (character < '0' || character > '9') {
+                return null;
+            }
+        }
+        return levelValue;
+    }
 }
@@ -18,6 +18,11 @@ package org.smartparam.engine.types.number;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import org.smartparam.engine.annotated.annotations.ParamType;
+import org.smartparam.engine.core.type.LevelKeyEncoder;
+import org.smartparam.engine.core.type.LevelKeyMemo;
+import org.smartparam.engine.core.type.LevelKeyMemoizer;
+import org.smartparam.engine.core.type.LevelKeyNormalizer;
+import org.smartparam.engine.core.type.LevelKeys;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.util.EngineUtil;
 
@@ -33,10 +38,12 @@ import org.smartparam.engine.util.EngineUtil;
  * @since 1.0.0
  */
 @ParamType(NumberType.TYPE_NAME)
-public class NumberType implements Type<NumberHolder> {
+public class NumberType implements Type<NumberHolder>, LevelKeyEncoder, LevelKeyNormalizer, LevelKeyMemoizer {
 
     public static final String TYPE_NAME = "number";
 
+    private final LevelKeyMemo levelKeyMemo = new LevelKeyMemo();
+
     /**
      * Zamienia obiekt holdera na String.
      *
@@ -104,6 +111,83 @@ public class NumberType implements Type<NumberHolder> {
         return new NumberHolder[size];
     }
 
+    @Override
+    public String encodeKey(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return LevelKeys.of(((Number) value).longValue());
+        }
+        if (value instanceof BigInteger) {
+            return value.toString();
+        }
+        return null;
+    }
+
+    @Override
+    public String encodeKey(long value) {
+        return LevelKeys.of(value);
+    }
+
+    /**
+     * Plain decimal in canonical form (optional minus, no leading zeros,
+     * optional dot followed by digits, no whitespace) is already normalized
+     * and returned as is. Negative zero is not canonical.
+     */
+    @Override
+    public String normalizeKey(String levelValue) {
+        int length = levelValue.length();
+        boolean negative = length > 0 && levelValue.charAt(0) == '-';
+        int index = negative ? 1 : 0;
+
+        int integerStart = index;
+        while (index < length && isDigit(levelValue.charAt(index))) {
+            index++;
+        }
+        int integerDigits = index - integerStart;
+        if (integerDigits == 0 || (integerDigits > 1 && levelValue.charAt(integerStart) == '0')) {
+            return null;
+        }
+
+        if (index < length) {
+            if (levelValue.charAt(index) != '.' || index == length - 1) {
+                return null;
+            }
+            index++;
+            while (index < length && isDigit(levelValue.charAt(index))) {
+                index++;
+            }
+            if (index < length) {
+                return null;
+            }
+        }
+
+        if (negative && isZero(levelValue, integerStart)) {
+            return null;
+        }
+        return levelValue;
+    }
+
+    private boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private boolean isZero(String value, int from) {
+        for (int index = from; index < value.length(); ++index) {
+            char character = value.charAt(index);
+            if (character != '0' && character != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public LevelKeyMemo levelKeyMemo() {
+        return levelKeyMemo;
+    }
+
     private BigDecimal parse(String str) {
         return new BigDecimal(EngineUtil.trimAllWhitespace(str).replace(',', '.'));
     }
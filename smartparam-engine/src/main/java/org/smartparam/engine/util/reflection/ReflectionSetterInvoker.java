@@ -15,10 +15,16 @@
  */
 package org.smartparam.engine.util.reflection;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -27,11 +33,18 @@ import java.util.concurrent.ConcurrentHashMap;
  * find by reflection and invoked multiple times. Whole search magic is hidden
  * in {@link #findSetter(java.lang.Class, java.lang.Object) } method.
  *
+ * For each setter host class, dispatch table is built once: it holds all
+ * setter candidates of class (and its supertypes) and maps argument classes
+ * to resolved setters, which are invoked via {@link MethodHandle}, so there
+ * is no reflection on the hot path.
+ *
  * @author Adam Dubiel dubiel.adam@gmail.com
  */
 public class ReflectionSetterInvoker {
 
-    private final Map<Class<?>, Map<Class<?>, Setter>> setterCache = new ConcurrentHashMap<Class<?>, Map<Class<?>, Setter>>();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Map<Class<?>, SetterDispatchTable> dispatchTables = new ConcurrentHashMap<Class<?>, SetterDispatchTable>();
 
     /**
      * Find and invoke setter on provided object.
@@ -41,14 +54,14 @@ public class ReflectionSetterInvoker {
      * @return true if setter for argument found, false otherwise
      */
     public boolean invokeSetter(Object setterHostObject, Object forArg) {
-        Method setter = findSetter(setterHostObject.getClass(), forArg);
-        if(setter == null) {
+        Setter setter = dispatchTable(setterHostObject.getClass()).setterFor(forArg.getClass());
+        if (setter.getMethod() == null) {
             return false;
         }
-        invokerSetter(setter, setterHostObject, forArg);
+        setter.invoke(setterHostObject, forArg);
         return true;
     }
-    
+
     public static void invokerSetter(Method setter, Object setterHostObject, Object argument) {
         try {
             setter.invoke(setterHostObject, argument);
@@ -61,7 +74,7 @@ public class ReflectionSetterInvoker {
         }
     }
 
-    private static void throwExceptionForSetterInvocation(Exception exception, Method setter, Object setterHostObject, Object argument) {
+    private static void throwExceptionForSetterInvocation(Throwable exception, Method setter, Object setterHostObject, Object argument) {
         throw new InnerReflectiveOperationException(exception,
                 String.format("Could not invoke setter %s on object %s using %s as argument", setter.getName(), setterHostObject.getClass().getSimpleName(), argument.getClass().getSimpleName()));
     }
@@ -82,56 +95,106 @@ public class ReflectionSetterInvoker {
      * @return
      */
     public Method findSetter(Class<?> setterHostClass, Object forArg) {
-        Class<?> argClass = forArg.getClass();
-        Map<Class<?>, Setter> settersMap = setterCache.get(setterHostClass);
-        if (settersMap == null) {
-            settersMap = new ConcurrentHashMap<Class<?>, Setter>();
-            setterCache.put(getClass(), settersMap);
-        }
+        return dispatchTable(setterHostClass).setterFor(forArg.getClass()).getMethod();
+    }
 
-        Setter setter = settersMap.get(argClass);
-        if (setter == null) {
-            Method method = lookupSetter(setterHostClass, argClass);
-            setter = new Setter(method);
-            settersMap.put(argClass, setter);
+    private SetterDispatchTable dispatchTable(Class<?> setterHostClass) {
+        SetterDispatchTable dispatchTable = dispatchTables.get(setterHostClass);
+        if (dispatchTable == null) {
+            dispatchTable = new SetterDispatchTable(setterHostClass);
+            dispatchTables.put(setterHostClass, dispatchTable);
         }
+        return dispatchTable;
+    }
 
-        return setter.getMethod();
+    private static boolean isSetter(Method method) {
+        return method.getReturnType() == Void.TYPE && method.getParameterTypes().length == 1;
     }
 
-    private Method lookupSetter(Class<?> setterHostClass, Class<?> propertyClass) {
-        Class<?> clazz = setterHostClass;
+    private static final class SetterDispatchTable {
 
-        while (clazz != null) {
-            Method[] methods = clazz.getDeclaredMethods();
-            for (Method method : methods) {
-                if (isSetter(method, propertyClass)) {
-                    AccessController.doPrivileged(new AccessibleSetter(method));
-                    return method;
+        private static final Setter NO_SETTER = new Setter(null, null);
+
+        /**
+         * All setters of host class, in lookup order: host class methods first,
+         * then its superclasses.
+         */
+        private final List<Method> candidates = new ArrayList<Method>();
+
+        private final Map<Class<?>, Setter> settersByArgClass = new ConcurrentHashMap<Class<?>, Setter>();
+
+        SetterDispatchTable(Class<?> setterHostClass) {
+            Class<?> clazz = setterHostClass;
+            while (clazz != null) {
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (isSetter(method)) {
+                        candidates.add(method);
+                    }
                 }
+                clazz = clazz.getSuperclass();
             }
-            clazz = clazz.getSuperclass();
         }
 
-        return null;
-    }
+        Setter setterFor(Class<?> argClass) {
+            Setter setter = settersByArgClass.get(argClass);
+            if (setter == null) {
+                setter = resolve(argClass);
+                settersByArgClass.put(argClass, setter);
+            }
+            return setter;
+        }
 
-    private boolean isSetter(Method method, Class<?> propertyClass) {
-        Class<?>[] methodArgumentTypes = method.getParameterTypes();
-        return method.getReturnType() == Void.TYPE && methodArgumentTypes.length == 1 && methodArgumentTypes[0].isAssignableFrom(propertyClass);
+        private Setter resolve(Class<?> argClass) {
+            for (Method method : candidates) {
+                if (method.getParameterTypes()[0].isAssignableFrom(argClass)) {
+                    AccessController.doPrivileged(new AccessibleSetter(method));
+                    return new Setter(method, unreflect(method));
+                }
+            }
+            return NO_SETTER;
+        }
+
+        private MethodHandle unreflect(Method method) {
+            try {
+                return MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+            } catch (IllegalAccessException exception) {
+                // fall back to reflective invocation
+                return null;
+            } catch (WrongMethodTypeException exception) {
+                // static setter has no receiver to adapt, invoke it reflectively
+                return null;
+            }
+        }
     }
 
     private static final class Setter {
 
         private final Method method;
 
-        Setter(Method method) {
+        private final MethodHandle handle;
+
+        Setter(Method method, MethodHandle handle) {
             this.method = method;
+            this.handle = handle;
         }
 
         Method getMethod() {
             return method;
         }
+
+        void invoke(Object setterHostObject, Object argument) {
+            if (handle == null) {
+                invokerSetter(method, setterHostObject, argument);
+                return;
+            }
+            try {
+                handle.invokeExact(setterHostObject, argument);
+            } catch (Error error) {
+                throw error;
+            } catch (Throwable exception) {
+                throwExceptionForSetterInvocation(exception, method, setterHostObject, argument);
+            }
+        }
     }
 
     private static final class AccessibleSetter implements PrivilegedAction<Object> {
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.concurrent.TimeUnit;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.smartparam.engine.cache.BoundedPreparedParamCacheBuilder.boundedParamCache;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class BoundedPreparedParamCacheTest {
+
+    private static final PreparedParameterWeigher UNIT_WEIGHER = new PreparedParameterWeigher() {
+        @Override
+        public long weigh(PreparedParameter parameter) {
+            return 10;
+        }
+    };
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedParameterWhenMaxEntriesExceeded() {
+        // given
+        BoundedPreparedParamCache cache = boundedParamCache().withMaxEntries(2).withWeigher(UNIT_WEIGHER).build();
+        cache.put("first", mock(PreparedParameter.class));
+        cache.put("second", mock(PreparedParameter.class));
+        cache.get("first");
+
+        // when
+        cache.put("third", mock(PreparedParameter.class));
+
+        // then
+        assertThat(cache.cachedParameterNames()).containsOnly("first", "third");
+        assertThat(cache.get("second")).isNull();
+    }
+
+    @Test
+    public void shouldNotCountPeekingAsParameterUsage() {
+        // given
+        BoundedPreparedParamCache cache = boundedParamCache().withMaxEntries(2).withWeigher(UNIT_WEIGHER).build();
+        PreparedParameter first = mock(PreparedParameter.class);
+        cache.put("first", first);
+        cache.put("second", mock(PreparedParameter.class));
+
+        // when
+        PreparedParameter peeked = cache.peek("first");
+        cache.put("third", mock(PreparedParameter.class));
+
+        // then
+        assertThat(peeked).isSameAs(first);
+        assertThat(cache.cachedParameterNames()).containsOnly("second", "third");
+    }
+
+    @Test
+    public void shouldEvictParametersWhenMaxWeightExceeded() {
+        // given
+        BoundedPreparedParamCache cache = boundedParamCache().withMaxWeight(25).withWeigher(UNIT_WEIGHER).build();
+        cache.put("first", mock(PreparedParameter.class));
+        cache.put("second", mock(PreparedParameter.class));
+
+        // when
+        cache.put("third", mock(PreparedParameter.class));
+
+        // then
+        assertThat(cache.cachedParameterNames()).containsOnly("second", "third");
+        assertThat(cache.weight()).isEqualTo(20);
+    }
+
+    @Test
+    public void shouldKeepParameterHeavierThanMaxWeight() {
+        // given
+        BoundedPreparedParamCache cache = boundedParamCache().withMaxWeight(5).withWeigher(UNIT_WEIGHER).build();
+
+        // when
+        cache.put("heavy", mock(PreparedParameter.class));
+
+        // then
+        assertThat(cache.get("heavy")).isNotNull();
+    }
+
+    @Test
+    public void shouldNotReturnParameterNotAccessedForLongerThanExpiryTime() throws InterruptedException {
+        // given
+        BoundedPreparedParamCache cache = boundedParamCache().withExpireAfterAccess(1, TimeUnit.MILLISECONDS).build();
+        cache.put("param", mock(PreparedParameter.class));
+
+        // when
+        Thread.sleep(5);
+
+        // then
+        assertThat(cache.get("param")).isNull();
+        assertThat(cache.cachedParameterNames()).isEmpty();
+    }
+
+    @Test
+    public void shouldUpdateWeightWhenParameterIsInvalidated() {
+        // given
+        BoundedPreparedParamCache cache = boundedParamCache().withWeigher(UNIT_WEIGHER).build();
+        cache.put("first", mock(PreparedParameter.class));
+        cache.put("second", mock(PreparedParameter.class));
+
+        // when
+        cache.invalidate("first");
+
+        // then
+        assertThat(cache.weight()).isEqualTo(10);
+    }
+}
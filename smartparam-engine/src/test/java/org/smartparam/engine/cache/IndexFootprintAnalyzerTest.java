@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.Arrays;
+import org.smartparam.engine.core.index.LevelIndex;
+import org.smartparam.engine.core.prepared.PreparedEntry;
+import org.smartparam.engine.core.prepared.PreparedParamCache;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class IndexFootprintAnalyzerTest {
+
+    private final IndexFootprintAnalyzer analyzer = new IndexFootprintAnalyzer();
+
+    @Test
+    public void shouldFlagIndexMadeOfSingleChildChains() {
+        // given
+        LevelIndex<PreparedEntry> index = new LevelIndex<PreparedEntry>(3);
+        index.add(new String[]{"A", "B", "C"}, null);
+        index.add(new String[]{"D", "E", "F"}, null);
+
+        // when
+        ParameterFootprint footprint = analyzer.analyze(parameter("parameter", index));
+
+        // then
+        assertThat(footprint.getWarnings()).hasSize(1);
+        assertThat(footprint.getWarnings().get(0).getAntiPattern()).isEqualTo(IndexAntiPattern.SINGLE_CHILD_CHAINS);
+    }
+
+    @Test
+    public void shouldFlagLevelHoldingOnlyDefaultValues() {
+        // given
+        LevelIndex<PreparedEntry> index = new LevelIndex<PreparedEntry>(2);
+        index.add(new String[]{"A", "*"}, null);
+        index.add(new String[]{"B", "*"}, null);
+
+        // when
+        ParameterFootprint footprint = analyzer.analyze(parameter("parameter", index));
+
+        // then
+        assertThat(footprint.getWarnings()).extracting("antiPattern").contains(IndexAntiPattern.DEFAULT_ONLY_LEVEL);
+        assertThat(footprint.getWarnings()).extracting("depth").contains(1);
+    }
+
+    @Test
+    public void shouldReportCachedParametersFromHeaviest() {
+        // given
+        LevelIndex<PreparedEntry> smallIndex = new LevelIndex<PreparedEntry>(1);
+        smallIndex.add(new String[]{"A"}, null);
+        LevelIndex<PreparedEntry> bigIndex = new LevelIndex<PreparedEntry>(1);
+        bigIndex.add(new String[]{"A"}, null);
+        bigIndex.add(new String[]{"B"}, null);
+        bigIndex.add(new String[]{"C"}, null);
+
+        PreparedParamCache cache = mock(PreparedParamCache.class);
+        when(cache.cachedParameterNames()).thenReturn(Arrays.asList("small", "big", "evicted"));
+        PreparedParameter small = parameter("small", smallIndex);
+        PreparedParameter big = parameter("big", bigIndex);
+        when(cache.peek("small")).thenReturn(small);
+        when(cache.peek("big")).thenReturn(big);
+
+        // when
+        IndexFootprintReport report = analyzer.analyze(cache);
+
+        // then
+        assertThat(report.getParameters()).extracting("parameterName").containsExactly("big", "small");
+        assertThat(report.getTotalEstimatedBytes()).isEqualTo(
+                report.parameter("big").getEstimatedBytes() + report.parameter("small").getEstimatedBytes());
+    }
+
+    private PreparedParameter parameter(String name, LevelIndex<PreparedEntry> index) {
+        PreparedParameter parameter = mock(PreparedParameter.class);
+        when(parameter.getName()).thenReturn(name);
+        when(parameter.getIndex()).thenReturn(index);
+        return parameter;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.smartparam.engine.core.parameter.request.ParameterRequest;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.smartparam.engine.cache.RefreshAheadPreparedParamCacheBuilder.refreshAheadParamCache;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class RefreshAheadPreparedParamCacheTest {
+
+    private ExecutorService refreshExecutor;
+
+    @BeforeMethod
+    public void initialize() {
+        refreshExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @Test
+    public void shouldServeStaleParameterUntilRefreshedVersionIsReady() throws Exception {
+        // given
+        RefreshAheadPreparedParamCache cache = refreshAheadParamCache().withRefreshExecutor(refreshExecutor).build();
+        PreparedParameter stale = mock(PreparedParameter.class);
+        PreparedParameter fresh = mock(PreparedParameter.class);
+        BlockingRefreshRequest request = new BlockingRefreshRequest(cache, fresh);
+        cache.registerRefreshRequest(request);
+        cache.put("param", stale);
+
+        // when
+        cache.invalidate("param");
+        PreparedParameter servedWhileRefreshing = cache.get("param");
+        request.release.countDown();
+        awaitRefresh();
+
+        // then
+        assertThat(servedWhileRefreshing).isSameAs(stale);
+        assertThat(cache.get("param")).isSameAs(fresh);
+        assertThat(cache.staleParameterNames()).isEmpty();
+    }
+
+    @Test
+    public void shouldEvictParameterWhenNoRefreshRequestRegistered() {
+        // given
+        RefreshAheadPreparedParamCache cache = refreshAheadParamCache().withRefreshExecutor(refreshExecutor).build();
+        cache.put("param", mock(PreparedParameter.class));
+
+        // when
+        cache.invalidate("param");
+
+        // then
+        assertThat(cache.get("param")).isNull();
+        assertThat(cache.cachedParameterNames()).isEmpty();
+    }
+
+    @Test
+    public void shouldStopServingStaleParameterAfterMaxStaleness() throws Exception {
+        // given
+        RefreshAheadPreparedParamCache cache = refreshAheadParamCache().withRefreshExecutor(refreshExecutor)
+                .withMaxStaleness(1, TimeUnit.MILLISECONDS).build();
+        BlockingRefreshRequest request = new BlockingRefreshRequest(cache, mock(PreparedParameter.class));
+        cache.registerRefreshRequest(request);
+        cache.put("param", mock(PreparedParameter.class));
+
+        // when
+        cache.invalidate("param");
+        Thread.sleep(10);
+        PreparedParameter served = cache.get("param");
+        request.release.countDown();
+        awaitRefresh();
+
+        // then
+        assertThat(served).isNull();
+    }
+
+    @Test
+    public void shouldKeepServingStaleParameterWhenRefreshFails() throws Exception {
+        // given
+        RefreshAheadPreparedParamCache cache = refreshAheadParamCache().withRefreshExecutor(refreshExecutor).build();
+        PreparedParameter stale = mock(PreparedParameter.class);
+        cache.registerRefreshRequest(new FailingRefreshRequest());
+        cache.put("param", stale);
+
+        // when
+        cache.invalidate("param");
+        awaitRefresh();
+
+        // then
+        assertThat(cache.get("param")).isSameAs(stale);
+    }
+
+    @Test
+    public void shouldEvictStaleParameterWhenRefreshFailsIfConfigured() throws Exception {
+        // given
+        RefreshAheadPreparedParamCache cache = refreshAheadParamCache().withRefreshExecutor(refreshExecutor)
+                .withEvictOnRefreshFailure().build();
+        cache.registerRefreshRequest(new FailingRefreshRequest());
+        cache.put("param", mock(PreparedParameter.class));
+
+        // when
+        cache.invalidate("param");
+        awaitRefresh();
+
+        // then
+        assertThat(cache.get("param")).isNull();
+    }
+
+    @Test
+    public void shouldEvictStaleParameterWhenRefreshIsRejected() throws Exception {
+        // given
+        RefreshAheadPreparedParamCache cache = refreshAheadParamCache().withRefreshExecutor(refreshExecutor).build();
+        cache.registerRefreshRequest(new FailingRefreshRequest());
+        cache.put("param", mock(PreparedParameter.class));
+        refreshExecutor.shutdown();
+
+        // when
+        cache.invalidate("param");
+
+        // then
+        assertThat(cache.get("param")).isNull();
+        assertThat(cache.staleParameterNames()).isEmpty();
+    }
+
+    private void awaitRefresh() throws InterruptedException {
+        refreshExecutor.shutdown();
+        refreshExecutor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private static class BlockingRefreshRequest implements ParameterRequest {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        private final RefreshAheadPreparedParamCache cache;
+
+        private final PreparedParameter refreshed;
+
+        BlockingRefreshRequest(RefreshAheadPreparedParamCache cache, PreparedParameter refreshed) {
+            this.cache = cache;
+            this.refreshed = refreshed;
+        }
+
+        @Override
+        public PreparedParameter loadAndPrepare(String parameterName) {
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                // ignore please
+            }
+            cache.put(parameterName, refreshed);
+            return refreshed;
+        }
+    }
+
+    private static class FailingRefreshRequest implements ParameterRequest {
+
+        @Override
+        public PreparedParameter loadAndPrepare(String parameterName) {
+            throw new IllegalStateException("repository down");
+        }
+    }
+}
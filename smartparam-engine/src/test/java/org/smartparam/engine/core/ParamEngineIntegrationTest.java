@@ -23,10 +23,16 @@ import org.smartparam.engine.core.context.DefaultContext;
 import org.smartparam.engine.core.context.LevelValues;
 import org.smartparam.engine.core.function.FunctionInvoker;
 import org.smartparam.engine.core.function.FunctionRepository;
+import org.smartparam.engine.core.instrumentation.LookupOutcome;
+import org.smartparam.engine.core.instrumentation.LookupStage;
+import org.smartparam.engine.core.instrumentation.MetricsInstrumentation;
+import org.smartparam.engine.core.instrumentation.ParameterMetricsSnapshot;
 import org.smartparam.engine.core.parameter.ParamRepository;
 import org.smartparam.engine.matchers.BetweenMatcher;
 import org.smartparam.engine.core.parameter.level.Level;
 import org.smartparam.engine.core.parameter.Parameter;
+import org.smartparam.engine.core.prepared.PreparationConfig;
+import org.smartparam.engine.core.prepared.ResultCache;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
 import org.smartparam.engine.core.function.Function;
 import org.smartparam.engine.types.date.DateType;
@@ -37,9 +43,13 @@ import org.testng.annotations.Test;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.assertj.core.api.Assertions;
 import org.smartparam.engine.core.output.DetailedParamValue;
@@ -51,6 +61,7 @@ import org.smartparam.engine.core.output.entry.MapEntry;
 import static com.googlecode.catchexception.CatchException.catchException;
 import static com.googlecode.catchexception.CatchException.caughtException;
 import static org.mockito.Mockito.*;
+import static org.smartparam.engine.core.context.TypedLevelValues.typedLevelValues;
 import static org.smartparam.engine.core.parameter.ParameterTestBuilder.parameter;
 import static org.smartparam.engine.test.ParamEngineAssertions.assertThat;
 import static org.smartparam.engine.functions.java.JavaFunctionTestBuilder.javaFunction;
@@ -113,6 +124,144 @@ public class ParamEngineIntegrationTest {
         assertThat(value.sourceRepository().value()).isEqualTo("testRepository");
     }
 
+    @Test
+    public void shouldReturnValueOfParameterWithTypedLevelValues() {
+        // given
+        Level[] levels = new Level[]{
+                level().withType("integer").build(),
+                level().withType("date").build(),
+                level().withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+                parameterEntry().withLevels("42", "2014-03-01", "found").build()
+        };
+        Parameter parameter = parameter().withLevels(levels).withEntries(entries).withInputLevels(2).build();
+        when(paramRepository.load("parameter")).thenReturn(parameter);
+
+        // when
+        ParamValue value = engine.get("parameter", typedLevelValues(2).set(0, 42L).set(1, LocalDate.of(2014, 3, 1)));
+
+        // then
+        assertThat(value).hasValue("found");
+    }
+
+    @Test
+    public void shouldReturnValuesForAllContextsInOrderWhenEvaluatingInBulk() {
+        // given
+        Level[] levels = new Level[]{
+                level().withType("string").build(),
+                level().withType("integer").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+                parameterEntry().withLevels("A", "1").build(),
+                parameterEntry().withLevels("B", "2").build()
+        };
+        Parameter parameter = parameter().withLevels(levels).withEntries(entries).withInputLevels(1).build();
+        when(paramRepository.load("parameter")).thenReturn(parameter);
+
+        // when
+        ParamValue[] values = engine.getAll("parameter", Arrays.asList(new LevelValues("B"), new LevelValues("A"), new LevelValues("B")));
+
+        // then
+        Assertions.assertThat(values).hasSize(3);
+        assertThat(values[0]).hasValue(2l);
+        assertThat(values[1]).hasValue(1l);
+        assertThat(values[2]).hasValue(2l);
+    }
+
+    @Test
+    public void shouldReturnSameValuesAsSequentialEvaluationWhenEvaluatingInParallel() {
+        // given
+        Level[] levels = new Level[]{
+                level().withType("integer").build(),
+                level().withType("integer").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+                parameterEntry().withLevels("0", "0").build(),
+                parameterEntry().withLevels("1", "10").build(),
+                parameterEntry().withLevels("2", "20").build()
+        };
+        Parameter parameter = parameter().withLevels(levels).withEntries(entries).withInputLevels(1).build();
+        when(paramRepository.load("parameter")).thenReturn(parameter);
+
+        List<LevelValues> contexts = new ArrayList<LevelValues>();
+        for (int index = 0; index < 5000; ++index) {
+            contexts.add(new LevelValues(index % 3));
+        }
+
+        // when
+        ParamValue[] values = engine.getAll("parameter", contexts, new ForkJoinPool(4));
+
+        // then
+        for (int index = 0; index < contexts.size(); ++index) {
+            assertThat(values[index]).hasValue((index % 3) * 10l);
+        }
+    }
+
+    @Test
+    public void shouldReturnMemoizedResultWhenParameterHasResultCache() {
+        // given
+        engine = (SmartParamEngine) ParamEngineFactory.paramEngine(ParamEngineConfigBuilder.paramEngineConfig()
+                .withType("string", new StringType())
+                .withParameterRepository("testRepository", paramRepository)
+                .withPreparationConfig(PreparationConfig.preparationConfig().withResultCache(100))
+                .withAnnotationScanDisabled()
+                .build());
+        Level[] levels = new Level[]{
+                level().withType("string").build(),
+                level().withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+                parameterEntry().withLevels("A", "found").build()
+        };
+        Parameter parameter = parameter().withName("parameter").withLevels(levels).withEntries(entries).withInputLevels(1).build();
+        when(paramRepository.load("parameter")).thenReturn(parameter);
+
+        // when
+        engine.get("parameter", "A");
+        ParamValue value = engine.get("parameter", "A");
+
+        // then
+        assertThat(value).hasValue("found");
+        ResultCache resultCache = engine.runtimeConfiguration().getParamCache().get("parameter").getResultCache();
+        Assertions.assertThat(resultCache.hitCount()).isEqualTo(1);
+        Assertions.assertThat(resultCache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCollectLookupMetricsWhenInstrumentationRegistered() {
+        // given
+        engine = (SmartParamEngine) ParamEngineFactory.paramEngine(ParamEngineConfigBuilder.paramEngineConfig()
+                .withType("string", new StringType())
+                .withParameterRepository("testRepository", paramRepository)
+                .withInstrumentation(new MetricsInstrumentation())
+                .withAnnotationScanDisabled()
+                .build());
+        Level[] levels = new Level[]{
+                level().withType("string").build(),
+                level().withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+                parameterEntry().withLevels("A", "found").build()
+        };
+        Parameter parameter = parameter().withName("parameter").withLevels(levels).withEntries(entries)
+                .withInputLevels(1).nullable().build();
+        when(paramRepository.load("parameter")).thenReturn(parameter);
+
+        // when
+        engine.get("parameter", "A");
+        engine.get("parameter", "B");
+
+        // then
+        ParameterMetricsSnapshot metrics = engine.runtimeConfiguration().getInstrumentationSnapshot().parameter("parameter");
+        Assertions.assertThat(metrics.getLookups()).isEqualTo(2);
+        Assertions.assertThat(metrics.getOutcomeCount(LookupOutcome.FOUND)).isEqualTo(1);
+        Assertions.assertThat(metrics.getOutcomeCount(LookupOutcome.NULLABLE_EMPTY)).isEqualTo(1);
+        Assertions.assertThat(metrics.getEntriesMatched()).isEqualTo(1);
+        Assertions.assertThat(metrics.getLatency(LookupStage.INDEX_SEARCH).getCount()).isEqualTo(2);
+        Assertions.assertThat(metrics.getLatency(LookupStage.LOAD_AND_PREPARE).getCount()).isEqualTo(1);
+    }
+
     @Test
     public void shouldThrowExceptionWhenTryingToGetParameterValueByContextWithoutLevelCreators() {
         // given
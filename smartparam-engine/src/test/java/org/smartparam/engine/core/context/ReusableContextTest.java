@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.context;
+
+import java.math.BigDecimal;
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class ReusableContextTest {
+
+    @Test
+    public void shouldReturnValuesStoredUnderKeyIgnoringCase() {
+        // given
+        ReusableContext context = new ReusableContext();
+
+        // when
+        context.with("Amount", BigDecimal.ONE).with("CODE", "A");
+
+        // then
+        assertThat(context.get("amount")).isEqualTo(BigDecimal.ONE);
+        assertThat(context.getString("code")).isEqualTo("A");
+        assertThat(context.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReplaceValueStoredUnderKeyDifferingOnlyInCase() {
+        // given
+        ReusableContext context = new ReusableContext().with("code", "A");
+
+        // when
+        context.with("CODE", "B");
+
+        // then
+        assertThat(context.get("Code")).isEqualTo("B");
+        assertThat(context.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldGrowWhenStoringMoreValuesThanExpected() {
+        // given
+        ReusableContext context = new ReusableContext(1);
+
+        // when
+        for (int index = 0; index < 100; ++index) {
+            context.with("key" + index, index);
+        }
+
+        // then
+        assertThat(context.size()).isEqualTo(100);
+        assertThat(context.get("KEY42")).isEqualTo(42);
+    }
+
+    @Test
+    public void shouldFindValueByClass() {
+        // given
+        ReusableContext context = new ReusableContext().set(BigDecimal.TEN);
+
+        // when
+        Number value = context.get(Number.class);
+
+        // then
+        assertThat(value).isEqualTo(BigDecimal.TEN);
+    }
+
+    @Test
+    public void shouldClearValuesAndReuseLevelValuesArrayAfterReset() {
+        // given
+        ReusableContext context = new ReusableContext().with("code", "A").withLevelValue(2, 0, "X");
+        Object[] levelValues = context.getLevelValues();
+
+        // when
+        context.reset();
+
+        // then
+        assertThat(context.get("code")).isNull();
+        assertThat(context.size()).isZero();
+        assertThat(context.getLevelValues()).isNull();
+        assertThat(context.levelValuesBuffer(2)).isSameAs(levelValues).containsOnly((Object) null);
+    }
+
+    @Test
+    public void shouldReturnResetContextConfinedToCurrentThread() {
+        // given
+        ReusableContext.current().with("code", "A");
+
+        // when
+        ReusableContext context = ReusableContext.current();
+
+        // then
+        assertThat(context.get("code")).isNull();
+    }
+}
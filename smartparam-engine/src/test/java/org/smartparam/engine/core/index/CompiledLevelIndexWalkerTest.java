@@ -0,0 +1,154 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.util.List;
+import org.smartparam.engine.matchers.BetweenMatcher;
+import org.smartparam.engine.types.integer.IntegerType;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.smartparam.engine.test.ParamEngineAssertions.*;
+import static org.smartparam.engine.core.index.LevelIndexTestBuilder.levelIndex;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class CompiledLevelIndexWalkerTest {
+
+    @Test
+    public void shouldFavourConcreteValuesOverDefaultWhenLookingForValue() {
+        // given
+        LevelIndex<Integer> levelIndex = levelIndex().withLevelCount(1).build();
+        levelIndex.add(new String[]{"*"}, 11);
+        levelIndex.add(new String[]{"A"}, 42);
+
+        CompiledLevelIndexWalker<Integer> walker = new CompiledLevelIndexWalker<Integer>(CompiledLevelIndex.compile(levelIndex), "A");
+
+        // when
+        List<Integer> node = walker.find();
+
+        // then
+        assertThat(node).containsExactly(42);
+    }
+
+    @Test
+    public void shouldReturnNullIfNothingFound() {
+        // given
+        LevelIndex<Integer> levelIndex = levelIndex().withLevelCount(1).build();
+        levelIndex.add(new String[]{"A"}, 10);
+
+        CompiledLevelIndexWalker<Integer> walker = new CompiledLevelIndexWalker<Integer>(CompiledLevelIndex.compile(levelIndex), "B");
+
+        // when
+        List<Integer> node = walker.find();
+
+        // then
+        assertThat(node).isNull();
+    }
+
+    @Test
+    public void shouldReturnAllLeavesStoredUnderSamePath() {
+        // given
+        LevelIndex<Integer> levelIndex = levelIndex().withLevelCount(1).build();
+        levelIndex.add(new String[]{"A"}, 1);
+        levelIndex.add(new String[]{"B"}, 2);
+        levelIndex.add(new String[]{"A"}, 3);
+
+        CompiledLevelIndexWalker<Integer> walker = new CompiledLevelIndexWalker<Integer>(CompiledLevelIndex.compile(levelIndex), "A");
+
+        // when
+        List<Integer> node = walker.find();
+
+        // then
+        assertThat(node).containsExactly(1, 3);
+    }
+
+    @Test
+    public void shouldUseLevelMatcherWhenLookingForValue() {
+        // given
+        LevelIndex<Integer> levelIndex = levelIndex().withLevelCount(2)
+                .withTypes(new IntegerType(), null).withMatchers(new BetweenMatcher(true, false, "~"), null).build();
+        levelIndex.add(new String[]{"0~10", "A"}, 1);
+        levelIndex.add(new String[]{"10~20", "A"}, 2);
+        levelIndex.add(new String[]{"10~20", "*"}, 3);
+
+        CompiledLevelIndexWalker<Integer> walker = new CompiledLevelIndexWalker<Integer>(CompiledLevelIndex.compile(levelIndex), "15", "B");
+
+        // when
+        List<Integer> node = walker.find();
+
+        // then
+        assertThat(node).containsExactly(3);
+    }
+
+    @DataProvider(name = "findNodeSearchSet")
+    public Object[][] provideFindNodeSearchSets() {
+        return new Object[][]{
+            {new String[]{"A", "B", "C"}, 1},
+            {new String[]{"A", "B", "X"}, 9},
+            {new String[]{"A", "E", "D"}, 11},
+            {new String[]{"A", "X", "D"}, 12},
+            {new String[]{"A", "X", "X"}, 13},
+            {new String[]{"V", "Z", "Z"}, 21},
+            {new String[]{"V", "Z", "A"}, 22},
+            {new String[]{"V", "V", "V"}, 99}
+        };
+    }
+
+    @Test(dataProvider = "findNodeSearchSet")
+    public void shouldFindSameNodeAsFastWalkerFromTestSet(String[] levelValues, int expectedValue) {
+        // given
+        LevelIndex<Integer> levelIndex = levelIndex().withLevelCount(3).build();
+
+        levelIndex.add(new String[]{"A", "B", "C"}, 1);
+        levelIndex.add(new String[]{"A", "B", "*"}, 9);
+        levelIndex.add(new String[]{"A", "E", "D"}, 11);
+        levelIndex.add(new String[]{"A", "*", "D"}, 12);
+        levelIndex.add(new String[]{"A", "*", "*"}, 13);
+        levelIndex.add(new String[]{"*", "Z", "Z"}, 21);
+        levelIndex.add(new String[]{"*", "Z", "*"}, 22);
+        levelIndex.add(new String[]{"*", "*", "*"}, 99);
+
+        CompiledLevelIndex<Integer> compiledIndex = CompiledLevelIndex.compile(levelIndex);
+
+        // when
+        List<Integer> compiledNode = new CompiledLevelIndexWalker<Integer>(compiledIndex, levelValues).find();
+        List<Integer> rebuiltNode = new FastLevelIndexWalker<Integer>(compiledIndex.toLevelIndex(), levelValues).find();
+
+        // then
+        assertThat(compiledNode).containsExactly(expectedValue);
+        assertThat(rebuiltNode).containsExactly(expectedValue);
+    }
+
+    @Test
+    public void shouldFindSameValuesInIndexCompiledWhileReleasingSourceIndex() {
+        // given
+        LevelIndex<Integer> levelIndex = levelIndex().withLevelCount(2).build();
+        levelIndex.add(new String[]{"A", "*"}, 1);
+        levelIndex.add(new String[]{"A", "B"}, 2);
+        levelIndex.add(new String[]{"*", "B"}, 3);
+
+        CompiledLevelIndex<Integer> compiledIndex = CompiledLevelIndex.compileReleasing(levelIndex);
+
+        // when
+        List<Integer> node = new CompiledLevelIndexWalker<Integer>(compiledIndex, "A", "C").find();
+
+        // then
+        assertThat(node).containsExactly(1);
+        assertThat(levelIndex.getRoot().hasChildren()).isFalse();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import org.smartparam.engine.core.matcher.Matcher;
+import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.core.type.ValueHolder;
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.smartparam.engine.core.index.LevelIndexTestBuilder.levelIndex;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class IndexStatisticsTest {
+
+    @Test
+    public void shouldCountNodesLeavesAndFanOutOfEachLevel() {
+        // given
+        LevelIndex<Integer> index = levelIndex().withLevelCount(2).build();
+        index.add(new String[]{"A", "1"}, 1);
+        index.add(new String[]{"A", "2"}, 2);
+        index.add(new String[]{"B", "1"}, 3);
+        index.add(new String[]{"*", "*"}, 4);
+
+        // when
+        IndexStatistics statistics = IndexStatistics.of(index);
+
+        // then
+        assertThat(statistics.getNodeCount()).isEqualTo(8);
+        assertThat(statistics.getLeafCount()).isEqualTo(4);
+        assertThat(statistics.level(0).getNodes()).isEqualTo(1);
+        assertThat(statistics.level(0).getMaxFanOut()).isEqualTo(2);
+        assertThat(statistics.level(0).getDefaultNodes()).isEqualTo(1);
+        assertThat(statistics.level(1).getNodes()).isEqualTo(3);
+        assertThat(statistics.level(1).getEdges()).isEqualTo(3);
+        assertThat(statistics.level(1).getDistinctKeys()).isEqualTo(2);
+        assertThat(statistics.level(1).isDefaultOnly()).isFalse();
+    }
+
+    @Test
+    public void shouldGatherSameStatisticsFromCompiledIndex() {
+        // given
+        LevelIndex<Integer> index = levelIndex().withLevelCount(2).build();
+        index.add(new String[]{"A", "1"}, 1);
+        index.add(new String[]{"A", "2"}, 2);
+        index.add(new String[]{"B", "*"}, 3);
+
+        // when
+        IndexStatistics tree = IndexStatistics.of(index);
+        IndexStatistics compiled = IndexStatistics.of(CompiledLevelIndex.compile(index));
+
+        // then
+        assertThat(compiled.getNodeCount()).isEqualTo(tree.getNodeCount());
+        assertThat(compiled.getLeafCount()).isEqualTo(tree.getLeafCount());
+        assertThat(compiled.getSingleChildNodeCount()).isEqualTo(tree.getSingleChildNodeCount());
+        assertThat(compiled.level(1).getFanOutHistogram()).isEqualTo(tree.level(1).getFanOutHistogram());
+        assertThat(compiled.level(1).getDefaultNodes()).isEqualTo(tree.level(1).getDefaultNodes());
+    }
+
+    @Test
+    public void shouldMeasureLongestChainOfSingleChildNodes() {
+        // given
+        LevelIndex<Integer> index = levelIndex().withLevelCount(3).build();
+        index.add(new String[]{"A", "B", "C"}, 1);
+
+        // when
+        IndexStatistics statistics = IndexStatistics.of(index);
+
+        // then
+        assertThat(statistics.getLongestSingleChildChain()).isEqualTo(3);
+        assertThat(statistics.getSingleChildNodeCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldCountNodesScannedLinearlyByLevelMatcher() {
+        // given
+        LevelIndex<Integer> index = levelIndex().withLevelCount(1).withMatchers(new NeverMatchingMatcher()).build();
+        index.add(new String[]{"A"}, 1);
+        index.add(new String[]{"B"}, 2);
+        index.add(new String[]{"C"}, 3);
+
+        // when
+        IndexStatistics statistics = IndexStatistics.of(index);
+
+        // then
+        assertThat(statistics.level(0).getLinearScanNodes()).isEqualTo(1);
+        assertThat(statistics.level(0).getMaxLinearScanFanOut()).isEqualTo(3);
+    }
+
+    private static class NeverMatchingMatcher implements Matcher {
+
+        @Override
+        public <T extends ValueHolder> boolean matches(String value, String pattern, Type<T> type) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.index;
+
+import java.util.Arrays;
+import org.smartparam.engine.matchers.BetweenMatcher;
+import org.smartparam.engine.types.integer.IntegerType;
+import org.testng.annotations.Test;
+import static org.smartparam.engine.test.ParamEngineAssertions.*;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class IntervalIndexTest {
+
+    private final IntegerType type = new IntegerType();
+
+    @Test
+    public void shouldReturnPositionsOfAllIntervalsContainingValueInOriginalOrder() {
+        // given
+        IntervalIndex index = IntervalIndex.build(new BetweenMatcher(true, false, "~"), type,
+                Arrays.asList("10~20", "0~5", "*~15", "12~*", "15~30"));
+
+        // when
+        int[] positions = index.find(type.decode("14"));
+
+        // then
+        assertThat(positions).isEqualTo(new int[]{0, 2, 3});
+    }
+
+    @Test
+    public void shouldRespectBoundsInclusiveness() {
+        // given
+        IntervalIndex index = IntervalIndex.build(new BetweenMatcher(false, true, "~"), type,
+                Arrays.asList("0~10", "10~20"));
+
+        // when
+        int[] positions = index.find(type.decode("10"));
+
+        // then
+        assertThat(positions).isEqualTo(new int[]{0});
+    }
+
+    @Test
+    public void shouldReturnEmptyArrayWhenNoIntervalContainsValue() {
+        // given
+        IntervalIndex index = IntervalIndex.build(new BetweenMatcher(true, false, "~"), type,
+                Arrays.asList("0~10", "20~30"));
+
+        // when
+        int[] positions = index.find(type.decode("15"));
+
+        // then
+        assertThat(positions).isEmpty();
+    }
+
+    @Test
+    public void shouldNotBuildIndexWhenAnyPatternCanNotBeParsed() {
+        // when
+        IntervalIndex index = IntervalIndex.build(new BetweenMatcher(true, false, "~"), type,
+                Arrays.asList("0~10", "abc~30"));
+
+        // then
+        assertThat(index).isNull();
+    }
+}
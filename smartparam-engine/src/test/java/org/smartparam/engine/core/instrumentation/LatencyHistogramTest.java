@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.instrumentation;
+
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldReportPercentilesWithinBucketPrecision() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1000; ++value) {
+            histogram.record(value * 1000);
+        }
+
+        // when
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        // then
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMax()).isEqualTo(1000000);
+        assertThat(snapshot.valueAtPercentile(50)).isBetween(500000L, 562500L);
+        assertThat(snapshot.valueAtPercentile(100)).isEqualTo(1000000);
+    }
+
+    @Test
+    public void shouldKeepValuesSmallerThanSubBucketCountExact() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+
+        // when
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        // then
+        assertThat(snapshot.valueAtPercentile(99)).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldRecordValuesAboveMaxTrackableValueAsMaxTrackableValue() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        histogram.record(Long.MAX_VALUE);
+
+        // then
+        assertThat(histogram.snapshot().getMax()).isEqualTo(LatencyHistogram.MAX_TRACKABLE_VALUE);
+    }
+
+    @Test
+    public void shouldPlaceEveryValueInBucketThatCoversIt() {
+        // given
+        long value = 123456789;
+
+        // when
+        int bucket = LatencyHistogram.bucketIndex(value);
+
+        // then
+        assertThat(LatencyHistogram.highestEquivalentValue(bucket)).isGreaterThanOrEqualTo(value);
+        assertThat(LatencyHistogram.highestEquivalentValue(bucket - 1)).isLessThan(value);
+    }
+}
@@ -152,6 +152,19 @@ public class DefaultMultiValueTest {
         assertThat(values).isEqualTo(new ValueHolder[]{new IntegerHolder(100L), new IntegerHolder(200L)});
     }
 
+    @Test
+    public void shouldNotChangeStoredArrayWhenModifyingReturnedOne() {
+        // given
+        ValueHolder holder = new StringHolder("a");
+        MultiValue mv = new DefaultMultiValue(new Object[]{new ValueHolder[]{holder}});
+
+        // when
+        mv.getArray(0)[0] = new StringHolder("b");
+
+        // then
+        assertThat(mv.getArray(0)[0]).isSameAs(holder);
+    }
+
     @Test
     public void shouldThrowGettingWrongTypeExceptionWhenTryingToGetArrayFromNonArrayCell() {
         // given
@@ -15,8 +15,11 @@
  */
 package org.smartparam.engine.core.parameter;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.smartparam.engine.core.parameter.request.SimpleParameterRequestQueue;
 import org.smartparam.engine.core.prepared.ParamPreparer;
+import org.smartparam.engine.core.prepared.PreparedEntry;
 import org.smartparam.engine.core.prepared.PreparedParamCache;
 import org.smartparam.engine.core.prepared.PreparedParameter;
 import org.testng.annotations.BeforeMethod;
@@ -24,6 +27,7 @@ import org.testng.annotations.Test;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -98,4 +102,32 @@ public class BasicParameterManagerTest {
         assertThat(preparedParameter).isNull();
     }
 
+    @Test
+    public void shouldReturnNullEntriesWhenParameterRemovedFromRepository() {
+        // given
+        when(paramProvider.findEntries("param", new String[]{"A"})).thenReturn(null);
+
+        // when
+        List<PreparedEntry> entries = manager.findEntries("param", new String[]{"A"});
+
+        // then
+        assertThat(entries).isNull();
+    }
+
+    @Test
+    public void shouldReturnCompletedFutureWhenParameterAlreadyCached() {
+        // given
+        Parameter parameter = parameter().withEntries().build();
+        PreparedParameter cachedParameter = preparedParameter().forParameter(parameter).build();
+        when(cache.get("param")).thenReturn(cachedParameter);
+
+        // when
+        CompletableFuture<PreparedParameter> preparedParameter = manager.getPreparedParameterAsync("param");
+
+        // then
+        assertThat(preparedParameter.isDone()).isTrue();
+        assertThat(preparedParameter.getNow(null)).isSameAs(cachedParameter);
+        verify(paramProvider, never()).load("param");
+    }
+
 }
@@ -15,10 +15,17 @@
  */
 package org.smartparam.engine.core.parameter;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.smartparam.engine.core.parameter.entry.ParameterEntryBatchLoader;
 import org.testng.annotations.Test;
+import static com.googlecode.catchexception.CatchException.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.smartparam.engine.core.parameter.NamedParamRepositoryBuilder.namedRepository;
+import static org.smartparam.engine.core.parameter.ParameterResolutionConfig.parameterResolutionConfig;
 import static org.smartparam.engine.core.parameter.ParameterTestBuilder.parameter;
 
 /**
@@ -64,4 +71,163 @@ public class BasicParameterProviderTest {
         // then
         assertThat(parameter).isNull();
     }
+
+    @Test
+    public void shouldReturnBatchedParameterFromFirstRepositoryThatKnowsParameter() {
+        // given
+        BasicParameterProvider provider = new BasicParameterProvider();
+
+        ParamRepository repositoryWithoutParam = mock(ParamRepository.class);
+        when(repositoryWithoutParam.batchLoad("parameter")).thenReturn(null);
+
+        ParameterEntryBatchLoader entryLoader = mock(ParameterEntryBatchLoader.class);
+        ParamRepository repositoryWithParam = mock(ParamRepository.class);
+        when(repositoryWithParam.batchLoad("parameter")).thenReturn(new ParameterBatchLoader(parameter().build(), entryLoader));
+
+        provider.register(namedRepository(repositoryWithoutParam).named("without").build());
+        provider.register(namedRepository(repositoryWithParam).named("with").build());
+
+        // when
+        ParameterFromRepository param = provider.batchLoad("parameter");
+
+        // then
+        assertThat(param.repositoryName().value()).isEqualTo("with");
+        assertThat(param.isBatched()).isTrue();
+        assertThat(param.entryBatchLoader()).isSameAs(entryLoader);
+    }
+
+    @Test
+    public void shouldReturnParameterFromHighestPriorityRepositoryWhenProbingConcurrently() {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        BasicParameterProvider provider = new BasicParameterProvider(parameterResolutionConfig().withConcurrentProbing(executor));
+
+        ParamRepository firstRepository = mock(ParamRepository.class);
+        when(firstRepository.load("parameter")).thenReturn(parameter().withName("first").build());
+        ParamRepository secondRepository = mock(ParamRepository.class);
+        when(secondRepository.load("parameter")).thenReturn(parameter().withName("second").build());
+
+        provider.register(namedRepository(firstRepository).named("first").build());
+        provider.register(namedRepository(secondRepository).named("second").build());
+
+        // when
+        ParameterFromRepository param = provider.load("parameter");
+        executor.shutdown();
+
+        // then
+        assertThat(param.repositoryName().value()).isEqualTo("first");
+    }
+
+    @Test
+    public void shouldRethrowExceptionThrownByRepositoryWhenProbingConcurrently() {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        BasicParameterProvider provider = new BasicParameterProvider(parameterResolutionConfig().withConcurrentProbing(executor));
+
+        ParamRepository failingRepository = mock(ParamRepository.class);
+        when(failingRepository.load("parameter")).thenThrow(new IllegalStateException());
+        ParamRepository repositoryWithParam = mock(ParamRepository.class);
+        when(repositoryWithParam.load("parameter")).thenReturn(parameter().build());
+
+        provider.register(namedRepository(failingRepository).named("failing").build());
+        provider.register(namedRepository(repositoryWithParam).named("with").build());
+
+        // when
+        catchException(provider).load("parameter");
+        executor.shutdown();
+
+        // then
+        assertThat((Exception) caughtException()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldLoadParameterOnlyFromOwningRepositoryWhenUsingRoutingTable() {
+        // given
+        BasicParameterProvider provider = new BasicParameterProvider(parameterResolutionConfig().withRoutingTable());
+
+        ParamRepository repositoryWithoutParam = mock(ParamRepository.class);
+        when(repositoryWithoutParam.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("other")));
+        ParamRepository repositoryWithParam = mock(ParamRepository.class);
+        when(repositoryWithParam.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("parameter")));
+        when(repositoryWithParam.load("parameter")).thenReturn(parameter().build());
+
+        provider.register(namedRepository(repositoryWithoutParam).named("without").build());
+        provider.register(namedRepository(repositoryWithParam).named("with").build());
+
+        // when
+        ParameterFromRepository param = provider.load("parameter");
+
+        // then
+        assertThat(param.repositoryName().value()).isEqualTo("with");
+        verify(repositoryWithoutParam, never()).load("parameter");
+    }
+
+    @Test
+    public void shouldFallBackToProbingAllRepositoriesWhenRoutedRepositoryNoLongerHasParameter() {
+        // given
+        BasicParameterProvider provider = new BasicParameterProvider(parameterResolutionConfig().withRoutingTable());
+
+        ParamRepository staleRepository = mock(ParamRepository.class);
+        when(staleRepository.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("parameter")));
+        when(staleRepository.load("parameter")).thenReturn(null);
+        ParamRepository repositoryWithParam = mock(ParamRepository.class);
+        when(repositoryWithParam.listParameters()).thenReturn(new HashSet<String>());
+        when(repositoryWithParam.load("parameter")).thenReturn(parameter().build());
+
+        provider.register(namedRepository(staleRepository).named("stale").build());
+        provider.register(namedRepository(repositoryWithParam).named("with").build());
+
+        // when
+        ParameterFromRepository param = provider.load("parameter");
+
+        // then
+        assertThat(param.repositoryName().value()).isEqualTo("with");
+    }
+
+    @Test
+    public void shouldNotRouteToLowerPriorityRepositoryWhenHigherPriorityOneDoesNotListParameters() {
+        // given
+        BasicParameterProvider provider = new BasicParameterProvider(parameterResolutionConfig().withRoutingTable());
+
+        ParamRepository unlistedRepository = mock(ParamRepository.class);
+        when(unlistedRepository.listParameters()).thenReturn(null);
+        when(unlistedRepository.load("parameter")).thenReturn(parameter().build());
+        ParamRepository listedRepository = mock(ParamRepository.class);
+        when(listedRepository.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("parameter")));
+        when(listedRepository.load("parameter")).thenReturn(parameter().build());
+
+        provider.register(namedRepository(unlistedRepository).named("unlisted").build());
+        provider.register(namedRepository(listedRepository).named("listed").build());
+
+        // when
+        ParameterFromRepository param = provider.load("parameter");
+
+        // then
+        assertThat(param.repositoryName().value()).isEqualTo("unlisted");
+    }
+
+    @Test
+    public void shouldReplaceOnlyMissedRouteWithoutRebuildingRoutingTable() {
+        // given
+        BasicParameterProvider provider = new BasicParameterProvider(parameterResolutionConfig().withRoutingTable());
+
+        ParamRepository staleRepository = mock(ParamRepository.class);
+        when(staleRepository.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("parameter")));
+        when(staleRepository.load("parameter")).thenReturn(null);
+        ParamRepository repositoryWithParam = mock(ParamRepository.class);
+        when(repositoryWithParam.listParameters()).thenReturn(new HashSet<String>());
+        when(repositoryWithParam.load("parameter")).thenReturn(parameter().build());
+
+        provider.register(namedRepository(staleRepository).named("stale").build());
+        provider.register(namedRepository(repositoryWithParam).named("with").build());
+
+        // when
+        provider.load("parameter");
+        ParameterFromRepository param = provider.load("parameter");
+
+        // then
+        assertThat(param.repositoryName().value()).isEqualTo("with");
+        verify(staleRepository, times(1)).listParameters();
+        verify(staleRepository, times(1)).load("parameter");
+    }
 }
@@ -15,11 +15,19 @@
  */
 package org.smartparam.engine.core.parameter.request;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 /**
  *
@@ -27,43 +35,118 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class QueuingParameterRequestResolverTest {
 
-    private QueuingParameterRequestResolver resolver;
-
-    private final WaitingRequest request = new WaitingRequest();
+    private ExecutorService executorService;
 
     @BeforeClass
     public void initialize() {
-        resolver = new QueuingParameterRequestResolver(Executors.newFixedThreadPool(2));
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executorService.shutdownNow();
     }
 
-    @Test(
-            enabled = false,
-            description = "Concurrent test should be run with integration tests or when sth changes in tested class",
-            invocationCount = 10, threadPoolSize = 2
-    )
-    public void shouldWaitForFirstRequestToResolveBeforeCallingAnotherForSameParameter() {
+    @Test
+    public void shouldLoadParameterOnlyOnceForAllRequestsThatCameWhileLoading() throws Exception {
+        // given
+        QueuingParameterRequestResolver resolver = new QueuingParameterRequestResolver(executorService);
+        BlockingRequest request = new BlockingRequest();
+
         // when
+        List<CompletableFuture<PreparedParameter>> results = new ArrayList<CompletableFuture<PreparedParameter>>();
+        for (int i = 0; i < 5; ++i) {
+            results.add(resolver.resolveAsync("test", request));
+        }
+        request.release.countDown();
+
+        // then
+        for (CompletableFuture<PreparedParameter> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isSameAs(request.parameter);
+        }
+        assertThat(request.invocations).isEqualTo(1);
+        assertThat(resolver.loadCount()).isEqualTo(1);
+        assertThat(resolver.coalescedRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldStartNewLoadWhenPreviousOneCompleted() throws Exception {
+        // given
+        QueuingParameterRequestResolver resolver = new QueuingParameterRequestResolver(executorService);
+        BlockingRequest request = new BlockingRequest();
+        request.release.countDown();
         resolver.resolve("test", request);
 
+        // when
+        resolver.resolve("test", request);
+
+        // then
+        assertThat(request.invocations).isEqualTo(2);
+        assertThat(resolver.coalescedRequestCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldThrowTimeoutExceptionWhenParameterNotLoadedInTime() {
+        // given
+        QueuingParameterRequestResolver resolver = new QueuingParameterRequestResolver(executorService, 10, TimeUnit.MILLISECONDS);
+        BlockingRequest request = new BlockingRequest();
+
+        // when
+        ParameterRequestException exception = null;
+        try {
+            resolver.resolve("test", request);
+        } catch (ParameterRequestException requestException) {
+            exception = requestException;
+        } finally {
+            request.release.countDown();
+        }
+
         // then
-        assertThat(request.invocations).isLessThanOrEqualTo(2);
+        assertThat(exception).isNotNull();
+        assertThat(exception.getErrorCode()).isEqualTo("PARAMETER_REQUEST_TIMEOUT");
     }
 
-    private static class WaitingRequest implements ParameterRequest {
+    @Test
+    public void shouldPassLoadingFailureToAllWaitingRequests() {
+        // given
+        QueuingParameterRequestResolver resolver = new QueuingParameterRequestResolver(executorService);
+        ParameterRequest request = new ParameterRequest() {
+            @Override
+            public PreparedParameter loadAndPrepare(String parameterName) {
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        // when
+        ParameterRequestException exception = null;
+        try {
+            resolver.resolve("test", request);
+        } catch (ParameterRequestException requestException) {
+            exception = requestException;
+        }
+
+        // then
+        assertThat(exception).isNotNull();
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static class BlockingRequest implements ParameterRequest {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final PreparedParameter parameter = mock(PreparedParameter.class);
 
-        int invocations = 0;
+        volatile int invocations = 0;
 
         @Override
         public PreparedParameter loadAndPrepare(String parameterName) {
-            synchronized (this) {
-                try {
-                    invocations++;
-                    this.wait(1000);
-                } catch (InterruptedException ex) {
-                    // ignore please
-                }
+            invocations++;
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                // ignore please
             }
-            return null;
+            return parameter;
         }
 
     }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.parameter.warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import org.smartparam.engine.core.parameter.ParamRepository;
+import org.smartparam.engine.core.parameter.ParameterManager;
+import org.smartparam.engine.core.parameter.ParameterProvider;
+import org.smartparam.engine.core.prepared.PreparedParameter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.smartparam.engine.core.parameter.NamedParamRepositoryBuilder.namedRepository;
+import static org.smartparam.engine.core.parameter.warmup.WarmUpConfig.warmUpConfig;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class ParameterWarmUpTest {
+
+    private ParameterManager parameterManager;
+
+    private ParameterWarmUp warmUp;
+
+    @BeforeMethod
+    public void initialize() {
+        ParamRepository firstRepository = mock(ParamRepository.class);
+        when(firstRepository.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("rates.base", "rates.extra")));
+        ParamRepository secondRepository = mock(ParamRepository.class);
+        when(secondRepository.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("limits", "rates.base")));
+
+        ParameterProvider parameterProvider = mock(ParameterProvider.class);
+        when(parameterProvider.registeredItems()).thenReturn(Arrays.asList(
+                namedRepository(firstRepository).named("first").build(),
+                namedRepository(secondRepository).named("second").build()));
+
+        parameterManager = mock(ParameterManager.class);
+        when(parameterManager.getPreparedParameter(anyString())).thenReturn(mock(PreparedParameter.class));
+        warmUp = new ParameterWarmUp(parameterProvider, parameterManager);
+    }
+
+    @Test
+    public void shouldWarmUpAllParametersFromAllRepositoriesOnce() {
+        // when
+        WarmUpReport report = warmUp.warmUp(warmUpConfig());
+
+        // then
+        assertThat(report.totalCount()).isEqualTo(3);
+        assertThat(report.completedCount()).isEqualTo(3);
+        assertThat(report.isFinished()).isTrue();
+        assertThat(report.loadTimesNanos()).hasSize(3);
+        verify(parameterManager).getPreparedParameter("rates.base");
+        verify(parameterManager).getPreparedParameter("rates.extra");
+        verify(parameterManager).getPreparedParameter("limits");
+    }
+
+    @Test
+    public void shouldWarmUpOnlyParametersMatchingPatternsAndPriorityParametersFirst() {
+        // when
+        WarmUpReport report = warmUp.warmUp(warmUpConfig()
+                .withParameterNamePatterns("rates\\..*")
+                .withPriorityParameters("limits", "rates.extra"));
+
+        // then
+        assertThat(report.parameters()).containsExactly("limits", "rates.extra", "rates.base");
+    }
+
+    @Test
+    public void shouldReportFailedParametersAndContinueWarmUp() {
+        // given
+        when(parameterManager.getPreparedParameter("limits")).thenThrow(new IllegalStateException());
+
+        // when
+        WarmUpReport report = warmUp.warmUp(warmUpConfig().withThreads(1));
+
+        // then
+        assertThat(report.completedCount()).isEqualTo(3);
+        assertThat(report.failedCount()).isEqualTo(1);
+        assertThat(report.failures().get("limits")).isInstanceOf(IllegalStateException.class);
+        assertThat(report.loadTimesNanos()).doesNotContainKey("limits");
+    }
+
+    @Test
+    public void shouldNotWarmUpParametersNotListedByAnyRepository() {
+        // when
+        WarmUpReport report = warmUp.warmUp(warmUpConfig().withPriorityParameters("unknown"));
+
+        // then
+        assertThat(report.parameters()).doesNotContain("unknown");
+        verify(parameterManager, never()).getPreparedParameter("unknown");
+    }
+
+    @Test
+    public void shouldReportParameterNotFoundWhenLoadingAsMissing() {
+        // given
+        when(parameterManager.getPreparedParameter("limits")).thenReturn(null);
+
+        // when
+        WarmUpReport report = warmUp.warmUp(warmUpConfig().withThreads(1));
+
+        // then
+        assertThat(report.completedCount()).isEqualTo(3);
+        assertThat(report.missingParameters()).containsOnly("limits");
+        assertThat(report.failedCount()).isEqualTo(0);
+        assertThat(report.loadTimesNanos()).doesNotContainKey("limits");
+    }
+
+    @Test
+    public void shouldSkipRepositoryThatFailedToListParameters() {
+        // given
+        ParamRepository brokenRepository = mock(ParamRepository.class);
+        when(brokenRepository.listParameters()).thenThrow(new IllegalStateException());
+        ParamRepository silentRepository = mock(ParamRepository.class);
+        when(silentRepository.listParameters()).thenReturn(null);
+        ParamRepository repository = mock(ParamRepository.class);
+        when(repository.listParameters()).thenReturn(new HashSet<String>(Arrays.asList("limits")));
+
+        ParameterProvider parameterProvider = mock(ParameterProvider.class);
+        when(parameterProvider.registeredItems()).thenReturn(Arrays.asList(
+                namedRepository(brokenRepository).named("broken").build(),
+                namedRepository(silentRepository).named("silent").build(),
+                namedRepository(repository).named("working").build()));
+        warmUp = new ParameterWarmUp(parameterProvider, parameterManager);
+
+        // when
+        WarmUpReport report = warmUp.warmUp(warmUpConfig());
+
+        // then
+        assertThat(report.parameters()).containsExactly("limits");
+        assertThat(report.completedCount()).isEqualTo(1);
+    }
+}
@@ -18,6 +18,8 @@ package org.smartparam.engine.core.prepared;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.matcher.MatcherRepository;
 import org.smartparam.engine.core.type.TypeRepository;
+import org.smartparam.engine.core.function.CompiledFunction;
+import org.smartparam.engine.core.function.FunctionManager;
 import org.smartparam.engine.core.function.FunctionProvider;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.core.parameter.level.Level;
@@ -74,6 +76,25 @@ public class BasicLevelPreparerTest {
                 .hasMatcher(matcher).hasType(type);
     }
 
+    @Test
+    public void shouldCompileLevelCreatorWhenFunctionManagerIsAvailable() {
+        // given
+        FunctionManager functionManager = mock(FunctionManager.class);
+        basicLevelPreparer = new BasicLevelPreparer(matcherRepository, typeRepository, functionProvider, functionManager);
+        Level level = level().withName("level").withLevelCreator("levelCreator").build();
+
+        Function levelCreator = mock(Function.class);
+        when(functionProvider.getFunction("levelCreator")).thenReturn(levelCreator);
+        CompiledFunction compiledLevelCreator = mock(CompiledFunction.class);
+        when(functionManager.compileFunction(levelCreator)).thenReturn(compiledLevelCreator);
+
+        // when
+        PreparedLevel preparedLevel = basicLevelPreparer.prepare(level);
+
+        // then
+        assertThat(preparedLevel.getCompiledLevelCreator()).isSameAs(compiledLevelCreator);
+    }
+
     @Test
     public void shouldPrepareLevelWithEmptyDependenciesWhenNotDefined() {
         // given
@@ -15,21 +15,27 @@
  */
 package org.smartparam.engine.core.prepared;
 
+import java.util.Arrays;
 import org.testng.annotations.BeforeMethod;
 
 import org.smartparam.engine.core.parameter.Parameter;
 import static org.mockito.Mockito.*;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.core.parameter.entry.ParameterEntryBatchLoader;
 import org.smartparam.engine.core.parameter.level.Level;
 import org.smartparam.engine.core.index.FastLevelIndexWalker;
+import org.smartparam.engine.core.parameter.ParameterBatchLoader;
 import org.smartparam.engine.core.parameter.ParameterFromRepository;
 import org.smartparam.engine.core.repository.RepositoryName;
+import org.smartparam.engine.core.type.ValueHolder;
+import org.smartparam.engine.types.string.StringType;
 import org.testng.annotations.Test;
 import static org.smartparam.engine.core.parameter.ParameterTestBuilder.parameter;
 import static org.smartparam.engine.core.parameter.entry.ParameterEntryTestBuilder.parameterEntry;
 import static org.smartparam.engine.core.parameter.level.LevelTestBuilder.level;
 import static org.smartparam.engine.core.prepared.PreparedLevelTestBuilder.preparedLevel;
 import static org.smartparam.engine.test.ParamEngineAssertions.*;
+import static com.googlecode.catchexception.CatchException.*;
 
 /**
  * @author Przemek Hertel
@@ -119,4 +125,108 @@ public class BasicParamPreparerTest {
         // then
         assertThat(preparedParameter).hasName("param").hasNoIndex();
     }
+
+    @Test
+    public void shouldPreDecodeOutputValuesWhenEnabledForParameter() {
+        // given
+        paramPreparer = new BasicParamPreparer(levelPreparer, PreparationConfig.preparationConfig().withPreDecodedOutputValues("param"));
+        Level[] levels = new Level[]{
+            level().withName("outputLevel").withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+            parameterEntry().withLevels("hello").build()
+        };
+        Parameter parameter = parameter().withName("param").withInputLevels(0)
+                .withLevels(levels).withEntries(entries).build();
+        when(levelPreparer.prepare(any(Level.class))).thenReturn(preparedLevel().withName("outputLevel").withType(new StringType()).build());
+
+        // when
+        PreparedParameter preparedParameter = paramPreparer.prepare(new ParameterFromRepository(parameter, RepositoryName.from("test")));
+
+        // then
+        FastLevelIndexWalker<PreparedEntry> walker = new FastLevelIndexWalker<PreparedEntry>(preparedParameter.getIndex());
+        Object[] decodedValues = walker.find().get(0).getDecodedOutputValues();
+        assertThat(decodedValues).hasSize(1);
+        assertThat(((ValueHolder) decodedValues[0]).getString()).isEqualTo("hello");
+    }
+
+    @Test
+    public void shouldNotPreDecodeOutputValuesByDefault() {
+        // given
+        Level[] levels = new Level[]{
+            level().withName("outputLevel").withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+            parameterEntry().withLevels("hello").build()
+        };
+        Parameter parameter = parameter().withName("param").withInputLevels(0)
+                .withLevels(levels).withEntries(entries).build();
+        when(levelPreparer.prepare(any(Level.class))).thenReturn(preparedLevel().withName("outputLevel").withType(new StringType()).build());
+
+        // when
+        PreparedParameter preparedParameter = paramPreparer.prepare(new ParameterFromRepository(parameter, RepositoryName.from("test")));
+
+        // then
+        FastLevelIndexWalker<PreparedEntry> walker = new FastLevelIndexWalker<PreparedEntry>(preparedParameter.getIndex());
+        assertThat(walker.find().get(0).getDecodedOutputValues()).isNull();
+    }
+
+    @Test
+    public void shouldBuildIndexFromBatchesAndCloseEntryLoaderWhenParameterIsBatched() {
+        // given
+        paramPreparer = new BasicParamPreparer(levelPreparer, PreparationConfig.preparationConfig().withBatchSize(1));
+        Level[] levels = new Level[]{
+            level().withName("outputLevel").withType("type").build()
+        };
+        Parameter metadata = parameter().withName("param").withInputLevels(0).withLevels(levels).build();
+        ParameterEntryBatchLoader entryLoader = mock(ParameterEntryBatchLoader.class);
+        when(entryLoader.hasMore()).thenReturn(true, true, false);
+        when(entryLoader.nextBatch(1)).thenReturn(Arrays.asList(parameterEntry().withLevels("first").build()))
+                .thenReturn(Arrays.asList(parameterEntry().withLevels("second").build()));
+        when(levelPreparer.prepare(any(Level.class))).thenReturn(preparedLevel().withName("outputLevel").build());
+
+        // when
+        PreparedParameter preparedParameter = paramPreparer.prepare(
+                new ParameterFromRepository(new ParameterBatchLoader(metadata, entryLoader), RepositoryName.from("test")));
+
+        // then
+        FastLevelIndexWalker<PreparedEntry> walker = new FastLevelIndexWalker<PreparedEntry>(preparedParameter.getIndex());
+        assertThat(walker.find()).hasSize(2);
+        verify(entryLoader).close();
+    }
+
+    @Test
+    public void shouldCloseEntryLoaderWithoutReadingEntriesForNoncacheableBatchedParameter() {
+        // given
+        Parameter metadata = parameter().withName("param").withInputLevels(1).noncacheable().withLevels().build();
+        ParameterEntryBatchLoader entryLoader = mock(ParameterEntryBatchLoader.class);
+
+        // when
+        PreparedParameter preparedParameter = paramPreparer.prepare(
+                new ParameterFromRepository(new ParameterBatchLoader(metadata, entryLoader), RepositoryName.from("test")));
+
+        // then
+        assertThat(preparedParameter).hasNoIndex();
+        verify(entryLoader).close();
+        verify(entryLoader, never()).nextBatch(anyInt());
+    }
+
+    @Test
+    public void shouldCloseEntryLoaderWhenPreparingLevelsFailed() {
+        // given
+        Level[] levels = new Level[]{
+            level().withName("outputLevel").withType("unknown").build()
+        };
+        Parameter metadata = parameter().withName("param").withInputLevels(0).withLevels(levels).build();
+        ParameterEntryBatchLoader entryLoader = mock(ParameterEntryBatchLoader.class);
+        when(levelPreparer.prepare(any(Level.class))).thenThrow(new IllegalStateException());
+
+        // when
+        catchException(paramPreparer).prepare(
+                new ParameterFromRepository(new ParameterBatchLoader(metadata, entryLoader), RepositoryName.from("test")));
+
+        // then
+        assertThat(caughtException()).isInstanceOf(IllegalStateException.class);
+        verify(entryLoader).close();
+    }
 }
@@ -15,6 +15,8 @@
  */
 package org.smartparam.engine.core.prepared;
 
+import org.smartparam.engine.core.index.CompiledLevelIndex;
+import org.smartparam.engine.core.index.LevelIndex;
 import org.testng.annotations.Test;
 import static org.assertj.core.api.Assertions.*;
 import static org.smartparam.engine.core.parameter.ParameterTestBuilder.parameter;
@@ -32,4 +34,20 @@ public class PreparedParameterTest {
         // then
         assertThat(parameter.isNotNull()).isFalse();
     }
+
+    @Test
+    public void shouldRecreateTreeIndexFromCompiledIndexOnlyOnce() {
+        // given
+        LevelIndex<PreparedEntry> index = new LevelIndex<PreparedEntry>(1);
+        index.add(new String[]{"A"}, new PreparedEntry(new String[]{"A", "1"}));
+        PreparedParameter parameter = new PreparedParameter(null, parameter().build(), null);
+        parameter.setCompiledIndex(CompiledLevelIndex.compile(index));
+
+        // when
+        LevelIndex<PreparedEntry> treeIndex = parameter.getTreeIndex();
+
+        // then
+        assertThat(treeIndex).isNotNull().isSameAs(parameter.getTreeIndex());
+        assertThat(parameter.getIndex()).isNull();
+    }
 }
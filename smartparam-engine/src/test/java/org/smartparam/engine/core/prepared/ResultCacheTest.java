@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.core.prepared;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.smartparam.engine.core.output.DefaultMultiValue;
+import org.smartparam.engine.core.output.DefaultParamValue;
+import org.smartparam.engine.core.output.MultiValue;
+import org.testng.annotations.Test;
+import static com.googlecode.catchexception.CatchException.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class ResultCacheTest {
+
+    @Test
+    public void shouldNotAllowCacheWithoutPositiveSize() {
+        // when
+        catchException(PreparationConfig.preparationConfig()).withResultCache(0);
+
+        // then
+        assertThat((Exception) caughtException()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldUseResultCacheSizeConfiguredForParameterOverEngineWideOne() {
+        // given
+        PreparationConfig config = PreparationConfig.preparationConfig().withResultCache(100).withResultCache(5, "small");
+
+        // when then
+        assertThat(config.getResultCacheSize("small")).isEqualTo(5);
+        assertThat(config.getResultCacheSize("other")).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedResultForEqualLevelValues() {
+        // given
+        ResultCache cache = new ResultCache(10);
+        cache.put(new String[]{"A", "B"}, value("result"));
+
+        // when
+        DefaultParamValue first = cache.get(new String[]{"A", "B"});
+        DefaultParamValue second = cache.get(new String[]{"A", "B"});
+
+        // then
+        assertThat((String) first.get()).isEqualTo("result");
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.row()).isNotSameAs(second.row());
+        assertThat(cache.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCountMissWhenNoResultCachedForLevelValues() {
+        // given
+        ResultCache cache = new ResultCache(10);
+        cache.put(new String[]{"A"}, value("result"));
+
+        // when
+        DefaultParamValue result = cache.get(new String[]{"B"});
+
+        // then
+        assertThat(result).isNull();
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotBeAffectedByChangesOfLevelValuesArrayAfterPut() {
+        // given
+        ResultCache cache = new ResultCache(10);
+        String[] levelValues = new String[]{"A"};
+        cache.put(levelValues, value("result"));
+
+        // when
+        levelValues[0] = "B";
+
+        // then
+        assertThat(cache.get(new String[]{"A"})).isNotNull();
+    }
+
+    @Test
+    public void shouldKeepRecentlyReferencedResultsWhenEvicting() {
+        // given
+        ResultCache cache = new ResultCache(3);
+
+        // when
+        for (int index = 0; index < 10; ++index) {
+            cache.put(new String[]{Integer.toString(index)}, value("result"));
+            cache.get(new String[]{"0"});
+        }
+
+        // then
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(new String[]{"0"})).isNotNull();
+    }
+
+    private DefaultParamValue value(Object value) {
+        List<MultiValue> rows = new ArrayList<MultiValue>(Arrays.<MultiValue>asList(new DefaultMultiValue(new Object[]{value})));
+        return new DefaultParamValue(rows, null);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.engine.functions.java;
+
+import org.smartparam.engine.core.function.CompiledFunction;
+import org.testng.annotations.Test;
+import static com.googlecode.catchexception.CatchException.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class JavaFunctionInvokerTest {
+
+    @Test
+    public void shouldCompileSingleArgumentFunctionToDirectlyInvokedFunction() throws NoSuchMethodException {
+        // given
+        JavaFunctionInvoker invoker = new JavaFunctionInvoker();
+        JavaFunction function = new JavaFunction("function", "java", Functions.class.getDeclaredMethod("echo", Object.class));
+
+        // when
+        CompiledFunction compiledFunction = invoker.compile(function);
+
+        // then
+        assertThat(compiledFunction.function()).isSameAs(function);
+        assertThat(compiledFunction.invoke("hello")).isEqualTo("echo: hello");
+    }
+
+    @Test
+    public void shouldNotCompileFunctionWithOtherThanSingleArgument() throws NoSuchMethodException {
+        // given
+        JavaFunctionInvoker invoker = new JavaFunctionInvoker();
+        JavaFunction function = new JavaFunction("function", "java", Functions.class.getDeclaredMethod("noArguments"));
+
+        // when
+        CompiledFunction compiledFunction = invoker.compile(function);
+
+        // then
+        assertThat(compiledFunction).isNull();
+    }
+
+    @Test
+    public void shouldWrapExceptionThrownByCompiledFunctionInJavaFunctionInvocationException() throws NoSuchMethodException {
+        // given
+        JavaFunctionInvoker invoker = new JavaFunctionInvoker();
+        CompiledFunction compiledFunction = invoker.compile(
+                new JavaFunction("function", "java", Functions.class.getDeclaredMethod("throwing", Object.class)));
+
+        // when
+        catchException(compiledFunction).invoke("hello");
+
+        // then
+        assertThat((Exception) caughtException()).isInstanceOf(JavaFunctionInvocationException.class);
+    }
+
+    static class Functions {
+
+        static String echo(Object argument) {
+            return "echo: " + argument;
+        }
+
+        static String noArguments() {
+            return "nothing";
+        }
+
+        static String throwing(Object argument) {
+            throw new IllegalStateException();
+        }
+    }
+}
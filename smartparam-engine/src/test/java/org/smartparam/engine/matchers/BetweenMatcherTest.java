@@ -17,6 +17,7 @@ package org.smartparam.engine.matchers;
 
 import org.testng.annotations.Test;
 import static org.testng.AssertJUnit.*;
+import org.smartparam.engine.core.matcher.Interval;
 import org.smartparam.engine.core.matcher.Matcher;
 import org.smartparam.engine.core.type.Type;
 import org.smartparam.engine.types.integer.IntegerType;
@@ -109,6 +110,10 @@ public class BetweenMatcherTest {
 
             // weryfikacja
             assertEquals(expectedResult, result);
+
+            // pre-parsed interval has to give the same answer
+            Interval interval = ((BetweenMatcher) matcher).interval(pattern, type);
+            assertEquals(expectedResult, interval.contains(type.decode(value)));
         }
     }
 }
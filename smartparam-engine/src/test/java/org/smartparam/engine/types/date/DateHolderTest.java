@@ -45,6 +45,16 @@ public class DateHolderTest {
         assertNull(h3.getValue());
     }
 
+    @Test
+    public void testReturnedDateCanNotChangeHeldValue() {
+        DateHolder holder = new DateHolder(d("01-01-2013"));
+
+        holder.getDate().setTime(0);
+        holder.getValue().setTime(0);
+
+        assertEquals(d("01-01-2013"), holder.getDate());
+    }
+
     @Test
     public void testIsNull() {
 
@@ -99,11 +109,15 @@ public class DateHolderTest {
     @Test()
     public void testGetString() {
 
+        String previousPattern = DateType.getDefaultOutputPattern();
         DateType.setDefaultOutputPattern("dd-MM-yyyy");
-
-        assertEquals("15-03-2012", h1.getString());
-        assertEquals("15-03-2012", h2.getString());
-        assertNull(h3.getString());
+        try {
+            assertEquals("15-03-2012", h1.getString());
+            assertEquals("15-03-2012", h2.getString());
+            assertNull(h3.getString());
+        } finally {
+            DateType.setDefaultOutputPattern(previousPattern);
+        }
     }
 
     @Test(expectedExceptions = UnsupportedOperationException.class)
@@ -23,6 +23,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import org.smartparam.engine.core.prepared.InputValueNormalizer;
 import org.testng.annotations.Test;
 import static org.testng.AssertJUnit.*; 
 import org.testng.annotations.BeforeMethod;
@@ -42,22 +43,26 @@ public class DateTypeTest {
     @Test
     public void testEncode() {
 
+        String previousPattern = DateType.getDefaultOutputPattern();
         DateType.setDefaultOutputPattern("dd-MM-yyyy");
-
-        // przypadki testowe
-        Object[][] testCases = {
-            {d("01-01-1900"), "01-01-1900"},
-            {d("28-02-2000"), "28-02-2000"},
-            {null, null}
-        };
-
-        // wykonanie testow
-        for (Object[] testCase : testCases) {
-            Date date = (Date) testCase[0];
-            DateHolder holder = new DateHolder(date);
-            String expectedResult = (String) testCase[1];
-
-            assertEquals(expectedResult, type.encode(holder));
+        try {
+            // przypadki testowe
+            Object[][] testCases = {
+                {d("01-01-1900"), "01-01-1900"},
+                {d("28-02-2000"), "28-02-2000"},
+                {null, null}
+            };
+
+            // wykonanie testow
+            for (Object[] testCase : testCases) {
+                Date date = (Date) testCase[0];
+                DateHolder holder = new DateHolder(date);
+                String expectedResult = (String) testCase[1];
+
+                assertEquals(expectedResult, type.encode(holder));
+            }
+        } finally {
+            DateType.setDefaultOutputPattern(previousPattern);
         }
     }
 
@@ -65,22 +70,26 @@ public class DateTypeTest {
     public void testEncode__outputPattern() {
 
         // zmiana outputPattern z defaultowego na inny
+        String previousPattern = DateType.getDefaultOutputPattern();
         DateType.setDefaultOutputPattern("yyyy/MM/dd");
-
-        // przypadki testowe
-        Object[][] testCases = {
-            {d("01-01-1900"), "1900/01/01"},
-            {d("28-02-2000"), "2000/02/28"},
-            {null, null}
-        };
-
-        // wykonanie testow
-        for (Object[] testCase : testCases) {
-            Date date = (Date) testCase[0];
-            DateHolder holder = new DateHolder(date);
-            String expectedResult = (String) testCase[1];
-
-            assertEquals(expectedResult, type.encode(holder));
+        try {
+            // przypadki testowe
+            Object[][] testCases = {
+                {d("01-01-1900"), "1900/01/01"},
+                {d("28-02-2000"), "2000/02/28"},
+                {null, null}
+            };
+
+            // wykonanie testow
+            for (Object[] testCase : testCases) {
+                Date date = (Date) testCase[0];
+                DateHolder holder = new DateHolder(date);
+                String expectedResult = (String) testCase[1];
+
+                assertEquals(expectedResult, type.encode(holder));
+            }
+        } finally {
+            DateType.setDefaultOutputPattern(previousPattern);
         }
     }
 
@@ -198,6 +207,51 @@ public class DateTypeTest {
         assertNotSame(arr1, arr2);
     }
 
+    @Test
+    public void shouldNormalizeRecognizedDateFormatsToIsoDateOnFastPath() {
+        String[] levelValues = {"2014-03-01", "2014.03.01", "2014/03/01", "01-03-2014", "01.03.2014", "01/03/2014"};
+
+        for (String levelValue : levelValues) {
+            assertEquals("2014-03-01", type.normalizeKey(levelValue));
+            assertEquals(type.encode(type.decode(levelValue)), type.normalizeKey(levelValue));
+        }
+    }
+
+    @Test
+    public void shouldNotNormalizeInvalidDatesOnFastPath() {
+        String[] levelValues = {"2014-02-30", "2013-13-01", " 2014-03-01", "1500-01-01", "2014-03-01 00:00"};
+
+        for (String levelValue : levelValues) {
+            assertNull(type.normalizeKey(levelValue));
+        }
+    }
+
+    @Test
+    public void shouldNotNormalizeOnFastPathWhenOutputPatternIsNotDefault() {
+        String previousPattern = DateType.getDefaultOutputPattern();
+        DateType.setDefaultOutputPattern("dd-MM-yyyy");
+        try {
+            assertNull(type.normalizeKey("2014-03-01"));
+        } finally {
+            DateType.setDefaultOutputPattern(previousPattern);
+        }
+    }
+
+    @Test
+    public void shouldNotReturnValuesMemoizedForPreviousOutputPattern() {
+        String previousPattern = DateType.getDefaultOutputPattern();
+        DateType.setDefaultOutputPattern("dd-MM-yyyy");
+        try {
+            assertEquals("01-03-2014", InputValueNormalizer.normalizeQueryValue(type, "2014-03-01"));
+
+            DateType.setDefaultOutputPattern("yyyy/MM/dd");
+
+            assertEquals("2014/03/01", InputValueNormalizer.normalizeQueryValue(type, "2014-03-01"));
+        } finally {
+            DateType.setDefaultOutputPattern(previousPattern);
+        }
+    }
+
     private Date d(String dmy) {
         try {
             return sdf("dd-MM-yyyy").parse(dmy);
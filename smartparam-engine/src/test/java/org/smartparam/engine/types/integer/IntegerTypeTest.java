@@ -133,4 +133,17 @@ public class IntegerTypeTest {
             }
         }
     }
+
+    @Test
+    public void shouldEncodeKeyOfIntegerValuesSameAsConvertedHolder() {
+        // given
+        Object[] values = {-129L, 0, (short) 7, 1024L, Long.MAX_VALUE};
+
+        // when then
+        for (Object value : values) {
+            assertEquals(type.encode(type.convert(value)), type.encodeKey(value));
+        }
+        assertEquals("-5", type.encodeKey(-5L));
+        assertNull(type.encodeKey(0.1d));
+    }
 }
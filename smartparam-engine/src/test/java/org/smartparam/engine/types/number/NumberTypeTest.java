@@ -162,6 +162,25 @@ public class NumberTypeTest {
         return new NumberHolder(str != null ? new BigDecimal(str) : null);
     }
 
+    @Test
+    public void shouldReturnCanonicalDecimalAsIsOnFastPath() {
+        String[] levelValues = {"0", "12", "-12", "1.50", "-0.5", "10.010"};
+
+        for (String levelValue : levelValues) {
+            assertSame(levelValue, type.normalizeKey(levelValue));
+            assertEquals(type.encode(type.decode(levelValue)), type.normalizeKey(levelValue));
+        }
+    }
+
+    @Test
+    public void shouldNotNormalizeNonCanonicalDecimalOnFastPath() {
+        String[] levelValues = {"007", "-0", "-0.00", "1.", ".5", "1,5", " 1", "1e3", "-"};
+
+        for (String levelValue : levelValues) {
+            assertNull(type.normalizeKey(levelValue));
+        }
+    }
+
     private NumberHolder num2(BigDecimal n) {
         return new NumberHolder(n);
     }
@@ -18,6 +18,7 @@ package org.smartparam.engine.util.reflection;
 import java.lang.reflect.Method;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import static com.googlecode.catchexception.CatchException.*;
 import static org.smartparam.engine.test.ParamEngineAssertions.*;
 
 /**
@@ -81,6 +82,72 @@ public class ReflectionSetterInvokerTest {
         assertThat(invoked).isFalse();
     }
 
+    @Test
+    public void shouldFindSetterAcceptingSupertypeOfArgument() {
+        // given
+        // when
+        Method method = reflectionSetterInvoker.findSetter(SupertypeSetterTestObject.class, "TEST");
+
+        // then
+        assertThat(method.getName()).isEqualTo("charSequenceSetter");
+    }
+
+    @Test
+    public void shouldKeepSeparateSettersForDifferentHostClasses() {
+        // given
+        reflectionSetterInvoker.findSetter(ReflectionSetterInvokerTestObject.class, "TEST");
+
+        // when
+        Method method = reflectionSetterInvoker.findSetter(SupertypeSetterTestObject.class, "TEST");
+
+        // then
+        assertThat(method.getName()).isEqualTo("charSequenceSetter");
+    }
+
+    @Test
+    public void shouldWrapExceptionThrownBySetterInInnerReflectiveOperationException() {
+        // given
+        SupertypeSetterTestObject testObject = new SupertypeSetterTestObject();
+
+        // when
+        catchException(reflectionSetterInvoker).invokeSetter(testObject, Long.valueOf(1));
+
+        // then
+        assertThat((Exception) caughtException()).isInstanceOf(InnerReflectiveOperationException.class);
+    }
+
+    @Test
+    public void shouldInvokeStaticSetter() {
+        // given
+        StaticSetterTestObject testObject = new StaticSetterTestObject();
+
+        // when
+        boolean invoked = reflectionSetterInvoker.invokeSetter(testObject, Double.valueOf(1));
+
+        // then
+        assertThat(invoked).isTrue();
+        assertThat(StaticSetterTestObject.staticSetterArg).isEqualTo(1.0);
+    }
+
+    private static class StaticSetterTestObject {
+
+        static Double staticSetterArg;
+
+        static void staticSetter(Double arg) {
+            staticSetterArg = arg;
+        }
+    }
+
+    private static class SupertypeSetterTestObject {
+
+        void charSequenceSetter(CharSequence arg) {
+        }
+
+        void throwingSetter(Long arg) {
+            throw new IllegalStateException();
+        }
+    }
+
     private static class ReflectionSetterInvokerTestObject {
 
         String inconventionalSetterArg;
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.repository.jdbc.config.DefaultJdbcConfig;
+import org.smartparam.repository.jdbc.model.JdbcParameter;
+
+/**
+ * Holds results of looking up entries of noncacheable parameters, together
+ * with parameter metadata needed to run the lookup. Each parameter has its own
+ * slot with at most N least recently used results, whole slot expires after
+ * configured time or when parameter is changed through repository.
+ *
+ * @author Adam Dubiel
+ */
+public class FoundEntriesCache {
+
+    private final int maxResults;
+
+    private final long timeToLive;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<String, Slot>();
+
+    public FoundEntriesCache(DefaultJdbcConfig configuration) {
+        this(configuration.foundEntriesCacheSize(), configuration.foundEntriesTimeToLive());
+    }
+
+    FoundEntriesCache(int maxResults, long timeToLive) {
+        this.maxResults = maxResults;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Returns slot of given parameter, creating new one if there was none or
+     * old one expired. Results put in slot that has been invalidated in the
+     * meantime are never seen by anyone. If cache is off, each call returns
+     * new slot that is not shared, so neither results nor metadata are reused.
+     */
+    Slot slot(String parameterName) {
+        if (maxResults <= 0) {
+            return new Slot(0, 0);
+        }
+        Slot slot = slots.get(parameterName);
+        if (slot == null || slot.expired()) {
+            Slot freshSlot = new Slot(maxResults, System.currentTimeMillis() + timeToLive);
+            if (slot == null) {
+                slot = slots.putIfAbsent(parameterName, freshSlot);
+                return slot != null ? slot : freshSlot;
+            }
+            slots.replace(parameterName, slot, freshSlot);
+            return freshSlot;
+        }
+        return slot;
+    }
+
+    public void invalidate(String parameterName) {
+        slots.remove(parameterName);
+    }
+
+    public void invalidateAll() {
+        slots.clear();
+    }
+
+    static List<String> key(String[] levelValues) {
+        return Arrays.asList(levelValues.clone());
+    }
+
+    static final class Slot {
+
+        private final long expiresAt;
+
+        private final Map<List<String>, Set<ParameterEntry>> results;
+
+        private volatile JdbcParameter metadata;
+
+        private Slot(final int maxResults, long expiresAt) {
+            this.expiresAt = expiresAt;
+            this.results = new LinkedHashMap<List<String>, Set<ParameterEntry>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<String>, Set<ParameterEntry>> eldest) {
+                    return size() > maxResults;
+                }
+            };
+        }
+
+        boolean expired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        JdbcParameter metadata() {
+            return metadata;
+        }
+
+        void metadata(JdbcParameter metadata) {
+            this.metadata = metadata;
+        }
+
+        synchronized Set<ParameterEntry> get(List<String> key) {
+            return results.get(key);
+        }
+
+        synchronized void put(List<String> key, Set<ParameterEntry> entries) {
+            results.put(key, entries);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.smartparam.repository.jdbc;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.smartparam.repository.jdbc.batch.JdbcParameterEntryBatchLoaderFactory;
 import java.util.Set;
@@ -24,8 +25,6 @@ import org.polyjdbc.core.query.TransactionWrapper;
 import org.polyjdbc.core.query.TransactionRunner;
 import org.polyjdbc.core.query.QueryRunner;
 import org.polyjdbc.core.query.VoidTransactionWrapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.smartparam.editor.core.capabilities.RepositoryCapabilities;
 import org.smartparam.engine.config.initialization.InitializableComponent;
 import org.smartparam.engine.core.parameter.ParameterBatchLoader;
@@ -44,7 +43,9 @@ import org.smartparam.engine.core.parameter.ParameterKey;
 import org.smartparam.editor.core.ViewableParamRepository;
 import org.smartparam.editor.core.ViewableRepositoryCapability;
 import org.smartparam.repository.jdbc.batch.JdbcParameterEntryBatchLoader;
+import org.smartparam.repository.jdbc.batch.StreamingParameterEntryLoader;
 import org.smartparam.repository.jdbc.dao.JdbcRepository;
+import org.smartparam.repository.jdbc.dao.ParameterEntryBulkWriter;
 import org.smartparam.repository.jdbc.exception.ParameterAlreadyExistsException;
 import org.smartparam.repository.jdbc.model.JdbcLevelKey;
 import org.smartparam.repository.jdbc.model.JdbcParameter;
@@ -58,8 +59,6 @@ import org.smartparam.repository.jdbc.schema.SchemaCreator;
  */
 public class JdbcParamRepository implements WritableParamRepository, EditableParamRepository, ViewableParamRepository, InitializableComponent {
 
-    private static final Logger logger = LoggerFactory.getLogger(JdbcParamRepository.class);
-
     private static final int LOADED_BATCH_SIZE = 500;
 
     protected final TransactionRunner transactionRunner;
@@ -70,12 +69,34 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
 
     protected final SchemaCreator schemaCreator;
 
+    protected final ParameterEntryBulkWriter bulkWriter;
+
+    protected final FoundEntriesCache foundEntriesCache;
+
     public JdbcParamRepository(TransactionRunner operationRunner, JdbcParameterEntryBatchLoaderFactory batchLoaderFactory,
             JdbcRepository dao, SchemaCreator schemaCreator) {
+        this(operationRunner, batchLoaderFactory, dao, schemaCreator, null);
+    }
+
+    public JdbcParamRepository(TransactionRunner operationRunner, JdbcParameterEntryBatchLoaderFactory batchLoaderFactory,
+            JdbcRepository dao, SchemaCreator schemaCreator, ParameterEntryBulkWriter bulkWriter) {
+        this(operationRunner, batchLoaderFactory, dao, schemaCreator, bulkWriter, null);
+    }
+
+    /**
+     * Entries written from batch loader are inserted using bulk writer if it is
+     * enabled, all other writes insert entries in the same transaction as
+     * parameter. Entries found
+     * for noncacheable parameters are not cached if there is no cache.
+     */
+    public JdbcParamRepository(TransactionRunner operationRunner, JdbcParameterEntryBatchLoaderFactory batchLoaderFactory,
+            JdbcRepository dao, SchemaCreator schemaCreator, ParameterEntryBulkWriter bulkWriter, FoundEntriesCache foundEntriesCache) {
         this.dao = dao;
         this.schemaCreator = schemaCreator;
         this.batchLoaderFactory = batchLoaderFactory;
         this.transactionRunner = operationRunner;
+        this.bulkWriter = bulkWriter;
+        this.foundEntriesCache = foundEntriesCache != null ? foundEntriesCache : new FoundEntriesCache(0, 0);
     }
 
     @Override
@@ -102,6 +123,13 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
 
     @Override
     public Parameter load(final String parameterName) {
+        if (batchLoaderFactory.streamingSupported()) {
+            return loadStreaming(parameterName);
+        }
+        return loadInTransaction(parameterName);
+    }
+
+    private Parameter loadInTransaction(final String parameterName) {
         return transactionRunner.run(new TransactionWrapper<Parameter>() {
             @Override
             public Parameter perform(QueryRunner queryRunner) {
@@ -110,8 +138,52 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
         });
     }
 
+    /**
+     * Entries are streamed straight into parameter, without intermediate
+     * set of mapped entries. Entries are read on separate connection, so if
+     * parameter was rewritten in the meantime (it has different id now),
+     * parameter is read again in single transaction.
+     */
+    private Parameter loadStreaming(String parameterName) {
+        JdbcParameter parameter = loadMetadata(parameterName);
+        if (parameter == null) {
+            return null;
+        }
+
+        StreamingParameterEntryLoader entryLoader = batchLoaderFactory.stream(parameter.getId());
+        try {
+            while (entryLoader.hasNext()) {
+                parameter.getEntries().add(entryLoader.next());
+            }
+        } finally {
+            entryLoader.close();
+        }
+
+        JdbcParameter current = loadMetadata(parameterName);
+        if (current == null || current.getId() != parameter.getId()) {
+            return loadInTransaction(parameterName);
+        }
+        return parameter;
+    }
+
+    private JdbcParameter loadMetadata(final String parameterName) {
+        return transactionRunner.run(new TransactionWrapper<JdbcParameter>() {
+            @Override
+            public JdbcParameter perform(QueryRunner queryRunner) {
+                return dao.getParameterMetadata(queryRunner, parameterName);
+            }
+        });
+    }
+
     @Override
     public ParameterBatchLoader batchLoad(final String parameterName) {
+        if (batchLoaderFactory.streamingSupported()) {
+            JdbcParameter metadata = loadMetadata(parameterName);
+            if (metadata == null) {
+                return null;
+            }
+            return new ParameterBatchLoader(metadata, batchLoaderFactory.stream(metadata.getId()));
+        }
         return transactionRunner.run(new TransactionWrapper<ParameterBatchLoader>() {
             @Override
             public ParameterBatchLoader perform(QueryRunner queryRunner) {
@@ -123,10 +195,43 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
         });
     }
 
+    /**
+     * Returns entries matching given values, see {@link org.smartparam.repository.jdbc.dao.ParameterEntryDAO#find}
+     * for levels that can be matched in database. Results are cached per
+     * parameter until it is changed using this repository or cache expires.
+     */
     @Override
-    public Set<ParameterEntry> findEntries(String parameterName, String[] levelValues) {
-        logger.info("trying to load parameter {}, but {} does not support non-cacheable parameters", parameterName, getClass().getSimpleName());
-        return null;
+    public Set<ParameterEntry> findEntries(final String parameterName, final String[] levelValues) {
+        final FoundEntriesCache.Slot slot = foundEntriesCache.slot(parameterName);
+        List<String> key = FoundEntriesCache.key(levelValues);
+
+        Set<ParameterEntry> entries = slot.get(key);
+        if (entries != null) {
+            return entries;
+        }
+
+        entries = transactionRunner.run(new TransactionWrapper<Set<ParameterEntry>>() {
+            @Override
+            public Set<ParameterEntry> perform(QueryRunner queryRunner) {
+                JdbcParameter parameter = slot.metadata();
+                if (parameter == null) {
+                    parameter = dao.getParameterMetadata(queryRunner, parameterName);
+                    if (parameter == null) {
+                        return null;
+                    }
+                    slot.metadata(parameter);
+                }
+                return dao.findEntries(queryRunner, parameter, levelValues);
+            }
+        });
+
+        if (entries == null) {
+            foundEntriesCache.invalidate(parameterName);
+            return null;
+        }
+        entries = Collections.unmodifiableSet(entries);
+        slot.put(key, entries);
+        return entries;
     }
 
     @Override
@@ -137,10 +242,15 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 write(queryRunner, parameter);
             }
         });
+        foundEntriesCache.invalidate(parameter.getName());
     }
 
     @Override
     public void write(final ParameterBatchLoader batchLoader) {
+        if (bulkWriteEnabled()) {
+            writeInBulk(batchLoader);
+            return;
+        }
         transactionRunner.run(new VoidTransactionWrapper() {
             @Override
             public void performVoid(QueryRunner queryRunner) {
@@ -161,6 +271,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 }
             }
         });
+        foundEntriesCache.invalidate(batchLoader.getMetadata().getName());
     }
 
     @Override
@@ -173,14 +284,66 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 }
             }
         });
+        for (Parameter parameter : parameters) {
+            foundEntriesCache.invalidate(parameter.getName());
+        }
     }
 
     private void write(QueryRunner queryRunner, Parameter parameter) {
-        String parameterName = parameter.getName();
+        deleteIfExists(queryRunner, parameter.getName());
+        dao.createParameter(queryRunner, parameter);
+    }
+
+    private void deleteIfExists(QueryRunner queryRunner, String parameterName) {
         if (dao.parameterExists(queryRunner, parameterName)) {
             dao.deleteParameter(queryRunner, parameterName);
         }
-        dao.createParameter(queryRunner, parameter);
+    }
+
+    private boolean bulkWriteEnabled() {
+        return bulkWriter != null && bulkWriter.isEnabled();
+    }
+
+    /**
+     * Same as writing from batch loader using query runner: parameter metadata is
+     * committed first, then each batch of entries is inserted by bulk writer in
+     * its own transaction. Writes of whole parameters and appended entries stay
+     * on query runner, so they are committed atomically.
+     */
+    /**
+     * Parameter is touched after last batch is inserted, so that anyone who
+     * notices the change can already read all entries.
+     */
+    private void writeInBulk(ParameterBatchLoader batchLoader) {
+        final String parameterName = batchLoader.getMetadata().getName();
+        long parameterId = writeMetadata(batchLoader.getMetadata());
+
+        ParameterEntryBatchLoader entryLoader = batchLoader.getEntryLoader();
+        try {
+            while (entryLoader.hasMore()) {
+                bulkWriter.insert(parameterId, entryLoader.nextBatch(bulkWriter.batchSize()));
+            }
+            transactionRunner.run(new VoidTransactionWrapper() {
+                @Override
+                public void performVoid(QueryRunner queryRunner) {
+                    dao.touchParameter(queryRunner, parameterName);
+                }
+            });
+        } catch (ParamBatchLoadingException batchException) {
+            throw new TransactionInterruptedException(batchException);
+        } finally {
+            foundEntriesCache.invalidate(parameterName);
+        }
+    }
+
+    private long writeMetadata(final Parameter parameter) {
+        return transactionRunner.run(new TransactionWrapper<Long>() {
+            @Override
+            public Long perform(QueryRunner queryRunner) {
+                deleteIfExists(queryRunner, parameter.getName());
+                return dao.createParameterMetadata(queryRunner, parameter);
+            }
+        });
     }
 
     @Override
@@ -191,6 +354,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.writeParameterEntries(queryRunner, parameterName, parameterEntries);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -201,6 +365,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.deleteParameter(queryRunner, parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -234,6 +399,8 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.updateParameter(queryRunner, parameterName, parameter);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
+        foundEntriesCache.invalidate(parameter.getName());
     }
 
     @Override
@@ -243,13 +410,15 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
 
     @Override
     public LevelKey addLevel(final String parameterName, final Level level) {
-        return transactionRunner.run(new TransactionWrapper<LevelKey>() {
+        LevelKey levelKey = transactionRunner.run(new TransactionWrapper<LevelKey>() {
             @Override
             public LevelKey perform(QueryRunner queryRunner) {
                 long levelId = dao.addLevel(queryRunner, parameterName, level);
                 return new JdbcLevelKey(levelId);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
+        return levelKey;
     }
 
     @Override
@@ -260,6 +429,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.updateLevel(queryRunner, new JdbcLevelKey(levelKey).levelId(), level, parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -275,6 +445,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.reorderLevels(queryRunner, orderedLevelIds, parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -285,6 +456,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.deleteLevel(queryRunner, parameterName, new JdbcLevelKey(levelKey).levelId());
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -313,30 +485,35 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
 
     @Override
     public ParameterEntryKey addEntry(final String parameterName, final ParameterEntry entry) {
-        return transactionRunner.run(new TransactionWrapper<ParameterEntryKey>() {
+        ParameterEntryKey entryKey = transactionRunner.run(new TransactionWrapper<ParameterEntryKey>() {
             @Override
             public ParameterEntryKey perform(QueryRunner queryRunner) {
                 long entryId = dao.addParameterEntry(queryRunner, parameterName, entry);
                 return new JdbcParameterEntryKey(entryId);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
+        return entryKey;
     }
 
     @Override
     public List<ParameterEntryKey> addEntries(final String parameterName, final Iterable<ParameterEntry> entries) {
-        return transactionRunner.run(new TransactionWrapper<List<ParameterEntryKey>>() {
+        List<ParameterEntryKey> entryKeys = transactionRunner.run(new TransactionWrapper<List<ParameterEntryKey>>() {
             @Override
             public List<ParameterEntryKey> perform(QueryRunner queryRunner) {
-                List<Long> entriesIds = dao.writeParameterEntries(queryRunner, parameterName, entries);
-
-                List<ParameterEntryKey> keys = new ArrayList<ParameterEntryKey>(entriesIds.size());
-                for (Long entryId : entriesIds) {
-                    keys.add(new JdbcParameterEntryKey(entryId));
-                }
-
-                return keys;
+                return toEntryKeys(dao.writeParameterEntries(queryRunner, parameterName, entries));
             }
         });
+        foundEntriesCache.invalidate(parameterName);
+        return entryKeys;
+    }
+
+    private List<ParameterEntryKey> toEntryKeys(List<Long> entriesIds) {
+        List<ParameterEntryKey> keys = new ArrayList<ParameterEntryKey>(entriesIds.size());
+        for (Long entryId : entriesIds) {
+            keys.add(new JdbcParameterEntryKey(entryId));
+        }
+        return keys;
     }
 
     @Override
@@ -347,6 +524,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.updateParameterEntry(queryRunner, new JdbcParameterEntryKey(entryKey).entryId(), entry, parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -357,6 +535,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.deleteParameterEntry(queryRunner, new JdbcParameterEntryKey(entryKey).entryId(), parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -372,6 +551,7 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.deleteParameterEntries(queryRunner, ids, parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 
     @Override
@@ -382,5 +562,6 @@ public class JdbcParamRepository implements WritableParamRepository, EditablePar
                 dao.deleteParameterEntries(queryRunner, parameterName);
             }
         });
+        foundEntriesCache.invalidate(parameterName);
     }
 }
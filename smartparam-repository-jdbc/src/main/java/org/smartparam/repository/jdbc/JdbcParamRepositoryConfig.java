@@ -31,6 +31,7 @@ import org.smartparam.repository.jdbc.dao.JdbcRepository;
 import org.smartparam.repository.jdbc.dao.SimpleJdbcRepository;
 import org.smartparam.repository.jdbc.dao.LevelDAO;
 import org.smartparam.repository.jdbc.dao.ParameterDAO;
+import org.smartparam.repository.jdbc.dao.ParameterEntryBulkWriter;
 import org.smartparam.repository.jdbc.dao.ParameterEntryDAO;
 import org.smartparam.repository.jdbc.schema.DefaultSchemaCreator;
 import static org.smartparam.engine.config.pico.ComponentDefinition.component;
@@ -59,6 +60,8 @@ public class JdbcParamRepositoryConfig extends ComponentConfig {
         components.add(component(ParameterDAO.class, ParameterDAO.class));
         components.add(component(LevelDAO.class, LevelDAO.class));
         components.add(component(ParameterEntryDAO.class, ParameterEntryDAO.class));
+        components.add(component(ParameterEntryBulkWriter.class, ParameterEntryBulkWriter.class));
+        components.add(component(FoundEntriesCache.class, FoundEntriesCache.class));
         components.add(component(SimpleQueryRunner.class, SimpleQueryRunner.class));
         components.add(component(DefaultSchemaCreator.class, DefaultSchemaCreator.class));
         components.add(component(TransactionRunner.class, TransactionRunner.class));
@@ -15,7 +15,9 @@
  */
 package org.smartparam.repository.jdbc.batch;
 
+import javax.sql.DataSource;
 import org.polyjdbc.core.query.QueryRunnerFactory;
+import org.smartparam.repository.jdbc.config.DefaultJdbcConfig;
 import org.smartparam.repository.jdbc.dao.ParameterEntryDAO;
 
 /**
@@ -28,9 +30,35 @@ public class JdbcParameterEntryBatchLoaderFactory {
 
     private final ParameterEntryDAO parameterEntryDAO;
 
+    private final DefaultJdbcConfig configuration;
+
+    private final DataSource dataSource;
+
     public JdbcParameterEntryBatchLoaderFactory(QueryRunnerFactory queryRunnerFactory, ParameterEntryDAO parameterEntryDAO) {
+        this(queryRunnerFactory, parameterEntryDAO, null, null);
+    }
+
+    public JdbcParameterEntryBatchLoaderFactory(QueryRunnerFactory queryRunnerFactory, ParameterEntryDAO parameterEntryDAO,
+            DefaultJdbcConfig configuration, DataSource dataSource) {
         this.queryRunnerFactory = queryRunnerFactory;
         this.parameterEntryDAO = parameterEntryDAO;
+        this.configuration = configuration;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns true if factory can create streaming loaders (has access to DataSource).
+     */
+    public boolean streamingSupported() {
+        return dataSource != null && configuration != null;
+    }
+
+    /**
+     * Creates loader that reads all entries of parameter with given id using single query.
+     */
+    public StreamingParameterEntryLoader stream(long parameterId) {
+        return new StreamingParameterEntryLoader(new ParameterEntryCursor(dataSource, configuration, parameterId),
+                configuration.entryFetchSize(), configuration.entryPrefetchBlocks());
     }
 
     public JdbcParameterEntryBatchLoader create(String parameterName) {
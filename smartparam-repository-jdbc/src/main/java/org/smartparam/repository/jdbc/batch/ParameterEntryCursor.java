@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.batch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import javax.sql.DataSource;
+import org.smartparam.repository.jdbc.config.DefaultJdbcConfig;
+import org.smartparam.repository.jdbc.model.JdbcParameterEntry;
+
+/**
+ * Forward-only cursor over entries of single parameter. Query is executed once
+ * (lazily, on first read) and rows are fetched in fetch-size chunks by driver.
+ * Level columns are mapped by index straight into exactly sized arrays.
+ *
+ * Not thread safe, should be read by single thread.
+ *
+ * @author Adam Dubiel
+ */
+class ParameterEntryCursor {
+
+    private final DataSource dataSource;
+
+    private final DefaultJdbcConfig configuration;
+
+    private final long parameterId;
+
+    private final String[] levelBuffer;
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    private ResultSet resultSet;
+
+    private boolean closed;
+
+    ParameterEntryCursor(DataSource dataSource, DefaultJdbcConfig configuration, long parameterId) {
+        this.dataSource = dataSource;
+        this.configuration = configuration;
+        this.parameterId = parameterId;
+        this.levelBuffer = new String[configuration.levelColumnCount()];
+    }
+
+    /**
+     * Returns next entry or null if there are no more entries.
+     */
+    JdbcParameterEntry next() throws SQLException {
+        if (closed) {
+            return null;
+        }
+        if (resultSet == null) {
+            open();
+        }
+        if (!resultSet.next()) {
+            close();
+            return null;
+        }
+        return new JdbcParameterEntry(resultSet.getLong(1), readLevels());
+    }
+
+    private void open() throws SQLException {
+        connection = dataSource.getConnection();
+        // some drivers (i.e. PostgreSQL) use fetch size only inside transaction
+        connection.setAutoCommit(false);
+
+        statement = connection.prepareStatement(selectSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(configuration.entryFetchSize());
+        statement.setLong(1, parameterId);
+        resultSet = statement.executeQuery();
+    }
+
+    private String selectSql() {
+        StringBuilder sql = new StringBuilder("SELECT id");
+        for (int levelIndex = 0; levelIndex < configuration.levelColumnCount(); ++levelIndex) {
+            sql.append(", level").append(levelIndex);
+        }
+        return sql.append(" FROM ").append(configuration.parameterEntryEntityName()).append(" WHERE fk_parameter = ?").toString();
+    }
+
+    private String[] readLevels() throws SQLException {
+        int lastColumn = levelBuffer.length - 1;
+        int levelCount = 0;
+        String value;
+        while (levelCount < lastColumn && (value = resultSet.getString(levelCount + 2)) != null) {
+            levelBuffer[levelCount++] = value;
+        }
+
+        if (levelCount == lastColumn) {
+            String lastValue = resultSet.getString(lastColumn + 2);
+            if (lastValue != null) {
+                String[] excessLevels = lastValue.split("\\" + configuration.excessLevelsSeparator());
+                String[] levels = new String[levelCount + excessLevels.length];
+                System.arraycopy(levelBuffer, 0, levels, 0, levelCount);
+                System.arraycopy(excessLevels, 0, levels, levelCount, excessLevels.length);
+                return levels;
+            }
+        }
+        return Arrays.copyOf(levelBuffer, levelCount);
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (connection != null) {
+                connection.commit();
+            }
+        } catch (SQLException exception) {
+            // read only transaction, nothing to lose
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            closeQuietly(connection);
+        }
+    }
+
+    private void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception exception) {
+            // nothing to do about it
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.batch;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.smartparam.engine.core.parameter.ParamBatchLoadingException;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.core.parameter.entry.ParameterEntryBatchLoader;
+
+/**
+ * Entry loader that reads all entries of parameter with single forward-only
+ * query, instead of querying database for each batch. Entries can be consumed
+ * either in batches or one by one, as an iterator.
+ *
+ * If prefetch is enabled, rows are read by background thread which keeps at most
+ * given number of blocks ahead of consumer, so database I/O overlaps with work
+ * done on already read entries. Loader has to be closed to release connection
+ * when not read till the end.
+ *
+ * @author Adam Dubiel
+ */
+public class StreamingParameterEntryLoader implements ParameterEntryBatchLoader, Iterator<ParameterEntry> {
+
+    private static final List<ParameterEntry> END_OF_ENTRIES = Collections.emptyList();
+
+    private final ParameterEntryCursor cursor;
+
+    private final int blockSize;
+
+    private final BlockingQueue<Object> prefetchedBlocks;
+
+    private Thread prefetchThread;
+
+    private List<ParameterEntry> currentBlock = Collections.emptyList();
+
+    private int currentBlockIndex;
+
+    private ParameterEntry nextEntry;
+
+    private boolean finished;
+
+    private ParamBatchLoadingException failure;
+
+    StreamingParameterEntryLoader(ParameterEntryCursor cursor, int blockSize, int prefetchBlocks) {
+        this.cursor = cursor;
+        this.blockSize = Math.max(blockSize, 1);
+        this.prefetchedBlocks = prefetchBlocks > 0 ? new ArrayBlockingQueue<Object>(prefetchBlocks) : null;
+    }
+
+    @Override
+    public boolean hasMore() {
+        return hasNext();
+    }
+
+    @Override
+    public Collection<ParameterEntry> nextBatch(int batchSize) {
+        List<ParameterEntry> batch = new ArrayList<ParameterEntry>(batchSize);
+        while (batch.size() < batchSize && hasNext()) {
+            batch.add(next());
+        }
+        return batch;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (nextEntry == null && !finished) {
+            try {
+                nextEntry = fetch();
+            } catch (ParamBatchLoadingException exception) {
+                // stream can not be resumed, report the same failure on each call
+                failure = exception;
+                throw exception;
+            }
+            finished = nextEntry == null;
+        }
+        return nextEntry != null;
+    }
+
+    @Override
+    public ParameterEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ParameterEntry entry = nextEntry;
+        nextEntry = null;
+        return entry;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("entries can not be removed from stream");
+    }
+
+    private ParameterEntry fetch() {
+        if (prefetchedBlocks == null) {
+            try {
+                return cursor.next();
+            } catch (SQLException exception) {
+                cursor.close();
+                throw new ParamBatchLoadingException("Failed to read parameter entries", exception);
+            }
+        }
+        return fetchPrefetched();
+    }
+
+    private ParameterEntry fetchPrefetched() {
+        if (currentBlockIndex < currentBlock.size()) {
+            return currentBlock.get(currentBlockIndex++);
+        }
+        if (prefetchThread == null) {
+            startPrefetching();
+        }
+
+        Object block = takeBlock();
+        if (block instanceof Throwable) {
+            throw new ParamBatchLoadingException("Failed to read parameter entries", (Throwable) block);
+        }
+        @SuppressWarnings("unchecked")
+        List<ParameterEntry> entries = (List<ParameterEntry>) block;
+        if (entries == END_OF_ENTRIES) {
+            return null;
+        }
+        currentBlock = entries;
+        currentBlockIndex = 0;
+        return currentBlock.get(currentBlockIndex++);
+    }
+
+    private Object takeBlock() {
+        try {
+            return prefetchedBlocks.take();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ParamBatchLoadingException("Interrupted while waiting for parameter entries", exception);
+        }
+    }
+
+    private void startPrefetching() {
+        prefetchThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                prefetch();
+            }
+        }, "smartparam-jdbc-entry-prefetch");
+        prefetchThread.setDaemon(true);
+        prefetchThread.start();
+    }
+
+    private void prefetch() {
+        try {
+            List<ParameterEntry> block = new ArrayList<ParameterEntry>(blockSize);
+            ParameterEntry entry;
+            while ((entry = cursor.next()) != null) {
+                block.add(entry);
+                if (block.size() == blockSize) {
+                    prefetchedBlocks.put(block);
+                    block = new ArrayList<ParameterEntry>(blockSize);
+                }
+            }
+            if (!block.isEmpty()) {
+                prefetchedBlocks.put(block);
+            }
+            prefetchedBlocks.put(END_OF_ENTRIES);
+        } catch (InterruptedException exception) {
+            // loader was closed before reading all entries
+        } catch (SQLException | RuntimeException exception) {
+            publishFailure(exception);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void publishFailure(Exception exception) {
+        try {
+            prefetchedBlocks.put(exception);
+        } catch (InterruptedException interruptedException) {
+            // loader was closed, nobody is waiting for failure
+        }
+    }
+
+    /**
+     * Stops reading entries and releases connection. If entries are prefetched,
+     * connection is released by prefetching thread as soon as it notices that
+     * loader was closed.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        nextEntry = null;
+        if (prefetchThread != null) {
+            prefetchThread.interrupt();
+        } else {
+            cursor.close();
+        }
+    }
+}
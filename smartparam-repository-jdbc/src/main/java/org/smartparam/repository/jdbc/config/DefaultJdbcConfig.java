@@ -40,12 +40,39 @@ import org.polyjdbc.core.dialect.Dialect;
  * to better reflect your needs. 8 is just a sensible default deducted from
  * previous experience with using SmartParam.
  *
+ * Parameter entries written from batch loader are inserted in bulk using JDBC
+ * batches of 1000 rows (bulk insert batch size), each statement inserting up to
+ * 50 rows at once (multi-row insert size) if dialect supports multi-row VALUES
+ * clause. Setting bulk insert batch size to 0 turns bulk inserts off. Other
+ * writes always insert entries in the same transaction as parameter.
+ *
+ * Entries are read using single forward-only query with JDBC fetch size of 1000
+ * rows. Entry prefetch (number of fetch-size blocks read ahead by background
+ * thread) is off by default.
+ *
+ * Entries of noncacheable parameters are looked up using composite index on
+ * parameter and first 3 level columns (lookup index level count), keeping index
+ * key short enough for all supported databases. Lookup results are not cached
+ * by default, so noncacheable parameters always read current entries. Found
+ * entries cache keeps given number of results per parameter (for 60 seconds by
+ * default), but only changes made on this node invalidate it.
+ *
  * @author Przemek Hertel
  */
 public class DefaultJdbcConfig implements JdbcConfig {
 
     private static final int DEFAULT_LEVEL_COUNT = 8;
 
+    private static final int DEFAULT_BULK_INSERT_BATCH_SIZE = 1000;
+
+    private static final int DEFAULT_MULTI_ROW_INSERT_SIZE = 50;
+
+    private static final int DEFAULT_ENTRY_FETCH_SIZE = 1000;
+
+    private static final int DEFAULT_LOOKUP_INDEX_LEVEL_COUNT = 3;
+
+    private static final long DEFAULT_FOUND_ENTRIES_TIME_TO_LIVE = 60000;
+
     private Dialect dialect;
 
     private String parameterSufix = "parameter";
@@ -68,6 +95,20 @@ public class DefaultJdbcConfig implements JdbcConfig {
 
     private int levelColumnCount = DEFAULT_LEVEL_COUNT;
 
+    private int bulkInsertBatchSize = DEFAULT_BULK_INSERT_BATCH_SIZE;
+
+    private int multiRowInsertSize = DEFAULT_MULTI_ROW_INSERT_SIZE;
+
+    private int entryFetchSize = DEFAULT_ENTRY_FETCH_SIZE;
+
+    private int entryPrefetchBlocks = 0;
+
+    private int lookupIndexLevelCount = DEFAULT_LOOKUP_INDEX_LEVEL_COUNT;
+
+    private int foundEntriesCacheSize = 0;
+
+    private long foundEntriesTimeToLive = DEFAULT_FOUND_ENTRIES_TIME_TO_LIVE;
+
     public DefaultJdbcConfig() {
     }
 
@@ -163,6 +204,62 @@ public class DefaultJdbcConfig implements JdbcConfig {
         this.levelColumnCount = levelColumnCount;
     }
 
+    public int bulkInsertBatchSize() {
+        return bulkInsertBatchSize;
+    }
+
+    void bulkInsertBatchSize(int bulkInsertBatchSize) {
+        this.bulkInsertBatchSize = bulkInsertBatchSize;
+    }
+
+    public int multiRowInsertSize() {
+        return multiRowInsertSize;
+    }
+
+    void multiRowInsertSize(int multiRowInsertSize) {
+        this.multiRowInsertSize = multiRowInsertSize;
+    }
+
+    public int entryFetchSize() {
+        return entryFetchSize;
+    }
+
+    void entryFetchSize(int entryFetchSize) {
+        this.entryFetchSize = entryFetchSize;
+    }
+
+    public int entryPrefetchBlocks() {
+        return entryPrefetchBlocks;
+    }
+
+    void entryPrefetchBlocks(int entryPrefetchBlocks) {
+        this.entryPrefetchBlocks = entryPrefetchBlocks;
+    }
+
+    public int lookupIndexLevelCount() {
+        return lookupIndexLevelCount;
+    }
+
+    void lookupIndexLevelCount(int lookupIndexLevelCount) {
+        this.lookupIndexLevelCount = lookupIndexLevelCount;
+    }
+
+    public int foundEntriesCacheSize() {
+        return foundEntriesCacheSize;
+    }
+
+    void foundEntriesCacheSize(int foundEntriesCacheSize) {
+        this.foundEntriesCacheSize = foundEntriesCacheSize;
+    }
+
+    public long foundEntriesTimeToLive() {
+        return foundEntriesTimeToLive;
+    }
+
+    void foundEntriesTimeToLive(long foundEntriesTimeToLive) {
+        this.foundEntriesTimeToLive = foundEntriesTimeToLive;
+    }
+
     public String indexPrefix() {
         return indexPrefix;
     }
@@ -43,4 +43,49 @@ public final class JdbcConfigBuilder extends AbstractConfigurationBuilder<Defaul
         configuration().excessLevelsSeparator(separator);
         return this;
     }
+
+    public JdbcConfigBuilder withBulkInsertBatchSize(int batchSize) {
+        configuration().bulkInsertBatchSize(batchSize);
+        return this;
+    }
+
+    public JdbcConfigBuilder withMultiRowInsertSize(int rowsPerInsert) {
+        configuration().multiRowInsertSize(rowsPerInsert);
+        return this;
+    }
+
+    public JdbcConfigBuilder withEntryFetchSize(int fetchSize) {
+        configuration().entryFetchSize(fetchSize);
+        return this;
+    }
+
+    /**
+     * Read entries in background thread, keeping at most given number of
+     * fetch-size blocks ahead of consumer.
+     */
+    public JdbcConfigBuilder withEntryPrefetch(int blocks) {
+        configuration().entryPrefetchBlocks(blocks);
+        return this;
+    }
+
+    /**
+     * Number of leading level columns covered by entry lookup index, created
+     * together with schema.
+     */
+    public JdbcConfigBuilder withLookupIndexLevelCount(int levelCount) {
+        configuration().lookupIndexLevelCount(levelCount);
+        return this;
+    }
+
+    /**
+     * Cache at most given number of found entries sets per noncacheable
+     * parameter, each one for given time. Cache is off by default. Only changes
+     * made through repository on this node invalidate it, other nodes can
+     * return results that are up to given time old.
+     */
+    public JdbcConfigBuilder withFoundEntriesCache(int maxResults, long timeToLiveMillis) {
+        configuration().foundEntriesCacheSize(maxResults);
+        configuration().foundEntriesTimeToLive(timeToLiveMillis);
+        return this;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.dao;
+
+import org.polyjdbc.core.dialect.Dialect;
+
+/**
+ * Dialect specific parts of bulk entry inserts: how to fetch a range of ids from
+ * sequence in single query (null if dialect uses auto increment columns) and if
+ * multi-row VALUES clause is supported.
+ *
+ * @author Adam Dubiel
+ */
+enum BulkInsertDialect {
+
+    H2("SELECT NEXT VALUE FOR %s FROM SYSTEM_RANGE(1, ?)", true),
+    POSTGRES("SELECT NEXTVAL('%s') FROM GENERATE_SERIES(1, ?)", true),
+    ORACLE("SELECT %s.NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?", false),
+    MYSQL(null, true);
+
+    private final String idRangeQuery;
+
+    private final boolean multiRowValues;
+
+    private BulkInsertDialect(String idRangeQuery, boolean multiRowValues) {
+        this.idRangeQuery = idRangeQuery;
+        this.multiRowValues = multiRowValues;
+    }
+
+    /**
+     * Returns bulk insert dialect matching polyjdbc dialect or null if bulk
+     * inserts are not supported for it.
+     */
+    static BulkInsertDialect of(Dialect dialect) {
+        if (dialect == null) {
+            return null;
+        }
+        for (BulkInsertDialect bulkDialect : values()) {
+            if (bulkDialect.name().equalsIgnoreCase(dialect.getCode())) {
+                return bulkDialect;
+            }
+        }
+        return null;
+    }
+
+    boolean usesSequence() {
+        return idRangeQuery != null;
+    }
+
+    String idRangeQuery(String sequenceName) {
+        return String.format(idRangeQuery, sequenceName);
+    }
+
+    boolean supportsMultiRowValues() {
+        return multiRowValues;
+    }
+}
@@ -33,6 +33,16 @@ public interface JdbcRepository {
 
     long createParameter(QueryRunner runner, Parameter parameter);
 
+    /**
+     * Creates parameter with levels, but without entries.
+     */
+    long createParameterMetadata(QueryRunner runner, Parameter parameter);
+
+    /**
+     * Marks parameter as updated now, without changing it.
+     */
+    void touchParameter(QueryRunner runner, String parameterName);
+
     boolean parameterExists(QueryRunner runner, String parameterName);
 
     JdbcParameter getParameter(QueryRunner runner, String parameterName);
@@ -63,6 +73,8 @@ public interface JdbcRepository {
 
     List<ParameterEntry> listEntries(QueryRunner runner, String parameterName, ParameterEntriesFilter filter);
 
+    Set<ParameterEntry> findEntries(QueryRunner runner, JdbcParameter parameter, String[] levelValues);
+
     long addParameterEntry(QueryRunner runner, String parameterName, ParameterEntry entry);
 
     void updateParameterEntry(QueryRunner runner, long entryId, ParameterEntry entry, String parameterName);
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.repository.jdbc.config.DefaultJdbcConfig;
+import org.smartparam.repository.jdbc.exception.JdbcRepositoryException;
+
+/**
+ * Writes parameter entries using JDBC batches instead of issuing insert and
+ * sequence query per entry. Ids for whole batch are fetched from sequence in
+ * single query (or read from generated keys if dialect uses auto increment) and
+ * rows are grouped into multi-row inserts if dialect supports them.
+ *
+ * polyjdbc query runner does not expose statement batching, so writer uses plain
+ * JDBC on configured DataSource and runs in its own transaction.
+ *
+ * @author Adam Dubiel
+ */
+public class ParameterEntryBulkWriter {
+
+    private final DefaultJdbcConfig configuration;
+
+    private final DataSource dataSource;
+
+    private final ParameterEntryDAO parameterEntryDAO;
+
+    private final BulkInsertDialect bulkDialect;
+
+    public ParameterEntryBulkWriter(DefaultJdbcConfig configuration, DataSource dataSource, ParameterEntryDAO parameterEntryDAO) {
+        this.configuration = configuration;
+        this.dataSource = dataSource;
+        this.parameterEntryDAO = parameterEntryDAO;
+        this.bulkDialect = BulkInsertDialect.of(configuration.dialect());
+    }
+
+    /**
+     * Returns true if bulk inserts are turned on and supported by configured dialect.
+     */
+    public boolean isEnabled() {
+        return bulkDialect != null && configuration.bulkInsertBatchSize() > 0;
+    }
+
+    public int batchSize() {
+        return configuration.bulkInsertBatchSize();
+    }
+
+    /**
+     * Inserts all entries in single transaction, returns ids of inserted entries
+     * in the same order as entries were given. Entries are read from iterable as
+     * they are inserted, each batch is sent as soon as it fills up.
+     */
+    public List<Long> insert(long parameterId, Iterable<ParameterEntry> entries) {
+        List<Long> ids = new ArrayList<Long>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int batchSize = batchSize();
+                List<ParameterEntry> batch = new ArrayList<ParameterEntry>(batchSize);
+                for (ParameterEntry entry : entries) {
+                    batch.add(entry);
+                    if (batch.size() == batchSize) {
+                        insertBatch(connection, parameterId, batch, ids);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    insertBatch(connection, parameterId, batch, ids);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            }
+        } catch (SQLException exception) {
+            throw new JdbcRepositoryException("Failed to insert entries of parameter with id " + parameterId, exception);
+        }
+
+        return ids;
+    }
+
+    private void insertBatch(Connection connection, long parameterId, List<ParameterEntry> batch, List<Long> ids) throws SQLException {
+        int firstRowId = ids.size();
+        if (bulkDialect.usesSequence()) {
+            allocateIds(connection, batch.size(), ids);
+        }
+
+        int rowsPerStatement = bulkDialect.supportsMultiRowValues() ? Math.max(configuration.multiRowInsertSize(), 1) : 1;
+        int fullStatements = batch.size() / rowsPerStatement;
+        int remainingRows = batch.size() % rowsPerStatement;
+
+        if (fullStatements > 0) {
+            executeInserts(connection, parameterId, batch, 0, fullStatements, rowsPerStatement, ids, firstRowId);
+        }
+        if (remainingRows > 0) {
+            executeInserts(connection, parameterId, batch, fullStatements * rowsPerStatement, 1, remainingRows, ids, firstRowId);
+        }
+    }
+
+    private void allocateIds(Connection connection, int count, List<Long> ids) throws SQLException {
+        int expectedSize = ids.size() + count;
+        try (PreparedStatement query = connection.prepareStatement(bulkDialect.idRangeQuery(configuration.parameterEntrySequenceName()))) {
+            query.setInt(1, count);
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        if (ids.size() != expectedSize) {
+            throw new JdbcRepositoryException("Expected " + count + " ids from sequence " + configuration.parameterEntrySequenceName()
+                    + " but got " + (count - expectedSize + ids.size()));
+        }
+    }
+
+    private void executeInserts(Connection connection, long parameterId, List<ParameterEntry> batch, int firstRow,
+            int statementCount, int rowsPerStatement, List<Long> ids, int firstRowId) throws SQLException {
+        String sql = insertSql(rowsPerStatement);
+        boolean generatedKeys = !bulkDialect.usesSequence();
+
+        try (PreparedStatement insert = generatedKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql)) {
+            int row = firstRow;
+            for (int statement = 0; statement < statementCount; ++statement) {
+                int parameterIndex = 1;
+                for (int statementRow = 0; statementRow < rowsPerStatement; ++statementRow, ++row) {
+                    if (!generatedKeys) {
+                        insert.setLong(parameterIndex++, ids.get(firstRowId + row));
+                    }
+                    insert.setLong(parameterIndex++, parameterId);
+                    for (String level : parameterEntryDAO.levelColumns(batch.get(row))) {
+                        if (level != null) {
+                            insert.setString(parameterIndex++, level);
+                        } else {
+                            insert.setNull(parameterIndex++, Types.VARCHAR);
+                        }
+                    }
+                }
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            if (generatedKeys) {
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private String insertSql(int rows) {
+        int columnCount = configuration.levelColumnCount() + (bulkDialect.usesSequence() ? 2 : 1);
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(configuration.parameterEntryEntityName()).append(" (");
+        if (bulkDialect.usesSequence()) {
+            sql.append("id, ");
+        }
+        sql.append("fk_parameter");
+        for (int levelIndex = 0; levelIndex < configuration.levelColumnCount(); ++levelIndex) {
+            sql.append(", level").append(levelIndex);
+        }
+        sql.append(") VALUES ");
+
+        for (int row = 0; row < rows; ++row) {
+            sql.append(row > 0 ? ", (" : "(");
+            for (int column = 0; column < columnCount; ++column) {
+                sql.append(column > 0 ? ", ?" : "?");
+            }
+            sql.append(')');
+        }
+        return sql.toString();
+    }
+}
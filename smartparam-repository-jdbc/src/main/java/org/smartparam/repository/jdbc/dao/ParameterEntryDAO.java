@@ -15,10 +15,10 @@
  */
 package org.smartparam.repository.jdbc.dao;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +37,7 @@ import org.smartparam.engine.core.index.Star;
 import org.smartparam.engine.core.parameter.level.Level;
 import org.smartparam.engine.core.parameter.Parameter;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.types.string.StringType;
 import org.smartparam.repository.jdbc.config.DefaultJdbcConfig;
 import org.smartparam.repository.jdbc.model.JdbcParameter;
 import org.smartparam.repository.jdbc.model.JdbcParameterEntry;
@@ -60,7 +61,7 @@ public class ParameterEntryDAO {
 
     public List<Long> insert(QueryRunner queryRunner, Iterable<ParameterEntry> parameterEntries, long parameterId) {
         int maxDistinctLevels = configuration.levelColumnCount();
-        List<Long> insertedEntriesIds = new LinkedList<Long>();
+        List<Long> insertedEntriesIds = new ArrayList<Long>();
 
         InsertQuery query;
         int levelIndex;
@@ -85,6 +86,24 @@ public class ParameterEntryDAO {
         return insertedEntriesIds;
     }
 
+    /**
+     * Returns values of level columns for given entry, excess levels are concatenated
+     * into last column, columns without matching level are null.
+     */
+    String[] levelColumns(ParameterEntry entry) {
+        int maxDistinctLevels = configuration.levelColumnCount();
+        String[] levels = entry.getLevels();
+        String[] columns = new String[maxDistinctLevels];
+
+        System.arraycopy(levels, 0, columns, 0, Math.min(levels.length, maxDistinctLevels - 1));
+        if (levels.length > maxDistinctLevels) {
+            columns[maxDistinctLevels - 1] = concatenateLastLevels(levels, maxDistinctLevels);
+        } else if (levels.length == maxDistinctLevels) {
+            columns[maxDistinctLevels - 1] = levels[maxDistinctLevels - 1];
+        }
+        return columns;
+    }
+
     private String concatenateLastLevels(String[] entryLevels, int maxDistinctLevels) {
         String[] excessLevels = Arrays.copyOfRange(entryLevels, maxDistinctLevels - 1, entryLevels.length);
         return StringUtils.concatenate(configuration.excessLevelsSeparator(), (Object[]) excessLevels);
@@ -199,6 +218,39 @@ public class ParameterEntryDAO {
         return queryRunner.queryList(query, new ParameterEntryMapper(configuration));
     }
 
+    /**
+     * Returns entries matching given level values. Levels of string type using
+     * default matcher are compared in query (value or star) to select
+     * candidates, patterns of other levels can not be compared in portable way,
+     * as is last level column holding concatenated levels. Candidates are then
+     * matched on all input levels by {@link ParameterEntryMatcher}.
+     *
+     * @throws org.smartparam.repository.jdbc.exception.JdbcRepositoryException if parameter uses type or matcher repository does not know
+     */
+    public Set<ParameterEntry> find(QueryRunner queryRunner, JdbcParameter parameter, String[] levelValues) {
+        ParameterEntryMatcher matcher = ParameterEntryMatcher.forParameter(parameter);
+
+        SelectQuery query = QueryFactory.selectAll().from(configuration.parameterEntryEntityName())
+                .where("fk_parameter = :parameterId")
+                .withArgument("parameterId", parameter.getId());
+
+        List<Level> levels = parameter.getLevels();
+        int matchedLevels = Math.min(Math.min(levelValues.length, levels.size()), configuration.levelColumnCount() - 1);
+        for (int levelIndex = 0; levelIndex < matchedLevels; ++levelIndex) {
+            if (levelValues[levelIndex] != null && matchableInQuery(levels.get(levelIndex))) {
+                query.append(" and (" + level(levelIndex) + " = :" + level(levelIndex)
+                        + " or " + level(levelIndex) + " = '" + Star.SYMBOL + "')");
+                query.withArgument(level(levelIndex), levelValues[levelIndex]);
+            }
+        }
+
+        return matcher.match(queryRunner.querySet(query, new ParameterEntryMapper(configuration)), levelValues);
+    }
+
+    private boolean matchableInQuery(Level level) {
+        return (level.getMatcher() == null || level.getMatcher().isEmpty()) && StringType.TYPE_NAME.equals(level.getType());
+    }
+
     private Map<String, Integer> createLevelIndex(Parameter parameter) {
         Map<String, Integer> levelIndexMap = new HashMap<String, Integer>();
         int levelIndex = 0;
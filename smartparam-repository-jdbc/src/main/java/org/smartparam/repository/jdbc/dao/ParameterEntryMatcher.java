@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.dao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.smartparam.engine.core.index.FastLevelIndexWalker;
+import org.smartparam.engine.core.index.LevelIndex;
+import org.smartparam.engine.core.matcher.Matcher;
+import org.smartparam.engine.core.parameter.Parameter;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.core.parameter.level.Level;
+import org.smartparam.engine.core.prepared.InputValueNormalizer;
+import org.smartparam.engine.core.type.Type;
+import org.smartparam.engine.matchers.BetweenMatcher;
+import org.smartparam.engine.matchers.MatchAllMatcher;
+import org.smartparam.engine.matchers.StrictMatcher;
+import org.smartparam.engine.matchers.StringMatcher;
+import org.smartparam.engine.matchers.TypeMatcher;
+import org.smartparam.engine.types.bool.BooleanType;
+import org.smartparam.engine.types.date.DateType;
+import org.smartparam.engine.types.integer.IntegerType;
+import org.smartparam.engine.types.number.NumberType;
+import org.smartparam.engine.types.string.StringType;
+import org.smartparam.repository.jdbc.exception.JdbcRepositoryException;
+
+/**
+ * Chooses entries matching query values among candidates selected in database,
+ * the same way engine index does it: candidates are put in small, throwaway
+ * index and searched with query values. This way levels that can not be
+ * compared in SQL (other types, range matchers) are matched properly and exact
+ * values win over defaults.
+ *
+ * Repository has no access to types and matchers registered in engine, so only
+ * built-in ones are known. Lookup of parameter using any other type or matcher
+ * on input level is refused, such parameter has to be cacheable.
+ *
+ * @author Adam Dubiel
+ */
+class ParameterEntryMatcher {
+
+    private static final Map<String, Type<?>> TYPES = new HashMap<String, Type<?>>();
+
+    private static final Map<String, Matcher> MATCHERS = new HashMap<String, Matcher>();
+
+    static {
+        TYPES.put(StringType.TYPE_NAME, new StringType());
+        TYPES.put(IntegerType.TYPE_NAME, new IntegerType());
+        TYPES.put(NumberType.TYPE_NAME, new NumberType());
+        TYPES.put(DateType.TYPE_NAME, new DateType());
+        TYPES.put(BooleanType.TYPE_NAME, new BooleanType());
+
+        MATCHERS.put(BetweenMatcher.BETWEEN_IE, new BetweenMatcher(true, false, null));
+        MATCHERS.put(BetweenMatcher.BETWEEN_EI, new BetweenMatcher(false, true, null));
+        MATCHERS.put(BetweenMatcher.BETWEEN_II, new BetweenMatcher(true, true, null));
+        MATCHERS.put(BetweenMatcher.BETWEEN_EE, new BetweenMatcher(false, false, null));
+        MATCHERS.put(StrictMatcher.STRICT, new StrictMatcher());
+        MATCHERS.put(StringMatcher.STRING, new StringMatcher());
+        MATCHERS.put(TypeMatcher.TYPE, new TypeMatcher());
+        MATCHERS.put(MatchAllMatcher.MATCH_ALL, new MatchAllMatcher());
+    }
+
+    private final int inputLevels;
+
+    private final Type<?>[] types;
+
+    private final Matcher[] matchers;
+
+    private ParameterEntryMatcher(int inputLevels, Type<?>[] types, Matcher[] matchers) {
+        this.inputLevels = inputLevels;
+        this.types = types;
+        this.matchers = matchers;
+    }
+
+    /**
+     * @throws JdbcRepositoryException if any input level uses type or matcher that is not built-in
+     */
+    static ParameterEntryMatcher forParameter(Parameter parameter) {
+        int inputLevels = parameter.getInputLevels();
+        List<Level> levels = parameter.getLevels();
+        Type<?>[] types = new Type<?>[inputLevels];
+        Matcher[] matchers = new Matcher[inputLevels];
+
+        for (int levelIndex = 0; levelIndex < inputLevels; ++levelIndex) {
+            Level level = levels.get(levelIndex);
+            types[levelIndex] = TYPES.get(level.getType());
+            if (types[levelIndex] == null) {
+                throw unsupportedLevel(parameter, levelIndex, "type " + level.getType());
+            }
+            if (level.getMatcher() != null && !level.getMatcher().isEmpty()) {
+                matchers[levelIndex] = MATCHERS.get(level.getMatcher());
+                if (matchers[levelIndex] == null) {
+                    throw unsupportedLevel(parameter, levelIndex, "matcher " + level.getMatcher());
+                }
+            }
+        }
+        return new ParameterEntryMatcher(inputLevels, types, matchers);
+    }
+
+    private static JdbcRepositoryException unsupportedLevel(Parameter parameter, int levelIndex, String unsupported) {
+        return new JdbcRepositoryException(String.format("Can not find entries of parameter %s in repository, input level %d uses %s"
+                + " which repository does not know. Make parameter cacheable.", parameter.getName(), levelIndex + 1, unsupported));
+    }
+
+    Set<ParameterEntry> match(Collection<ParameterEntry> candidates, String[] levelValues) {
+        LevelIndex<ParameterEntry> index = new LevelIndex<ParameterEntry>(inputLevels, types, matchers);
+        for (ParameterEntry candidate : candidates) {
+            String[] keys = Arrays.copyOf(candidate.getLevels(), inputLevels);
+            for (int levelIndex = 0; levelIndex < inputLevels; ++levelIndex) {
+                if (matchers[levelIndex] == null) {
+                    keys[levelIndex] = InputValueNormalizer.normalize(types[levelIndex], keys[levelIndex]);
+                }
+            }
+            index.add(keys, candidate);
+        }
+        index.buildIntervalIndexes();
+
+        List<ParameterEntry> found = new FastLevelIndexWalker<ParameterEntry>(index, Arrays.copyOf(levelValues, inputLevels)).find();
+        return found != null ? new HashSet<ParameterEntry>(found) : new HashSet<ParameterEntry>();
+    }
+}
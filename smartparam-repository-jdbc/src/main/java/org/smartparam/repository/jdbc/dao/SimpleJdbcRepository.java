@@ -58,12 +58,23 @@ public class SimpleJdbcRepository implements JdbcRepository {
 
     @Override
     public long createParameter(QueryRunner runner, Parameter parameter) {
+        long parameterId = createParameterMetadata(runner, parameter);
+        parameterEntryDAO.insert(runner, parameter.getEntries(), parameterId);
+        return parameterId;
+    }
+
+    @Override
+    public long createParameterMetadata(QueryRunner runner, Parameter parameter) {
         long parameterId = parameterDAO.insert(runner, parameter);
         levelDAO.insertParameterLevels(runner, parameter.getLevels(), parameterId);
-        parameterEntryDAO.insert(runner, parameter.getEntries(), parameterId);
         return parameterId;
     }
 
+    @Override
+    public void touchParameter(QueryRunner runner, String parameterName) {
+        parameterDAO.touch(runner, parameterName);
+    }
+
     @Override
     public boolean parameterExists(QueryRunner runner, String parameterName) {
         return parameterDAO.parameterExists(parameterName);
@@ -161,6 +172,11 @@ public class SimpleJdbcRepository implements JdbcRepository {
         return parameterEntryDAO.list(runner, parameter, filter);
     }
 
+    @Override
+    public Set<ParameterEntry> findEntries(QueryRunner runner, JdbcParameter parameter, String[] levelValues) {
+        return parameterEntryDAO.find(runner, parameter, levelValues);
+    }
+
     @Override
     public long addParameterEntry(QueryRunner runner, String parameterName, ParameterEntry entry) {
         JdbcParameter parameter = parameterDAO.getParameter(runner, parameterName);
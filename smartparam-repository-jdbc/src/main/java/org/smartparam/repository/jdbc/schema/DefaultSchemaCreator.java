@@ -114,10 +114,29 @@ public class DefaultSchemaCreator implements SchemaCreator {
 
             schema.addIndex(index(relationName) + "_id").indexing("id").on(relationName).build();
             schema.addIndex(index(relationName) + "_parameter").indexing(foreignKey("parameter")).on(relationName).build();
+            createEntryLookupIndex(schema, relationName);
             schema.addSequence(config.parameterEntrySequenceName()).build();
         }
     }
 
+    /**
+     * Index used when looking up entries of noncacheable parameter, last level
+     * column is never indexed as it might hold concatenated levels.
+     */
+    protected void createEntryLookupIndex(Schema schema, String relationName) {
+        int indexedLevels = Math.min(config.lookupIndexLevelCount(), config.levelColumnCount() - 1);
+        if (indexedLevels <= 0) {
+            return;
+        }
+
+        String[] columns = new String[indexedLevels + 1];
+        columns[0] = foreignKey("parameter");
+        for (int levelIndex = 0; levelIndex < indexedLevels; ++levelIndex) {
+            columns[levelIndex + 1] = "level" + levelIndex;
+        }
+        schema.addIndex(index(relationName) + "_lookup").indexing(columns).on(relationName).build();
+    }
+
     protected String primaryKey(String sufix) {
         return config.foreignKeyPrefix() + sufix;
     }
@@ -16,12 +16,18 @@
 package org.smartparam.repository.jdbc;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 import org.smartparam.engine.core.parameter.ParameterBatchLoader;
 import org.smartparam.engine.core.parameter.level.Level;
 import org.smartparam.engine.core.parameter.Parameter;
 import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.engine.core.parameter.entry.ParameterEntryKey;
+import org.smartparam.repository.jdbc.exception.JdbcRepositoryException;
 import org.testng.annotations.Test;
 
+import static com.googlecode.catchexception.CatchException.catchException;
+import static com.googlecode.catchexception.CatchException.caughtException;
 import static org.smartparam.engine.test.ParamEngineAssertions.assertThat;
 import static org.smartparam.engine.core.parameter.level.LevelTestBuilder.level;
 import static org.smartparam.engine.core.parameter.entry.ParameterEntryTestBuilder.parameterEntry;
@@ -104,4 +110,169 @@ public class JdbcParamRepositoryTest extends DatabaseTest {
         // then
         assertDatabase().hasParameter("parameter").hasEntriesForParameter("parameter", 2).close();
     }
+
+    @Test
+    public void shouldReturnKeysOfEntriesAddedToExistingParameter() {
+        // given
+        database().withParameter("parameter").withLevels("parameter", 1).build();
+        ParameterEntry[] entries = new ParameterEntry[]{parameterEntry().withLevels("A").build(), parameterEntry().withLevels("B").build()};
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+
+        // when
+        List<ParameterEntryKey> keys = repository.addEntries("parameter", Arrays.asList(entries));
+
+        // then
+        assertThat(keys).hasSize(2);
+        assertDatabase().hasParameter("parameter").hasEntriesForParameter("parameter", 2).close();
+    }
+
+    @Test
+    public void shouldFindEntriesMatchingValuesOrDefaultValue() {
+        // given
+        Level[] levels = new Level[]{level().withName("lvl1").withType("string").build(), level().withName("lvl2").withType("string").build()};
+        ParameterEntry[] entries = new ParameterEntry[]{
+            parameterEntry().withLevels("A", "X").build(),
+            parameterEntry().withLevels("*", "X").build(),
+            parameterEntry().withLevels("B", "X").build()
+        };
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.write(parameter().withName("parameter").withLevels(levels).withEntries(entries).build());
+
+        // when
+        Set<ParameterEntry> foundEntries = repository.findEntries("parameter", new String[]{"A", "X"});
+
+        // then
+        assertThat(foundEntries).hasSize(2);
+    }
+
+    @Test
+    public void shouldPreferExactValueOverDefaultValueWhenAllInputLevelsAreCompared() {
+        // given
+        Level[] levels = new Level[]{
+            level().withName("lvl1").withType("string").build(),
+            level().withName("lvl2").withType("string").build(),
+            level().withName("value").withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+            parameterEntry().withLevels("A", "*", "A*").build(),
+            parameterEntry().withLevels("*", "X", "*X").build(),
+            parameterEntry().withLevels("A", "Y", "AY").build()
+        };
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.write(parameter().withName("parameter").withInputLevels(2).withLevels(levels).withEntries(entries).build());
+
+        // when
+        Set<ParameterEntry> foundEntries = repository.findEntries("parameter", new String[]{"A", "X"});
+
+        // then
+        assertThat(foundEntries).hasSize(1);
+        assertThat(foundEntries.iterator().next().getLevels()[2]).isEqualTo("A*");
+    }
+
+    @Test
+    public void shouldMatchLevelsThatCanNotBeComparedInQuery() {
+        // given
+        Level[] levels = new Level[]{
+            level().withName("lvl1").withType("integer").build(),
+            level().withName("value").withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+            parameterEntry().withLevels("1", "one").build(),
+            parameterEntry().withLevels("02", "two").build(),
+            parameterEntry().withLevels("*", "default").build()
+        };
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.write(parameter().withName("parameter").withInputLevels(1).withLevels(levels).withEntries(entries).build());
+
+        // when
+        Set<ParameterEntry> foundEntries = repository.findEntries("parameter", new String[]{"2"});
+
+        // then
+        assertThat(foundEntries).hasSize(1);
+        assertThat(foundEntries.iterator().next().getLevels()[1]).isEqualTo("two");
+    }
+
+    @Test
+    public void shouldMatchRangeLevels() {
+        // given
+        Level[] levels = new Level[]{
+            level().withName("lvl1").withType("integer").withMatcher("between/ie").build(),
+            level().withName("value").withType("string").build()
+        };
+        ParameterEntry[] entries = new ParameterEntry[]{
+            parameterEntry().withLevels("1-5", "low").build(),
+            parameterEntry().withLevels("5-10", "high").build(),
+            parameterEntry().withLevels("*", "default").build()
+        };
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.write(parameter().withName("parameter").withInputLevels(1).withLevels(levels).withEntries(entries).build());
+
+        // when
+        Set<ParameterEntry> foundEntries = repository.findEntries("parameter", new String[]{"5"});
+
+        // then
+        assertThat(foundEntries).hasSize(1);
+        assertThat(foundEntries.iterator().next().getLevels()[1]).isEqualTo("high");
+    }
+
+    @Test
+    public void shouldRefuseToFindEntriesOfParameterUsingUnknownMatcher() {
+        // given
+        Level[] levels = new Level[]{
+            level().withName("lvl1").withType("string").withMatcher("custom").build(),
+            level().withName("value").withType("string").build()
+        };
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.write(parameter().withName("parameter").withInputLevels(1).withLevels(levels)
+                .withEntries(parameterEntry().withLevels("A", "a").build()).build());
+
+        // when
+        catchException(repository).findEntries("parameter", new String[]{"A"});
+
+        // then
+        assertThat((Exception) caughtException()).isInstanceOf(JdbcRepositoryException.class);
+    }
+
+    @Test
+    public void shouldFindEntriesAddedAfterPreviousLookup() {
+        // given
+        Level[] levels = new Level[]{level().withName("lvl1").withType("string").build()};
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.write(parameter().withName("parameter").withLevels(levels).withEntries(parameterEntry().withLevels("A").build()).build());
+        repository.findEntries("parameter", new String[]{"A"});
+
+        // when
+        repository.addEntries("parameter", Arrays.asList(parameterEntry().withLevels("*").build()));
+        Set<ParameterEntry> foundEntries = repository.findEntries("parameter", new String[]{"A"});
+
+        // then
+        assertThat(foundEntries).hasSize(2);
+    }
+
+    @Test
+    public void shouldNotCacheFoundEntriesByDefault() {
+        // given
+        database().withParameter("parameter").withLevels("parameter", 1).withParameterEntries("parameter", 1).build();
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+        repository.findEntries("parameter", new String[]{"entry1"});
+
+        // when
+        database().withParameterEntries("parameter", 2).build();
+        Set<ParameterEntry> foundEntries = repository.findEntries("parameter", new String[]{"entry1"});
+
+        // then
+        assertThat(foundEntries).hasSize(1);
+    }
+
+    @Test
+    public void shouldReturnNullWhenLookingForEntriesOfUnknownParameter() {
+        // given
+        JdbcParamRepository repository = get(JdbcParamRepository.class);
+
+        // when
+        Set<ParameterEntry> foundEntries = repository.findEntries("unknown", new String[]{"A"});
+
+        // then
+        assertThat(foundEntries).isNull();
+    }
 }
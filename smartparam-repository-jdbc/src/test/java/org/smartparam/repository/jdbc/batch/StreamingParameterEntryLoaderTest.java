@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 Adam Dubiel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.batch;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.sql.DataSource;
+import org.polyjdbc.core.query.QueryRunner;
+import org.smartparam.engine.core.parameter.ParamBatchLoadingException;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.repository.jdbc.DatabaseTest;
+import org.smartparam.repository.jdbc.config.DefaultJdbcConfig;
+import org.smartparam.repository.jdbc.config.JdbcConfigBuilder;
+import org.smartparam.repository.jdbc.dao.ParameterDAO;
+import org.testng.annotations.Test;
+
+import static com.googlecode.catchexception.CatchException.catchException;
+import static com.googlecode.catchexception.CatchException.caughtException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+public class StreamingParameterEntryLoaderTest extends DatabaseTest {
+
+    @Override
+    protected void customizeConfiguraion(JdbcConfigBuilder builder) {
+        builder.withEntryFetchSize(10);
+    }
+
+    @Test
+    public void shouldReturnNoEntriesForParameterWithoutEntries() {
+        // given
+        database().withParameter("parameter").build();
+        StreamingParameterEntryLoader loader = get(JdbcParameterEntryBatchLoaderFactory.class).stream(parameterId("parameter"));
+
+        // when
+        boolean hasMore = loader.hasMore();
+        loader.close();
+
+        // then
+        assertThat(hasMore).isFalse();
+    }
+
+    @Test
+    public void shouldLoadAllEntriesInBatchesOfGivenSize() {
+        // given
+        database().withParameter("parameter").withParameterEntries("parameter", 110).build();
+        StreamingParameterEntryLoader loader = get(JdbcParameterEntryBatchLoaderFactory.class).stream(parameterId("parameter"));
+
+        // when
+        List<Integer> batchSizes = new ArrayList<Integer>();
+        while (loader.hasMore()) {
+            batchSizes.add(loader.nextBatch(50).size());
+        }
+        loader.close();
+
+        // then
+        assertThat(batchSizes).containsExactly(50, 50, 10);
+    }
+
+    @Test
+    public void shouldIterateOverAllEntriesWhenPrefetchingInBackground() {
+        // given
+        database().withParameter("parameter").withParameterEntries("parameter", 55).build();
+        ParameterEntryCursor cursor = new ParameterEntryCursor(get(DataSource.class), get(DefaultJdbcConfig.class), parameterId("parameter"));
+        StreamingParameterEntryLoader loader = new StreamingParameterEntryLoader(cursor, 10, 2);
+
+        // when
+        Collection<ParameterEntry> entries = new ArrayList<ParameterEntry>();
+        while (loader.hasNext()) {
+            entries.add(loader.next());
+        }
+        loader.close();
+
+        // then
+        assertThat(entries).hasSize(55);
+    }
+
+    @Test
+    public void shouldStopReadingWhenClosedBeforeReadingAllEntries() {
+        // given
+        database().withParameter("parameter").withParameterEntries("parameter", 55).build();
+        ParameterEntryCursor cursor = new ParameterEntryCursor(get(DataSource.class), get(DefaultJdbcConfig.class), parameterId("parameter"));
+        StreamingParameterEntryLoader loader = new StreamingParameterEntryLoader(cursor, 10, 1);
+        loader.next();
+
+        // when
+        loader.close();
+
+        // then
+        assertThat(loader.hasMore()).isFalse();
+    }
+
+    @Test
+    public void shouldReportPrefetchFailureOnEachCallAfterItOccurred() throws SQLException {
+        // given
+        ParameterEntryCursor cursor = mock(ParameterEntryCursor.class);
+        when(cursor.next()).thenThrow(new SQLException("connection lost"));
+        StreamingParameterEntryLoader loader = new StreamingParameterEntryLoader(cursor, 10, 1);
+        catchException(loader).hasNext();
+
+        // when
+        catchException(loader).hasNext();
+
+        // then
+        assertThat(caughtException()).isInstanceOf(ParamBatchLoadingException.class);
+    }
+
+    private long parameterId(String parameterName) {
+        QueryRunner runner = queryRunner();
+        long parameterId = get(ParameterDAO.class).getParameter(runner, parameterName).getId();
+        runner.close();
+        return parameterId;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013 Adam Dubiel, Przemek Hertel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.smartparam.repository.jdbc.dao;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.polyjdbc.core.query.QueryRunner;
+import org.smartparam.engine.core.parameter.entry.ParameterEntry;
+import org.smartparam.repository.jdbc.DatabaseTest;
+import org.smartparam.repository.jdbc.config.JdbcConfigBuilder;
+import org.smartparam.repository.jdbc.model.JdbcParameter;
+import org.smartparam.repository.jdbc.model.JdbcParameterEntry;
+import org.testng.annotations.Test;
+
+import static org.smartparam.engine.core.parameter.entry.ParameterEntryTestBuilder.parameterEntry;
+import static org.smartparam.engine.test.Iterables.onlyElement;
+import static org.smartparam.engine.test.ParamEngineAssertions.*;
+
+/**
+ *
+ * @author Adam Dubiel
+ */
+@Test(groups = "integration")
+public class ParameterEntryBulkWriterTest extends DatabaseTest {
+
+    @Override
+    protected void customizeConfiguraion(JdbcConfigBuilder builder) {
+        builder.withExcessLevelSeparator('|').withLevelColumnCount(2)
+                .withBulkInsertBatchSize(3).withMultiRowInsertSize(2);
+    }
+
+    @Test
+    public void shouldInsertAllEntriesSpanningMultipleBatches() {
+        // given
+        database().withParameter("parameter").build();
+        ParameterEntryBulkWriter bulkWriter = get(ParameterEntryBulkWriter.class);
+        long parameterId = parameterId("parameter");
+
+        List<ParameterEntry> entries = Arrays.asList(
+                parameterEntry().withLevels("1").build(),
+                parameterEntry().withLevels("2").build(),
+                parameterEntry().withLevels("3").build(),
+                parameterEntry().withLevels("4").build(),
+                parameterEntry().withLevels("5").build(),
+                parameterEntry().withLevels("6").build(),
+                parameterEntry().withLevels("7").build());
+
+        // when
+        List<Long> ids = bulkWriter.insert(parameterId, entries);
+
+        // then
+        assertThat(ids).hasSize(7).doesNotHaveDuplicates();
+        assertDatabase().hasEntriesForParameter("parameter", 7).close();
+    }
+
+    @Test
+    public void shouldReturnIdsInSameOrderAsInsertedEntries() {
+        // given
+        database().withParameter("parameter").build();
+        ParameterEntryBulkWriter bulkWriter = get(ParameterEntryBulkWriter.class);
+        long parameterId = parameterId("parameter");
+
+        List<ParameterEntry> entries = Arrays.asList(
+                parameterEntry().withLevels("A").build(),
+                parameterEntry().withLevels("B").build(),
+                parameterEntry().withLevels("C").build(),
+                parameterEntry().withLevels("D").build());
+
+        // when
+        List<Long> ids = bulkWriter.insert(parameterId, entries);
+
+        QueryRunner runner = queryRunner();
+        List<ParameterEntry> insertedEntries = get(ParameterEntryDAO.class).getParameterEntries(runner, ids);
+        runner.close();
+
+        // then
+        assertThat(insertedEntries.get(0)).levelAtEquals(0, "A");
+        assertThat(insertedEntries.get(1)).levelAtEquals(0, "B");
+        assertThat(insertedEntries.get(2)).levelAtEquals(0, "C");
+        assertThat(insertedEntries.get(3)).levelAtEquals(0, "D");
+    }
+
+    @Test
+    public void shouldConcatenateContentsOfExcessLevelsInLastLevel() {
+        // given
+        database().withParameter("parameter").build();
+        ParameterEntryBulkWriter bulkWriter = get(ParameterEntryBulkWriter.class);
+        long parameterId = parameterId("parameter");
+
+        // when
+        bulkWriter.insert(parameterId, Arrays.asList(parameterEntry().withLevels("1", "2", "3", "4").build()));
+
+        QueryRunner runner = queryRunner();
+        Set<JdbcParameterEntry> entries = get(ParameterEntryDAO.class).getJdbcParameterEntries(runner, "parameter");
+        runner.close();
+
+        // then
+        assertThat(onlyElement(entries)).hasLevels(4).levelAtEquals(2, "3").levelAtEquals(3, "4");
+    }
+
+    private long parameterId(String parameterName) {
+        QueryRunner runner = queryRunner();
+        JdbcParameter parameter = get(ParameterDAO.class).getParameter(runner, parameterName);
+        runner.close();
+        return parameter.getId();
+    }
+}
@@ -83,6 +83,9 @@ public class InMemoryParamRepository implements ParamRepository, ViewableParamRe
     @Override
     public ParameterBatchLoader batchLoad(String parameterName) {
         Parameter parameter = load(parameterName);
+        if (parameter == null) {
+            return null;
+        }
         return new ParameterBatchLoader(parameter, new InMemoryParameterEntryBatchLoader(parameter));
     }
 